@@ -28,6 +28,7 @@ package net.objectzoo.delegates;
 
 import net.objectzoo.delegates.adapters.Action0ToAction0Async;
 
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
@@ -83,4 +84,20 @@ public interface Action0Async
      * @return the {@link ActionAsyncResult} associated with this asynchronous invocation
      */
     public ActionAsyncResult beginStart(Consumer<ActionAsyncResult> callback, Object asyncState);
+
+    /**
+     * Asynchronously invoke this {@code Action0Async} and return a {@link CompletionStage} of the
+     * completion of the invocation.
+     * <p>
+     * The returned stage completes when the invocation completes and allows composing further
+     * processing without waiting for the invocation in a blocking call.
+     *
+     * @return the {@link CompletionStage} of this asynchronous invocation
+     * @see ActionAsyncResult#toCompletionStage()
+     */
+    public default CompletionStage<Void> beginStartStage()
+    {
+        return beginStart(null, null).toCompletionStage()
+            .thenApply(result -> null);
+    }
 }
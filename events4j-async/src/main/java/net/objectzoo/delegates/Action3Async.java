@@ -27,7 +27,10 @@
 package net.objectzoo.delegates;
 
 import net.objectzoo.delegates.adapters.Action3ToAction3Async;
+import net.objectzoo.delegates.impl.AsyncBatch;
 
+import java.util.List;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
@@ -97,4 +100,82 @@ public interface Action3Async<T1, T2, T3>
      */
     public ActionAsyncResult beginAccept(Consumer<ActionAsyncResult> callback, Object asyncState,
                                          T1 parameter1, T2 parameter2, T3 parameter3);
+
+    /**
+     * Asynchronously invoke this {@code Action3Async} with the given parameter values and return a
+     * {@link CompletionStage} of the completion of the invocation.
+     * <p>
+     * The returned stage completes when the invocation completes and allows composing further
+     * processing without waiting for the invocation in a blocking call.
+     *
+     * @param parameter1 the first parameter's value for the invocation
+     * @param parameter2 the second parameter's value for the invocation
+     * @param parameter3 the third parameter's value for the invocation
+     * @return the {@link CompletionStage} of this asynchronous invocation
+     * @see ActionAsyncResult#toCompletionStage()
+     */
+    public default CompletionStage<Void> beginAcceptStage(T1 parameter1, T2 parameter2,
+                                                          T3 parameter3)
+    {
+        return beginAccept(null, null, parameter1, parameter2, parameter3).toCompletionStage()
+            .thenApply(result -> null);
+    }
+
+    /**
+     * Asynchronously invoke this {@code Action3Async} once for each element of the
+     * given parameter values with a single aggregate result. The parameter values at the same
+     * position of the given parameters form the parameters of an element.
+     * <p>
+     * The elements are split into chunks of up to {@code chunkSize} consecutive elements that are
+     * each performed as a single asynchronous task. Implementations without a way to combine
+     * invocations, like this default implementation, invoke each element separately using
+     * {@link #beginAccept}.
+     *
+     * @param callback    the {@link Consumer}, if given, is invoked upon completion of all
+     *                    elements and receives the returned aggregate result
+     * @param asyncState  an arbitrary reference that, if given, can be retrieved from the
+     *                    aggregate result
+     * @param parameter1s the first parameter's values of the elements
+     * @param parameter2s the second parameter's values of the elements
+     * @param parameter3s the third parameter's values of the elements
+     * @param chunkSize   the maximum number of elements performed in a single task
+     * @return the aggregate {@link ActionAsyncResult} of all elements
+     * @throws IllegalArgumentException if the chunkSize is not positive or the parameters have a
+     *                                  different number of elements
+     */
+    @SuppressWarnings("unchecked")
+    public default ActionAsyncResult beginAcceptAll(Consumer<ActionAsyncResult> callback,
+                                                    Object asyncState,
+                                                    Iterable<? extends T1> parameter1s,
+                                                    Iterable<? extends T2> parameter2s,
+                                                    Iterable<? extends T3> parameter3s,
+                                                    int chunkSize)
+    {
+        Object[][] values = AsyncBatch.toArrays(parameter1s, parameter2s, parameter3s);
+        return AsyncBatch.collectActions(values[0].length, chunkSize,
+            index -> beginAccept(null, null, (T1) values[0][index], (T2) values[1][index],
+                (T3) values[2][index]),
+            callback, asyncState);
+    }
+
+    /**
+     * Asynchronously invoke this {@code Action3Async} once for each element of the
+     * given parameter values with a single aggregate result.
+     *
+     * @param parameter1s the first parameter's values of the elements
+     * @param parameter2s the second parameter's values of the elements
+     * @param parameter3s the third parameter's values of the elements
+     * @param chunkSize   the maximum number of elements performed in a single task
+     * @return the aggregate {@link ActionAsyncResult} of all elements
+     * @throws IllegalArgumentException if the chunkSize is not positive or the parameters have a
+     *                                  different number of elements
+     * @see #beginAcceptAll(Consumer, Object, Iterable, Iterable, Iterable, int)
+     */
+    public default ActionAsyncResult beginAcceptAll(Iterable<? extends T1> parameter1s,
+                                                    Iterable<? extends T2> parameter2s,
+                                                    Iterable<? extends T3> parameter3s,
+                                                    int chunkSize)
+    {
+        return beginAcceptAll(null, null, parameter1s, parameter2s, parameter3s, chunkSize);
+    }
 }
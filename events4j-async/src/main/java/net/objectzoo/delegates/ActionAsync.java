@@ -27,7 +27,10 @@
 package net.objectzoo.delegates;
 
 import net.objectzoo.delegates.adapters.ActionToActionAsync;
+import net.objectzoo.delegates.impl.AsyncBatch;
 
+import java.util.List;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
@@ -88,4 +91,66 @@ public interface ActionAsync<T>
      */
     public ActionAsyncResult beginAccept(Consumer<ActionAsyncResult> callback, Object asyncState,
                                          T parameter);
+
+    /**
+     * Asynchronously invoke this {@code ActionAsync} with the given parameter value and return a
+     * {@link CompletionStage} of the completion of the invocation.
+     * <p>
+     * The returned stage completes when the invocation completes and allows composing further
+     * processing without waiting for the invocation in a blocking call.
+     *
+     * @param parameter the parameter value for the invocation
+     * @return the {@link CompletionStage} of this asynchronous invocation
+     * @see ActionAsyncResult#toCompletionStage()
+     */
+    public default CompletionStage<Void> beginAcceptStage(T parameter)
+    {
+        return beginAccept(null, null, parameter).toCompletionStage()
+            .thenApply(result -> null);
+    }
+
+    /**
+     * Asynchronously invoke this {@code ActionAsync} once for each element of the
+     * given parameter values with a single aggregate result.
+     * <p>
+     * The elements are split into chunks of up to {@code chunkSize} consecutive elements that are
+     * each performed as a single asynchronous task. Implementations without a way to combine
+     * invocations, like this default implementation, invoke each element separately using
+     * {@link #beginAccept}.
+     *
+     * @param callback   the {@link Consumer}, if given, is invoked upon completion of all
+     *                   elements and receives the returned aggregate result
+     * @param asyncState an arbitrary reference that, if given, can be retrieved from the
+     *                   aggregate result
+     * @param parameters the parameter values of the elements
+     * @param chunkSize  the maximum number of elements performed in a single task
+     * @return the aggregate {@link ActionAsyncResult} of all elements
+     * @throws IllegalArgumentException if the chunkSize is not positive or the parameters have a
+     *                                  different number of elements
+     */
+    @SuppressWarnings("unchecked")
+    public default ActionAsyncResult beginAcceptAll(Consumer<ActionAsyncResult> callback,
+                                                    Object asyncState,
+                                                    Iterable<? extends T> parameters, int chunkSize)
+    {
+        Object[] values = AsyncBatch.toArrays(parameters)[0];
+        return AsyncBatch.collectActions(values.length, chunkSize,
+            index -> beginAccept(null, null, (T) values[index]), callback, asyncState);
+    }
+
+    /**
+     * Asynchronously invoke this {@code ActionAsync} once for each element of the
+     * given parameter values with a single aggregate result.
+     *
+     * @param parameters the parameter values of the elements
+     * @param chunkSize  the maximum number of elements performed in a single task
+     * @return the aggregate {@link ActionAsyncResult} of all elements
+     * @throws IllegalArgumentException if the chunkSize is not positive or the parameters have a
+     *                                  different number of elements
+     * @see #beginAcceptAll(Consumer, Object, Iterable, int)
+     */
+    public default ActionAsyncResult beginAcceptAll(Iterable<? extends T> parameters, int chunkSize)
+    {
+        return beginAcceptAll(null, null, parameters, chunkSize);
+    }
 }
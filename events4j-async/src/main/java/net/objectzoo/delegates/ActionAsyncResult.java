@@ -27,6 +27,9 @@
 package net.objectzoo.delegates;
 
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -112,4 +115,36 @@ public interface ActionAsyncResult
      * @return {@code true} if this {@code ActionAsync} completed
      */
     boolean isDone();
+
+    /**
+     * Returns a {@link CompletionStage} that completes when this {@code ActionAsync} completes. It
+     * completes exceptionally with the exception thrown by the {@code ActionAsync} or with a
+     * {@link CancellationException} if the {@code ActionAsync} was cancelled. Completing or
+     * cancelling the returned stage does not affect the invocation.
+     * <p>
+     * The results returned by this library complete the stage without blocking any thread. The
+     * default implementation for other results waits for the completion with {@link #end()} in
+     * a thread of the {@link java.util.concurrent.ForkJoinPool#commonPool()}.
+     *
+     * @return the {@link CompletionStage} of this {@code ActionAsync}
+     */
+    public default CompletionStage<?> toCompletionStage()
+    {
+        return CompletableFuture.supplyAsync(() -> {
+            try
+            {
+                end();
+                return null;
+            }
+            catch (ExecutionException e)
+            {
+                throw new CompletionException(e.getCause());
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+        });
+    }
 }
@@ -0,0 +1,344 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates;
+
+import net.objectzoo.delegates.impl.AsyncScheduler;
+import net.objectzoo.delegates.impl.CompletableAsyncResult;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class provides combinators that aggregate the results of multiple asynchronous invocations
+ * to a single asynchronous result. The aggregate results are completed from completion callbacks
+ * of the given results using a single countdown, no thread blocks waiting for the invocations.
+ * <p>
+ * The callbacks are registered using {@link ActionAsyncResult#toCompletionStage()}, the
+ * aggregate results are therefore completed in the thread that completes the last relevant
+ * invocation. The timed variants complete exceptionally with a {@link TimeoutException} if the
+ * aggregate has not completed within the given time, the invocations themselves are neither
+ * cancelled nor interrupted in that case. The timeouts are scheduled using the
+ * {@link AsyncScheduler#getDefaultScheduler() default scheduler}.
+ *
+ * @author tilmann
+ */
+public final class AsyncResults
+{
+    private AsyncResults()
+    {
+    }
+
+    /**
+     * Aggregates the given results to a result that completes when all of them have completed.
+     * Its return value is the list of their return values in the order of the given results. As
+     * soon as one of the given results completes exceptionally the aggregate completes with its
+     * exception.
+     *
+     * @param <R>     the type of the return values
+     * @param results the results to be aggregated
+     * @return the aggregate result
+     */
+    public static <R> FunctionAsyncResult<List<R>> whenAll(
+        Collection<? extends FunctionAsyncResult<? extends R>> results)
+    {
+        return gather(results, results.size(), true);
+    }
+
+    /**
+     * Aggregates the given results like {@link #whenAll(Collection)} with a timeout.
+     *
+     * @param <R>     the type of the return values
+     * @param results the results to be aggregated
+     * @param timeout the maximum time to wait for the given results
+     * @param unit    the time unit of the timeout argument
+     * @return the aggregate result
+     */
+    public static <R> FunctionAsyncResult<List<R>> whenAll(
+        Collection<? extends FunctionAsyncResult<? extends R>> results, long timeout,
+        TimeUnit unit)
+    {
+        return withTimeout(AsyncResults.<R>gather(results, results.size(), true), timeout, unit);
+    }
+
+    /**
+     * Aggregates the given results to a result that completes as soon as one of them has
+     * completed, with the same return value or exception.
+     *
+     * @param <R>     the type of the return values
+     * @param results the results to be aggregated
+     * @return the aggregate result
+     * @throws IllegalArgumentException if no results are given
+     */
+    public static <R> FunctionAsyncResult<R> whenAny(
+        Collection<? extends FunctionAsyncResult<? extends R>> results)
+        throws IllegalArgumentException
+    {
+        return any(results);
+    }
+
+    /**
+     * Aggregates the given results like {@link #whenAny(Collection)} with a timeout.
+     *
+     * @param <R>     the type of the return values
+     * @param results the results to be aggregated
+     * @param timeout the maximum time to wait for the given results
+     * @param unit    the time unit of the timeout argument
+     * @return the aggregate result
+     * @throws IllegalArgumentException if no results are given
+     */
+    public static <R> FunctionAsyncResult<R> whenAny(
+        Collection<? extends FunctionAsyncResult<? extends R>> results, long timeout,
+        TimeUnit unit) throws IllegalArgumentException
+    {
+        return withTimeout(AsyncResults.<R>any(results), timeout, unit);
+    }
+
+    /**
+     * Aggregates the given results to a result that completes as soon as {@code k} of them have
+     * completed successfully, as required for quorum reads. Its return value is the list of
+     * their return values in the order of their completion. As soon as so many of the given
+     * results have completed exceptionally that {@code k} successful results are impossible the
+     * aggregate completes with the last of these exceptions.
+     *
+     * @param <R>     the type of the return values
+     * @param results the results to be aggregated
+     * @param k       the number of successful results required
+     * @return the aggregate result
+     * @throws IllegalArgumentException if k is negative or greater than the number of results
+     */
+    public static <R> FunctionAsyncResult<List<R>> firstK(
+        Collection<? extends FunctionAsyncResult<? extends R>> results, int k)
+        throws IllegalArgumentException
+    {
+        return gather(results, k, false);
+    }
+
+    /**
+     * Aggregates the given results like {@link #firstK(Collection, int)} with a timeout.
+     *
+     * @param <R>     the type of the return values
+     * @param results the results to be aggregated
+     * @param k       the number of successful results required
+     * @param timeout the maximum time to wait for the given results
+     * @param unit    the time unit of the timeout argument
+     * @return the aggregate result
+     * @throws IllegalArgumentException if k is negative or greater than the number of results
+     */
+    public static <R> FunctionAsyncResult<List<R>> firstK(
+        Collection<? extends FunctionAsyncResult<? extends R>> results, int k, long timeout,
+        TimeUnit unit) throws IllegalArgumentException
+    {
+        return withTimeout(AsyncResults.<R>gather(results, k, false), timeout, unit);
+    }
+
+    /**
+     * Aggregates the given action results like {@link #whenAll(Collection)}.
+     *
+     * @param results the results to be aggregated
+     * @return the aggregate result
+     */
+    public static ActionAsyncResult whenAllActions(Collection<? extends ActionAsyncResult> results)
+    {
+        return gather(results, results.size(), true);
+    }
+
+    /**
+     * Aggregates the given action results like {@link #whenAll(Collection, long, TimeUnit)}.
+     *
+     * @param results the results to be aggregated
+     * @param timeout the maximum time to wait for the given results
+     * @param unit    the time unit of the timeout argument
+     * @return the aggregate result
+     */
+    public static ActionAsyncResult whenAllActions(Collection<? extends ActionAsyncResult> results,
+                                                   long timeout, TimeUnit unit)
+    {
+        return withTimeout(gather(results, results.size(), true), timeout, unit);
+    }
+
+    /**
+     * Aggregates the given action results like {@link #whenAny(Collection)}.
+     *
+     * @param results the results to be aggregated
+     * @return the aggregate result
+     * @throws IllegalArgumentException if no results are given
+     */
+    public static ActionAsyncResult whenAnyAction(Collection<? extends ActionAsyncResult> results)
+        throws IllegalArgumentException
+    {
+        return any(results);
+    }
+
+    /**
+     * Aggregates the given action results like {@link #whenAny(Collection, long, TimeUnit)}.
+     *
+     * @param results the results to be aggregated
+     * @param timeout the maximum time to wait for the given results
+     * @param unit    the time unit of the timeout argument
+     * @return the aggregate result
+     * @throws IllegalArgumentException if no results are given
+     */
+    public static ActionAsyncResult whenAnyAction(Collection<? extends ActionAsyncResult> results,
+                                                  long timeout, TimeUnit unit)
+        throws IllegalArgumentException
+    {
+        return withTimeout(any(results), timeout, unit);
+    }
+
+    /**
+     * Aggregates the given action results like {@link #firstK(Collection, int)}.
+     *
+     * @param results the results to be aggregated
+     * @param k       the number of successful results required
+     * @return the aggregate result
+     * @throws IllegalArgumentException if k is negative or greater than the number of results
+     */
+    public static ActionAsyncResult firstKActions(Collection<? extends ActionAsyncResult> results,
+                                                  int k) throws IllegalArgumentException
+    {
+        return gather(results, k, false);
+    }
+
+    /**
+     * Aggregates the given action results like {@link #firstK(Collection, int, long, TimeUnit)}.
+     *
+     * @param results the results to be aggregated
+     * @param k       the number of successful results required
+     * @param timeout the maximum time to wait for the given results
+     * @param unit    the time unit of the timeout argument
+     * @return the aggregate result
+     * @throws IllegalArgumentException if k is negative or greater than the number of results
+     */
+    public static ActionAsyncResult firstKActions(Collection<? extends ActionAsyncResult> results,
+                                                  int k, long timeout, TimeUnit unit)
+        throws IllegalArgumentException
+    {
+        return withTimeout(gather(results, k, false), timeout, unit);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> CompletableAsyncResult<List<R>> gather(
+        Collection<? extends ActionAsyncResult> results, int k, boolean ordered)
+    {
+        int size = results.size();
+        if (k < 0 || k > size)
+        {
+            throw new IllegalArgumentException("k must be between 0 and " + size + ": " + k);
+        }
+        CompletableAsyncResult<List<R>> aggregate = new CompletableAsyncResult<>();
+        if (k == 0)
+        {
+            aggregate.complete(Collections.emptyList());
+            return aggregate;
+        }
+
+        Object[] values = new Object[ordered ? size : k];
+        AtomicInteger claimed = new AtomicInteger();
+        AtomicInteger stored = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        int tolerated = size - k;
+        int index = 0;
+        for (ActionAsyncResult result : results)
+        {
+            int position = index++;
+            result.toCompletionStage().whenComplete((value, exception) -> {
+                if (exception != null)
+                {
+                    if (failed.incrementAndGet() > tolerated)
+                    {
+                        aggregate.completeExceptionally(unwrap(exception));
+                    }
+                    return;
+                }
+                int slot = ordered ? position : claimed.getAndIncrement();
+                if (slot < values.length)
+                {
+                    values[slot] = value;
+                    if (stored.incrementAndGet() == k)
+                    {
+                        aggregate.complete(
+                            Collections.unmodifiableList((List<R>) Arrays.asList(values)));
+                    }
+                }
+            });
+        }
+        return aggregate;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> CompletableAsyncResult<R> any(
+        Collection<? extends ActionAsyncResult> results)
+    {
+        if (results.isEmpty())
+        {
+            throw new IllegalArgumentException("results must not be empty");
+        }
+        CompletableAsyncResult<R> aggregate = new CompletableAsyncResult<>();
+        for (ActionAsyncResult result : results)
+        {
+            result.toCompletionStage().whenComplete((value, exception) -> {
+                if (exception != null)
+                {
+                    aggregate.completeExceptionally(unwrap(exception));
+                }
+                else
+                {
+                    aggregate.complete((R) value);
+                }
+            });
+        }
+        return aggregate;
+    }
+
+    private static Throwable unwrap(Throwable exception)
+    {
+        if (exception instanceof CompletionException && exception.getCause() != null)
+        {
+            return exception.getCause();
+        }
+        return exception;
+    }
+
+    private static <T extends CompletableAsyncResult<?>> T withTimeout(T aggregate, long timeout,
+                                                                        TimeUnit unit)
+    {
+        if (!aggregate.isDone())
+        {
+            ScheduledFuture<?> timer = AsyncScheduler.getDefaultScheduler().schedule(
+                () -> aggregate.completeExceptionally(new TimeoutException()), timeout, unit);
+            aggregate.toCompletionStage().whenComplete((value, exception) -> timer.cancel(false));
+        }
+        return aggregate;
+    }
+}
@@ -28,6 +28,7 @@ package net.objectzoo.delegates;
 
 import net.objectzoo.delegates.adapters.Function0ToFunction0Async;
 
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
@@ -88,4 +89,19 @@ public interface Function0Async<R>
      */
     public FunctionAsyncResult<R> beginGet(Consumer<? super FunctionAsyncResult<R>> callback,
                                            Object asyncState);
+
+    /**
+     * Asynchronously invoke this {@code Function0Async} and return a {@link CompletionStage} of
+     * the return value of the invocation.
+     * <p>
+     * The returned stage completes when the invocation completes and allows composing further
+     * processing without waiting for the invocation in a blocking call.
+     *
+     * @return the {@link CompletionStage} of this asynchronous invocation
+     * @see FunctionAsyncResult#toCompletionStage()
+     */
+    public default CompletionStage<R> beginGetStage()
+    {
+        return beginGet(null, null).toCompletionStage();
+    }
 }
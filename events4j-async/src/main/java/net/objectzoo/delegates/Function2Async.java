@@ -27,7 +27,10 @@
 package net.objectzoo.delegates;
 
 import net.objectzoo.delegates.adapters.Function2ToFunction2Async;
+import net.objectzoo.delegates.impl.AsyncBatch;
 
+import java.util.List;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
@@ -97,4 +100,73 @@ public interface Function2Async<T1, T2, R>
      */
     public FunctionAsyncResult<R> beginApply(Consumer<? super FunctionAsyncResult<R>> callback,
                                              Object asyncState, T1 parameter1, T2 parameter2);
+
+    /**
+     * Asynchronously invoke this {@code Function2Async} with the given parameter values and return
+     * a {@link CompletionStage} of the return value of the invocation.
+     * <p>
+     * The returned stage completes when the invocation completes and allows composing further
+     * processing without waiting for the invocation in a blocking call.
+     *
+     * @param parameter1 the first parameter's value for the invocation
+     * @param parameter2 the second parameter's value for the invocation
+     * @return the {@link CompletionStage} of this asynchronous invocation
+     * @see FunctionAsyncResult#toCompletionStage()
+     */
+    public default CompletionStage<R> beginApplyStage(T1 parameter1, T2 parameter2)
+    {
+        return beginApply(null, null, parameter1, parameter2).toCompletionStage();
+    }
+
+    /**
+     * Asynchronously invoke this {@code Function2Async} once for each element of the
+     * given parameter values with a single aggregate result. The parameter values at the same
+     * position of the given parameters form the parameters of an element.
+     * <p>
+     * The elements are split into chunks of up to {@code chunkSize} consecutive elements that are
+     * each performed as a single asynchronous task. Implementations without a way to combine
+     * invocations, like this default implementation, invoke each element separately using
+     * {@link #beginApply}. The return value of the
+     * aggregate result is the list of the return values in the order of the parameters.
+     *
+     * @param callback    the {@link Consumer}, if given, is invoked upon completion of all
+     *                    elements and receives the returned aggregate result
+     * @param asyncState  an arbitrary reference that, if given, can be retrieved from the
+     *                    aggregate result
+     * @param parameter1s the first parameter's values of the elements
+     * @param parameter2s the second parameter's values of the elements
+     * @param chunkSize   the maximum number of elements performed in a single task
+     * @return the aggregate {@link FunctionAsyncResult} of all elements
+     * @throws IllegalArgumentException if the chunkSize is not positive or the parameters have a
+     *                                  different number of elements
+     */
+    @SuppressWarnings("unchecked")
+    public default FunctionAsyncResult<List<R>> beginApplyAll(
+        Consumer<? super FunctionAsyncResult<List<R>>> callback, Object asyncState,
+        Iterable<? extends T1> parameter1s, Iterable<? extends T2> parameter2s, int chunkSize)
+    {
+        Object[][] values = AsyncBatch.toArrays(parameter1s, parameter2s);
+        return AsyncBatch.collect(values[0].length, chunkSize,
+            index -> beginApply(null, null, (T1) values[0][index], (T2) values[1][index]),
+            callback, asyncState);
+    }
+
+    /**
+     * Asynchronously invoke this {@code Function2Async} once for each element of the
+     * given parameter values with a single aggregate result.
+     *
+     * @param parameter1s the first parameter's values of the elements
+     * @param parameter2s the second parameter's values of the elements
+     * @param chunkSize   the maximum number of elements performed in a single task
+     * @return the aggregate {@link FunctionAsyncResult} of all elements
+     * @throws IllegalArgumentException if the chunkSize is not positive or the parameters have a
+     *                                  different number of elements
+     * @see #beginApplyAll(Consumer, Object, Iterable, Iterable, int)
+     */
+    public default FunctionAsyncResult<List<R>> beginApplyAll(Iterable<? extends T1> parameter1s,
+                                                              Iterable<? extends T2> parameter2s,
+                                                              int chunkSize)
+    {
+        return beginApplyAll(null, null, parameter1s, parameter2s, chunkSize);
+    }
 }
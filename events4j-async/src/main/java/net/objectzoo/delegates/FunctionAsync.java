@@ -27,7 +27,10 @@
 package net.objectzoo.delegates;
 
 import net.objectzoo.delegates.adapters.FunctionToFunctionAsync;
+import net.objectzoo.delegates.impl.AsyncBatch;
 
+import java.util.List;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -92,4 +95,67 @@ public interface FunctionAsync<T, R>
      */
     public FunctionAsyncResult<R> beginApply(Consumer<? super FunctionAsyncResult<R>> callback,
                                              Object asyncState, T parameter);
+
+    /**
+     * Asynchronously invoke this {@code FunctionAsync} with the given parameter value and return a
+     * {@link CompletionStage} of the return value of the invocation.
+     * <p>
+     * The returned stage completes when the invocation completes and allows composing further
+     * processing without waiting for the invocation in a blocking call.
+     *
+     * @param parameter the parameter value for the invocation
+     * @return the {@link CompletionStage} of this asynchronous invocation
+     * @see FunctionAsyncResult#toCompletionStage()
+     */
+    public default CompletionStage<R> beginApplyStage(T parameter)
+    {
+        return beginApply(null, null, parameter).toCompletionStage();
+    }
+
+    /**
+     * Asynchronously invoke this {@code FunctionAsync} once for each element of the
+     * given parameter values with a single aggregate result.
+     * <p>
+     * The elements are split into chunks of up to {@code chunkSize} consecutive elements that are
+     * each performed as a single asynchronous task. Implementations without a way to combine
+     * invocations, like this default implementation, invoke each element separately using
+     * {@link #beginApply}. The return value of the
+     * aggregate result is the list of the return values in the order of the parameters.
+     *
+     * @param callback   the {@link Consumer}, if given, is invoked upon completion of all
+     *                   elements and receives the returned aggregate result
+     * @param asyncState an arbitrary reference that, if given, can be retrieved from the
+     *                   aggregate result
+     * @param parameters the parameter values of the elements
+     * @param chunkSize  the maximum number of elements performed in a single task
+     * @return the aggregate {@link FunctionAsyncResult} of all elements
+     * @throws IllegalArgumentException if the chunkSize is not positive or the parameters have a
+     *                                  different number of elements
+     */
+    @SuppressWarnings("unchecked")
+    public default FunctionAsyncResult<List<R>> beginApplyAll(
+        Consumer<? super FunctionAsyncResult<List<R>>> callback, Object asyncState,
+        Iterable<? extends T> parameters, int chunkSize)
+    {
+        Object[] values = AsyncBatch.toArrays(parameters)[0];
+        return AsyncBatch.collect(values.length, chunkSize,
+            index -> beginApply(null, null, (T) values[index]), callback, asyncState);
+    }
+
+    /**
+     * Asynchronously invoke this {@code FunctionAsync} once for each element of the
+     * given parameter values with a single aggregate result.
+     *
+     * @param parameters the parameter values of the elements
+     * @param chunkSize  the maximum number of elements performed in a single task
+     * @return the aggregate {@link FunctionAsyncResult} of all elements
+     * @throws IllegalArgumentException if the chunkSize is not positive or the parameters have a
+     *                                  different number of elements
+     * @see #beginApplyAll(Consumer, Object, Iterable, int)
+     */
+    public default FunctionAsyncResult<List<R>> beginApplyAll(Iterable<? extends T> parameters,
+                                                              int chunkSize)
+    {
+        return beginApplyAll(null, null, parameters, chunkSize);
+    }
 }
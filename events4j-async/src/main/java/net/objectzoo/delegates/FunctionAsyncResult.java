@@ -25,6 +25,9 @@
 package net.objectzoo.delegates;
 
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -137,4 +140,37 @@ public interface FunctionAsyncResult<R> extends ActionAsyncResult
      */
     R endReturn(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException,
         TimeoutException;
+
+    /**
+     * Returns a {@link CompletionStage} that completes with the return value of this
+     * {@code FunctionAsync}. It completes exceptionally with the exception thrown by the
+     * {@code FunctionAsync} or with a {@link CancellationException} if the {@code FunctionAsync}
+     * was cancelled. Completing or cancelling the returned stage does not affect the invocation.
+     * <p>
+     * The results returned by this library complete the stage without blocking any thread. The
+     * default implementation for other results waits for the return value with
+     * {@link #endReturn()} in a thread of the
+     * {@link java.util.concurrent.ForkJoinPool#commonPool() common pool}.
+     *
+     * @return the {@link CompletionStage} of this {@code FunctionAsync}
+     */
+    @Override
+    public default CompletionStage<R> toCompletionStage()
+    {
+        return CompletableFuture.supplyAsync(() -> {
+            try
+            {
+                return endReturn();
+            }
+            catch (ExecutionException e)
+            {
+                throw new CompletionException(e.getCause());
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+        });
+    }
 }
@@ -25,10 +25,11 @@
 package net.objectzoo.delegates.adapters;
 
 import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 import net.objectzoo.delegates.Action0;
-import net.objectzoo.delegates.Action0Async;
 import net.objectzoo.delegates.impl.AsyncExecutor;
+import net.objectzoo.delegates.impl.FireAndForgetTask;
 
 /**
  * An adapter that converts an {@link Action0} to a new {@link Action0}, that makes an asynchronous
@@ -39,6 +40,10 @@ import net.objectzoo.delegates.impl.AsyncExecutor;
  * All asynchronous calls are executed in another thread and forwarded to the
  * {@link Action0#start()} method.
  * 
+ * Exceptions thrown by the original action are passed to the exception handler given during
+ * creation of this adapter or to the {@link AsyncExecutor#getDefaultExceptionHandler() default
+ * exception handler}. No asynchronous result is created for the invocations.
+ * 
  * The {@link Executor} to use for the asynchronous invocations can be chosen during creation of
  * this adapter. If no explicit executor is given the a default executor is used. The default
  * executor can be set using the {@link AsyncExecutor#setDefaultExecutor(Executor)} property or is
@@ -48,7 +53,9 @@ import net.objectzoo.delegates.impl.AsyncExecutor;
  */
 public class Action0ToAsyncAction0 implements Action0
 {
-	private final Action0Async actionAsync;
+	private final Action0 action;
+	private final AsyncExecutor asyncExecutor;
+	private final Consumer<? super Throwable> exceptionHandler;
 	
 	/**
 	 * Makes the given {@link Action0} asynchronous using the default executor
@@ -71,7 +78,26 @@ public class Action0ToAsyncAction0 implements Action0
 	 */
 	public Action0ToAsyncAction0(Action0 action, Executor executor)
 	{
-		actionAsync = new Action0ToAction0Async(action, executor);
+		this(action, executor, null);
+	}
+	
+	/**
+	 * Makes the given {@link Action0} asynchronous using the given executor and exception handler
+	 * 
+	 * @param action
+	 *        the action to be called asynchronously
+	 * @param executor
+	 *        the executor used for the asynchronous calls
+	 * @param exceptionHandler
+	 *        the handler of exceptions thrown by the action, if {@code null} is given the
+	 *        {@link AsyncExecutor#getDefaultExceptionHandler() default exception handler} is used
+	 */
+	public Action0ToAsyncAction0(Action0 action, Executor executor,
+		Consumer<? super Throwable> exceptionHandler)
+	{
+		this.action = action;
+		this.asyncExecutor = new AsyncExecutor(executor);
+		this.exceptionHandler = exceptionHandler;
 	}
 	
 	/**
@@ -80,6 +106,13 @@ public class Action0ToAsyncAction0 implements Action0
 	@Override
 	public void start()
 	{
-		actionAsync.beginStart(null, null);
+		asyncExecutor.execute(new FireAndForgetTask(exceptionHandler)
+		{
+			@Override
+			protected void perform()
+			{
+				action.start();
+			}
+		});
 	}
 }
@@ -24,15 +24,17 @@
  */
 package net.objectzoo.delegates.adapters;
 
+import java.util.List;
 import java.util.concurrent.Executor;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
-import net.objectzoo.delegates.Action0;
 import net.objectzoo.delegates.Action2;
 import net.objectzoo.delegates.Action2Async;
 import net.objectzoo.delegates.ActionAsyncResult;
+import net.objectzoo.delegates.impl.AsyncBatch;
 import net.objectzoo.delegates.impl.AsyncExecutor;
+import net.objectzoo.delegates.impl.AsyncTask;
 
 /**
  * An adapter that converts a conventional {@link Action2} or {@link BiConsumer} to an
@@ -92,7 +94,38 @@ public class Action2ToAction2Async<T1, T2> implements Action2Async<T1, T2>
 	public ActionAsyncResult beginAccept(Consumer<ActionAsyncResult> callback, Object asyncState,
 										 final T1 parameter1, final T2 parameter2)
 	{
-		Action0 callable = Action2.bindParameters(action, parameter1, parameter2);
-		return asyncExecutor.execute(callable, callback, asyncState);
+		return asyncExecutor.execute(new AsyncTask<Object>(callback, asyncState)
+		{
+			@Override
+			protected Object compute()
+			{
+				action.accept(parameter1, parameter2);
+				return null;
+			}
+		});
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Each chunk of elements is performed by a single task of the executor of this adapter.
+	 */
+	@Override
+	public ActionAsyncResult beginAcceptAll(
+		Consumer<ActionAsyncResult> callback, Object asyncState, Iterable<? extends T1> parameter1s,
+		Iterable<? extends T2> parameter2s, int chunkSize)
+	{
+		Object[][] values = AsyncBatch.toArrays(parameter1s, parameter2s);
+		return asyncExecutor.executeAll(new AsyncBatch<Object>(values[0].length, callback,
+			asyncState)
+		{
+			@Override
+			@SuppressWarnings("unchecked")
+			protected Object apply(int index)
+			{
+				action.accept((T1) values[0][index], (T2) values[1][index]);
+				return null;
+			}
+		}, chunkSize);
 	}
 }
@@ -24,14 +24,16 @@
  */
 package net.objectzoo.delegates.adapters;
 
+import java.util.List;
 import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
-import net.objectzoo.delegates.Action0;
 import net.objectzoo.delegates.Action3;
 import net.objectzoo.delegates.Action3Async;
 import net.objectzoo.delegates.ActionAsyncResult;
+import net.objectzoo.delegates.impl.AsyncBatch;
 import net.objectzoo.delegates.impl.AsyncExecutor;
+import net.objectzoo.delegates.impl.AsyncTask;
 
 /**
  * An adapter that converts a conventional {@link Action3} to an {@link Action3Async}.
@@ -93,7 +95,38 @@ public class Action3ToAction3Async<T1, T2, T3> implements Action3Async<T1, T2, T
 										 final T1 parameter1, final T2 parameter2,
 										 final T3 parameter3)
 	{
-		Action0 callable = Action3.bindParameters(action, parameter1, parameter2, parameter3);
-		return asyncExecutor.execute(callable, callback, asyncState);
+		return asyncExecutor.execute(new AsyncTask<Object>(callback, asyncState)
+		{
+			@Override
+			protected Object compute()
+			{
+				action.accept(parameter1, parameter2, parameter3);
+				return null;
+			}
+		});
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Each chunk of elements is performed by a single task of the executor of this adapter.
+	 */
+	@Override
+	public ActionAsyncResult beginAcceptAll(
+		Consumer<ActionAsyncResult> callback, Object asyncState, Iterable<? extends T1> parameter1s,
+		Iterable<? extends T2> parameter2s, Iterable<? extends T3> parameter3s, int chunkSize)
+	{
+		Object[][] values = AsyncBatch.toArrays(parameter1s, parameter2s, parameter3s);
+		return asyncExecutor.executeAll(new AsyncBatch<Object>(values[0].length, callback,
+			asyncState)
+		{
+			@Override
+			@SuppressWarnings("unchecked")
+			protected Object apply(int index)
+			{
+				action.accept((T1) values[0][index], (T2) values[1][index], (T3) values[2][index]);
+				return null;
+			}
+		}, chunkSize);
 	}
 }
@@ -28,10 +28,11 @@ package net.objectzoo.delegates.adapters;
 
 import net.objectzoo.delegates.Action;
 import net.objectzoo.delegates.Action3;
-import net.objectzoo.delegates.Action3Async;
 import net.objectzoo.delegates.impl.AsyncExecutor;
+import net.objectzoo.delegates.impl.FireAndForgetTask;
 
 import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 /**
  * An adapter that converts an {@link Action3} to a new {@link Action3}, that makes an asynchronous
@@ -42,6 +43,10 @@ import java.util.concurrent.Executor;
  * All asynchronous calls are executed in another thread and forwarded to the
  * {@link Action3#accept(Object, Object, Object)} method.
  * <p>
+ * Exceptions thrown by the original action are passed to the exception handler given during
+ * creation of this adapter or to the {@link AsyncExecutor#getDefaultExceptionHandler() default
+ * exception handler}. No asynchronous result is created for the invocations.
+ * <p>
  * The {@link Executor} to use for the asynchronous invocations can be chosen during creation of
  * this adapter. If no explicit executor is given the a default executor is used. The default
  * executor can be set using the {@link AsyncExecutor#setDefaultExecutor(Executor)} property or is
@@ -54,7 +59,9 @@ import java.util.concurrent.Executor;
  */
 public class Action3ToAsyncAction3<T1, T2, T3> implements Action3<T1, T2, T3>
 {
-    private final Action3Async<T1, T2, T3> actionAsync;
+    private final Action3<T1, T2, T3> action;
+    private final AsyncExecutor asyncExecutor;
+    private final Consumer<? super Throwable> exceptionHandler;
 
     /**
      * Makes the given {@link Action} asynchronous using the default executor
@@ -74,7 +81,24 @@ public class Action3ToAsyncAction3<T1, T2, T3> implements Action3<T1, T2, T3>
      */
     public Action3ToAsyncAction3(Action3<T1, T2, T3> action, Executor executor)
     {
-        actionAsync = new Action3ToAction3Async<>(action, executor);
+        this(action, executor, null);
+    }
+
+    /**
+     * Makes the given {@link Action} asynchronous using the given executor and exception handler
+     *
+     * @param action           the action to be called asynchronously
+     * @param executor         the executor used for the asynchronous calls
+     * @param exceptionHandler the handler of exceptions thrown by the action, if {@code null} is
+     *                         given the {@link AsyncExecutor#getDefaultExceptionHandler() default
+     *                         exception handler} is used
+     */
+    public Action3ToAsyncAction3(Action3<T1, T2, T3> action, Executor executor,
+        Consumer<? super Throwable> exceptionHandler)
+    {
+        this.action = action;
+        this.asyncExecutor = new AsyncExecutor(executor);
+        this.exceptionHandler = exceptionHandler;
     }
 
     /**
@@ -83,6 +107,13 @@ public class Action3ToAsyncAction3<T1, T2, T3> implements Action3<T1, T2, T3>
     @Override
     public void accept(T1 parameter1, T2 parameter2, T3 parameter3)
     {
-        actionAsync.beginAccept(null, null, parameter1, parameter2, parameter3);
+        asyncExecutor.execute(new FireAndForgetTask(exceptionHandler)
+        {
+            @Override
+            protected void perform()
+            {
+                action.accept(parameter1, parameter2, parameter3);
+            }
+        });
     }
 }
@@ -28,10 +28,11 @@ package net.objectzoo.delegates.adapters;
 
 import net.objectzoo.delegates.Action;
 import net.objectzoo.delegates.Action4;
-import net.objectzoo.delegates.Action4Async;
 import net.objectzoo.delegates.impl.AsyncExecutor;
+import net.objectzoo.delegates.impl.FireAndForgetTask;
 
 import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 /**
  * An adapter that converts an {@link Action4} to a new {@link Action4}, that makes an asynchronous
@@ -42,6 +43,10 @@ import java.util.concurrent.Executor;
  * All asynchronous calls are executed in another thread and forwarded to the
  * {@link Action4#accept(Object, Object, Object, Object)} method.
  * <p>
+ * Exceptions thrown by the original action are passed to the exception handler given during
+ * creation of this adapter or to the {@link AsyncExecutor#getDefaultExceptionHandler() default
+ * exception handler}. No asynchronous result is created for the invocations.
+ * <p>
  * The {@link Executor} to use for the asynchronous invocations can be chosen during creation of
  * this adapter. If no explicit executor is given the a default executor is used. The default
  * executor can be set using the {@link AsyncExecutor#setDefaultExecutor(Executor)} property or is
@@ -55,7 +60,9 @@ import java.util.concurrent.Executor;
  */
 public class Action4ToAsyncAction4<T1, T2, T3, T4> implements Action4<T1, T2, T3, T4>
 {
-    private final Action4Async<T1, T2, T3, T4> actionAsync;
+    private final Action4<T1, T2, T3, T4> action;
+    private final AsyncExecutor asyncExecutor;
+    private final Consumer<? super Throwable> exceptionHandler;
 
     /**
      * Makes the given {@link Action} asynchronous using the default executor
@@ -75,7 +82,24 @@ public class Action4ToAsyncAction4<T1, T2, T3, T4> implements Action4<T1, T2, T3
      */
     public Action4ToAsyncAction4(Action4<T1, T2, T3, T4> action, Executor executor)
     {
-        actionAsync = new Action4ToAction4Async<>(action, executor);
+        this(action, executor, null);
+    }
+
+    /**
+     * Makes the given {@link Action} asynchronous using the given executor and exception handler
+     *
+     * @param action           the action to be called asynchronously
+     * @param executor         the executor used for the asynchronous calls
+     * @param exceptionHandler the handler of exceptions thrown by the action, if {@code null} is
+     *                         given the {@link AsyncExecutor#getDefaultExceptionHandler() default
+     *                         exception handler} is used
+     */
+    public Action4ToAsyncAction4(Action4<T1, T2, T3, T4> action, Executor executor,
+        Consumer<? super Throwable> exceptionHandler)
+    {
+        this.action = action;
+        this.asyncExecutor = new AsyncExecutor(executor);
+        this.exceptionHandler = exceptionHandler;
     }
 
     /**
@@ -84,6 +108,13 @@ public class Action4ToAsyncAction4<T1, T2, T3, T4> implements Action4<T1, T2, T3
     @Override
     public void accept(T1 parameter1, T2 parameter2, T3 parameter3, T4 parameter4)
     {
-        actionAsync.beginAccept(null, null, parameter1, parameter2, parameter3, parameter4);
+        asyncExecutor.execute(new FireAndForgetTask(exceptionHandler)
+        {
+            @Override
+            protected void perform()
+            {
+                action.accept(parameter1, parameter2, parameter3, parameter4);
+            }
+        });
     }
 }
@@ -24,14 +24,16 @@
  */
 package net.objectzoo.delegates.adapters;
 
+import java.util.List;
 import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 import net.objectzoo.delegates.Action;
-import net.objectzoo.delegates.Action0;
 import net.objectzoo.delegates.ActionAsync;
 import net.objectzoo.delegates.ActionAsyncResult;
+import net.objectzoo.delegates.impl.AsyncBatch;
 import net.objectzoo.delegates.impl.AsyncExecutor;
+import net.objectzoo.delegates.impl.AsyncTask;
 
 /**
  * An adapter that converts a conventional {@link Action} or {@link Consumer} to an
@@ -89,7 +91,37 @@ public class ActionToActionAsync<T> implements ActionAsync<T>
 	public ActionAsyncResult beginAccept(Consumer<ActionAsyncResult> callback, Object asyncState,
 										 final T parameter)
 	{
-		Action0 callable = Action.bindParameter(action, parameter);
-		return asyncExecutor.execute(callable, callback, asyncState);
+		return asyncExecutor.execute(new AsyncTask<Object>(callback, asyncState)
+		{
+			@Override
+			protected Object compute()
+			{
+				action.accept(parameter);
+				return null;
+			}
+		});
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Each chunk of elements is performed by a single task of the executor of this adapter.
+	 */
+	@Override
+	public ActionAsyncResult beginAcceptAll(
+		Consumer<ActionAsyncResult> callback, Object asyncState, Iterable<? extends T> parameters,
+		int chunkSize)
+	{
+		Object[] values = AsyncBatch.toArrays(parameters)[0];
+		return asyncExecutor.executeAll(new AsyncBatch<Object>(values.length, callback, asyncState)
+		{
+			@Override
+			@SuppressWarnings("unchecked")
+			protected Object apply(int index)
+			{
+				action.accept((T) values[index]);
+				return null;
+			}
+		}, chunkSize);
 	}
 }
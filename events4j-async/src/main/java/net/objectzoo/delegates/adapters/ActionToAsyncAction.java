@@ -27,8 +27,8 @@
 package net.objectzoo.delegates.adapters;
 
 import net.objectzoo.delegates.Action;
-import net.objectzoo.delegates.ActionAsync;
 import net.objectzoo.delegates.impl.AsyncExecutor;
+import net.objectzoo.delegates.impl.FireAndForgetTask;
 
 import java.util.concurrent.Executor;
 import java.util.function.Consumer;
@@ -43,6 +43,10 @@ import java.util.function.Consumer;
  * All asynchronous calls are executed in another thread and forwarded to the
  * {@link Action#accept(Object)} method.
  * <p>
+ * Exceptions thrown by the original action are passed to the exception handler given during
+ * creation of this adapter or to the {@link AsyncExecutor#getDefaultExceptionHandler() default
+ * exception handler}. No asynchronous result is created for the invocations.
+ * <p>
  * The {@link Executor} to use for the asynchronous invocations can be chosen during creation of
  * this adapter. If no explicit executor is given the a default executor is used. The default
  * executor can be set using the {@link AsyncExecutor#setDefaultExecutor(Executor)} property or is
@@ -53,7 +57,9 @@ import java.util.function.Consumer;
  */
 public class ActionToAsyncAction<T> implements Action<T>
 {
-    private final ActionAsync<T> actionAsync;
+    private final Consumer<T> action;
+    private final AsyncExecutor asyncExecutor;
+    private final Consumer<? super Throwable> exceptionHandler;
 
     /**
      * Makes the given {@link Action} asynchronous using the default executor
@@ -73,7 +79,24 @@ public class ActionToAsyncAction<T> implements Action<T>
      */
     public ActionToAsyncAction(Consumer<T> action, Executor executor)
     {
-        actionAsync = new ActionToActionAsync<>(action, executor);
+        this(action, executor, null);
+    }
+
+    /**
+     * Makes the given {@link Action} asynchronous using the given executor and exception handler
+     *
+     * @param action           the action to be called asynchronously
+     * @param executor         the executor used for the asynchronous calls
+     * @param exceptionHandler the handler of exceptions thrown by the action, if {@code null} is
+     *                         given the {@link AsyncExecutor#getDefaultExceptionHandler() default
+     *                         exception handler} is used
+     */
+    public ActionToAsyncAction(Consumer<T> action, Executor executor,
+        Consumer<? super Throwable> exceptionHandler)
+    {
+        this.action = action;
+        this.asyncExecutor = new AsyncExecutor(executor);
+        this.exceptionHandler = exceptionHandler;
     }
 
     /**
@@ -82,6 +105,13 @@ public class ActionToAsyncAction<T> implements Action<T>
     @Override
     public void accept(T parameter)
     {
-        actionAsync.beginAccept(null, null, parameter);
+        asyncExecutor.execute(new FireAndForgetTask(exceptionHandler)
+        {
+            @Override
+            protected void perform()
+            {
+                action.accept(parameter);
+            }
+        });
     }
 }
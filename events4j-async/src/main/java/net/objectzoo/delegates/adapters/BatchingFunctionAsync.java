@@ -0,0 +1,320 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.adapters;
+
+import net.objectzoo.delegates.FunctionAsync;
+import net.objectzoo.delegates.FunctionAsyncResult;
+import net.objectzoo.delegates.impl.AsyncExecutor;
+import net.objectzoo.delegates.impl.AsyncScheduler;
+import net.objectzoo.delegates.impl.CompletableAsyncResult;
+import net.objectzoo.delegates.impl.Histogram;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * An adapter that collects individual invocations into batches and performs each batch with a
+ * single invocation of a batch function. A batch is performed when it has reached the maximum
+ * batch size or when the maximum delay has passed since its first invocation, whichever happens
+ * first. The batch function receives the distinct keys of the batch and returns a {@link Map} of
+ * the keys to their values. Each invocation completes individually with the value of its key,
+ * keys missing in the returned map complete with {@code null}. If the batch function throws an
+ * exception all invocations of the batch complete with it.
+ * <p>
+ * The batch functions are invoked asynchronously using an {@link Executor}, the maximum delay is
+ * measured using a {@link ScheduledExecutorService}. The adapter records the sizes of the batches
+ * and the latencies of the invocations from their beginning until their completion in
+ * {@link Histogram}s.
+ *
+ * @param <K> The type of the {@code FunctionAsync}'s parameter, the keys
+ * @param <V> The type of the {@code FunctionAsync}'s return value, the values
+ * @author tilmann
+ */
+public class BatchingFunctionAsync<K, V> implements FunctionAsync<K, V>
+{
+    private final Function<List<K>, Map<K, V>> batchFunction;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final Executor executor;
+    private final ScheduledExecutorService scheduler;
+    private final Histogram batchSizes = new Histogram();
+    private final Histogram latencies = new Histogram();
+    private final Object lock = new Object();
+    private Batch pending;
+
+    /**
+     * Creates a batching adapter for the given batch function that uses the default executor
+     * and the default scheduler.
+     *
+     * @param batchFunction the function returning the values of the given keys
+     * @param maxBatchSize  the maximum number of invocations in a batch
+     * @param maxDelay      the maximum delay of a batch after its first invocation
+     * @param unit          the time unit of the maximum delay
+     * @throws IllegalArgumentException if the maximum batch size is not positive or the maximum
+     *                                  delay is negative
+     * @see AsyncExecutor#getDefaultExecutor()
+     * @see AsyncScheduler#getDefaultScheduler()
+     */
+    public BatchingFunctionAsync(Function<List<K>, Map<K, V>> batchFunction, int maxBatchSize,
+                                 long maxDelay, TimeUnit unit) throws IllegalArgumentException
+    {
+        this(batchFunction, maxBatchSize, maxDelay, unit, null,
+            AsyncScheduler.getDefaultScheduler());
+    }
+
+    /**
+     * Creates a batching adapter for the given batch function that invokes the batch function
+     * using the given {@link Executor} and measures the maximum delay using the given
+     * {@link ScheduledExecutorService}.
+     *
+     * @param batchFunction the function returning the values of the given keys
+     * @param maxBatchSize  the maximum number of invocations in a batch
+     * @param maxDelay      the maximum delay of a batch after its first invocation
+     * @param unit          the time unit of the maximum delay
+     * @param executor      the executor invoking the batch function or {@code null} to use the
+     *                      default executor
+     * @param scheduler     the scheduler measuring the maximum delay
+     * @throws IllegalArgumentException if the maximum batch size is not positive or the maximum
+     *                                  delay is negative
+     */
+    public BatchingFunctionAsync(Function<List<K>, Map<K, V>> batchFunction, int maxBatchSize,
+                                 long maxDelay, TimeUnit unit, Executor executor,
+                                 ScheduledExecutorService scheduler)
+        throws IllegalArgumentException
+    {
+        if (maxBatchSize < 1)
+        {
+            throw new IllegalArgumentException("Invalid maximum batch size: " + maxBatchSize + ".");
+        }
+        if (maxDelay < 0)
+        {
+            throw new IllegalArgumentException("Invalid maximum delay: " + maxDelay + ".");
+        }
+        this.batchFunction = Objects.requireNonNull(batchFunction);
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = unit.toNanos(maxDelay);
+        this.executor = executor;
+        this.scheduler = Objects.requireNonNull(scheduler);
+    }
+
+    /**
+     * Adds an invocation with the given key to the current batch.
+     *
+     * @param callback   the callback to be called when the value has been retrieved or
+     *                   {@code null}
+     * @param asyncState the asynchronous state object to be used in the asynchronous result
+     * @param key        the key of the value
+     * @return the asynchronous result of the invocation
+     */
+    @Override
+    public FunctionAsyncResult<V> beginApply(Consumer<? super FunctionAsyncResult<V>> callback,
+                                             Object asyncState, K key)
+    {
+        Call<K, V> call = new Call<>(callback, asyncState, key);
+        Batch started = null;
+        Batch full = null;
+        synchronized (lock)
+        {
+            if (pending == null)
+            {
+                pending = new Batch();
+                started = pending;
+            }
+            pending.calls.add(call);
+            if (pending.calls.size() >= maxBatchSize)
+            {
+                full = pending;
+                pending = null;
+            }
+        }
+        if (full != null)
+        {
+            dispatch(full);
+        }
+        else if (started != null)
+        {
+            Batch batch = started;
+            batch.timer = scheduler.schedule(() -> flush(batch), maxDelayNanos,
+                TimeUnit.NANOSECONDS);
+        }
+        return call;
+    }
+
+    /**
+     * Performs the current batch immediately without waiting for further invocations.
+     */
+    public void flush()
+    {
+        Batch batch;
+        synchronized (lock)
+        {
+            batch = pending;
+            pending = null;
+        }
+        if (batch != null)
+        {
+            dispatch(batch);
+        }
+    }
+
+    /**
+     * @return the histogram of the number of invocations of the performed batches
+     */
+    public Histogram getBatchSizeHistogram()
+    {
+        return batchSizes;
+    }
+
+    /**
+     * @return the histogram of the latencies in nanoseconds of the completed invocations
+     */
+    public Histogram getLatencyHistogram()
+    {
+        return latencies;
+    }
+
+    private void flush(Batch batch)
+    {
+        synchronized (lock)
+        {
+            if (pending != batch)
+            {
+                return;
+            }
+            pending = null;
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(Batch batch)
+    {
+        ScheduledFuture<?> timer = batch.timer;
+        if (timer != null)
+        {
+            timer.cancel(false);
+        }
+        batchSizes.record(batch.calls.size());
+        try
+        {
+            (executor != null ? executor : AsyncExecutor.getDefaultExecutor()).execute(batch);
+        }
+        catch (RuntimeException e)
+        {
+            batch.fail(e);
+        }
+    }
+
+    private final class Batch implements Runnable
+    {
+        final List<Call<K, V>> calls = new ArrayList<>();
+
+        volatile ScheduledFuture<?> timer;
+
+        @Override
+        public void run()
+        {
+            Set<K> keys = new LinkedHashSet<>();
+            for (Call<K, V> call : calls)
+            {
+                keys.add(call.key);
+            }
+            Map<K, V> values;
+            try
+            {
+                values = Objects.requireNonNull(batchFunction.apply(new ArrayList<>(keys)),
+                    "The batch function returned null.");
+            }
+            catch (RuntimeException | Error e)
+            {
+                fail(e);
+                return;
+            }
+            long now = System.nanoTime();
+            for (Call<K, V> call : calls)
+            {
+                latencies.record(now - call.begun);
+                complete(call, values.get(call.key), null);
+            }
+        }
+
+        void fail(Throwable exception)
+        {
+            long now = System.nanoTime();
+            for (Call<K, V> call : calls)
+            {
+                latencies.record(now - call.begun);
+                complete(call, null, exception);
+            }
+        }
+
+        /**
+         * Completes the given call, an exception thrown by its callback is given to the default
+         * exception handler so it neither escapes into the executor nor fails other calls.
+         */
+        private void complete(Call<K, V> call, V value, Throwable exception)
+        {
+            try
+            {
+                if (exception == null)
+                {
+                    call.complete(value);
+                }
+                else
+                {
+                    call.completeExceptionally(exception);
+                }
+            }
+            catch (Throwable e)
+            {
+                AsyncExecutor.getDefaultExceptionHandler().accept(e);
+            }
+        }
+    }
+
+    private static final class Call<K, V> extends CompletableAsyncResult<V>
+    {
+        final K key;
+
+        final long begun = System.nanoTime();
+
+        Call(Consumer<? super FunctionAsyncResult<V>> callback, Object asyncState, K key)
+        {
+            super(callback, asyncState);
+            this.key = key;
+        }
+    }
+}
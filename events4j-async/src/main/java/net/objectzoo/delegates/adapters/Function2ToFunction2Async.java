@@ -24,15 +24,17 @@
  */
 package net.objectzoo.delegates.adapters;
 
+import java.util.List;
 import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 
-import net.objectzoo.delegates.Function0;
 import net.objectzoo.delegates.Function2;
 import net.objectzoo.delegates.Function2Async;
 import net.objectzoo.delegates.FunctionAsyncResult;
+import net.objectzoo.delegates.impl.AsyncBatch;
 import net.objectzoo.delegates.impl.AsyncExecutor;
+import net.objectzoo.delegates.impl.AsyncTask;
 
 /**
  * An adapter that converts a conventional {@link Function2} or {@link BiFunction} to an
@@ -95,7 +97,35 @@ public class Function2ToFunction2Async<T1, T2, R> implements Function2Async<T1,
 											 Object asyncState, final T1 parameter1,
 											 final T2 parameter2)
 	{
-		Function0<R> callable = Function2.bindParameters(function, parameter1, parameter2);
-		return asyncExecutor.execute(callable, callback, asyncState);
+		return asyncExecutor.execute(new AsyncTask<R>(callback, asyncState)
+		{
+			@Override
+			protected R compute()
+			{
+				return function.apply(parameter1, parameter2);
+			}
+		});
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Each chunk of elements is performed by a single task of the executor of this adapter.
+	 */
+	@Override
+	public FunctionAsyncResult<List<R>> beginApplyAll(
+		Consumer<? super FunctionAsyncResult<List<R>>> callback, Object asyncState,
+		Iterable<? extends T1> parameter1s, Iterable<? extends T2> parameter2s, int chunkSize)
+	{
+		Object[][] values = AsyncBatch.toArrays(parameter1s, parameter2s);
+		return asyncExecutor.executeAll(new AsyncBatch<R>(values[0].length, callback, asyncState)
+		{
+			@Override
+			@SuppressWarnings("unchecked")
+			protected R apply(int index)
+			{
+				return function.apply((T1) values[0][index], (T2) values[1][index]);
+			}
+		}, chunkSize);
 	}
 }
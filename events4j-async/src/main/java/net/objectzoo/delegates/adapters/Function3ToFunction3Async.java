@@ -24,14 +24,16 @@
  */
 package net.objectzoo.delegates.adapters;
 
+import java.util.List;
 import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 import net.objectzoo.delegates.FunctionAsyncResult;
-import net.objectzoo.delegates.Function0;
 import net.objectzoo.delegates.Function3;
 import net.objectzoo.delegates.Function3Async;
+import net.objectzoo.delegates.impl.AsyncBatch;
 import net.objectzoo.delegates.impl.AsyncExecutor;
+import net.objectzoo.delegates.impl.AsyncTask;
 
 /**
  * An adapter that converts a conventional {@link Function3} to an {@link Function3Async}.
@@ -95,8 +97,37 @@ public class Function3ToFunction3Async<T1, T2, T3, R> implements Function3Async<
 										 Object asyncState, final T1 parameter1,
 										 final T2 parameter2, final T3 parameter3)
 	{
-		Function0<R> callable = Function3.bindParameters(function, parameter1, parameter2,
-			parameter3);
-		return asyncExecutor.execute(callable, callback, asyncState);
+		return asyncExecutor.execute(new AsyncTask<R>(callback, asyncState)
+		{
+			@Override
+			protected R compute()
+			{
+				return function.apply(parameter1, parameter2, parameter3);
+			}
+		});
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Each chunk of elements is performed by a single task of the executor of this adapter.
+	 */
+	@Override
+	public FunctionAsyncResult<List<R>> beginApplyAll(
+		Consumer<? super FunctionAsyncResult<List<R>>> callback, Object asyncState,
+		Iterable<? extends T1> parameter1s, Iterable<? extends T2> parameter2s,
+		Iterable<? extends T3> parameter3s, int chunkSize)
+	{
+		Object[][] values = AsyncBatch.toArrays(parameter1s, parameter2s, parameter3s);
+		return asyncExecutor.executeAll(new AsyncBatch<R>(values[0].length, callback, asyncState)
+		{
+			@Override
+			@SuppressWarnings("unchecked")
+			protected R apply(int index)
+			{
+				return function.apply((T1) values[0][index], (T2) values[1][index],
+						(T3) values[2][index]);
+			}
+		}, chunkSize);
 	}
 }
@@ -26,11 +26,13 @@
  */
 package net.objectzoo.delegates.adapters;
 
-import net.objectzoo.delegates.Function0;
 import net.objectzoo.delegates.FunctionAsync;
 import net.objectzoo.delegates.FunctionAsyncResult;
+import net.objectzoo.delegates.impl.AsyncBatch;
 import net.objectzoo.delegates.impl.AsyncExecutor;
+import net.objectzoo.delegates.impl.AsyncTask;
 
+import java.util.List;
 import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -86,7 +88,35 @@ public class FunctionToFunctionAsync<T, R> implements FunctionAsync<T, R>
     public FunctionAsyncResult<R> beginApply(Consumer<? super FunctionAsyncResult<R>> callback,
                                              Object asyncState, final T parameter)
     {
-        Function0<R> callable = net.objectzoo.delegates.Function.bindParameter(function, parameter);
-        return asyncExecutor.execute(callable, callback, asyncState);
+        return asyncExecutor.execute(new AsyncTask<R>(callback, asyncState)
+        {
+            @Override
+            protected R compute()
+            {
+                return function.apply(parameter);
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Each chunk of elements is performed by a single task of the executor of this adapter.
+     */
+    @Override
+    public FunctionAsyncResult<List<R>> beginApplyAll(
+        Consumer<? super FunctionAsyncResult<List<R>>> callback, Object asyncState,
+        Iterable<? extends T> parameters, int chunkSize)
+    {
+        Object[] values = AsyncBatch.toArrays(parameters)[0];
+        return asyncExecutor.executeAll(new AsyncBatch<R>(values.length, callback, asyncState)
+        {
+            @Override
+            @SuppressWarnings("unchecked")
+            protected R apply(int index)
+            {
+                return function.apply((T) values[index]);
+            }
+        }, chunkSize);
     }
 }
@@ -0,0 +1,82 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.adapters;
+
+import net.objectzoo.delegates.Function0Async;
+import net.objectzoo.delegates.FunctionAsyncResult;
+import net.objectzoo.delegates.impl.Hedging;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * An adapter that hedges the invocations of a {@link Function0Async}. If an invocation has not
+ * completed after the delay of the given {@link Hedging} the invocation is begun a second time
+ * and the first of both attempts to complete determines the outcome, the other one is cancelled.
+ * <p>
+ * The hedged function should be idempotent since it may be invoked twice for a single invocation
+ * of this adapter. The latencies and hedge metrics are collected by the {@code Hedging}.
+ *
+ * @param <R> The type of the {@code Function0Async}'s return value
+ * @author tilmann
+ * @see Hedging
+ */
+public class HedgedFunction0Async<R> implements Function0Async<R>
+{
+    private final Function0Async<R> functionAsync;
+    private final Hedging hedging;
+
+    /**
+     * Hedges the invocations of the given {@link Function0Async} using the given {@link Hedging}.
+     *
+     * @param functionAsync the function whose invocations are hedged
+     * @param hedging       the hedging performing the invocations
+     */
+    public HedgedFunction0Async(Function0Async<R> functionAsync, Hedging hedging)
+    {
+        this.functionAsync = Objects.requireNonNull(functionAsync);
+        this.hedging = Objects.requireNonNull(hedging);
+    }
+
+    /**
+     * @return the {@link Hedging} performing the invocations of this adapter
+     */
+    public Hedging getHedging()
+    {
+        return hedging;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FunctionAsyncResult<R> beginGet(Consumer<? super FunctionAsyncResult<R>> callback,
+                                           Object asyncState)
+    {
+        return hedging.begin(() -> functionAsync.beginGet(null, null), callback, asyncState);
+    }
+}
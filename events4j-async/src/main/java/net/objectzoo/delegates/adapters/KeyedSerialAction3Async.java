@@ -0,0 +1,115 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.adapters;
+
+import net.objectzoo.delegates.Action3;
+import net.objectzoo.delegates.Action3Async;
+import net.objectzoo.delegates.ActionAsyncResult;
+import net.objectzoo.delegates.Function3;
+import net.objectzoo.delegates.impl.AsyncTask;
+import net.objectzoo.delegates.impl.KeyedSerialExecutor;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * An adapter that converts a conventional action to an {@link Action3Async} whose asynchronous
+ * invocations are performed in order per key by a {@link KeyedSerialExecutor}. The key of an
+ * invocation is extracted from its parameters, invocations with equal keys are performed one after
+ * each other in the order they have been started while invocations with different keys may be
+ * performed in parallel.
+ *
+ * @param <T1> The type of the {@code Action}'s first parameter
+ * @param <T2> The type of the {@code Action}'s second parameter
+ * @param <T3> The type of the {@code Action}'s third parameter
+ * @author tilmann
+ * @see KeyedSerialExecutor
+ */
+public class KeyedSerialAction3Async<T1, T2, T3> implements Action3Async<T1, T2, T3>
+{
+    private final Action3<T1, T2, T3> action;
+    private final Function3<? super T1, ? super T2, ? super T3, ?> keyExtractor;
+    private final KeyedSerialExecutor executor;
+
+    /**
+     * Converts the given action to the interface {@link Action3Async} performing the invocations
+     * in order per key in a new {@link KeyedSerialExecutor} using the common pool.
+     *
+     * @param action       the action to be converted
+     * @param keyExtractor extracts the key of an invocation from its parameters
+     */
+    public KeyedSerialAction3Async(Action3<T1, T2, T3> action,
+                                   Function3<? super T1, ? super T2, ? super T3, ?> keyExtractor)
+    {
+        this(action, keyExtractor, new KeyedSerialExecutor());
+    }
+
+    /**
+     * Converts the given action to the interface {@link Action3Async} performing the invocations
+     * in order per key with the given {@link KeyedSerialExecutor}.
+     *
+     * @param action       the action to be converted
+     * @param keyExtractor extracts the key of an invocation from its parameters
+     * @param executor     the executor performing the invocations in order per key
+     */
+    public KeyedSerialAction3Async(Action3<T1, T2, T3> action,
+                                   Function3<? super T1, ? super T2, ? super T3, ?> keyExtractor,
+                                   KeyedSerialExecutor executor)
+    {
+        this.action = Objects.requireNonNull(action);
+        this.keyExtractor = Objects.requireNonNull(keyExtractor);
+        this.executor = Objects.requireNonNull(executor);
+    }
+
+    /**
+     * @return the {@link KeyedSerialExecutor} performing the invocations of this adapter
+     */
+    public KeyedSerialExecutor getExecutor()
+    {
+        return executor;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ActionAsyncResult beginAccept(Consumer<ActionAsyncResult> callback, Object asyncState,
+                                         T1 parameter1, T2 parameter2, T3 parameter3)
+    {
+        AsyncTask<Object> task = new AsyncTask<Object>(callback, asyncState)
+        {
+            @Override
+            protected Object compute()
+            {
+                action.accept(parameter1, parameter2, parameter3);
+                return null;
+            }
+        };
+        executor.execute(keyExtractor.apply(parameter1, parameter2, parameter3), task);
+        return task;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.adapters;
+
+import net.objectzoo.delegates.Function4;
+import net.objectzoo.delegates.Function4Async;
+import net.objectzoo.delegates.FunctionAsyncResult;
+import net.objectzoo.delegates.impl.SingleFlight;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * An adapter that coalesces concurrent invocations of a {@link Function4Async} with equal keys into
+ * a single execution using a {@link SingleFlight}. The key of an invocation is extracted from its
+ * parameters. While an execution for a key is in flight further invocations with an equal key
+ * receive a result of their own that completes with the outcome of the shared execution.
+ * <p>
+ * Coalescing is only suitable for functions whose return value is determined by the key, since
+ * the return value of an execution is shared by all invocations joining it.
+ *
+ * @param <T1> The type of the {@code Function4Async}'s first parameter
+ * @param <T2> The type of the {@code Function4Async}'s second parameter
+ * @param <T3> The type of the {@code Function4Async}'s third parameter
+ * @param <T4> The type of the {@code Function4Async}'s fourth parameter
+ * @param <R>  The type of the {@code Function4Async}'s return value
+ * @author tilmann
+ * @see SingleFlight
+ */
+public class SingleFlightFunction4Async<T1, T2, T3, T4, R>
+    implements Function4Async<T1, T2, T3, T4, R>
+{
+    private final Function4Async<T1, T2, T3, T4, R> functionAsync;
+    private final Function4<? super T1, ? super T2, ? super T3, ? super T4, ?> keyExtractor;
+    private final SingleFlight singleFlight = new SingleFlight();
+
+    /**
+     * Coalesces the concurrent invocations of the given {@link Function4Async} with equal keys
+     * extracted from the parameters by the given key extractor.
+     *
+     * @param functionAsync the function whose invocations are coalesced
+     * @param keyExtractor  extracts the key of an invocation from its parameters
+     */
+    public SingleFlightFunction4Async(
+        Function4Async<T1, T2, T3, T4, R> functionAsync,
+        Function4<? super T1, ? super T2, ? super T3, ? super T4, ?> keyExtractor)
+    {
+        this.functionAsync = Objects.requireNonNull(functionAsync);
+        this.keyExtractor = Objects.requireNonNull(keyExtractor);
+    }
+
+    /**
+     * @return the {@link SingleFlight} coalescing the invocations of this adapter
+     */
+    public SingleFlight getSingleFlight()
+    {
+        return singleFlight;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FunctionAsyncResult<R> beginApply(Consumer<? super FunctionAsyncResult<R>> callback,
+                                             Object asyncState, T1 parameter1, T2 parameter2,
+                                             T3 parameter3, T4 parameter4)
+    {
+        return singleFlight.begin(
+            keyExtractor.apply(parameter1, parameter2, parameter3, parameter4),
+            () -> functionAsync.beginApply(null, null, parameter1, parameter2, parameter3,
+                parameter4),
+            callback, asyncState);
+    }
+}
@@ -0,0 +1,411 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.impl;
+
+import net.objectzoo.delegates.ActionAsyncResult;
+import net.objectzoo.delegates.FunctionAsyncResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * This class is the aggregate result of the asynchronous invocation of an action or function for
+ * each element of a batch of parameters. Subclasses implement {@link #apply(int)} for the element
+ * at a given index. The elements are split into chunks of consecutive elements and each chunk is
+ * handed to the {@link Executor} as a single task, so the overhead per element is reduced to the
+ * invocation itself.
+ * <p>
+ * The batch completes when all chunks have completed and its return value is the list of the
+ * return values of all elements in the order of the parameters. If the invocation of an element
+ * throws an exception the remaining elements are skipped and the batch completes exceptionally
+ * with this exception as cause. Cancelling the batch skips all elements whose invocation has not
+ * been begun. Cancelling a batch aggregated by {@link #collect} or {@link #collectActions} also
+ * cancels the separate invocations of its elements.
+ *
+ * @param <R> the type of the return value of the invocation of an element
+ * @author tilmann
+ * @see AsyncExecutor#executeAll(AsyncBatch, int)
+ */
+public abstract class AsyncBatch<R> extends AsyncTask<List<R>>
+{
+    // the updater is bound to the class, which has no parameterized class literal
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<AsyncBatch, Throwable> FAILURE =
+        AtomicReferenceFieldUpdater.newUpdater(AsyncBatch.class, Throwable.class, "failure");
+
+    private final Object[] results;
+
+    private final AtomicInteger pendingParts = new AtomicInteger();
+
+    private volatile Throwable failure;
+
+    private volatile ActionAsyncResult[] collected;
+
+    /**
+     * Creates a new {@code AsyncBatch} of the given number of elements.
+     *
+     * @param size       the number of elements of the batch
+     * @param callback   the callback to be called when the batch has completed or {@code null}
+     * @param asyncState the asynchronous state object to be returned by this asynchronous result
+     */
+    protected AsyncBatch(int size, Consumer<? super FunctionAsyncResult<List<R>>> callback,
+                         Object asyncState)
+    {
+        super(callback, asyncState);
+        this.results = new Object[size];
+    }
+
+    /**
+     * Performs the invocation of the element at the given index.
+     *
+     * @param index the index of the element
+     * @return the return value of the invocation, {@code null} for actions
+     * @throws Exception if the invocation failed
+     */
+    protected abstract R apply(int index) throws Exception;
+
+    /**
+     * Cancels this batch and, if it has been aggregated by {@link #collect} or
+     * {@link #collectActions}, the separate invocations of its elements. Exceptions thrown by the
+     * callbacks of the separate invocations are given to the
+     * {@link AsyncExecutor#getDefaultExceptionHandler() default exception handler}.
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning)
+    {
+        if (!super.cancel(mayInterruptIfRunning))
+        {
+            return false;
+        }
+        ActionAsyncResult[] collected = this.collected;
+        if (collected != null)
+        {
+            cancel(collected, collected.length, mayInterruptIfRunning);
+        }
+        return true;
+    }
+
+    /**
+     * Has no effect, a batch is completed by the last of its chunks.
+     */
+    @Override
+    public final void run()
+    {
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected final List<R> compute() throws Exception
+    {
+        Throwable failure = this.failure;
+        if (failure instanceof Exception)
+        {
+            throw (Exception) failure;
+        }
+        if (failure instanceof Error)
+        {
+            throw (Error) failure;
+        }
+        if (failure != null)
+        {
+            throw new ExecutionException(failure);
+        }
+        return Collections.unmodifiableList((List<R>) Arrays.asList(results));
+    }
+
+    /**
+     * Hands the chunks of this batch to the given {@link Executor}. If the executor rejects a
+     * chunk, this batch is cancelled and the exception is rethrown.
+     */
+    void submit(Executor executor, int chunkSize)
+    {
+        checkChunkSize(chunkSize);
+
+        int size = results.length;
+        if (size == 0)
+        {
+            super.run();
+            return;
+        }
+        pendingParts.set((size - 1) / chunkSize + 1);
+        for (int from = 0; from < size; )
+        {
+            int to = size - from > chunkSize ? from + chunkSize : size;
+            try
+            {
+                executor.execute(new Chunk(from, to));
+            }
+            catch (RuntimeException e)
+            {
+                cancel(false);
+                throw e;
+            }
+            from = to;
+        }
+    }
+
+    private void perform(int from, int to)
+    {
+        for (int index = from; index < to && failure == null && !isCancelled(); index++)
+        {
+            try
+            {
+                results[index] = apply(index);
+            }
+            catch (Throwable e)
+            {
+                FAILURE.compareAndSet(this, null, e);
+            }
+        }
+        if (pendingParts.decrementAndGet() == 0)
+        {
+            super.run();
+        }
+    }
+
+    private static void checkChunkSize(int chunkSize)
+    {
+        if (chunkSize < 1)
+        {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+    }
+
+    /**
+     * Begins the asynchronous invocation of each element of a batch separately and aggregates the
+     * results of the invocations to a single {@code AsyncBatch}. This is used by implementations
+     * that have no way to invoke multiple elements in a single task.
+     *
+     * @param <R>        the type of the return value of the invocation of an element
+     * @param size       the number of elements of the batch
+     * @param chunkSize  the requested number of elements per chunk, only checked to be positive
+     * @param begin      begins the invocation of the element at the given index
+     * @param callback   the callback to be called when the batch has completed or {@code null}
+     * @param asyncState the asynchronous state object to be returned by the batch
+     * @return the batch completing when all invocations have completed
+     * @throws IllegalArgumentException if the chunkSize is not positive
+     * @throws RuntimeException if beginning an invocation throws it, after the invocations begun
+     *                          before have been cancelled
+     */
+    public static <R> AsyncBatch<R> collect(
+        int size, int chunkSize, IntFunction<? extends FunctionAsyncResult<? extends R>> begin,
+        Consumer<? super FunctionAsyncResult<List<R>>> callback, Object asyncState)
+    {
+        checkChunkSize(chunkSize);
+
+        FunctionAsyncResult<?>[] started = new FunctionAsyncResult<?>[size];
+        AsyncBatch<R> batch = new AsyncBatch<R>(size, callback, asyncState)
+        {
+            @Override
+            @SuppressWarnings("unchecked")
+            protected R apply(int index) throws Exception
+            {
+                return (R) outcomeOf(started[index]);
+            }
+        };
+        beginAll(started, begin);
+        return batch.collectCompletions(started);
+    }
+
+    /**
+     * Begins the asynchronous invocation of each element of a batch of actions separately and
+     * aggregates the results of the invocations to a single {@code AsyncBatch}. This is used by
+     * implementations that have no way to invoke multiple elements in a single task.
+     *
+     * @param size       the number of elements of the batch
+     * @param chunkSize  the requested number of elements per chunk, only checked to be positive
+     * @param begin      begins the invocation of the element at the given index
+     * @param callback   the callback to be called when the batch has completed or {@code null}
+     * @param asyncState the asynchronous state object to be returned by the batch
+     * @return the batch completing when all invocations have completed
+     * @throws IllegalArgumentException if the chunkSize is not positive
+     * @throws RuntimeException if beginning an invocation throws it, after the invocations begun
+     *                          before have been cancelled
+     */
+    public static AsyncBatch<Object> collectActions(int size, int chunkSize,
+                                                    IntFunction<? extends ActionAsyncResult> begin,
+                                                    Consumer<ActionAsyncResult> callback,
+                                                    Object asyncState)
+    {
+        checkChunkSize(chunkSize);
+
+        ActionAsyncResult[] started = new ActionAsyncResult[size];
+        AsyncBatch<Object> batch = new AsyncBatch<Object>(size, callback, asyncState)
+        {
+            @Override
+            protected Object apply(int index) throws Exception
+            {
+                outcomeOf(started[index]);
+                return null;
+            }
+        };
+        beginAll(started, begin);
+        return batch.collectCompletions(started);
+    }
+
+    private static void beginAll(ActionAsyncResult[] started,
+                                 IntFunction<? extends ActionAsyncResult> begin)
+    {
+        for (int index = 0; index < started.length; index++)
+        {
+            try
+            {
+                started[index] = begin.apply(index);
+            }
+            catch (RuntimeException | Error e)
+            {
+                cancel(started, index, false);
+                throw e;
+            }
+        }
+    }
+
+    private static void cancel(ActionAsyncResult[] started, int count,
+                               boolean mayInterruptIfRunning)
+    {
+        for (int index = 0; index < count; index++)
+        {
+            try
+            {
+                started[index].cancel(mayInterruptIfRunning);
+            }
+            catch (Throwable e)
+            {
+                AsyncExecutor.getDefaultExceptionHandler().accept(e);
+            }
+        }
+    }
+
+    private AsyncBatch<R> collectCompletions(ActionAsyncResult[] started)
+    {
+        if (started.length == 0)
+        {
+            super.run();
+            return this;
+        }
+        collected = started;
+        pendingParts.set(started.length);
+        for (int index = 0; index < started.length; index++)
+        {
+            int element = index;
+            started[index].toCompletionStage()
+                .whenComplete((value, exception) -> perform(element, element + 1));
+        }
+        return this;
+    }
+
+    private static Object outcomeOf(ActionAsyncResult started) throws Exception
+    {
+        try
+        {
+            if (started instanceof FunctionAsyncResult)
+            {
+                return ((FunctionAsyncResult<?>) started).endReturn();
+            }
+            started.end();
+            return null;
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception)
+            {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error)
+            {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Copies the elements of the given parameters to arrays of equal length, one array for each
+     * of the parameters.
+     *
+     * @param parameters the parameters of the elements of a batch, one {@link Iterable} for each
+     *                   parameter of the invoked action or function
+     * @return the arrays of parameter values in the order of the parameters
+     * @throws IllegalArgumentException if the parameters have a different number of elements
+     */
+    public static Object[][] toArrays(Iterable<?>... parameters)
+    {
+        Object[][] arrays = new Object[parameters.length][];
+        for (int index = 0; index < parameters.length; index++)
+        {
+            arrays[index] = toArray(parameters[index]);
+            if (arrays[index].length != arrays[0].length)
+            {
+                throw new IllegalArgumentException("parameters must have the same number of "
+                    + "elements: " + arrays[0].length + " != " + arrays[index].length);
+            }
+        }
+        return arrays;
+    }
+
+    private static Object[] toArray(Iterable<?> parameter)
+    {
+        if (parameter instanceof Collection)
+        {
+            return ((Collection<?>) parameter).toArray();
+        }
+        List<Object> list = new ArrayList<>();
+        for (Object element : parameter)
+        {
+            list.add(element);
+        }
+        return list.toArray();
+    }
+
+    private final class Chunk implements Runnable
+    {
+        private final int from;
+        private final int to;
+
+        Chunk(int from, int to)
+        {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public void run()
+        {
+            perform(from, to);
+        }
+    }
+}
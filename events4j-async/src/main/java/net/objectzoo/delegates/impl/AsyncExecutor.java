@@ -48,12 +48,15 @@ import java.util.function.Supplier;
  * <p>
  * 3. A new default {@code Executor} is created and used.
  * <p>
- * The default {@code Executor} automatically created by this {@code AsyncExecutor} is a
- * {@link ThreadPoolExecutor} with at most one single @ Thread} working at the asynchronous
- * operations and an unbounded {@link LinkedBlockingQueue} as backend storage. This guarantees that
- * all asynchronous invocation are performed one after each other in the order that they have been
- * queued and bears the risk of a {@link OutOfMemoryError} if permanently new asynchronous
- * invocations are queued faster than they can be completed by a single {@code Thread}.
+ * The default {@code Executor} automatically created by this {@code AsyncExecutor} is described by
+ * the default {@link AsyncExecutorConfiguration}. Unless it is set with
+ * {@link #setDefaultConfiguration(AsyncExecutorConfiguration)} it is read from the system
+ * properties. Without any properties the default {@code Executor} is a {@link ThreadPoolExecutor}
+ * with at most one single {@code Thread} working at the asynchronous operations and an unbounded
+ * {@link LinkedBlockingQueue} as backend storage. This guarantees that all asynchronous invocation
+ * are performed one after each other in the order that they have been queued and bears the risk of
+ * a {@link OutOfMemoryError} if permanently new asynchronous invocations are queued faster than
+ * they can be completed by a single {@code Thread}.
  *
  * @author tilmann
  */
@@ -61,6 +64,10 @@ public class AsyncExecutor
 {
     private static volatile Executor defaultExecutor;
 
+    private static volatile AsyncExecutorConfiguration defaultConfiguration;
+
+    private static volatile Consumer<? super Throwable> defaultExceptionHandler;
+
     private final Executor executor;
 
     /**
@@ -86,16 +93,49 @@ public class AsyncExecutor
 
     private static Executor createDefaultExecutor()
     {
-        final ThreadGroup threadGroup = new ThreadGroup(AsyncExecutor.class.getName());
+        return getDefaultConfiguration().createExecutor();
+    }
 
-        ThreadFactory threadFactory = runnable -> {
-            Thread thread = new Thread(threadGroup, runnable);
-            thread.setDaemon(true);
-            return thread;
-        };
+    /**
+     * Retrieves the configuration of the default {@link Executor} reading it from the system
+     * properties if none has been set or read before.
+     *
+     * @return the configuration of the default {@link Executor}
+     * @throws IllegalArgumentException if a system property has an invalid value
+     * @see AsyncExecutorConfiguration#fromSystemProperties()
+     */
+    public static AsyncExecutorConfiguration getDefaultConfiguration()
+        throws IllegalArgumentException
+    {
+        if (defaultConfiguration == null)
+        {
+            synchronized (AsyncExecutor.class)
+            {
+                if (defaultConfiguration == null)
+                {
+                    defaultConfiguration = AsyncExecutorConfiguration.fromSystemProperties();
+                }
+            }
+        }
+        return defaultConfiguration;
+    }
 
-        return new ThreadPoolExecutor(0, 1, 1, TimeUnit.MINUTES,
-            new LinkedBlockingQueue<>(), threadFactory);
+    /**
+     * Sets the configuration of the default {@link Executor}. The current default
+     * {@code Executor} is discarded, a new one is created from the given configuration when it is
+     * needed next. The discarded {@code Executor} is not shut down, invocations that have already
+     * been queued are still performed. If {@code null} is given the configuration is read from the
+     * system properties again.
+     *
+     * @param defaultConfiguration the new configuration of the default {@link Executor}
+     */
+    public static void setDefaultConfiguration(AsyncExecutorConfiguration defaultConfiguration)
+    {
+        synchronized (AsyncExecutor.class)
+        {
+            AsyncExecutor.defaultConfiguration = defaultConfiguration;
+            AsyncExecutor.defaultExecutor = null;
+        }
     }
 
     /**
@@ -133,6 +173,44 @@ public class AsyncExecutor
         }
     }
 
+    /**
+     * Retrieves the default handler of exceptions thrown by fire-and-forget invocations. Unless
+     * another handler has been set the exceptions are passed to the
+     * {@link Thread.UncaughtExceptionHandler} of the thread performing the invocation, without
+     * terminating the thread.
+     *
+     * @return the default exception handler
+     * @see FireAndForgetTask
+     */
+    public static Consumer<? super Throwable> getDefaultExceptionHandler()
+    {
+        Consumer<? super Throwable> exceptionHandler = defaultExceptionHandler;
+        if (exceptionHandler != null)
+        {
+            return exceptionHandler;
+        }
+        return AsyncExecutor::reportUncaughtException;
+    }
+
+    /**
+     * Sets the default handler of exceptions thrown by fire-and-forget invocations. If
+     * {@code null} is given the exceptions are passed to the
+     * {@link Thread.UncaughtExceptionHandler} again.
+     *
+     * @param defaultExceptionHandler the new default exception handler
+     */
+    public static void setDefaultExceptionHandler(
+        Consumer<? super Throwable> defaultExceptionHandler)
+    {
+        AsyncExecutor.defaultExceptionHandler = defaultExceptionHandler;
+    }
+
+    private static void reportUncaughtException(Throwable exception)
+    {
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, exception);
+    }
+
     private Executor getExecutor()
     {
         if (executor != null)
@@ -159,7 +237,14 @@ public class AsyncExecutor
     {
         Objects.requireNonNull(callableSupplier);
 
-        return execute(callback, asyncState, callableSupplier::get);
+        return execute(new AsyncTask<R>(callback, asyncState)
+        {
+            @Override
+            protected R compute()
+            {
+                return callableSupplier.get();
+            }
+        });
     }
 
     public ActionAsyncResult execute(Action0 callableAction0, Consumer<ActionAsyncResult> callback,
@@ -167,19 +252,88 @@ public class AsyncExecutor
     {
         Objects.requireNonNull(callableAction0);
 
-        Callable<Object> callable = () -> {
-            callableAction0.start();
-            return null;
-        };
+        return execute(new AsyncTask<Object>(callback, asyncState)
+        {
+            @Override
+            protected Object compute()
+            {
+                callableAction0.start();
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Executes the given {@link AsyncTask} asynchronously. The task serves as asynchronous result
+     * of the invocation and calls its callback itself, so adapters that implement
+     * {@link AsyncTask#compute()} with the invoked function and its parameters allocate a single
+     * object per invocation.
+     *
+     * @param <R>  the return value type of the task
+     * @param task the task to be executed
+     * @return the given task
+     */
+    public <R> AsyncTask<R> execute(AsyncTask<R> task)
+    {
+        Objects.requireNonNull(task);
+
+        getExecutor().execute(task);
+        return task;
+    }
+
+    /**
+     * Executes the given {@link FireAndForgetTask} asynchronously. The task is handed to the
+     * {@link Executor} as it is, no asynchronous result is created for the invocation.
+     *
+     * @param task the task to be executed
+     */
+    public void execute(FireAndForgetTask task)
+    {
+        Objects.requireNonNull(task);
+
+        getExecutor().execute(task);
+    }
+
+    /**
+     * Executes the given {@link Action0} asynchronously without creating an asynchronous result.
+     * An exception thrown by the action is passed to the given handler.
+     *
+     * @param callableAction0  the action to be invoked asynchronously
+     * @param exceptionHandler the handler of exceptions thrown by the action, if {@code null} is
+     *                         given the {@link #getDefaultExceptionHandler() default exception
+     *                         handler} is used
+     */
+    public void executeAndForget(Action0 callableAction0,
+                                 Consumer<? super Throwable> exceptionHandler)
+    {
+        Objects.requireNonNull(callableAction0);
 
-        return execute(callback, asyncState, callable);
+        execute(new FireAndForgetTask(exceptionHandler)
+        {
+            @Override
+            protected void perform()
+            {
+                callableAction0.start();
+            }
+        });
     }
 
-    private <R> FunctionAsyncResult<R> execute(Consumer<? super FunctionAsyncResult<R>> callback,
-                                               Object asyncState, Callable<R> callable)
+    /**
+     * Executes the given {@link AsyncBatch} asynchronously handing chunks of the given number of
+     * consecutive elements to the {@link Executor} as single tasks.
+     *
+     * @param <R>       the return value type of an element of the batch
+     * @param batch     the batch to be executed
+     * @param chunkSize the number of elements per chunk
+     * @return the given batch
+     * @throws IllegalArgumentException if the chunkSize is not positive
+     */
+    public <R> AsyncBatch<R> executeAll(AsyncBatch<R> batch, int chunkSize)
+        throws IllegalArgumentException
     {
-        AsyncFutureTask<R> futureTask = new AsyncFutureTask<>(callable, callback, asyncState);
-        getExecutor().execute(futureTask);
-        return futureTask;
+        Objects.requireNonNull(batch);
+
+        batch.submit(getExecutor(), chunkSize);
+        return batch;
     }
 }
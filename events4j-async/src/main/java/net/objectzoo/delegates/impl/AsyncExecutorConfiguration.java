@@ -0,0 +1,712 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.impl;
+
+import net.objectzoo.delegates.impl.BoundedExecutor.BackpressurePolicy;
+
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class describes the default {@link Executor} that is created by {@link AsyncExecutor} if
+ * no other {@code Executor} has been given. Instances are created with a {@link Builder} or read
+ * from system properties with {@link #fromSystemProperties()}.
+ * <p>
+ * The configuration either describes a {@link ThreadPoolExecutor} with the given core and maximum
+ * pool size, keep alive time and work queue, or a work stealing {@link ForkJoinPool} with the
+ * given parallelism, or an executor that runs each invocation in a new virtual thread. All threads
+ * are daemon threads named with the given thread name prefix followed by a sequence number.
+ * <p>
+ * The queue type {@link QueueType#MPSC} describes an {@link MpscExecutor} instead of a
+ * {@code ThreadPoolExecutor}, which performs all invocations in a single thread and queues them
+ * without locking. This reduces the contention when many threads start asynchronous invocations.
+ * Its queue is unbounded and cannot be combined with a queue capacity, work stealing or virtual
+ * threads.
+ * <p>
+ * If a {@link BoundedExecutor.BackpressurePolicy} is given, the configuration describes a
+ * {@link BoundedExecutor} with the maximum pool size as fixed number of threads and a queue of the
+ * given capacity, which applies the policy when the queue is full. A backpressure policy requires
+ * a bounded linked or array queue and cannot be combined with work stealing or virtual threads,
+ * the core pool size and keep alive time are ignored.
+ * <p>
+ * Virtual threads are only available when running on Java 21 or later, where blocking in an
+ * asynchronous invocation or while waiting for its result only parks the virtual thread. On older
+ * Java versions a configuration requesting virtual threads creates the executor described by the
+ * remaining values instead. Use {@link #isVirtualThreadsSupported()} to check the runtime.
+ * <p>
+ * The default values describe a {@code ThreadPoolExecutor} with at most one single
+ * {@code Thread} and an unbounded {@link LinkedBlockingQueue}, which performs all asynchronous
+ * invocations one after each other in the order they have been queued. As soon as more than one
+ * thread is configured, the invocations may run concurrently and may complete in any order.
+ * <p>
+ * A {@code ThreadPoolExecutor} only starts more threads than its core pool size when its queue is
+ * full. With an unbounded linked queue the configuration therefore creates a pool that starts up
+ * to the maximum number of threads and, if the core pool size is smaller than the maximum, stops
+ * every thread that has been idle for the keep alive time.
+ * <p>
+ * The following system properties are read by {@link #fromSystemProperties()}, the property
+ * names are prefixed with {@value #PROPERTY_PREFIX}:
+ * <ul>
+ * <li>{@code corePoolSize} - the number of threads kept alive even if idle, default 0</li>
+ * <li>{@code maximumPoolSize} - the maximum number of threads, default 1</li>
+ * <li>{@code keepAliveSeconds} - the idle time before excess threads are stopped, default 60</li>
+ * <li>{@code queueType} - {@code linked}, {@code array}, {@code synchronous} or {@code mpsc},
+ * default {@code linked}</li>
+ * <li>{@code queueCapacity} - the capacity of the queue, default unbounded</li>
+ * <li>{@code threadNamePrefix} - the prefix of the thread names, default
+ * {@value #DEFAULT_THREAD_NAME_PREFIX}</li>
+ * <li>{@code workStealing} - {@code true} to use a {@code ForkJoinPool}, default {@code false}</li>
+ * <li>{@code parallelism} - the parallelism of the {@code ForkJoinPool}, default the number of
+ * available processors</li>
+ * <li>{@code virtualThreads} - {@code true} to use a virtual thread per invocation if supported,
+ * default {@code false}</li>
+ * <li>{@code backpressurePolicy} - {@code block}, {@code block_with_timeout},
+ * {@code drop_newest}, {@code drop_oldest}, {@code caller_runs} or {@code fail_fast}, default
+ * none</li>
+ * <li>{@code blockTimeoutMillis} - the maximum time to block with {@code block_with_timeout},
+ * default 0</li>
+ * </ul>
+ *
+ * @author tilmann
+ */
+public final class AsyncExecutorConfiguration
+{
+    /**
+     * The prefix of the system properties read by {@link #fromSystemProperties()}.
+     */
+    public static final String PROPERTY_PREFIX = "net.objectzoo.delegates.async.";
+
+    /**
+     * The default prefix of the names of the created threads.
+     */
+    public static final String DEFAULT_THREAD_NAME_PREFIX = "events4j-async-";
+
+    /**
+     * The type of work queue used by a {@link ThreadPoolExecutor}.
+     */
+    public enum QueueType
+    {
+        /**
+         * A {@link LinkedBlockingQueue}, which is unbounded unless a capacity is given.
+         */
+        LINKED,
+
+        /**
+         * An {@link ArrayBlockingQueue} with the given capacity, which must be set explicitly.
+         */
+        ARRAY,
+
+        /**
+         * A {@link SynchronousQueue} that hands each invocation directly to a thread. The
+         * capacity is ignored.
+         */
+        SYNCHRONOUS,
+
+        /**
+         * The lock-free queue of an {@link MpscExecutor}, which is created instead of a
+         * {@code ThreadPoolExecutor}. The invocations are performed in a single thread, the pool
+         * sizes and keep alive time are ignored. The queue is unbounded, so it cannot be combined
+         * with a queue capacity, work stealing or virtual threads.
+         */
+        MPSC
+    }
+
+    private final int corePoolSize;
+
+    private final int maximumPoolSize;
+
+    private final long keepAliveSeconds;
+
+    private final QueueType queueType;
+
+    private final int queueCapacity;
+
+    private final String threadNamePrefix;
+
+    private final boolean workStealing;
+
+    private final int parallelism;
+
+    private final boolean virtualThreads;
+
+    private final BackpressurePolicy backpressurePolicy;
+
+    private final long blockTimeoutMillis;
+
+    private AsyncExecutorConfiguration(Builder builder)
+    {
+        this.corePoolSize = builder.corePoolSize;
+        this.maximumPoolSize = builder.maximumPoolSize;
+        this.keepAliveSeconds = builder.keepAliveSeconds;
+        this.queueType = builder.queueType;
+        this.queueCapacity = builder.queueCapacity;
+        this.threadNamePrefix = builder.threadNamePrefix;
+        this.workStealing = builder.workStealing;
+        this.parallelism = builder.parallelism;
+        this.virtualThreads = builder.virtualThreads;
+        this.backpressurePolicy = builder.backpressurePolicy;
+        this.blockTimeoutMillis = builder.blockTimeoutMillis;
+    }
+
+    /**
+     * Creates a new {@link Builder} initialized with the default values.
+     *
+     * @return the new {@code Builder}
+     */
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * Creates a configuration from the system properties. Properties that are not set keep their
+     * default value.
+     *
+     * @return the configuration described by the system properties
+     * @throws IllegalArgumentException if a property has an invalid value
+     */
+    public static AsyncExecutorConfiguration fromSystemProperties() throws IllegalArgumentException
+    {
+        return fromProperties(System.getProperties());
+    }
+
+    /**
+     * Creates a configuration from the given properties using the same property names as
+     * {@link #fromSystemProperties()}.
+     *
+     * @param properties the properties to read
+     * @return the configuration described by the properties
+     * @throws IllegalArgumentException if a property has an invalid value
+     */
+    public static AsyncExecutorConfiguration fromProperties(Properties properties)
+        throws IllegalArgumentException
+    {
+        Objects.requireNonNull(properties);
+
+        Builder builder = builder();
+        String value = properties.getProperty(PROPERTY_PREFIX + "corePoolSize");
+        if (value != null)
+        {
+            builder.corePoolSize(parseInt("corePoolSize", value));
+        }
+        value = properties.getProperty(PROPERTY_PREFIX + "maximumPoolSize");
+        if (value != null)
+        {
+            builder.maximumPoolSize(parseInt("maximumPoolSize", value));
+        }
+        value = properties.getProperty(PROPERTY_PREFIX + "keepAliveSeconds");
+        if (value != null)
+        {
+            builder.keepAliveSeconds(parseInt("keepAliveSeconds", value));
+        }
+        value = properties.getProperty(PROPERTY_PREFIX + "queueType");
+        if (value != null)
+        {
+            try
+            {
+                builder.queueType(QueueType.valueOf(value.trim().toUpperCase(Locale.ROOT)));
+            }
+            catch (IllegalArgumentException e)
+            {
+                throw invalidProperty("queueType", value);
+            }
+        }
+        value = properties.getProperty(PROPERTY_PREFIX + "queueCapacity");
+        if (value != null)
+        {
+            builder.queueCapacity(parseInt("queueCapacity", value));
+        }
+        value = properties.getProperty(PROPERTY_PREFIX + "threadNamePrefix");
+        if (value != null)
+        {
+            builder.threadNamePrefix(value);
+        }
+        value = properties.getProperty(PROPERTY_PREFIX + "workStealing");
+        if (value != null)
+        {
+            builder.workStealing(Boolean.parseBoolean(value.trim()));
+        }
+        value = properties.getProperty(PROPERTY_PREFIX + "parallelism");
+        if (value != null)
+        {
+            builder.parallelism(parseInt("parallelism", value));
+        }
+        value = properties.getProperty(PROPERTY_PREFIX + "virtualThreads");
+        if (value != null)
+        {
+            builder.virtualThreads(Boolean.parseBoolean(value.trim()));
+        }
+        value = properties.getProperty(PROPERTY_PREFIX + "backpressurePolicy");
+        if (value != null)
+        {
+            try
+            {
+                builder.backpressurePolicy(
+                    BackpressurePolicy.valueOf(value.trim().toUpperCase(Locale.ROOT)));
+            }
+            catch (IllegalArgumentException e)
+            {
+                throw invalidProperty("backpressurePolicy", value);
+            }
+        }
+        value = properties.getProperty(PROPERTY_PREFIX + "blockTimeoutMillis");
+        if (value != null)
+        {
+            builder.blockTimeoutMillis(parseInt("blockTimeoutMillis", value));
+        }
+        return builder.build();
+    }
+
+    private static int parseInt(String name, String value)
+    {
+        try
+        {
+            return Integer.parseInt(value.trim());
+        }
+        catch (NumberFormatException e)
+        {
+            throw invalidProperty(name, value);
+        }
+    }
+
+    private static IllegalArgumentException invalidProperty(String name, String value)
+    {
+        return new IllegalArgumentException(
+            "Invalid value '" + value + "' for property " + PROPERTY_PREFIX + name + ".");
+    }
+
+    /**
+     * Creates a new {@link Executor} as described by this configuration.
+     * <p>
+     * If a bounded queue is full and all threads are busy, a {@link ThreadPoolExecutor} rejects
+     * further invocations with a {@link RejectedExecutionException}, unless a backpressure policy
+     * has been given.
+     *
+     * @return the new {@code Executor}
+     */
+    public Executor createExecutor()
+    {
+        if (virtualThreads && VirtualThreads.isSupported())
+        {
+            return VirtualThreads.newExecutor(threadNamePrefix);
+        }
+        if (workStealing)
+        {
+            return new ForkJoinPool(parallelism, createWorkerThreadFactory(), null, true);
+        }
+        if (queueType == QueueType.MPSC)
+        {
+            return new MpscExecutor(createThreadFactory());
+        }
+        if (backpressurePolicy != null)
+        {
+            return new BoundedExecutor(maximumPoolSize, queueCapacity, backpressurePolicy,
+                blockTimeoutMillis, TimeUnit.MILLISECONDS, createThreadFactory());
+        }
+
+        return createThreadPool();
+    }
+
+    private ThreadPoolExecutor createThreadPool()
+    {
+        if (queueType != QueueType.LINKED || queueCapacity != Integer.MAX_VALUE
+            || corePoolSize == maximumPoolSize)
+        {
+            return new ThreadPoolExecutor(corePoolSize, maximumPoolSize, keepAliveSeconds,
+                TimeUnit.SECONDS, createQueue(), createThreadFactory());
+        }
+
+        // A ThreadPoolExecutor only starts threads beyond the core pool size when its queue
+        // rejects an invocation, which an unbounded queue never does. All threads are therefore
+        // core threads that stop when they have been idle for the keep alive time.
+        ThreadPoolExecutor threadPool = new ThreadPoolExecutor(maximumPoolSize, maximumPoolSize,
+            keepAliveSeconds, TimeUnit.SECONDS, createQueue(), createThreadFactory());
+        threadPool.allowCoreThreadTimeOut(keepAliveSeconds > 0);
+        return threadPool;
+    }
+
+    private BlockingQueue<Runnable> createQueue()
+    {
+        switch (queueType)
+        {
+            case ARRAY:
+                return new ArrayBlockingQueue<>(queueCapacity);
+            case SYNCHRONOUS:
+                return new SynchronousQueue<>();
+            default:
+                return new LinkedBlockingQueue<>(queueCapacity);
+        }
+    }
+
+    private ThreadFactory createThreadFactory()
+    {
+        ThreadGroup threadGroup = new ThreadGroup(AsyncExecutor.class.getName());
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        return runnable -> {
+            Thread thread = new Thread(threadGroup, runnable,
+                threadNamePrefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private ForkJoinPool.ForkJoinWorkerThreadFactory createWorkerThreadFactory()
+    {
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        return pool -> {
+            ForkJoinWorkerThread thread =
+                ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(threadNamePrefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * @return the number of threads kept alive even if idle
+     */
+    public int getCorePoolSize()
+    {
+        return corePoolSize;
+    }
+
+    /**
+     * @return the maximum number of threads
+     */
+    public int getMaximumPoolSize()
+    {
+        return maximumPoolSize;
+    }
+
+    /**
+     * @return the idle time in seconds before threads exceeding the core pool size are stopped
+     */
+    public long getKeepAliveSeconds()
+    {
+        return keepAliveSeconds;
+    }
+
+    /**
+     * @return the type of the work queue
+     */
+    public QueueType getQueueType()
+    {
+        return queueType;
+    }
+
+    /**
+     * @return the capacity of the work queue
+     */
+    public int getQueueCapacity()
+    {
+        return queueCapacity;
+    }
+
+    /**
+     * @return the prefix of the names of the created threads
+     */
+    public String getThreadNamePrefix()
+    {
+        return threadNamePrefix;
+    }
+
+    /**
+     * @return {@code true} if a work stealing {@link ForkJoinPool} is created
+     */
+    public boolean isWorkStealing()
+    {
+        return workStealing;
+    }
+
+    /**
+     * @return the parallelism of the work stealing {@link ForkJoinPool}
+     */
+    public int getParallelism()
+    {
+        return parallelism;
+    }
+
+    /**
+     * @return {@code true} if an executor using a virtual thread per invocation is created when
+     * supported
+     */
+    public boolean isVirtualThreads()
+    {
+        return virtualThreads;
+    }
+
+    /**
+     * @return the policy applied by a {@link BoundedExecutor} when the queue is full or
+     * {@code null} if no bounded executor is created
+     */
+    public BackpressurePolicy getBackpressurePolicy()
+    {
+        return backpressurePolicy;
+    }
+
+    /**
+     * @return the maximum time in milliseconds to block with
+     * {@link BackpressurePolicy#BLOCK_WITH_TIMEOUT}
+     */
+    public long getBlockTimeoutMillis()
+    {
+        return blockTimeoutMillis;
+    }
+
+    /**
+     * Checks if the runtime supports virtual threads, which requires Java 21 or later.
+     *
+     * @return {@code true} if configurations requesting virtual threads create an executor using
+     * virtual threads
+     */
+    public static boolean isVirtualThreadsSupported()
+    {
+        return VirtualThreads.isSupported();
+    }
+
+    /**
+     * A builder for {@link AsyncExecutorConfiguration}s. It is initialized with the default
+     * values.
+     */
+    public static final class Builder
+    {
+        private int corePoolSize = 0;
+
+        private int maximumPoolSize = 1;
+
+        private long keepAliveSeconds = 60;
+
+        private QueueType queueType = QueueType.LINKED;
+
+        private int queueCapacity = Integer.MAX_VALUE;
+
+        private String threadNamePrefix = DEFAULT_THREAD_NAME_PREFIX;
+
+        private boolean workStealing = false;
+
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+
+        private boolean virtualThreads = false;
+
+        private BackpressurePolicy backpressurePolicy = null;
+
+        private long blockTimeoutMillis = 0;
+
+        private Builder()
+        {
+        }
+
+        /**
+         * @param corePoolSize the number of threads kept alive even if idle
+         * @return this builder
+         */
+        public Builder corePoolSize(int corePoolSize)
+        {
+            this.corePoolSize = corePoolSize;
+            return this;
+        }
+
+        /**
+         * @param maximumPoolSize the maximum number of threads
+         * @return this builder
+         */
+        public Builder maximumPoolSize(int maximumPoolSize)
+        {
+            this.maximumPoolSize = maximumPoolSize;
+            return this;
+        }
+
+        /**
+         * @param keepAliveSeconds the idle time in seconds before threads exceeding the core pool
+         *                         size are stopped
+         * @return this builder
+         */
+        public Builder keepAliveSeconds(long keepAliveSeconds)
+        {
+            this.keepAliveSeconds = keepAliveSeconds;
+            return this;
+        }
+
+        /**
+         * @param queueType the type of the work queue
+         * @return this builder
+         */
+        public Builder queueType(QueueType queueType)
+        {
+            this.queueType = Objects.requireNonNull(queueType);
+            return this;
+        }
+
+        /**
+         * @param queueCapacity the capacity of the work queue
+         * @return this builder
+         */
+        public Builder queueCapacity(int queueCapacity)
+        {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * @param threadNamePrefix the prefix of the names of the created threads
+         * @return this builder
+         */
+        public Builder threadNamePrefix(String threadNamePrefix)
+        {
+            this.threadNamePrefix = Objects.requireNonNull(threadNamePrefix);
+            return this;
+        }
+
+        /**
+         * @param workStealing {@code true} to create a work stealing {@link ForkJoinPool}
+         * @return this builder
+         */
+        public Builder workStealing(boolean workStealing)
+        {
+            this.workStealing = workStealing;
+            return this;
+        }
+
+        /**
+         * @param parallelism the parallelism of the work stealing {@link ForkJoinPool}
+         * @return this builder
+         */
+        public Builder parallelism(int parallelism)
+        {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * @param virtualThreads {@code true} to create an executor that runs each invocation in a
+         *                       new virtual thread if the runtime supports virtual threads
+         * @return this builder
+         */
+        public Builder virtualThreads(boolean virtualThreads)
+        {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        /**
+         * @param backpressurePolicy the policy applied when the bounded queue is full, which
+         *                           creates a {@link BoundedExecutor}, or {@code null} for none
+         * @return this builder
+         */
+        public Builder backpressurePolicy(BackpressurePolicy backpressurePolicy)
+        {
+            this.backpressurePolicy = backpressurePolicy;
+            return this;
+        }
+
+        /**
+         * @param blockTimeoutMillis the maximum time in milliseconds to block with
+         *                           {@link BackpressurePolicy#BLOCK_WITH_TIMEOUT}
+         * @return this builder
+         */
+        public Builder blockTimeoutMillis(long blockTimeoutMillis)
+        {
+            this.blockTimeoutMillis = blockTimeoutMillis;
+            return this;
+        }
+
+        /**
+         * Creates the configuration from the values of this builder.
+         *
+         * @return the new configuration
+         * @throws IllegalArgumentException if the values do not describe a valid executor
+         */
+        public AsyncExecutorConfiguration build() throws IllegalArgumentException
+        {
+            if (corePoolSize < 0 || maximumPoolSize < 1 || maximumPoolSize < corePoolSize)
+            {
+                throw new IllegalArgumentException("Invalid pool size, core: " + corePoolSize
+                    + ", maximum: " + maximumPoolSize + ".");
+            }
+            if (keepAliveSeconds < 0)
+            {
+                throw new IllegalArgumentException(
+                    "Invalid keep alive time: " + keepAliveSeconds + ".");
+            }
+            if (queueCapacity < 1)
+            {
+                throw new IllegalArgumentException(
+                    "Invalid queue capacity: " + queueCapacity + ".");
+            }
+            if (queueType == QueueType.ARRAY && queueCapacity == Integer.MAX_VALUE)
+            {
+                throw new IllegalArgumentException("An array queue requires a queue capacity.");
+            }
+            if (queueType == QueueType.MPSC && queueCapacity != Integer.MAX_VALUE)
+            {
+                throw new IllegalArgumentException("A mpsc queue cannot be bounded.");
+            }
+            if (queueType == QueueType.MPSC && (workStealing || virtualThreads))
+            {
+                throw new IllegalArgumentException(
+                    "A mpsc queue excludes work stealing and virtual threads.");
+            }
+            if (parallelism < 1)
+            {
+                throw new IllegalArgumentException("Invalid parallelism: " + parallelism + ".");
+            }
+            if (backpressurePolicy != null && (queueCapacity == Integer.MAX_VALUE
+                || queueType == QueueType.SYNCHRONOUS || queueType == QueueType.MPSC))
+            {
+                throw new IllegalArgumentException(
+                    "A backpressure policy requires a bounded linked or array queue.");
+            }
+            if (backpressurePolicy != null && (workStealing || virtualThreads))
+            {
+                throw new IllegalArgumentException(
+                    "A backpressure policy excludes work stealing and virtual threads.");
+            }
+            if (backpressurePolicy == BackpressurePolicy.BLOCK_WITH_TIMEOUT
+                && blockTimeoutMillis < 1)
+            {
+                throw new IllegalArgumentException(
+                    "Invalid block timeout: " + blockTimeoutMillis + ".");
+            }
+            return new AsyncExecutorConfiguration(this);
+        }
+    }
+}
@@ -46,6 +46,7 @@ public class AsyncFutureTask<R> extends FutureTask<R> implements FunctionAsyncRe
 {
     private final Object asyncState;
     private final Consumer<? super FunctionAsyncResult<R>> callback;
+    private volatile CompletableFuture<R> stage;
 
     /**
      * Creates a new {@code AsyncFutureTask} that invokes the given callable and holds the given
@@ -79,12 +80,82 @@ public class AsyncFutureTask<R> extends FutureTask<R> implements FunctionAsyncRe
     @Override
     protected void done()
     {
+        CompletableFuture<R> stage = this.stage;
+        if (stage != null)
+        {
+            complete(stage);
+        }
         if (callback != null)
         {
             callback.accept(this);
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The stage is completed by the thread completing this task, dependent stages that do not use
+     * their own executor run in that thread. Each call returns a separate stage, so completing it
+     * affects neither this task nor other stages.
+     */
+    @Override
+    public CompletionStage<R> toCompletionStage()
+    {
+        CompletableFuture<R> stage = this.stage;
+        if (stage == null)
+        {
+            synchronized (this)
+            {
+                stage = this.stage;
+                if (stage == null)
+                {
+                    stage = new CompletableFuture<>();
+                    this.stage = stage;
+                }
+            }
+            // done() may have run before the stage was visible to it
+            if (isDone())
+            {
+                complete(stage);
+            }
+        }
+        CompletableFuture<R> result = new CompletableFuture<>();
+        stage.whenComplete((value, exception) -> {
+            if (exception != null)
+            {
+                result.completeExceptionally(exception);
+            }
+            else
+            {
+                result.complete(value);
+            }
+        });
+        return result;
+    }
+
+    private void complete(CompletableFuture<R> stage)
+    {
+        if (isCancelled())
+        {
+            stage.completeExceptionally(new CancellationException());
+            return;
+        }
+        try
+        {
+            stage.complete(get());
+        }
+        catch (ExecutionException e)
+        {
+            stage.completeExceptionally(e.getCause());
+        }
+        catch (InterruptedException e)
+        {
+            // get() does not block on a completed task
+            Thread.currentThread().interrupt();
+            stage.completeExceptionally(e);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
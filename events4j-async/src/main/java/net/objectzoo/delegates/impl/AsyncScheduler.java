@@ -0,0 +1,78 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.impl;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * This class holds the {@link ScheduledExecutorService} used for delayed actions of asynchronous
+ * invocations like timeouts and hedged attempts. The scheduler uses a single daemon thread that is
+ * created when it is needed first. Scheduled actions are expected to be short, they should only
+ * begin or complete asynchronous invocations.
+ *
+ * @author tilmann
+ */
+public final class AsyncScheduler
+{
+    private static final String THREAD_NAME =
+        AsyncExecutorConfiguration.DEFAULT_THREAD_NAME_PREFIX + "scheduler";
+
+    private static volatile ScheduledExecutorService defaultScheduler;
+
+    private AsyncScheduler()
+    {
+    }
+
+    /**
+     * Retrieves the default {@link ScheduledExecutorService} creating it if it has not been
+     * created before. Cancelled actions are removed from its queue immediately.
+     *
+     * @return the default scheduler
+     */
+    public static ScheduledExecutorService getDefaultScheduler()
+    {
+        if (defaultScheduler == null)
+        {
+            synchronized (AsyncScheduler.class)
+            {
+                if (defaultScheduler == null)
+                {
+                    ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1,
+                        runnable -> {
+                            Thread thread = new Thread(runnable, THREAD_NAME);
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+                    scheduler.setRemoveOnCancelPolicy(true);
+                    defaultScheduler = scheduler;
+                }
+            }
+        }
+        return defaultScheduler;
+    }
+}
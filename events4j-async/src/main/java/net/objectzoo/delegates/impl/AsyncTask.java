@@ -0,0 +1,405 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.impl;
+
+import net.objectzoo.delegates.ActionAsyncResult;
+import net.objectzoo.delegates.FunctionAsyncResult;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Consumer;
+
+/**
+ * This class is a lightweight alternative to {@link AsyncFutureTask} for the asynchronous
+ * invocation of actions and functions. Subclasses implement {@link #compute()} carrying the
+ * invoked action or function and its parameters as fields, so a single object serves as the
+ * {@link Runnable} given to the {@link java.util.concurrent.Executor}, as return value of the
+ * asynchronous invocation and as parameter given to the callback.
+ * <p>
+ * The life cycle of the task is kept in a single state word that is changed using
+ * compare-and-set. Threads waiting in {@link #end()} or {@link #endReturn()} spin briefly before
+ * they block on the monitor of the task, and a completing task only notifies waiters if any have
+ * blocked.
+ *
+ * @param <R> the type of the return value of the invocation
+ * @author tilmann
+ */
+public abstract class AsyncTask<R> implements Runnable, FunctionAsyncResult<R>, ActionAsyncResult
+{
+    private static final int NEW = 0;
+    private static final int RUNNING = 1;
+    private static final int COMPLETED = 2;
+    private static final int FAILED = 3;
+    private static final int CANCELLED = 4;
+
+    private static final int STATE_MASK = 7;
+
+    /**
+     * Set in the state word as soon as a thread blocks waiting for the completion.
+     */
+    private static final int WAITING = 8;
+
+    private static final int SPINS = Runtime.getRuntime().availableProcessors() > 1 ? 256 : 0;
+
+    // the updater is bound to the class, which has no parameterized class literal
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<AsyncTask> STATE =
+        AtomicIntegerFieldUpdater.newUpdater(AsyncTask.class, "state");
+
+    private final Consumer<? super FunctionAsyncResult<R>> callback;
+    private final Object asyncState;
+
+    private volatile int state;
+
+    /**
+     * The return value or the exception thrown, written before the state is completed.
+     */
+    private Object outcome;
+
+    private volatile Thread runner;
+
+    private volatile CompletableFuture<R> stage;
+
+    /**
+     * Creates a new {@code AsyncTask} that holds the given callback and asyncState.
+     *
+     * @param callback   the callback to be called when the invocation has finished or
+     *                   {@code null}
+     * @param asyncState the asynchronous state object to be returned by this asynchronous result
+     */
+    protected AsyncTask(Consumer<? super FunctionAsyncResult<R>> callback, Object asyncState)
+    {
+        this.callback = callback;
+        this.asyncState = asyncState;
+    }
+
+    /**
+     * Performs the invocation of this task.
+     *
+     * @return the return value of the invocation, {@code null} for actions
+     * @throws Exception if the invocation failed
+     */
+    protected abstract R compute() throws Exception;
+
+    /**
+     * Performs the invocation of this task unless it has been cancelled or run before.
+     */
+    @Override
+    public void run()
+    {
+        int s;
+        do
+        {
+            s = state;
+            if ((s & STATE_MASK) != NEW)
+            {
+                return;
+            }
+        }
+        while (!STATE.compareAndSet(this, s, (s & WAITING) | RUNNING));
+
+        runner = Thread.currentThread();
+        int outcomeState;
+        Object outcome;
+        try
+        {
+            outcome = compute();
+            outcomeState = COMPLETED;
+        }
+        catch (Throwable e)
+        {
+            outcome = e;
+            outcomeState = FAILED;
+        }
+        finally
+        {
+            synchronized (this)
+            {
+                runner = null;
+            }
+            if ((state & STATE_MASK) == CANCELLED)
+            {
+                // a cancelling interrupt must not leak into the next task of the executor thread
+                Thread.interrupted();
+            }
+        }
+        // completing outside the try block lets an exception of the callback propagate
+        complete(outcomeState, outcome);
+    }
+
+    private void complete(int outcomeState, Object outcome)
+    {
+        int s;
+        do
+        {
+            s = state;
+            if ((s & STATE_MASK) != RUNNING)
+            {
+                // cancelled while running
+                return;
+            }
+            this.outcome = outcome;
+        }
+        while (!STATE.compareAndSet(this, s, outcomeState));
+
+        finish(s);
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning)
+    {
+        int s;
+        do
+        {
+            s = state;
+            if ((s & STATE_MASK) >= COMPLETED)
+            {
+                return false;
+            }
+        }
+        while (!STATE.compareAndSet(this, s, CANCELLED));
+
+        if (mayInterruptIfRunning)
+        {
+            synchronized (this)
+            {
+                Thread runner = this.runner;
+                if (runner != null)
+                {
+                    runner.interrupt();
+                }
+            }
+        }
+        finish(s);
+        return true;
+    }
+
+    private void finish(int previousState)
+    {
+        if ((previousState & WAITING) != 0)
+        {
+            synchronized (this)
+            {
+                notifyAll();
+            }
+        }
+        CompletableFuture<R> stage = this.stage;
+        if (stage != null)
+        {
+            completeStage(stage);
+        }
+        if (callback != null)
+        {
+            callback.accept(this);
+        }
+    }
+
+    @Override
+    public Object getAsyncState()
+    {
+        return asyncState;
+    }
+
+    @Override
+    public boolean isCancelled()
+    {
+        return (state & STATE_MASK) == CANCELLED;
+    }
+
+    @Override
+    public boolean isDone()
+    {
+        return (state & STATE_MASK) >= COMPLETED;
+    }
+
+    @Override
+    public void end() throws InterruptedException, ExecutionException
+    {
+        report(awaitDone(false, 0));
+    }
+
+    @Override
+    public void end(long timeout, TimeUnit unit) throws InterruptedException,
+        ExecutionException, TimeoutException
+    {
+        report(awaitDone(unit.toNanos(timeout)));
+    }
+
+    @Override
+    public R endReturn() throws InterruptedException, ExecutionException
+    {
+        return report(awaitDone(false, 0));
+    }
+
+    @Override
+    public R endReturn(long timeout, TimeUnit unit) throws InterruptedException,
+        ExecutionException, TimeoutException
+    {
+        return report(awaitDone(unit.toNanos(timeout)));
+    }
+
+    private int awaitDone(long nanos) throws InterruptedException, TimeoutException
+    {
+        int s = awaitDone(true, nanos);
+        if (s < COMPLETED)
+        {
+            throw new TimeoutException();
+        }
+        return s;
+    }
+
+    /**
+     * Waits for the completion spinning briefly before blocking on the monitor of this task.
+     *
+     * @return the state of this task without the waiting flag, only incomplete if timed out
+     */
+    private int awaitDone(boolean timed, long nanos) throws InterruptedException
+    {
+        int s = state & STATE_MASK;
+        for (int spins = SPINS; s < COMPLETED && spins > 0; spins--)
+        {
+            s = state & STATE_MASK;
+        }
+        if (s >= COMPLETED)
+        {
+            return s;
+        }
+
+        long deadline = timed ? System.nanoTime() + nanos : 0;
+        synchronized (this)
+        {
+            while (true)
+            {
+                if (Thread.interrupted())
+                {
+                    throw new InterruptedException();
+                }
+                s = state;
+                if ((s & STATE_MASK) >= COMPLETED)
+                {
+                    return s & STATE_MASK;
+                }
+                if ((s & WAITING) == 0 && !STATE.compareAndSet(this, s, s | WAITING))
+                {
+                    continue;
+                }
+                if (timed)
+                {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0)
+                    {
+                        return s & STATE_MASK;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+                else
+                {
+                    wait();
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private R report(int s) throws ExecutionException
+    {
+        if (s == COMPLETED)
+        {
+            return (R) outcome;
+        }
+        if (s == CANCELLED)
+        {
+            throw new CancellationException();
+        }
+        throw new ExecutionException((Throwable) outcome);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The stage is completed by the thread completing this task, dependent stages that do not use
+     * their own executor run in that thread. Each call returns a separate stage, so completing it
+     * affects neither this task nor other stages.
+     */
+    @Override
+    public CompletionStage<R> toCompletionStage()
+    {
+        CompletableFuture<R> stage = this.stage;
+        if (stage == null)
+        {
+            synchronized (this)
+            {
+                stage = this.stage;
+                if (stage == null)
+                {
+                    stage = new CompletableFuture<>();
+                    this.stage = stage;
+                }
+            }
+            // finish() may have run before the stage was visible to it
+            if (isDone())
+            {
+                completeStage(stage);
+            }
+        }
+        CompletableFuture<R> result = new CompletableFuture<>();
+        stage.whenComplete((value, exception) -> {
+            if (exception != null)
+            {
+                result.completeExceptionally(exception);
+            }
+            else
+            {
+                result.complete(value);
+            }
+        });
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void completeStage(CompletableFuture<R> stage)
+    {
+        int s = state & STATE_MASK;
+        if (s == COMPLETED)
+        {
+            stage.complete((R) outcome);
+        }
+        else if (s == CANCELLED)
+        {
+            stage.completeExceptionally(new CancellationException());
+        }
+        else
+        {
+            stage.completeExceptionally((Throwable) outcome);
+        }
+    }
+}
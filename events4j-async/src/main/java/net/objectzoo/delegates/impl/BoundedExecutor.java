@@ -0,0 +1,372 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.impl;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@code BoundedExecutor} is a {@link ThreadPoolExecutor} with a fixed number of threads and a
+ * bounded work queue that applies a {@link BackpressurePolicy} when the queue is full. It can be
+ * given to the asynchronous adapters and event adapters in place of an executor with an unbounded
+ * queue, so a burst of asynchronous invocations is throttled or shed according to the policy
+ * instead of growing the heap without limit.
+ * <p>
+ * Only invocations that can be cancelled, an {@link AsyncTask} or a {@link Future}, are dropped by
+ * a policy. They are cancelled, so callers waiting for the result of a dropped invocation fail
+ * with a {@link java.util.concurrent.CancellationException} instead of waiting forever. Other
+ * tasks may hold state that is only released when they run, so instead of dropping them the
+ * submitted task is rejected with a {@link RejectedExecutionException}. The current depth of the
+ * queue and the number of rejected invocations are exposed for monitoring.
+ *
+ * @author tilmann
+ */
+public class BoundedExecutor extends ThreadPoolExecutor
+{
+    /**
+     * The policies applied when an invocation is submitted while the queue is full.
+     */
+    public enum BackpressurePolicy
+    {
+        /**
+         * Block the submitting thread until there is space in the queue.
+         */
+        BLOCK,
+
+        /**
+         * Block the submitting thread until there is space in the queue or the block timeout has
+         * elapsed, in which case the invocation is rejected with a
+         * {@link RejectedExecutionException}.
+         */
+        BLOCK_WITH_TIMEOUT,
+
+        /**
+         * Drop the submitted invocation, or reject it with a {@link RejectedExecutionException}
+         * if it cannot be cancelled.
+         */
+        DROP_NEWEST,
+
+        /**
+         * Drop the oldest queued invocation that can be cancelled to make room for the submitted
+         * invocation, or reject the submitted invocation with a
+         * {@link RejectedExecutionException} if there is none.
+         */
+        DROP_OLDEST,
+
+        /**
+         * Perform the submitted invocation in the submitting thread.
+         */
+        CALLER_RUNS,
+
+        /**
+         * Reject the submitted invocation with a {@link RejectedExecutionException}.
+         */
+        FAIL_FAST
+    }
+
+    private static final String THREAD_NAME_PREFIX =
+        AsyncExecutorConfiguration.DEFAULT_THREAD_NAME_PREFIX + "bounded-";
+
+    private static final AtomicInteger executorCount = new AtomicInteger();
+
+    private final Backpressure backpressure;
+
+    /**
+     * Creates a new {@code BoundedExecutor} with daemon threads.
+     *
+     * @param threads  the number of threads
+     * @param capacity the capacity of the queue
+     * @param policy   the policy applied when the queue is full, which must not be
+     *                 {@link BackpressurePolicy#BLOCK_WITH_TIMEOUT}
+     * @throws IllegalArgumentException if the number of threads or the capacity is not positive
+     *                                  or the policy requires a timeout
+     */
+    public BoundedExecutor(int threads, int capacity, BackpressurePolicy policy)
+        throws IllegalArgumentException
+    {
+        this(threads, capacity, policy, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a new {@code BoundedExecutor} with daemon threads.
+     *
+     * @param threads      the number of threads
+     * @param capacity     the capacity of the queue
+     * @param policy       the policy applied when the queue is full
+     * @param blockTimeout the maximum time to block for
+     *                     {@link BackpressurePolicy#BLOCK_WITH_TIMEOUT}
+     * @param unit         the unit of the block timeout
+     * @throws IllegalArgumentException if the number of threads or the capacity is not positive
+     *                                  or the policy requires a positive timeout
+     */
+    public BoundedExecutor(int threads, int capacity, BackpressurePolicy policy, long blockTimeout,
+                           TimeUnit unit) throws IllegalArgumentException
+    {
+        this(threads, capacity, policy, blockTimeout, unit, createThreadFactory());
+    }
+
+    /**
+     * Creates a new {@code BoundedExecutor} with threads created by the given
+     * {@link ThreadFactory}.
+     *
+     * @param threads       the number of threads
+     * @param capacity      the capacity of the queue
+     * @param policy        the policy applied when the queue is full
+     * @param blockTimeout  the maximum time to block for
+     *                      {@link BackpressurePolicy#BLOCK_WITH_TIMEOUT}
+     * @param unit          the unit of the block timeout
+     * @param threadFactory the factory creating the threads
+     * @throws IllegalArgumentException if the number of threads or the capacity is not positive
+     *                                  or the policy requires a positive timeout
+     */
+    public BoundedExecutor(int threads, int capacity, BackpressurePolicy policy, long blockTimeout,
+                           TimeUnit unit, ThreadFactory threadFactory)
+        throws IllegalArgumentException
+    {
+        this(threads, createQueue(capacity), threadFactory,
+            new Backpressure(policy, unit.toNanos(blockTimeout)));
+    }
+
+    private BoundedExecutor(int threads, BlockingQueue<Runnable> queue,
+                            ThreadFactory threadFactory, Backpressure backpressure)
+    {
+        super(threads, threads, 0, TimeUnit.SECONDS, queue, threadFactory, backpressure);
+        this.backpressure = backpressure;
+    }
+
+    private static BlockingQueue<Runnable> createQueue(int capacity)
+    {
+        if (capacity < 1)
+        {
+            throw new IllegalArgumentException("Invalid queue capacity: " + capacity + ".");
+        }
+        return new ArrayBlockingQueue<>(capacity);
+    }
+
+    private static ThreadFactory createThreadFactory()
+    {
+        String threadName = THREAD_NAME_PREFIX + executorCount.incrementAndGet() + "-";
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        return runnable -> {
+            Thread thread = new Thread(runnable, threadName + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * @return the policy applied when the queue is full
+     */
+    public BackpressurePolicy getBackpressurePolicy()
+    {
+        return backpressure.policy;
+    }
+
+    /**
+     * @return the number of invocations currently waiting in the queue
+     */
+    public int getQueueDepth()
+    {
+        return getQueue().size();
+    }
+
+    /**
+     * @return the number of invocations that have been dropped or rejected because the queue was
+     *         full
+     */
+    public long getRejectedCount()
+    {
+        return backpressure.rejected.sum();
+    }
+
+    /**
+     * @return the number of invocations that have been performed in the submitting thread
+     *         because the queue was full
+     */
+    public long getCallerRunsCount()
+    {
+        return backpressure.callerRuns.sum();
+    }
+
+    /**
+     * @return the number of submissions that have been blocked because the queue was full
+     */
+    public long getBlockedCount()
+    {
+        return backpressure.blocked.sum();
+    }
+
+    private static final class Backpressure implements RejectedExecutionHandler
+    {
+        private final BackpressurePolicy policy;
+
+        private final long blockTimeoutNanos;
+
+        private final LongAdder rejected = new LongAdder();
+
+        private final LongAdder callerRuns = new LongAdder();
+
+        private final LongAdder blocked = new LongAdder();
+
+        private Backpressure(BackpressurePolicy policy, long blockTimeoutNanos)
+        {
+            this.policy = Objects.requireNonNull(policy);
+            this.blockTimeoutNanos = blockTimeoutNanos;
+            if (policy == BackpressurePolicy.BLOCK_WITH_TIMEOUT && blockTimeoutNanos <= 0)
+            {
+                throw new IllegalArgumentException(
+                    "Invalid block timeout: " + blockTimeoutNanos + "ns.");
+            }
+        }
+
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor)
+        {
+            if (executor.isShutdown())
+            {
+                reject(task, "The executor has been shut down.");
+                return;
+            }
+            switch (policy)
+            {
+                case BLOCK:
+                case BLOCK_WITH_TIMEOUT:
+                    block(task, executor);
+                    break;
+                case DROP_NEWEST:
+                    if (!isCancellable(task))
+                    {
+                        reject(task, "The queue of the executor is full.");
+                    }
+                    rejected.increment();
+                    cancel(task);
+                    break;
+                case DROP_OLDEST:
+                    dropOldest(task, executor);
+                    break;
+                case CALLER_RUNS:
+                    callerRuns.increment();
+                    task.run();
+                    break;
+                default:
+                    reject(task, "The queue of the executor is full.");
+            }
+        }
+
+        private void block(Runnable task, ThreadPoolExecutor executor)
+        {
+            blocked.increment();
+            boolean queued;
+            try
+            {
+                if (policy == BackpressurePolicy.BLOCK)
+                {
+                    executor.getQueue().put(task);
+                    queued = true;
+                }
+                else
+                {
+                    queued = executor.getQueue().offer(task, blockTimeoutNanos,
+                        TimeUnit.NANOSECONDS);
+                }
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                reject(task, "Interrupted while waiting for space in the queue.");
+                return;
+            }
+            if (!queued)
+            {
+                reject(task, "Timed out waiting for space in the queue.");
+            }
+            if (executor.isShutdown() && executor.remove(task))
+            {
+                reject(task, "The executor has been shut down.");
+            }
+        }
+
+        private void dropOldest(Runnable task, ThreadPoolExecutor executor)
+        {
+            BlockingQueue<Runnable> queue = executor.getQueue();
+            while (!queue.offer(task))
+            {
+                Runnable oldest = null;
+                for (Runnable queued : queue)
+                {
+                    if (isCancellable(queued))
+                    {
+                        oldest = queued;
+                        break;
+                    }
+                }
+                if (oldest == null)
+                {
+                    reject(task, "The queue of the executor is full.");
+                }
+                if (queue.remove(oldest))
+                {
+                    rejected.increment();
+                    cancel(oldest);
+                }
+            }
+        }
+
+        private void reject(Runnable task, String message)
+        {
+            rejected.increment();
+            throw new RejectedExecutionException(message);
+        }
+
+        private static boolean isCancellable(Runnable task)
+        {
+            return task instanceof AsyncTask || task instanceof Future;
+        }
+
+        private static void cancel(Runnable task)
+        {
+            if (task instanceof AsyncTask)
+            {
+                ((AsyncTask<?>) task).cancel(false);
+            }
+            else if (task instanceof Future)
+            {
+                ((Future<?>) task).cancel(false);
+            }
+        }
+    }
+}
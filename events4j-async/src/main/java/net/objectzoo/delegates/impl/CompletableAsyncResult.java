@@ -0,0 +1,148 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.impl;
+
+import net.objectzoo.delegates.FunctionAsyncResult;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Consumer;
+
+/**
+ * This {@link AsyncTask} is not computed but completed explicitly using {@link #complete(Object)}
+ * or {@link #completeExceptionally(Throwable)}. It is the asynchronous result of operations that
+ * are made up of other asynchronous invocations and complete from their callbacks.
+ * <p>
+ * Only the first completion takes effect, later completions and completions after cancellation
+ * are ignored.
+ * <p>
+ * The callback is called by the thread completing the result. An exception thrown by the callback
+ * propagates out of {@link #complete(Object)} and {@link #completeExceptionally(Throwable)} after
+ * the result has been completed. Operations completing several results in a row have to catch
+ * such exceptions, for example by giving them to the
+ * {@link AsyncExecutor#getDefaultExceptionHandler() default exception handler}, so one throwing
+ * callback does not keep the remaining results from being completed.
+ *
+ * @param <R> the type of the return value
+ * @author tilmann
+ */
+public class CompletableAsyncResult<R> extends AsyncTask<R>
+{
+    // the updater is bound to the class, which has no parameterized class literal
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<CompletableAsyncResult> DECIDED =
+        AtomicIntegerFieldUpdater.newUpdater(CompletableAsyncResult.class, "decided");
+
+    private volatile int decided;
+
+    private R value;
+
+    private Throwable exception;
+
+    /**
+     * Creates a new {@code CompletableAsyncResult} without callback and asyncState.
+     */
+    public CompletableAsyncResult()
+    {
+        this(null, null);
+    }
+
+    /**
+     * Creates a new {@code CompletableAsyncResult} that holds the given callback and asyncState.
+     *
+     * @param callback   the callback to be called upon completion or {@code null}
+     * @param asyncState the asynchronous state object to be returned by this asynchronous result
+     */
+    public CompletableAsyncResult(Consumer<? super FunctionAsyncResult<R>> callback,
+                                  Object asyncState)
+    {
+        super(callback, asyncState);
+    }
+
+    /**
+     * Completes this result with the given return value unless it has been completed before.
+     *
+     * @param value the return value
+     * @return {@code true} if this call completed this result
+     * @throws RuntimeException if the callback throws it, after this result has been completed
+     */
+    public boolean complete(R value)
+    {
+        if (!DECIDED.compareAndSet(this, 0, 1))
+        {
+            return false;
+        }
+        this.value = value;
+        super.run();
+        return !isCancelled();
+    }
+
+    /**
+     * Completes this result with the given exception unless it has been completed before.
+     *
+     * @param exception the exception to be given as cause of the {@link ExecutionException}
+     * @return {@code true} if this call completed this result
+     * @throws RuntimeException if the callback throws it, after this result has been completed
+     */
+    public boolean completeExceptionally(Throwable exception)
+    {
+        if (!DECIDED.compareAndSet(this, 0, 1))
+        {
+            return false;
+        }
+        this.exception = exception;
+        super.run();
+        return !isCancelled();
+    }
+
+    /**
+     * Has no effect, this result is completed explicitly.
+     */
+    @Override
+    public final void run()
+    {
+    }
+
+    @Override
+    protected final R compute() throws Exception
+    {
+        Throwable exception = this.exception;
+        if (exception instanceof Exception)
+        {
+            throw (Exception) exception;
+        }
+        if (exception instanceof Error)
+        {
+            throw (Error) exception;
+        }
+        if (exception != null)
+        {
+            throw new ExecutionException(exception);
+        }
+        return value;
+    }
+}
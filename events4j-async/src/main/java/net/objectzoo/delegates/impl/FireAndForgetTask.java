@@ -0,0 +1,84 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.impl;
+
+import java.util.function.Consumer;
+
+/**
+ * This {@link Runnable} is used for asynchronous invocations whose outcome is of no interest to the
+ * caller. Subclasses implement {@link #perform()} carrying the invoked action and its parameters
+ * as fields, so the task is the only object allocated per invocation. No result, callback or
+ * completion state is maintained; an exception thrown by the invocation is passed to the exception
+ * handler of the task instead.
+ *
+ * @author tilmann
+ * @see AsyncExecutor#execute(FireAndForgetTask)
+ */
+public abstract class FireAndForgetTask implements Runnable
+{
+    private final Consumer<? super Throwable> exceptionHandler;
+
+    /**
+     * Creates a new {@code FireAndForgetTask} passing exceptions to the given handler.
+     *
+     * @param exceptionHandler the handler of exceptions thrown by the invocation, if {@code null}
+     *                         is given the {@link AsyncExecutor#getDefaultExceptionHandler()
+     *                         default exception handler} is used
+     */
+    protected FireAndForgetTask(Consumer<? super Throwable> exceptionHandler)
+    {
+        this.exceptionHandler = exceptionHandler;
+    }
+
+    /**
+     * Performs the invocation of this task.
+     */
+    protected abstract void perform();
+
+    /**
+     * Performs the invocation of this task passing any exception thrown to the exception handler.
+     */
+    @Override
+    public void run()
+    {
+        try
+        {
+            perform();
+        }
+        catch (Throwable e)
+        {
+            if (exceptionHandler != null)
+            {
+                exceptionHandler.accept(e);
+            }
+            else
+            {
+                AsyncExecutor.getDefaultExceptionHandler().accept(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,434 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.impl;
+
+import net.objectzoo.delegates.FunctionAsyncResult;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * This class performs hedged asynchronous invocations to cut the tail latency caused by occasional
+ * stragglers. If the first attempt of an invocation has not completed after the hedge delay a
+ * second, duplicate attempt is begun. The first attempt to complete determines the outcome of the
+ * invocation and the other attempt is cancelled.
+ * <p>
+ * The hedge delay is either fixed or the observed percentile of the latencies of recent
+ * invocations. The latency of an invocation is measured from its beginning to the completion of
+ * the attempt that determines its outcome. Until enough latencies have been observed the fixed
+ * delay is used. The adaptive delay is limited by the configured minimum and maximum delay and is
+ * recalculated after each sixteenth of the latency window.
+ * <p>
+ * A {@code Hedging} instance collects the latencies and the hedge metrics of all invocations it
+ * performs, so it is usually used by a single hedged function. Since a hedged invocation may run
+ * twice, hedging is only suitable for idempotent functions.
+ *
+ * @author tilmann
+ */
+public final class Hedging
+{
+    private final long delayNanos;
+
+    private final double percentile;
+
+    private final long minDelayNanos;
+
+    private final long maxDelayNanos;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicLongArray latencies;
+
+    private final AtomicLong latencyCount = new AtomicLong();
+
+    private final int recalculationInterval;
+
+    private volatile long adaptiveDelayNanos = -1;
+
+    private final LongAdder invocations = new LongAdder();
+
+    private final LongAdder hedges = new LongAdder();
+
+    private final LongAdder hedgesWon = new LongAdder();
+
+    private Hedging(Builder builder)
+    {
+        this.delayNanos = builder.delayNanos;
+        this.percentile = builder.percentile;
+        this.minDelayNanos = builder.minDelayNanos;
+        this.maxDelayNanos = builder.maxDelayNanos;
+        this.scheduler = builder.scheduler;
+        this.latencies = new AtomicLongArray(builder.latencyWindow);
+        this.recalculationInterval = Math.max(1, builder.latencyWindow / 16);
+    }
+
+    /**
+     * Creates a new {@link Builder} initialized with the default values.
+     *
+     * @return the new {@code Builder}
+     */
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * Performs a hedged invocation. The given supplier begins an attempt of the invocation, it is
+     * called once immediately and once more if the first attempt has not completed after the
+     * hedge delay.
+     *
+     * @param <R>        the type of the return value of the invocation
+     * @param attempt    begins an attempt of the invocation
+     * @param callback   the callback to be called when the invocation has finished or
+     *                   {@code null}
+     * @param asyncState the asynchronous state object to be used in the asynchronous result
+     * @return the asynchronous result of the invocation
+     */
+    public <R> FunctionAsyncResult<R> begin(Supplier<? extends FunctionAsyncResult<R>> attempt,
+                                            Consumer<? super FunctionAsyncResult<R>> callback,
+                                            Object asyncState)
+    {
+        Objects.requireNonNull(attempt);
+
+        invocations.increment();
+        HedgedInvocation<R> invocation = new HedgedInvocation<>(attempt, callback, asyncState);
+        invocation.start();
+        return invocation;
+    }
+
+    /**
+     * Retrieves the delay after which a second attempt is begun for invocations begun now.
+     *
+     * @param unit the time unit of the returned delay
+     * @return the current hedge delay
+     */
+    public long getDelay(TimeUnit unit)
+    {
+        long adaptiveDelayNanos = this.adaptiveDelayNanos;
+        return unit.convert(adaptiveDelayNanos >= 0 ? adaptiveDelayNanos : delayNanos,
+            TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return the number of invocations performed
+     */
+    public long getInvocationCount()
+    {
+        return invocations.sum();
+    }
+
+    /**
+     * @return the number of second attempts begun
+     */
+    public long getHedgeCount()
+    {
+        return hedges.sum();
+    }
+
+    /**
+     * @return the number of invocations whose outcome was determined by the second attempt
+     */
+    public long getHedgeWinCount()
+    {
+        return hedgesWon.sum();
+    }
+
+    /**
+     * @return the ratio of second attempts to invocations, {@code 0} without invocations
+     */
+    public double getHedgeRate()
+    {
+        long invocations = this.invocations.sum();
+        return invocations == 0 ? 0 : (double) hedges.sum() / invocations;
+    }
+
+    private void recordLatency(long nanos)
+    {
+        long count = latencyCount.getAndIncrement();
+        int window = latencies.length();
+        latencies.lazySet((int) (count % window), nanos);
+        if (percentile > 0 && count + 1 >= window && (count + 1) % recalculationInterval == 0)
+        {
+            long[] sorted = new long[window];
+            for (int index = 0; index < window; index++)
+            {
+                sorted[index] = latencies.get(index);
+            }
+            Arrays.sort(sorted);
+            long delay = sorted[(int) Math.min(window - 1, (long) (percentile * window))];
+            adaptiveDelayNanos = Math.max(minDelayNanos, Math.min(maxDelayNanos, delay));
+        }
+    }
+
+    private final class HedgedInvocation<R> extends CompletableAsyncResult<R>
+    {
+        private final Supplier<? extends FunctionAsyncResult<R>> attempt;
+
+        private final long startNanos = System.nanoTime();
+
+        private volatile FunctionAsyncResult<R> first;
+
+        private volatile FunctionAsyncResult<R> second;
+
+        private volatile ScheduledFuture<?> timer;
+
+        HedgedInvocation(Supplier<? extends FunctionAsyncResult<R>> attempt,
+                         Consumer<? super FunctionAsyncResult<R>> callback, Object asyncState)
+        {
+            super(callback, asyncState);
+            this.attempt = attempt;
+        }
+
+        void start()
+        {
+            first = beginAttempt(false);
+            if (!isDone())
+            {
+                timer = scheduler.schedule(this::hedge, getDelay(TimeUnit.NANOSECONDS),
+                    TimeUnit.NANOSECONDS);
+                if (isDone())
+                {
+                    timer.cancel(false);
+                }
+            }
+        }
+
+        private void hedge()
+        {
+            if (isDone())
+            {
+                return;
+            }
+            hedges.increment();
+            try
+            {
+                second = beginAttempt(true);
+            }
+            catch (RuntimeException e)
+            {
+                // the first attempt is still running, it determines the outcome alone
+                return;
+            }
+            if (isDone())
+            {
+                second.cancel(true);
+            }
+        }
+
+        private FunctionAsyncResult<R> beginAttempt(boolean hedged)
+        {
+            FunctionAsyncResult<R> result = attempt.get();
+            result.toCompletionStage().whenComplete((value, exception) -> {
+                boolean won = exception == null ? complete(value)
+                    : completeExceptionally(unwrap(exception));
+                if (won)
+                {
+                    // measured from the invocation, since a hedged win started with the delay
+                    recordLatency(System.nanoTime() - startNanos);
+                    if (hedged)
+                    {
+                        hedgesWon.increment();
+                    }
+                    cancelAttempts();
+                }
+            });
+            return result;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning)
+        {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled)
+            {
+                cancelAttempts();
+            }
+            return cancelled;
+        }
+
+        private void cancelAttempts()
+        {
+            ScheduledFuture<?> timer = this.timer;
+            if (timer != null)
+            {
+                timer.cancel(false);
+            }
+            FunctionAsyncResult<R> first = this.first;
+            if (first != null)
+            {
+                first.cancel(true);
+            }
+            FunctionAsyncResult<R> second = this.second;
+            if (second != null)
+            {
+                second.cancel(true);
+            }
+        }
+    }
+
+    private static Throwable unwrap(Throwable exception)
+    {
+        if (exception instanceof CompletionException && exception.getCause() != null)
+        {
+            return exception.getCause();
+        }
+        return exception;
+    }
+
+    /**
+     * A builder for {@link Hedging}s. It is initialized with the default values, a fixed delay of
+     * ten milliseconds and no adaptive delay.
+     */
+    public static final class Builder
+    {
+        private long delayNanos = TimeUnit.MILLISECONDS.toNanos(10);
+
+        private double percentile = 0;
+
+        private long minDelayNanos = 0;
+
+        private long maxDelayNanos = Long.MAX_VALUE;
+
+        private int latencyWindow = 1024;
+
+        private ScheduledExecutorService scheduler;
+
+        private Builder()
+        {
+        }
+
+        /**
+         * @param delay the fixed hedge delay, used until enough latencies have been observed if
+         *              an adaptive delay is configured
+         * @param unit  the time unit of the delay
+         * @return this builder
+         */
+        public Builder delay(long delay, TimeUnit unit)
+        {
+            this.delayNanos = unit.toNanos(delay);
+            return this;
+        }
+
+        /**
+         * @param percentile the percentile of the observed latencies used as adaptive hedge
+         *                   delay, for example {@code 0.95}, or {@code 0} for a fixed delay
+         * @return this builder
+         */
+        public Builder percentile(double percentile)
+        {
+            this.percentile = percentile;
+            return this;
+        }
+
+        /**
+         * @param minDelay the minimum adaptive hedge delay
+         * @param unit     the time unit of the delay
+         * @return this builder
+         */
+        public Builder minDelay(long minDelay, TimeUnit unit)
+        {
+            this.minDelayNanos = unit.toNanos(minDelay);
+            return this;
+        }
+
+        /**
+         * @param maxDelay the maximum adaptive hedge delay
+         * @param unit     the time unit of the delay
+         * @return this builder
+         */
+        public Builder maxDelay(long maxDelay, TimeUnit unit)
+        {
+            this.maxDelayNanos = unit.toNanos(maxDelay);
+            return this;
+        }
+
+        /**
+         * @param latencyWindow the number of recent latencies the adaptive delay is calculated
+         *                      from
+         * @return this builder
+         */
+        public Builder latencyWindow(int latencyWindow)
+        {
+            this.latencyWindow = latencyWindow;
+            return this;
+        }
+
+        /**
+         * @param scheduler the scheduler used to begin second attempts, by default
+         *                  {@link AsyncScheduler#getDefaultScheduler()}
+         * @return this builder
+         */
+        public Builder scheduler(ScheduledExecutorService scheduler)
+        {
+            this.scheduler = Objects.requireNonNull(scheduler);
+            return this;
+        }
+
+        /**
+         * Creates the {@link Hedging} from the values of this builder.
+         *
+         * @return the new hedging
+         * @throws IllegalArgumentException if the values do not describe a valid hedging
+         */
+        public Hedging build() throws IllegalArgumentException
+        {
+            if (delayNanos < 0)
+            {
+                throw new IllegalArgumentException("Invalid delay: " + delayNanos + "ns.");
+            }
+            if (!(percentile >= 0 && percentile < 1))
+            {
+                throw new IllegalArgumentException("Invalid percentile: " + percentile + ".");
+            }
+            if (minDelayNanos < 0 || maxDelayNanos < minDelayNanos)
+            {
+                throw new IllegalArgumentException("Invalid delay limits, minimum: "
+                    + minDelayNanos + "ns, maximum: " + maxDelayNanos + "ns.");
+            }
+            if (latencyWindow < 1)
+            {
+                throw new IllegalArgumentException(
+                    "Invalid latency window: " + latencyWindow + ".");
+            }
+            if (scheduler == null)
+            {
+                // resolved only now, so a custom scheduler never starts the default one
+                scheduler = AsyncScheduler.getDefaultScheduler();
+            }
+            return new Hedging(this);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of non-negative values like sizes or latencies with buckets of exponentially
+ * growing width. The bucket of a value is the number of bits needed to represent it, so recording
+ * a value costs a few atomic increments and the histogram has a constant size of 64 buckets.
+ * Percentiles are reported as the upper bound of the bucket containing them, limited by the
+ * maximum recorded value, which makes them accurate within a factor of two.
+ * <p>
+ * The histogram is thread-safe. Values recorded concurrently to reading the histogram may or may
+ * not be reflected by the returned statistics.
+ *
+ * @author tilmann
+ */
+public final class Histogram
+{
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder sum = new LongAdder();
+
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records the given value, negative values are recorded as {@code 0}.
+     *
+     * @param value the value to be recorded
+     */
+    public void record(long value)
+    {
+        long recorded = Math.max(0, value);
+        buckets.incrementAndGet(BUCKETS - Long.numberOfLeadingZeros(recorded));
+        count.increment();
+        sum.add(recorded);
+        long current = max.get();
+        while (recorded > current && !max.compareAndSet(current, recorded))
+        {
+            current = max.get();
+        }
+    }
+
+    /**
+     * @return the number of recorded values
+     */
+    public long getCount()
+    {
+        return count.sum();
+    }
+
+    /**
+     * @return the maximum recorded value or {@code 0} if no value has been recorded
+     */
+    public long getMax()
+    {
+        return max.get();
+    }
+
+    /**
+     * @return the mean of the recorded values or {@code 0} if no value has been recorded
+     */
+    public double getMean()
+    {
+        long count = this.count.sum();
+        return count == 0 ? 0 : (double) sum.sum() / count;
+    }
+
+    /**
+     * Retrieves the upper bound of the given percentile of the recorded values.
+     *
+     * @param percentile the percentile between {@code 0} and {@code 1}, for example {@code 0.99}
+     * @return the upper bound of the percentile or {@code 0} if no value has been recorded
+     */
+    public long getPercentile(double percentile)
+    {
+        long count = this.count.sum();
+        long rank = (long) Math.ceil(Math.min(1, Math.max(0, percentile)) * count);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++)
+        {
+            seen += buckets.get(bucket);
+            if (seen >= rank && seen > 0)
+            {
+                return Math.min(getMax(), (1L << bucket) - 1);
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Retrieves the counts of the buckets of this histogram. The bucket at index {@code i > 0}
+     * counts the values from {@code 2^(i-1)} up to {@code 2^i - 1}, the bucket at index {@code 0}
+     * counts the zero values.
+     *
+     * @return the counts of the buckets
+     */
+    public long[] getBucketCounts()
+    {
+        long[] counts = new long[BUCKETS];
+        for (int bucket = 0; bucket < BUCKETS; bucket++)
+        {
+            counts[bucket] = buckets.get(bucket);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.impl;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@code KeyedSerialExecutor} performs tasks in the order they have been submitted for equal
+ * keys, while tasks for different keys are performed in parallel by an underlying {@link Executor}.
+ * This gives events for the same entity a strict order without serializing all events, when the
+ * key identifies the entity.
+ * <p>
+ * The tasks of a key are queued in a lock-free queue that is drained by a single task of the
+ * underlying executor at a time. No thread and no lock is created per key. The queue of a key is
+ * created when the first task is submitted and released as soon as all tasks of the key have been
+ * performed, so the number of retained queues is bounded by the number of keys with pending tasks.
+ * To keep a busy key from occupying a thread of the underlying executor, the queue of a key
+ * resubmits itself after performing {@value #DRAIN_BATCH_SIZE} tasks in a row.
+ * <p>
+ * Tasks submitted concurrently by different threads for an equal key are performed one after each
+ * other in an arbitrary order. Exceptions thrown by tasks are given to the
+ * {@link AsyncExecutor#getDefaultExceptionHandler() default exception handler}. Keys must
+ * implement {@link Object#equals(Object)} and {@link Object#hashCode()}, {@code null} is a valid
+ * key.
+ * <p>
+ * If the underlying executor rejects the queue of a key, the tasks queued for the key are
+ * discarded. Discarded tasks that are an {@link AsyncTask} or a {@link Future} are cancelled, so
+ * callers waiting for their results fail with a
+ * {@link java.util.concurrent.CancellationException} instead of waiting forever. A rejection of
+ * the resubmitted queue of a busy key is given to the default exception handler.
+ *
+ * @author tilmann
+ */
+public final class KeyedSerialExecutor
+{
+    /**
+     * The maximum number of tasks of a key performed in a row before the queue of the key is
+     * resubmitted to the underlying executor.
+     */
+    public static final int DRAIN_BATCH_SIZE = 64;
+
+    private static final Object NULL_KEY = new Object();
+
+    private static final int RETIRED = Integer.MIN_VALUE;
+
+    private final ConcurrentMap<Object, KeyQueue> queues = new ConcurrentHashMap<>();
+
+    private final Executor executor;
+
+    /**
+     * Creates a new {@code KeyedSerialExecutor} that performs the tasks in the
+     * {@link ForkJoinPool#commonPool() common pool}.
+     */
+    public KeyedSerialExecutor()
+    {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new {@code KeyedSerialExecutor} that performs the tasks with the given
+     * {@link Executor}. Tasks for different keys run in parallel only if the given executor runs
+     * tasks in parallel.
+     *
+     * @param executor the executor performing the tasks
+     */
+    public KeyedSerialExecutor(Executor executor)
+    {
+        this.executor = Objects.requireNonNull(executor);
+    }
+
+    /**
+     * Queues the given task to be performed after all tasks submitted before for an equal key.
+     * <p>
+     * If the underlying executor rejects performing the queue of the key, the exception is thrown
+     * and the other tasks queued for the key so far are discarded and cancelled.
+     *
+     * @param key  the key of the task
+     * @param task the task to perform
+     * @throws RejectedExecutionException if the underlying executor rejects the task
+     */
+    public void execute(Object key, Runnable task) throws RejectedExecutionException
+    {
+        Objects.requireNonNull(task);
+
+        Object mapKey = key == null ? NULL_KEY : key;
+        while (true)
+        {
+            KeyQueue queue = queues.computeIfAbsent(mapKey, KeyQueue::new);
+            // reserve a place before queueing the task, a negative size means the queue has
+            // been retired and is about to be removed from the map
+            int size = queue.size.getAndIncrement();
+            if (size < 0)
+            {
+                Thread.yield();
+                continue;
+            }
+            queue.tasks.offer(task);
+            if (size == 0)
+            {
+                schedule(queue, task);
+            }
+            return;
+        }
+    }
+
+    /**
+     * Returns an {@link Executor} that queues all tasks for the given key, for example to be
+     * given to an adapter whose invocations all belong to the same key.
+     *
+     * @param key the key of the tasks
+     * @return the executor for the key
+     */
+    public Executor forKey(Object key)
+    {
+        return task -> execute(key, task);
+    }
+
+    /**
+     * @return the number of keys with queued or running tasks
+     */
+    public int getActiveKeyCount()
+    {
+        return queues.size();
+    }
+
+    private void schedule(KeyQueue queue, Runnable task)
+    {
+        try
+        {
+            executor.execute(queue);
+        }
+        catch (RejectedExecutionException e)
+        {
+            queue.discard(task);
+            throw e;
+        }
+    }
+
+    private static void cancel(Runnable task)
+    {
+        if (task instanceof AsyncTask)
+        {
+            ((AsyncTask<?>) task).cancel(false);
+        }
+        else if (task instanceof Future)
+        {
+            ((Future<?>) task).cancel(false);
+        }
+    }
+
+    private final class KeyQueue implements Runnable
+    {
+        private final Object key;
+
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger size = new AtomicInteger();
+
+        private KeyQueue(Object key)
+        {
+            this.key = key;
+        }
+
+        @Override
+        public void run()
+        {
+            for (int count = 0; count < DRAIN_BATCH_SIZE; count++)
+            {
+                Runnable task;
+                while ((task = tasks.poll()) == null)
+                {
+                    // the task has been reserved but not queued yet
+                    Thread.yield();
+                }
+                try
+                {
+                    task.run();
+                }
+                catch (Throwable e)
+                {
+                    AsyncExecutor.getDefaultExceptionHandler().accept(e);
+                }
+                if (size.decrementAndGet() == 0)
+                {
+                    // a task submitted right now sees size zero and schedules this queue again,
+                    // otherwise the queue is retired and released
+                    if (size.compareAndSet(0, RETIRED))
+                    {
+                        queues.remove(key, this);
+                    }
+                    return;
+                }
+            }
+            try
+            {
+                executor.execute(this);
+            }
+            catch (RejectedExecutionException e)
+            {
+                // this runs in a thread of the underlying executor, where nobody could catch it
+                discard(null);
+                AsyncExecutor.getDefaultExceptionHandler().accept(e);
+            }
+        }
+
+        private void discard(Runnable rejected)
+        {
+            // retire the queue first, tasks submitted from now on create a new queue for the key
+            int reserved = size.getAndSet(RETIRED);
+            queues.remove(key, this);
+            for (int count = 0; count < reserved; count++)
+            {
+                Runnable task;
+                while ((task = tasks.poll()) == null)
+                {
+                    // the task has been reserved but not queued yet
+                    Thread.yield();
+                }
+                // the submitter of the rejected task learns about it from the exception
+                if (task != rejected)
+                {
+                    cancel(task);
+                }
+            }
+        }
+    }
+}
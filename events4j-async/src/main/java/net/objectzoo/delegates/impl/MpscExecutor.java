@@ -0,0 +1,266 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.impl;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The {@code MpscExecutor} is an {@link Executor} that performs all tasks one after each other in
+ * a single consumer thread, in the order they have been submitted. It can be used as the default
+ * executor of {@link AsyncExecutor} in place of a single threaded
+ * {@link java.util.concurrent.ThreadPoolExecutor}.
+ * <p>
+ * The tasks are queued in a lock-free multi-producer single-consumer linked queue. Submitting a
+ * task appends it with a single compare-and-set on the tail of the queue, so many threads can
+ * submit tasks without contending on a lock and without signalling a condition for each task. The
+ * consumer thread drains the queue in batches without any atomic read-modify-write operations and
+ * is only woken up by a submitting thread if it has been idle and parked.
+ * <p>
+ * The queue is unbounded. Exceptions thrown by tasks are given to the
+ * {@link AsyncExecutor#getDefaultExceptionHandler() default exception handler}. The interrupt
+ * status of the consumer thread is cleared before each task, so an interrupt left by one task
+ * neither affects the next task nor keeps the idle consumer thread from parking. The consumer
+ * thread runs until the executor is {@link #close() closed}.
+ *
+ * @author tilmann
+ */
+public final class MpscExecutor implements Executor, AutoCloseable
+{
+    private static final String THREAD_NAME_PREFIX =
+        AsyncExecutorConfiguration.DEFAULT_THREAD_NAME_PREFIX + "mpsc-";
+
+    private static final AtomicInteger executorCount = new AtomicInteger();
+
+    private static final int BATCH_SIZE = 256;
+
+    private static final int YIELD_TRIES = 64;
+
+    private static final Node CLOSED = new Node(null);
+
+    private final AtomicReference<Node> tail;
+
+    private final AtomicBoolean idle = new AtomicBoolean();
+
+    private final Thread consumer;
+
+    private Node head;
+
+    private volatile boolean closed;
+
+    /**
+     * Creates a new {@code MpscExecutor} with a daemon consumer thread.
+     */
+    public MpscExecutor()
+    {
+        this(runnable -> {
+            Thread thread = new Thread(runnable,
+                THREAD_NAME_PREFIX + executorCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates a new {@code MpscExecutor} with a consumer thread created by the given
+     * {@link ThreadFactory}.
+     *
+     * @param threadFactory the factory creating the consumer thread
+     */
+    public MpscExecutor(ThreadFactory threadFactory)
+    {
+        Objects.requireNonNull(threadFactory);
+
+        head = new Node(null);
+        tail = new AtomicReference<>(head);
+        consumer = threadFactory.newThread(this::consume);
+        consumer.start();
+    }
+
+    /**
+     * Queues the given task to be performed by the consumer thread.
+     *
+     * @param command the task to perform
+     * @throws RejectedExecutionException if this executor has been closed
+     */
+    @Override
+    public void execute(Runnable command) throws RejectedExecutionException
+    {
+        Objects.requireNonNull(command);
+
+        Node node = new Node(command);
+        Node previous;
+        do
+        {
+            previous = tail.get();
+            if (previous == CLOSED)
+            {
+                throw new RejectedExecutionException("The executor has been closed.");
+            }
+        }
+        while (!tail.compareAndSet(previous, node));
+        previous.lazySetNext(node);
+
+        if (idle.get() && idle.compareAndSet(true, false))
+        {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    /**
+     * @return {@code true} if this executor has been closed
+     */
+    public boolean isClosed()
+    {
+        return closed;
+    }
+
+    /**
+     * Closes this executor. Tasks submitted before are still performed, submitting tasks
+     * afterwards fails with a {@link RejectedExecutionException}. This method waits until the
+     * consumer thread has performed the remaining tasks unless it is called by the consumer
+     * thread.
+     */
+    @Override
+    public void close()
+    {
+        closed = true;
+        LockSupport.unpark(consumer);
+        if (consumer == Thread.currentThread())
+        {
+            return;
+        }
+        try
+        {
+            consumer.join();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void consume()
+    {
+        int idleCount = 0;
+        while (true)
+        {
+            if (drain() > 0)
+            {
+                idleCount = 0;
+            }
+            else if (tail.get() != head)
+            {
+                // a task has been appended but is not linked yet
+                Thread.yield();
+            }
+            else if (closed)
+            {
+                if (tail.compareAndSet(head, CLOSED))
+                {
+                    return;
+                }
+            }
+            else if (idleCount < YIELD_TRIES)
+            {
+                Thread.yield();
+                idleCount++;
+            }
+            else
+            {
+                park();
+            }
+        }
+    }
+
+    private int drain()
+    {
+        Node current = head;
+        int count = 0;
+        Node next;
+        while (count < BATCH_SIZE && (next = current.next) != null)
+        {
+            Runnable task = next.task;
+            next.task = null;
+            current = next;
+            count++;
+            Thread.interrupted();
+            try
+            {
+                task.run();
+            }
+            catch (Throwable e)
+            {
+                AsyncExecutor.getDefaultExceptionHandler().accept(e);
+            }
+        }
+        head = current;
+        return count;
+    }
+
+    private void park()
+    {
+        idle.set(true);
+        // the volatile write of idle before reading the tail pairs with the compare-and-set of
+        // the tail before reading idle in execute, so either the task is seen or this thread is
+        // unparked
+        if (tail.get() == head && !closed)
+        {
+            // a pending interrupt would return from park immediately and spin the idle thread
+            Thread.interrupted();
+            LockSupport.park(this);
+        }
+        idle.set(false);
+    }
+
+    private static final class Node
+    {
+        private static final AtomicReferenceFieldUpdater<Node, Node> NEXT =
+            AtomicReferenceFieldUpdater.newUpdater(Node.class, Node.class, "next");
+
+        private Runnable task;
+
+        private volatile Node next;
+
+        private Node(Runnable task)
+        {
+            this.task = task;
+        }
+
+        private void lazySetNext(Node next)
+        {
+            NEXT.lazySet(this, next);
+        }
+    }
+}
@@ -0,0 +1,488 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.impl;
+
+import net.objectzoo.delegates.FunctionAsync;
+import net.objectzoo.delegates.FunctionAsyncResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * An asynchronous loading cache that refreshes its values ahead of time. The values are loaded
+ * by invoking a {@link FunctionAsync} with the key. Once a value has been loaded every invocation
+ * of the cache completes immediately with the current value. When a value is older than the
+ * refresh threshold the next invocation begins a reload of the value in the background and keeps
+ * completing with the stale value until the reload completes.
+ * <p>
+ * There is at most one load in flight per key, invocations while the first load of a key is in
+ * flight complete when it completes. If the first load fails its invocations fail and the next
+ * invocation begins a new load. If a reload fails the stale value is kept and is reloaded again
+ * by the first invocation after another refresh threshold.
+ * <p>
+ * The cache is suitable for values that are expensive to compute but tolerate a staleness of the
+ * refresh threshold plus the duration of a reload. Entries are removed by
+ * {@link #invalidate(Object)} and {@link #invalidateAll()}. If a maximum size is given, adding a
+ * key beyond the maximum size removes the least recently accessed loaded values. To keep the cost
+ * of this low a single pass over the entries removes a tenth of the maximum size in addition to
+ * the excess keys.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ * @author tilmann
+ */
+public final class RefreshAheadCache<K, V> implements FunctionAsync<K, V>
+{
+    private static final Object NULL_KEY = new Object();
+
+    private final FunctionAsync<? super K, V> loader;
+
+    private final long refreshAfterNanos;
+
+    private final LongSupplier ticker;
+
+    private final int maximumSize;
+
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final ConcurrentMap<Object, CacheEntry> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder refreshes = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private RefreshAheadCache(Builder builder, FunctionAsync<? super K, V> loader)
+    {
+        this.loader = loader;
+        this.refreshAfterNanos = builder.refreshAfterNanos;
+        this.ticker = builder.ticker;
+        this.maximumSize = builder.maximumSize;
+    }
+
+    /**
+     * Creates a new {@link Builder} initialized with the default values.
+     *
+     * @return the new {@code Builder}
+     */
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * Retrieves the value of the given key. If the value has been loaded the returned result is
+     * completed with the current value, which is reloaded in the background if it is older than
+     * the refresh threshold. Otherwise the returned result completes when the value has been
+     * loaded.
+     *
+     * @param callback   the callback to be called when the value has been retrieved or
+     *                   {@code null}
+     * @param asyncState the asynchronous state object to be used in the asynchronous result
+     * @param key        the key of the value
+     * @return the asynchronous result of the retrieval
+     */
+    @Override
+    public FunctionAsyncResult<V> beginApply(Consumer<? super FunctionAsyncResult<V>> callback,
+                                             Object asyncState, K key)
+    {
+        Object entryKey = key != null ? key : NULL_KEY;
+        CompletableAsyncResult<V> result = new CompletableAsyncResult<>(callback, asyncState);
+        while (true)
+        {
+            CacheEntry entry = entries.get(entryKey);
+            if (entry == null)
+            {
+                CacheEntry created = new CacheEntry(key, entryKey);
+                entry = entries.putIfAbsent(entryKey, created);
+                if (entry == null)
+                {
+                    entry = created;
+                    evictIfNecessary();
+                }
+            }
+            if (entry.loaded)
+            {
+                hits.increment();
+                long now = ticker.getAsLong();
+                if (maximumSize != Integer.MAX_VALUE && entry.accessedAt != now)
+                {
+                    entry.accessedAt = now;
+                }
+                if (now - entry.loadedAt >= refreshAfterNanos)
+                {
+                    entry.load(true);
+                }
+                complete(result, entry.value, null);
+                return result;
+            }
+            if (entry.await(result))
+            {
+                misses.increment();
+                entry.load(false);
+                return result;
+            }
+            // the value has been loaded or the entry has failed, retry
+        }
+    }
+
+    /**
+     * Retrieves the value of the given key if it has been loaded without beginning a refresh.
+     *
+     * @param key the key of the value
+     * @return the current value of the key or {@code null} if it has not been loaded
+     */
+    public V getIfPresent(K key)
+    {
+        CacheEntry entry = entries.get(key != null ? key : NULL_KEY);
+        return entry != null && entry.loaded ? entry.value : null;
+    }
+
+    /**
+     * Removes the value of the given key, the next invocation with the key loads it again.
+     *
+     * @param key the key of the value
+     */
+    public void invalidate(K key)
+    {
+        entries.remove(key != null ? key : NULL_KEY);
+    }
+
+    /**
+     * Removes all values.
+     */
+    public void invalidateAll()
+    {
+        entries.clear();
+    }
+
+    private void evictIfNecessary()
+    {
+        if (entries.size() <= maximumSize || !evicting.compareAndSet(false, true))
+        {
+            return;
+        }
+        try
+        {
+            List<CacheEntry> candidates = new ArrayList<>(entries.size());
+            for (CacheEntry entry : entries.values())
+            {
+                // keys whose first load is in flight have invocations waiting for them
+                if (entry.loaded)
+                {
+                    candidates.add(entry);
+                }
+            }
+            int count = Math.min(candidates.size(),
+                entries.size() - maximumSize + maximumSize / 10);
+            if (count <= 0)
+            {
+                return;
+            }
+            // the access times are copied since they change while the candidates are sorted
+            long[] accessedAt = new long[candidates.size()];
+            for (int index = 0; index < accessedAt.length; index++)
+            {
+                accessedAt[index] = candidates.get(index).accessedAt;
+            }
+            long[] sorted = accessedAt.clone();
+            Arrays.sort(sorted);
+            long threshold = sorted[count - 1];
+            for (int index = 0; index < accessedAt.length && count > 0; index++)
+            {
+                CacheEntry entry = candidates.get(index);
+                if (accessedAt[index] <= threshold && entries.remove(entry.entryKey, entry))
+                {
+                    evictions.increment();
+                    count--;
+                }
+            }
+        }
+        finally
+        {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * @return the number of keys in this cache, including keys whose first load is in flight
+     */
+    public int size()
+    {
+        return entries.size();
+    }
+
+    /**
+     * @return the number of invocations completed with a loaded value
+     */
+    public long getHitCount()
+    {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of invocations that waited for the first load of their key
+     */
+    public long getMissCount()
+    {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of reloads begun in the background
+     */
+    public long getRefreshCount()
+    {
+        return refreshes.sum();
+    }
+
+    /**
+     * @return the number of values removed because the cache exceeded its maximum size
+     */
+    public long getEvictionCount()
+    {
+        return evictions.sum();
+    }
+
+    private final class CacheEntry
+    {
+        private final K key;
+
+        private final Object entryKey;
+
+        private final AtomicBoolean loading = new AtomicBoolean();
+
+        private List<CompletableAsyncResult<V>> waiting = new ArrayList<>(2);
+
+        private volatile boolean loaded;
+
+        private volatile V value;
+
+        private volatile long loadedAt;
+
+        private volatile long accessedAt;
+
+        CacheEntry(K key, Object entryKey)
+        {
+            this.key = key;
+            this.entryKey = entryKey;
+            this.accessedAt = ticker.getAsLong();
+        }
+
+        synchronized boolean await(CompletableAsyncResult<V> result)
+        {
+            if (loaded || waiting == null)
+            {
+                return false;
+            }
+            waiting.add(result);
+            return true;
+        }
+
+        void load(boolean refresh)
+        {
+            if (!loading.compareAndSet(false, true))
+            {
+                return;
+            }
+            if (refresh)
+            {
+                refreshes.increment();
+            }
+            FunctionAsyncResult<V> load;
+            try
+            {
+                load = loader.beginApply(null, null, key);
+            }
+            catch (RuntimeException e)
+            {
+                // the invocations waiting for the load, including the current one, fail with it
+                finish(null, e);
+                return;
+            }
+            load.toCompletionStage().whenComplete(this::finish);
+        }
+
+        private void finish(V value, Throwable exception)
+        {
+            List<CompletableAsyncResult<V>> waiting;
+            synchronized (this)
+            {
+                waiting = this.waiting;
+                if (exception == null)
+                {
+                    this.value = value;
+                    this.loadedAt = ticker.getAsLong();
+                    this.loaded = true;
+                    this.waiting = null;
+                }
+                else if (!loaded)
+                {
+                    // a failed first load discards the entry to begin a new load next time
+                    this.waiting = null;
+                    entries.remove(entryKey, this);
+                }
+                else
+                {
+                    // a failed reload keeps the stale value and is retried after the threshold
+                    this.loadedAt = ticker.getAsLong();
+                }
+                loading.set(false);
+            }
+            if (waiting == null)
+            {
+                return;
+            }
+            for (CompletableAsyncResult<V> result : waiting)
+            {
+                complete(result, value, exception);
+            }
+        }
+    }
+
+    /**
+     * Completes the given result, an exception thrown by its callback is given to the default
+     * exception handler so it neither fails the invocation nor keeps other results from being
+     * completed.
+     */
+    private static <V> void complete(CompletableAsyncResult<V> result, V value, Throwable exception)
+    {
+        try
+        {
+            if (exception == null)
+            {
+                result.complete(value);
+            }
+            else
+            {
+                result.completeExceptionally(unwrap(exception));
+            }
+        }
+        catch (Throwable e)
+        {
+            AsyncExecutor.getDefaultExceptionHandler().accept(e);
+        }
+    }
+
+    private static Throwable unwrap(Throwable exception)
+    {
+        if (exception instanceof CompletionException && exception.getCause() != null)
+        {
+            return exception.getCause();
+        }
+        return exception;
+    }
+
+    /**
+     * A builder for {@link RefreshAheadCache}s. It is initialized with the default values, a
+     * refresh threshold of one minute and no maximum size.
+     */
+    public static final class Builder
+    {
+        private long refreshAfterNanos = TimeUnit.MINUTES.toNanos(1);
+
+        private LongSupplier ticker = System::nanoTime;
+
+        private int maximumSize = Integer.MAX_VALUE;
+
+        private Builder()
+        {
+        }
+
+        /**
+         * @param refreshAfter the age of a value after which it is reloaded in the background
+         * @param unit         the time unit of the refresh threshold
+         * @return this builder
+         */
+        public Builder refreshAfter(long refreshAfter, TimeUnit unit)
+        {
+            this.refreshAfterNanos = unit.toNanos(refreshAfter);
+            return this;
+        }
+
+        /**
+         * @param maximumSize the number of keys beyond which the least recently accessed values
+         *                    are removed
+         * @return this builder
+         */
+        public Builder maximumSize(int maximumSize)
+        {
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * @param ticker supplies the current time in nanoseconds used to determine the age of
+         *               values
+         * @return this builder
+         */
+        public Builder ticker(LongSupplier ticker)
+        {
+            this.ticker = Objects.requireNonNull(ticker);
+            return this;
+        }
+
+        /**
+         * Creates the {@link RefreshAheadCache} loading its values with the given function from
+         * the values of this builder.
+         *
+         * @param <K>    the type of the keys
+         * @param <V>    the type of the values
+         * @param loader the function loading the value of a key
+         * @return the new cache
+         * @throws IllegalArgumentException if the values do not describe a valid cache
+         */
+        public <K, V> RefreshAheadCache<K, V> build(FunctionAsync<? super K, V> loader)
+            throws IllegalArgumentException
+        {
+            Objects.requireNonNull(loader);
+            if (refreshAfterNanos < 0)
+            {
+                throw new IllegalArgumentException(
+                    "Invalid refresh threshold: " + refreshAfterNanos + "ns.");
+            }
+            if (maximumSize < 1)
+            {
+                throw new IllegalArgumentException("Invalid maximum size: " + maximumSize + ".");
+            }
+            return new RefreshAheadCache<>(this, loader);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.impl;
+
+import net.objectzoo.delegates.FunctionAsyncResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * This class coalesces concurrent asynchronous invocations with equal keys into a single
+ * execution. While an execution for a key is in flight every further invocation with an equal
+ * key joins it instead of beginning another execution. Each invocation receives its own
+ * asynchronous result with its own callback and asyncState that completes with the outcome of the
+ * shared execution.
+ * <p>
+ * A key is released as soon as its execution completes, so only the keys of the executions in
+ * flight are held and invocations begun afterwards begin a new execution. Cancelling the result
+ * of an invocation only detaches this invocation from the execution, the execution itself is
+ * cancelled when the results of all invocations sharing it have been cancelled.
+ * <p>
+ * Since the keys identify the executions a {@code SingleFlight} instance is usually used by a
+ * single function.
+ *
+ * @author tilmann
+ */
+public final class SingleFlight
+{
+    private static final Object NULL_KEY = new Object();
+
+    private final ConcurrentMap<Object, Flight<?>> flights = new ConcurrentHashMap<>();
+
+    private final LongAdder invocations = new LongAdder();
+
+    private final LongAdder executions = new LongAdder();
+
+    /**
+     * Performs an invocation that shares the execution in flight for an equal key or begins a new
+     * execution using the given supplier if there is none.
+     *
+     * @param <R>        the type of the return value of the invocation
+     * @param key        the key identifying the execution, may be {@code null}
+     * @param execution  begins the execution if none is in flight for the key
+     * @param callback   the callback to be called when the invocation has finished or
+     *                   {@code null}
+     * @param asyncState the asynchronous state object to be used in the asynchronous result
+     * @return the asynchronous result of the invocation
+     */
+    @SuppressWarnings("unchecked")
+    public <R> FunctionAsyncResult<R> begin(Object key,
+                                            Supplier<? extends FunctionAsyncResult<R>> execution,
+                                            Consumer<? super FunctionAsyncResult<R>> callback,
+                                            Object asyncState)
+    {
+        Objects.requireNonNull(execution);
+
+        invocations.increment();
+        Object flightKey = key != null ? key : NULL_KEY;
+        SharedResult<R> result = new SharedResult<>(callback, asyncState);
+        while (true)
+        {
+            Flight<R> flight = (Flight<R>) flights.get(flightKey);
+            if (flight == null)
+            {
+                Flight<R> started = new Flight<>(flightKey, result);
+                flight = (Flight<R>) flights.putIfAbsent(flightKey, started);
+                if (flight == null)
+                {
+                    executions.increment();
+                    started.start(execution);
+                    return result;
+                }
+            }
+            if (flight.join(result))
+            {
+                return result;
+            }
+            // the flight is finishing, help releasing its key and retry
+            flights.remove(flightKey, flight);
+        }
+    }
+
+    /**
+     * @return the total number of invocations performed
+     */
+    public long getInvocationCount()
+    {
+        return invocations.sum();
+    }
+
+    /**
+     * @return the number of executions begun for the invocations performed
+     */
+    public long getExecutionCount()
+    {
+        return executions.sum();
+    }
+
+    /**
+     * @return the number of keys whose execution is currently in flight
+     */
+    public int getInFlightCount()
+    {
+        return flights.size();
+    }
+
+    private final class Flight<R>
+    {
+        private final Object key;
+
+        private List<SharedResult<R>> results = new ArrayList<>(2);
+
+        private volatile FunctionAsyncResult<R> execution;
+
+        Flight(Object key, SharedResult<R> first)
+        {
+            this.key = key;
+            first.flight = this;
+            results.add(first);
+        }
+
+        void start(Supplier<? extends FunctionAsyncResult<R>> begin)
+        {
+            FunctionAsyncResult<R> execution;
+            try
+            {
+                execution = begin.get();
+            }
+            catch (RuntimeException e)
+            {
+                finish(null, e);
+                throw e;
+            }
+            this.execution = execution;
+            execution.toCompletionStage().whenComplete(this::finish);
+            if (isAbandoned())
+            {
+                execution.cancel(true);
+            }
+        }
+
+        synchronized boolean join(SharedResult<R> result)
+        {
+            if (results == null)
+            {
+                return false;
+            }
+            result.flight = this;
+            results.add(result);
+            return true;
+        }
+
+        void leave(SharedResult<R> result)
+        {
+            synchronized (this)
+            {
+                if (results == null || !results.remove(result) || !results.isEmpty())
+                {
+                    return;
+                }
+                results = null;
+            }
+            flights.remove(key, this);
+            FunctionAsyncResult<R> execution = this.execution;
+            if (execution != null)
+            {
+                execution.cancel(true);
+            }
+        }
+
+        private synchronized boolean isAbandoned()
+        {
+            return results == null && !execution.isDone();
+        }
+
+        private void finish(R value, Throwable exception)
+        {
+            flights.remove(key, this);
+            List<SharedResult<R>> results;
+            synchronized (this)
+            {
+                results = this.results;
+                this.results = null;
+            }
+            if (results == null)
+            {
+                return;
+            }
+            for (SharedResult<R> result : results)
+            {
+                try
+                {
+                    if (exception == null)
+                    {
+                        result.complete(value);
+                    }
+                    else
+                    {
+                        result.completeExceptionally(unwrap(exception));
+                    }
+                }
+                catch (Throwable e)
+                {
+                    // a throwing callback must not keep the other invocations from completing
+                    AsyncExecutor.getDefaultExceptionHandler().accept(e);
+                }
+            }
+        }
+    }
+
+    private static final class SharedResult<R> extends CompletableAsyncResult<R>
+    {
+        private volatile Flight<R> flight;
+
+        SharedResult(Consumer<? super FunctionAsyncResult<R>> callback, Object asyncState)
+        {
+            super(callback, asyncState);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning)
+        {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            Flight<R> flight = this.flight;
+            if (cancelled && flight != null)
+            {
+                flight.leave(this);
+            }
+            return cancelled;
+        }
+    }
+
+    private static Throwable unwrap(Throwable exception)
+    {
+        if (exception instanceof CompletionException && exception.getCause() != null)
+        {
+            return exception.getCause();
+        }
+        return exception;
+    }
+}
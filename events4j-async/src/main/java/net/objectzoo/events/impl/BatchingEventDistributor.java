@@ -0,0 +1,579 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.events.impl;
+
+import net.objectzoo.delegates.Action;
+import net.objectzoo.delegates.impl.AsyncExecutor;
+import net.objectzoo.delegates.impl.AsyncScheduler;
+import net.objectzoo.delegates.impl.Histogram;
+import net.objectzoo.events.Event;
+import net.objectzoo.events.Subscription;
+import net.objectzoo.events.helpers.ArrayEventSubscriberRegistry;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * The {@code BatchingEventDistributor} buffers the elements given to {@link #accept(Object)} and
+ * distributes them in batches to its subscribers, which receive each batch as an unmodifiable
+ * {@link List} in the order the elements have been accepted. This lets subscribers like database
+ * writers process high-rate events in chunks instead of being invoked once per element.
+ * <p>
+ * The buffered elements are flushed to the subscribers when the maximum batch size is reached,
+ * when the maximum latency has passed since the first buffered element or when {@link #flush()}
+ * is called. Subscribers are invoked in the order of subscription by the thread performing the
+ * flush. The sizes of the flushed batches and the latencies from the first buffered element until
+ * the flush are recorded in {@link Histogram}s.
+ * <p>
+ * A distributor is created with a {@link Builder} either for concurrent or for single-threaded
+ * use:
+ * <ul>
+ * <li>A concurrent distributor accepts elements from any number of threads. The maximum latency
+ * is measured with a {@link ScheduledExecutorService} that flushes the batch in its thread. The
+ * batches are distributed one after another in the order they have been completed, so the
+ * subscribers are never invoked concurrently. A thread completing a batch while another thread
+ * is distributing hands its batch over to that thread and returns immediately.</li>
+ * <li>A single-threaded distributor must only be used by one thread and does not synchronize at
+ * all. The maximum latency is checked when elements are accepted and by
+ * {@link #flushIfExpired()}, which the owning thread can call periodically, for example at the
+ * end of each iteration of an event loop.</li>
+ * </ul>
+ *
+ * @param <T> The type of the elements the distributor accepts
+ * @author tilmann
+ */
+public class BatchingEventDistributor<T> implements Action<T>, Event<List<T>>
+{
+    private final ArrayEventSubscriberRegistry<Consumer<? super List<T>>> registry;
+
+    private final int maxBatchSize;
+
+    private final long maxLatencyNanos;
+
+    private final boolean concurrent;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final Histogram flushSizes = new Histogram();
+
+    private final Histogram flushLatencies = new Histogram();
+
+    private final Object lock = new Object();
+
+    private Batch<T> pending;
+
+    /**
+     * The completed batches of a concurrent distributor in the order they are distributed.
+     */
+    private final ArrayDeque<Batch<T>> completed = new ArrayDeque<>();
+
+    private boolean distributing;
+
+    private BatchingEventDistributor(
+        Builder builder, ArrayEventSubscriberRegistry<Consumer<? super List<T>>> registry)
+    {
+        this.registry = registry;
+        this.maxBatchSize = builder.maxBatchSize;
+        this.maxLatencyNanos = builder.maxLatencyNanos;
+        this.concurrent = builder.concurrent;
+        if (!concurrent || maxLatencyNanos == Long.MAX_VALUE)
+        {
+            // the default scheduler is not started unless it measures the latency
+            this.scheduler = null;
+        }
+        else if (builder.scheduler != null)
+        {
+            this.scheduler = builder.scheduler;
+        }
+        else
+        {
+            this.scheduler = AsyncScheduler.getDefaultScheduler();
+        }
+    }
+
+    /**
+     * Creates a new {@link Builder} for a concurrent distributor with a maximum batch size of
+     * {@value Builder#DEFAULT_MAX_BATCH_SIZE} elements and no maximum latency.
+     *
+     * @return the new {@code Builder}
+     */
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * Adds the given element to the current batch and flushes the batch if it has reached the
+     * maximum batch size, or in a single-threaded distributor if the maximum latency has passed.
+     *
+     * @param element the element to add
+     */
+    @Override
+    public void accept(T element)
+    {
+        if (!concurrent)
+        {
+            acceptSingleThreaded(element);
+        }
+        else
+        {
+            acceptConcurrently(element);
+        }
+    }
+
+    private void acceptSingleThreaded(T element)
+    {
+        Batch<T> batch = pending;
+        if (batch == null)
+        {
+            batch = new Batch<>(maxBatchSize);
+            pending = batch;
+        }
+        batch.elements.add(element);
+        if (batch.elements.size() >= maxBatchSize || isExpired(batch))
+        {
+            pending = null;
+            distribute(batch);
+        }
+    }
+
+    private void acceptConcurrently(T element)
+    {
+        Batch<T> started = null;
+        Batch<T> full = null;
+        boolean drain = false;
+        synchronized (lock)
+        {
+            if (pending == null)
+            {
+                pending = new Batch<>(maxBatchSize);
+                started = pending;
+            }
+            pending.elements.add(element);
+            if (pending.elements.size() >= maxBatchSize)
+            {
+                full = pending;
+                drain = complete(full);
+            }
+        }
+        if (full != null)
+        {
+            if (drain)
+            {
+                drainCompleted(full);
+            }
+        }
+        else if (started != null && scheduler != null)
+        {
+            Batch<T> batch = started;
+            batch.timer = scheduler.schedule(() -> flushExpired(batch), maxLatencyNanos,
+                TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Distributes the current batch to the subscribers, if any elements are buffered. The batch is
+     * distributed by the calling thread before this method returns, unless another thread of a
+     * concurrent distributor is distributing a batch at the same time. The current batch is then
+     * handed over to that thread, which distributes it after the batches completed before, and
+     * this method returns without waiting for its distribution.
+     */
+    public void flush()
+    {
+        if (!concurrent)
+        {
+            Batch<T> batch = pending;
+            pending = null;
+            if (batch != null)
+            {
+                distribute(batch);
+            }
+            return;
+        }
+        Batch<T> batch;
+        boolean drain;
+        synchronized (lock)
+        {
+            batch = pending;
+            if (batch == null)
+            {
+                return;
+            }
+            drain = complete(batch);
+        }
+        if (drain)
+        {
+            drainCompleted(batch);
+        }
+    }
+
+    /**
+     * Distributes the current batch to the subscribers if the maximum latency has passed since
+     * its first element has been accepted. A single-threaded distributor only flushes expired
+     * batches when elements are accepted or when this method is called. Like {@link #flush()} a
+     * concurrent distributor hands the batch over to a thread distributing at the same time.
+     *
+     * @return {@code true} if a batch has been flushed
+     */
+    public boolean flushIfExpired()
+    {
+        Batch<T> batch;
+        if (!concurrent)
+        {
+            batch = pending;
+            if (batch == null || !isExpired(batch))
+            {
+                return false;
+            }
+            pending = null;
+            distribute(batch);
+            return true;
+        }
+        boolean drain;
+        synchronized (lock)
+        {
+            batch = pending;
+            if (batch == null || !isExpired(batch))
+            {
+                return false;
+            }
+            drain = complete(batch);
+        }
+        if (drain)
+        {
+            drainCompleted(batch);
+        }
+        return true;
+    }
+
+    /**
+     * @return the maximum number of elements in a batch
+     */
+    public int getMaxBatchSize()
+    {
+        return maxBatchSize;
+    }
+
+    /**
+     * @return {@code true} if this distributor accepts elements from multiple threads
+     */
+    public boolean isConcurrent()
+    {
+        return concurrent;
+    }
+
+    /**
+     * @return the histogram of the number of elements of the flushed batches
+     */
+    public Histogram getFlushSizeHistogram()
+    {
+        return flushSizes;
+    }
+
+    /**
+     * @return the histogram of the latencies in nanoseconds from the first element of a batch
+     *         until it has been flushed
+     */
+    public Histogram getFlushLatencyHistogram()
+    {
+        return flushLatencies;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void subscribe(Consumer<? super List<T>> action) throws IllegalArgumentException
+    {
+        registry.subscribe(action);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void unsubscribe(Consumer<? super List<T>> action) throws IllegalArgumentException
+    {
+        registry.unsubscribe(action);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Closing the returned {@link Subscription} removes the subscriber in constant time.
+     */
+    @Override
+    public Subscription subscribeCloseable(Consumer<? super List<T>> action)
+        throws IllegalArgumentException
+    {
+        return registry.subscribeCloseable(action);
+    }
+
+    private boolean isExpired(Batch<T> batch)
+    {
+        return maxLatencyNanos != Long.MAX_VALUE
+            && System.nanoTime() - batch.started >= maxLatencyNanos;
+    }
+
+    private void flushExpired(Batch<T> batch)
+    {
+        boolean drain;
+        synchronized (lock)
+        {
+            if (pending != batch)
+            {
+                return;
+            }
+            drain = complete(batch);
+        }
+        if (!drain)
+        {
+            return;
+        }
+        try
+        {
+            drainCompleted(batch);
+        }
+        catch (Throwable e)
+        {
+            AsyncExecutor.getDefaultExceptionHandler().accept(e);
+        }
+    }
+
+    /**
+     * Removes the given pending batch and queues it for distribution, called with the lock held.
+     *
+     * @return {@code true} if the calling thread has to distribute the completed batches
+     */
+    private boolean complete(Batch<T> batch)
+    {
+        pending = null;
+        completed.add(batch);
+        if (distributing)
+        {
+            return false;
+        }
+        distributing = true;
+        return true;
+    }
+
+    /**
+     * Distributes the completed batches until none is left. Exceptions thrown while distributing
+     * the given batch of the calling thread are rethrown, the others are given to the
+     * {@link AsyncExecutor#getDefaultExceptionHandler() default exception handler}.
+     */
+    private void drainCompleted(Batch<T> own)
+    {
+        RuntimeException failure = null;
+        boolean drained = false;
+        try
+        {
+            while (true)
+            {
+                Batch<T> batch;
+                synchronized (lock)
+                {
+                    batch = completed.poll();
+                    if (batch == null)
+                    {
+                        distributing = false;
+                        drained = true;
+                        break;
+                    }
+                }
+                try
+                {
+                    distribute(batch);
+                }
+                catch (RuntimeException e)
+                {
+                    if (batch == own)
+                    {
+                        failure = e;
+                    }
+                    else
+                    {
+                        AsyncExecutor.getDefaultExceptionHandler().accept(e);
+                    }
+                }
+            }
+        }
+        finally
+        {
+            if (!drained)
+            {
+                // an error aborted the distribution, the next completed batch resumes it
+                synchronized (lock)
+                {
+                    distributing = false;
+                }
+            }
+        }
+        if (failure != null)
+        {
+            throw failure;
+        }
+    }
+
+    private void distribute(Batch<T> batch)
+    {
+        ScheduledFuture<?> timer = batch.timer;
+        if (timer != null)
+        {
+            timer.cancel(false);
+        }
+        flushSizes.record(batch.elements.size());
+        flushLatencies.record(System.nanoTime() - batch.started);
+        registry.dispatch(Collections.unmodifiableList(batch.elements));
+    }
+
+    private static final class Batch<T>
+    {
+        final List<T> elements;
+
+        final long started = System.nanoTime();
+
+        volatile ScheduledFuture<?> timer;
+
+        Batch(int maxBatchSize)
+        {
+            elements = new ArrayList<>(Math.min(maxBatchSize, 1024));
+        }
+    }
+
+    /**
+     * A builder for {@link BatchingEventDistributor}s.
+     */
+    public static final class Builder
+    {
+        /**
+         * The default maximum number of elements in a batch.
+         */
+        public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+        private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+        private long maxLatencyNanos = Long.MAX_VALUE;
+
+        private boolean concurrent = true;
+
+        private ScheduledExecutorService scheduler;
+
+        private Builder()
+        {
+        }
+
+        /**
+         * @param maxBatchSize the maximum number of elements in a batch
+         * @return this builder
+         * @throws IllegalArgumentException if the maximum batch size is not positive
+         */
+        public Builder maxBatchSize(int maxBatchSize) throws IllegalArgumentException
+        {
+            if (maxBatchSize < 1)
+            {
+                throw new IllegalArgumentException("Invalid maximum batch size: " + maxBatchSize
+                    + ".");
+            }
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * @param maxLatency the maximum time elements are buffered before the batch is flushed
+         * @param unit       the time unit of the maximum latency
+         * @return this builder
+         * @throws IllegalArgumentException if the maximum latency is not positive
+         */
+        public Builder maxLatency(long maxLatency, TimeUnit unit) throws IllegalArgumentException
+        {
+            if (maxLatency <= 0)
+            {
+                throw new IllegalArgumentException("Invalid maximum latency: " + maxLatency + ".");
+            }
+            this.maxLatencyNanos = unit.toNanos(maxLatency);
+            return this;
+        }
+
+        /**
+         * Creates a distributor that must only be used by a single thread and does not
+         * synchronize.
+         *
+         * @return this builder
+         */
+        public Builder singleThreaded()
+        {
+            this.concurrent = false;
+            return this;
+        }
+
+        /**
+         * @param scheduler the scheduler measuring the maximum latency of a concurrent
+         *                  distributor, by default {@link AsyncScheduler#getDefaultScheduler()},
+         *                  which is only used if a maximum latency is given
+         * @return this builder
+         */
+        public Builder scheduler(ScheduledExecutorService scheduler)
+        {
+            this.scheduler = Objects.requireNonNull(scheduler);
+            return this;
+        }
+
+        /**
+         * Creates a distributor with the values of this builder that references its subscribers
+         * strongly.
+         *
+         * @param <T> The type of the elements the distributor accepts
+         * @return the new distributor
+         */
+        public <T> BatchingEventDistributor<T> build()
+        {
+            return build(new ArrayEventSubscriberRegistry<>());
+        }
+
+        /**
+         * Creates a distributor with the values of this builder that stores its subscribers in
+         * the given registry.
+         *
+         * @param registry the registry to store the subscribers in
+         * @param <T>      The type of the elements the distributor accepts
+         * @return the new distributor
+         */
+        public <T> BatchingEventDistributor<T> build(
+            ArrayEventSubscriberRegistry<Consumer<? super List<T>>> registry)
+        {
+            return new BatchingEventDistributor<>(this, Objects.requireNonNull(registry));
+        }
+    }
+}
@@ -29,6 +29,7 @@ import net.objectzoo.delegates.Action0Async;
 import net.objectzoo.delegates.ActionAsyncResult;
 import net.objectzoo.delegates.adapters.Action0ToAction0Async;
 import net.objectzoo.delegates.impl.AsyncExecutor;
+import net.objectzoo.events.Subscription;
 
 import java.util.concurrent.Executor;
 import java.util.function.Consumer;
@@ -114,6 +115,12 @@ public class Event0AsyncAdapter implements Event0AsyncDelegate
 		delegate.unsubscribe(action);
 	}
 	
+	@Override
+	public Subscription subscribeCloseable(Action0 action)
+	{
+		return delegate.subscribeCloseable(action);
+	}
+	
 	@Override
 	public void start()
 	{
@@ -27,10 +27,14 @@ package net.objectzoo.events.impl;
 import net.objectzoo.delegates.Action2Async;
 import net.objectzoo.delegates.ActionAsyncResult;
 import net.objectzoo.delegates.adapters.Action2ToAction2Async;
+import net.objectzoo.delegates.adapters.KeyedSerialAction2Async;
 import net.objectzoo.delegates.impl.AsyncExecutor;
+import net.objectzoo.delegates.impl.KeyedSerialExecutor;
+import net.objectzoo.events.Subscription;
 
 import java.util.concurrent.Executor;
 import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 
 /**
@@ -88,6 +92,26 @@ public class Event2AsyncAdapter<T1, T2> implements Event2AsyncDelegate<T1, T2>
         asyncDelegate = new Action2ToAction2Async<>(delegate, executor);
     }
 
+	/**
+	 * Creates a {@code Event2AsyncAdapter} that distributes the events in order per key using the
+	 * given {@link KeyedSerialExecutor}. Events with equal keys extracted from their parameters are
+	 * distributed one after each other in the order they have been raised, while events with
+	 * different keys may be distributed in parallel.
+	 * 
+	 * @param delegate
+	 *        the original delegate to be invoked asynchronously
+	 * @param keyExtractor
+	 *        extracts the key of an event from its parameters
+	 * @param executor
+	 *        the executor distributing the events in order per key
+	 */
+	public Event2AsyncAdapter(Event2Delegate<T1, T2> delegate,
+		BiFunction<? super T1, ? super T2, ?> keyExtractor, KeyedSerialExecutor executor)
+	{
+		this.delegate = delegate;
+		asyncDelegate = new KeyedSerialAction2Async<>(delegate, keyExtractor, executor);
+	}
+
     /**
      * This {@code beginInvoke} implementation invokes all event subscribers in another thread in
 	 * the order they have been subscribed.
@@ -129,4 +153,10 @@ public class Event2AsyncAdapter<T1, T2> implements Event2AsyncDelegate<T1, T2>
 	{
 		delegate.unsubscribe(action);
 	}
+	
+	@Override
+	public Subscription subscribeCloseable(BiConsumer<? super T1, ? super T2> action)
+	{
+		return delegate.subscribeCloseable(action);
+	}
 }
@@ -27,8 +27,12 @@ package net.objectzoo.events.impl;
 import net.objectzoo.delegates.Action3;
 import net.objectzoo.delegates.Action3Async;
 import net.objectzoo.delegates.ActionAsyncResult;
+import net.objectzoo.delegates.Function3;
 import net.objectzoo.delegates.adapters.Action3ToAction3Async;
+import net.objectzoo.delegates.adapters.KeyedSerialAction3Async;
 import net.objectzoo.delegates.impl.AsyncExecutor;
+import net.objectzoo.delegates.impl.KeyedSerialExecutor;
+import net.objectzoo.events.Subscription;
 
 import java.util.concurrent.Executor;
 import java.util.function.Consumer;
@@ -90,6 +94,26 @@ public class Event3AsyncAdapter<T1, T2, T3> implements Event3AsyncDelegate<T1, T
         asyncDelegate = new Action3ToAction3Async<>(delegate, executor);
     }
 
+	/**
+	 * Creates a {@code Event3AsyncAdapter} that distributes the events in order per key using the
+	 * given {@link KeyedSerialExecutor}. Events with equal keys extracted from their parameters are
+	 * distributed one after each other in the order they have been raised, while events with
+	 * different keys may be distributed in parallel.
+	 * 
+	 * @param delegate
+	 *        the original delegate to be invoked asynchronously
+	 * @param keyExtractor
+	 *        extracts the key of an event from its parameters
+	 * @param executor
+	 *        the executor distributing the events in order per key
+	 */
+	public Event3AsyncAdapter(Event3Delegate<T1, T2, T3> delegate,
+		Function3<? super T1, ? super T2, ? super T3, ?> keyExtractor, KeyedSerialExecutor executor)
+	{
+		this.delegate = delegate;
+		asyncDelegate = new KeyedSerialAction3Async<>(delegate, keyExtractor, executor);
+	}
+
     /**
      * This {@code beginInvoke} implementation invokes all event subscribers in another thread in
 	 * the order they have been subscribed.
@@ -133,4 +157,10 @@ public class Event3AsyncAdapter<T1, T2, T3> implements Event3AsyncDelegate<T1, T
 	{
 		delegate.unsubscribe(action);
 	}
+	
+	@Override
+	public Subscription subscribeCloseable(Action3<? super T1, ? super T2, ? super T3> action)
+	{
+		return delegate.subscribeCloseable(action);
+	}
 }
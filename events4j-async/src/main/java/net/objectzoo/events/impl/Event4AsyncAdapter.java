@@ -27,8 +27,12 @@ package net.objectzoo.events.impl;
 import net.objectzoo.delegates.Action4;
 import net.objectzoo.delegates.Action4Async;
 import net.objectzoo.delegates.ActionAsyncResult;
+import net.objectzoo.delegates.Function4;
 import net.objectzoo.delegates.adapters.Action4ToAction4Async;
+import net.objectzoo.delegates.adapters.KeyedSerialAction4Async;
 import net.objectzoo.delegates.impl.AsyncExecutor;
+import net.objectzoo.delegates.impl.KeyedSerialExecutor;
+import net.objectzoo.events.Subscription;
 
 import java.util.concurrent.Executor;
 import java.util.function.Consumer;
@@ -93,6 +97,27 @@ public class Event4AsyncAdapter<T1, T2, T3, T4> implements Event4AsyncDelegate<T
         asyncDelegate = new Action4ToAction4Async<>(delegate, executor);
     }
 
+	/**
+	 * Creates a {@code Event4AsyncAdapter} that distributes the events in order per key using the
+	 * given {@link KeyedSerialExecutor}. Events with equal keys extracted from their parameters are
+	 * distributed one after each other in the order they have been raised, while events with
+	 * different keys may be distributed in parallel.
+	 * 
+	 * @param delegate
+	 *        the original delegate to be invoked asynchronously
+	 * @param keyExtractor
+	 *        extracts the key of an event from its parameters
+	 * @param executor
+	 *        the executor distributing the events in order per key
+	 */
+	public Event4AsyncAdapter(Event4Delegate<T1, T2, T3, T4> delegate,
+		Function4<? super T1, ? super T2, ? super T3, ? super T4, ?> keyExtractor,
+		KeyedSerialExecutor executor)
+	{
+		this.delegate = delegate;
+		asyncDelegate = new KeyedSerialAction4Async<>(delegate, keyExtractor, executor);
+	}
+
     /**
      * This {@code beginInvoke} implementation invokes all event subscribers in another thread in
 	 * the order they have been subscribed.
@@ -137,6 +162,13 @@ public class Event4AsyncAdapter<T1, T2, T3, T4> implements Event4AsyncDelegate<T
 	@Override
 	public void unsubscribe(Action4<? super T1, ? super T2, ? super T3, ? super T4> action)
 	{
-		delegate.subscribe(action);
+		delegate.unsubscribe(action);
+	}
+	
+	@Override
+	public Subscription subscribeCloseable(
+		Action4<? super T1, ? super T2, ? super T3, ? super T4> action)
+	{
+		return delegate.subscribeCloseable(action);
 	}
 }
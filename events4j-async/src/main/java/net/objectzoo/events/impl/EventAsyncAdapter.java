@@ -27,10 +27,14 @@ package net.objectzoo.events.impl;
 import net.objectzoo.delegates.ActionAsync;
 import net.objectzoo.delegates.ActionAsyncResult;
 import net.objectzoo.delegates.adapters.ActionToActionAsync;
+import net.objectzoo.delegates.adapters.KeyedSerialActionAsync;
 import net.objectzoo.delegates.impl.AsyncExecutor;
+import net.objectzoo.delegates.impl.KeyedSerialExecutor;
+import net.objectzoo.events.Subscription;
 
 import java.util.concurrent.Executor;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * The {@code EventAsyncAdapter} is class that adapts an {@link EventDelegate} to
@@ -78,6 +82,23 @@ public class EventAsyncAdapter<T> implements EventAsyncDelegate<T>
         asyncDelegate = new ActionToActionAsync<>(delegate, executor);
     }
 
+    /**
+     * Creates a {@code EventAsyncAdapter} that distributes the events in order per key using the
+     * given {@link KeyedSerialExecutor}. Events with equal keys extracted from their parameter are
+     * distributed one after each other in the order they have been raised, while events with
+     * different keys may be distributed in parallel.
+     *
+     * @param delegate     the original delegate to be invoked asynchronously
+     * @param keyExtractor extracts the key of an event from its parameter
+     * @param executor     the executor distributing the events in order per key
+     */
+    public EventAsyncAdapter(EventDelegate<T> delegate, Function<? super T, ?> keyExtractor,
+                             KeyedSerialExecutor executor)
+    {
+        this.delegate = delegate;
+        asyncDelegate = new KeyedSerialActionAsync<>(delegate, keyExtractor, executor);
+    }
+
     /**
      * This {@code beginInvoke} implementation invokes all event subscribers in another thread in
      * the order they have been subscribed.
@@ -114,4 +135,10 @@ public class EventAsyncAdapter<T> implements EventAsyncDelegate<T>
     {
         delegate.unsubscribe(action);
     }
+
+    @Override
+    public Subscription subscribeCloseable(Consumer<? super T> action)
+    {
+        return delegate.subscribeCloseable(action);
+    }
 }
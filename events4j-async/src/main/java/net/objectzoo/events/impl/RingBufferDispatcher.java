@@ -0,0 +1,442 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.events.impl;
+
+import net.objectzoo.delegates.impl.AsyncExecutor;
+import net.objectzoo.delegates.impl.AsyncExecutorConfiguration;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The {@code RingBufferDispatcher} is the base class of the asynchronous ring buffer event
+ * distributors. Events are published into a preallocated ring buffer by the threads raising them
+ * and are dispatched to the subscribers by dedicated consumer threads. The parameters of an event
+ * are stored directly in the slots of the ring buffer, so publishing and dispatching an event does
+ * not allocate any objects.
+ * <p>
+ * The ring buffer is a bounded multi-producer multi-consumer queue in which producers and
+ * consumers claim slots by incrementing sequence numbers. A slot is published by setting its
+ * sequence number, so events can be raised from any number of threads. If the ring buffer is full
+ * raising an event waits for a consumer to free a slot. With a single consumer thread the events
+ * are dispatched in the order they have been published, with multiple consumer threads events may
+ * be dispatched concurrently and out of order.
+ * <p>
+ * Idle consumers and producers waiting for a free slot wait according to the
+ * {@link WaitStrategy} of the dispatcher. Exceptions thrown by subscribers are given to the
+ * {@link AsyncExecutor#getDefaultExceptionHandler() default exception handler}. The interrupt
+ * status of a consumer thread is cleared after each event it has dispatched. The consumer threads
+ * are daemon threads that run until the dispatcher is {@link #close() closed}.
+ *
+ * @author tilmann
+ */
+public abstract class RingBufferDispatcher implements AutoCloseable
+{
+    /**
+     * The strategies used to wait for events by idle consumer threads and for free slots by
+     * producers.
+     */
+    public enum WaitStrategy
+    {
+        /**
+         * Spin continuously, which gives the lowest latency but occupies a core per consumer
+         * thread.
+         */
+        BUSY_SPIN,
+
+        /**
+         * Yield the thread while waiting, which gives low latency and lets other threads run.
+         */
+        YIELD,
+
+        /**
+         * Spin and yield briefly, then park the thread until an event is published. An idle
+         * consumer thread still wakes up every millisecond to check for events, but otherwise
+         * leaves the core to other threads at the cost of a higher latency to wake up.
+         */
+        PARK
+    }
+
+    /**
+     * The default capacity of the ring buffer.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final String THREAD_NAME_PREFIX =
+        AsyncExecutorConfiguration.DEFAULT_THREAD_NAME_PREFIX + "ring-";
+
+    private static final AtomicInteger dispatcherCount = new AtomicInteger();
+
+    private static final int SPIN_TRIES = 100;
+
+    private static final int YIELD_TRIES = 200;
+
+    private static final long CONSUMER_PARK_NANOS = 1_000_000;
+
+    private static final long PRODUCER_PARK_NANOS = 1_000;
+
+    /**
+     * Set in the tail sequence when the dispatcher is closed, which makes claiming further slots
+     * impossible.
+     */
+    private static final long CLOSED = Long.MIN_VALUE;
+
+    private final int mask;
+
+    private final int stride;
+
+    private final Object[] parameters;
+
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong tail = new PaddedSequence();
+
+    private final AtomicLong head = new PaddedSequence();
+
+    private final AtomicInteger sleepingConsumers = new AtomicInteger();
+
+    private final WaitStrategy waitStrategy;
+
+    private final Thread[] consumers;
+
+    /**
+     * Creates a new {@code RingBufferDispatcher}. The consumer threads are created but not started
+     * until {@link #startConsumers()} is called.
+     *
+     * @param parameterCount  the number of parameters of the events
+     * @param capacity        the number of slots of the ring buffer, a power of two
+     * @param consumerThreads the number of consumer threads
+     * @param waitStrategy    the strategy used to wait for events and free slots
+     * @throws IllegalArgumentException if the capacity is not a power of two or the number of
+     *                                  consumer threads is not positive
+     */
+    protected RingBufferDispatcher(int parameterCount, int capacity, int consumerThreads,
+                                   WaitStrategy waitStrategy) throws IllegalArgumentException
+    {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1)
+        {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity + ".");
+        }
+        if (consumerThreads < 1)
+        {
+            throw new IllegalArgumentException(
+                "Invalid number of consumer threads: " + consumerThreads + ".");
+        }
+        if (waitStrategy == null)
+        {
+            throw new IllegalArgumentException("The wait strategy must not be null.");
+        }
+        this.mask = capacity - 1;
+        this.stride = Math.max(1, parameterCount);
+        this.parameters = new Object[capacity * stride];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int index = 0; index < capacity; index++)
+        {
+            sequences.set(index, index);
+        }
+        this.waitStrategy = waitStrategy;
+        this.consumers = new Thread[consumerThreads];
+        String threadName = THREAD_NAME_PREFIX + dispatcherCount.incrementAndGet() + "-";
+        for (int index = 0; index < consumerThreads; index++)
+        {
+            consumers[index] = new Thread(this::consume, threadName + index);
+            consumers[index].setDaemon(true);
+        }
+    }
+
+    /**
+     * Starts the consumer threads, subclasses call this method at the end of their construction.
+     */
+    protected final void startConsumers()
+    {
+        for (Thread consumer : consumers)
+        {
+            consumer.start();
+        }
+    }
+
+    /**
+     * Publishes an event with the given parameters, unused parameters are {@code null}. If the
+     * ring buffer is full this method waits until a slot has been freed.
+     *
+     * @param parameter1 the first parameter of the event
+     * @param parameter2 the second parameter of the event
+     * @param parameter3 the third parameter of the event
+     * @param parameter4 the fourth parameter of the event
+     * @throws IllegalStateException if this dispatcher has been closed
+     */
+    protected final void publish(Object parameter1, Object parameter2, Object parameter3,
+                                 Object parameter4) throws IllegalStateException
+    {
+        long position;
+        int index;
+        int idle = 0;
+        while (true)
+        {
+            position = tail.get();
+            if ((position & CLOSED) != 0)
+            {
+                throw new IllegalStateException("The dispatcher has been closed.");
+            }
+            index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0)
+            {
+                if (tail.compareAndSet(position, position + 1))
+                {
+                    break;
+                }
+            }
+            else if (difference < 0)
+            {
+                idle = awaitFreeSlot(idle);
+            }
+        }
+        int offset = index * stride;
+        parameters[offset] = parameter1;
+        if (stride > 1)
+        {
+            parameters[offset + 1] = parameter2;
+            if (stride > 2)
+            {
+                parameters[offset + 2] = parameter3;
+                if (stride > 3)
+                {
+                    parameters[offset + 3] = parameter4;
+                }
+            }
+        }
+        if (waitStrategy == WaitStrategy.PARK)
+        {
+            // the volatile store orders the publication before checking for sleeping consumers
+            sequences.set(index, position + 1);
+            if (sleepingConsumers.get() != 0)
+            {
+                for (Thread consumer : consumers)
+                {
+                    LockSupport.unpark(consumer);
+                }
+            }
+        }
+        else
+        {
+            sequences.lazySet(index, position + 1);
+        }
+    }
+
+    /**
+     * Dispatches an event to the subscribers, called by the consumer threads.
+     *
+     * @param parameter1 the first parameter of the event
+     * @param parameter2 the second parameter of the event
+     * @param parameter3 the third parameter of the event
+     * @param parameter4 the fourth parameter of the event
+     */
+    protected abstract void dispatch(Object parameter1, Object parameter2, Object parameter3,
+                                     Object parameter4);
+
+    /**
+     * @return the number of slots of the ring buffer
+     */
+    public int getCapacity()
+    {
+        return mask + 1;
+    }
+
+    /**
+     * @return the number of events published but not yet taken by a consumer thread
+     */
+    public int size()
+    {
+        return (int) Math.max(0, (tail.get() & ~CLOSED) - head.get());
+    }
+
+    /**
+     * Closes this dispatcher. Events published before are still dispatched, raising events
+     * afterwards fails with an {@link IllegalStateException}. This method waits until the
+     * consumer threads have dispatched the remaining events unless it is called by a consumer
+     * thread.
+     */
+    @Override
+    public void close()
+    {
+        long position;
+        do
+        {
+            position = tail.get();
+        }
+        while ((position & CLOSED) == 0 && !tail.compareAndSet(position, position | CLOSED));
+        for (Thread consumer : consumers)
+        {
+            LockSupport.unpark(consumer);
+        }
+        for (Thread consumer : consumers)
+        {
+            if (consumer == Thread.currentThread())
+            {
+                continue;
+            }
+            try
+            {
+                consumer.join();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void consume()
+    {
+        int idle = 0;
+        while (true)
+        {
+            long position = head.get();
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0)
+            {
+                if (head.compareAndSet(position, position + 1))
+                {
+                    take(index, position);
+                    idle = 0;
+                }
+            }
+            else if (difference < 0)
+            {
+                // the tail no longer changes once closed, so all claimed events have been taken
+                if (tail.get() == (position | CLOSED))
+                {
+                    return;
+                }
+                idle = awaitEvent(idle);
+            }
+        }
+    }
+
+    private void take(int index, long position)
+    {
+        int offset = index * stride;
+        Object parameter1 = parameters[offset];
+        Object parameter2 = null;
+        Object parameter3 = null;
+        Object parameter4 = null;
+        parameters[offset] = null;
+        if (stride > 1)
+        {
+            parameter2 = parameters[offset + 1];
+            parameters[offset + 1] = null;
+            if (stride > 2)
+            {
+                parameter3 = parameters[offset + 2];
+                parameters[offset + 2] = null;
+                if (stride > 3)
+                {
+                    parameter4 = parameters[offset + 3];
+                    parameters[offset + 3] = null;
+                }
+            }
+        }
+        sequences.lazySet(index, position + mask + 1);
+        try
+        {
+            dispatch(parameter1, parameter2, parameter3, parameter4);
+        }
+        catch (Throwable e)
+        {
+            AsyncExecutor.getDefaultExceptionHandler().accept(e);
+        }
+        // an interrupt left by a subscriber would return from parkNanos immediately and spin the
+        // idle consumer thread
+        Thread.interrupted();
+    }
+
+    private int awaitEvent(int idle)
+    {
+        switch (waitStrategy)
+        {
+            case BUSY_SPIN:
+                return idle;
+            case YIELD:
+                Thread.yield();
+                return idle;
+            default:
+                if (idle < SPIN_TRIES)
+                {
+                    return idle + 1;
+                }
+                if (idle < SPIN_TRIES + YIELD_TRIES)
+                {
+                    Thread.yield();
+                    return idle + 1;
+                }
+                sleepingConsumers.incrementAndGet();
+                long position = head.get();
+                if (sequences.get((int) position & mask) != position + 1
+                    && (tail.get() & CLOSED) == 0)
+                {
+                    LockSupport.parkNanos(this, CONSUMER_PARK_NANOS);
+                }
+                sleepingConsumers.decrementAndGet();
+                return idle;
+        }
+    }
+
+    private int awaitFreeSlot(int idle)
+    {
+        switch (waitStrategy)
+        {
+            case BUSY_SPIN:
+                return idle;
+            case YIELD:
+                Thread.yield();
+                return idle;
+            default:
+                if (idle < SPIN_TRIES)
+                {
+                    return idle + 1;
+                }
+                LockSupport.parkNanos(this, PRODUCER_PARK_NANOS);
+                return idle;
+        }
+    }
+
+    /**
+     * A sequence padded so that the head and tail sequences, which are written by different
+     * threads, do not share a cache line.
+     */
+    private static final class PaddedSequence extends AtomicLong
+    {
+        private static final long serialVersionUID = 1L;
+
+        long p1, p2, p3, p4, p5, p6, p7;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.events.impl;
+
+import net.objectzoo.delegates.Action0;
+import net.objectzoo.events.Subscription;
+import net.objectzoo.events.helpers.ArrayEventSubscriberRegistry;
+
+/**
+ * The {@code RingBufferEvent0Distributor} is an asynchronous {@link Event0Delegate} implementation
+ * that distributes events to multiple subscribers in consumer threads. Raising an event publishes
+ * it into a preallocated ring buffer without allocating any objects and returns immediately, the
+ * consumer threads invoke the subscribers in the order of subscription.
+ * <p>
+ * The capacity of the ring buffer, the number of consumer threads and the wait strategy can be
+ * chosen during creation. With a single consumer thread the events are distributed in the order
+ * they have been raised. The distributor should be closed when it is no longer used to stop its
+ * consumer threads.
+ *
+ * @author tilmann
+ * @see RingBufferDispatcher
+ */
+public class RingBufferEvent0Distributor extends RingBufferDispatcher
+    implements Event0Delegate
+{
+    private final ArrayEventSubscriberRegistry<Action0> registry;
+
+    /**
+     * Creates a new {@code RingBufferEvent0Distributor} with the default capacity, a single
+     * consumer thread and the {@link WaitStrategy#PARK} wait strategy.
+     */
+    public RingBufferEvent0Distributor()
+    {
+        this(DEFAULT_CAPACITY, 1, WaitStrategy.PARK);
+    }
+
+    /**
+     * Creates a new {@code RingBufferEvent0Distributor} with the given ring buffer configuration.
+     *
+     * @param capacity        the number of slots of the ring buffer, a power of two
+     * @param consumerThreads the number of consumer threads
+     * @param waitStrategy    the strategy used to wait for events and free slots
+     * @throws IllegalArgumentException if the capacity is not a power of two or the number of
+     *                                  consumer threads is not positive
+     */
+    public RingBufferEvent0Distributor(int capacity, int consumerThreads, WaitStrategy waitStrategy)
+        throws IllegalArgumentException
+    {
+        this(new ArrayEventSubscriberRegistry<>(), capacity, consumerThreads, waitStrategy);
+    }
+
+    /**
+     * Creates a new {@code RingBufferEvent0Distributor} that stores its subscribers in the given
+     * registry and uses the given ring buffer configuration.
+     *
+     * @param registry        the registry to store the subscribers in
+     * @param capacity        the number of slots of the ring buffer, a power of two
+     * @param consumerThreads the number of consumer threads
+     * @param waitStrategy    the strategy used to wait for events and free slots
+     * @throws IllegalArgumentException if the capacity is not a power of two or the number of
+     *                                  consumer threads is not positive
+     */
+    public RingBufferEvent0Distributor(ArrayEventSubscriberRegistry<Action0> registry,
+                                       int capacity, int consumerThreads, WaitStrategy waitStrategy)
+        throws IllegalArgumentException
+    {
+        super(0, capacity, consumerThreads, waitStrategy);
+        this.registry = registry;
+        startConsumers();
+    }
+
+    /**
+     * This {@code start} implementation publishes the event to the ring buffer and returns
+     * without waiting for the subscribers. If the ring buffer is full it waits for a free slot.
+     *
+     * @throws IllegalStateException if this distributor has been closed
+     */
+    @Override
+    public void start()
+    {
+        publish(null, null, null, null);
+    }
+
+    @Override
+    protected void dispatch(Object parameter1, Object parameter2, Object parameter3,
+                            Object parameter4)
+    {
+        registry.dispatch();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void subscribe(Action0 action) throws IllegalArgumentException
+    {
+        registry.subscribe(action);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void unsubscribe(Action0 action) throws IllegalArgumentException
+    {
+        registry.unsubscribe(action);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Closing the returned {@link Subscription} removes the subscriber in constant time.
+     */
+    @Override
+    public Subscription subscribeCloseable(Action0 action)
+        throws IllegalArgumentException
+    {
+        return registry.subscribeCloseable(action);
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.events.impl;
+
+import net.objectzoo.delegates.Action4;
+import net.objectzoo.events.Subscription;
+import net.objectzoo.events.helpers.ArrayEventSubscriberRegistry;
+
+/**
+ * The {@code RingBufferEvent4Distributor} is an asynchronous {@link Event4Delegate} implementation
+ * that distributes events to multiple subscribers in consumer threads. Raising an event publishes
+ * its parameters into a preallocated ring buffer without allocating any objects and returns
+ * immediately, the consumer threads invoke the subscribers in the order of subscription.
+ * <p>
+ * The capacity of the ring buffer, the number of consumer threads and the wait strategy can be
+ * chosen during creation. With a single consumer thread the events are distributed in the order
+ * they have been raised. The distributor should be closed when it is no longer used to stop its
+ * consumer threads.
+ *
+ * @param <T1> The type of the first information parameter the event provides
+ * @param <T2> The type of the second information parameter the event provides
+ * @param <T3> The type of the third information parameter the event provides
+ * @param <T4> The type of the fourth information parameter the event provides
+ * @author tilmann
+ * @see RingBufferDispatcher
+ */
+public class RingBufferEvent4Distributor<T1, T2, T3, T4> extends RingBufferDispatcher
+    implements Event4Delegate<T1, T2, T3, T4>
+{
+    private final ArrayEventSubscriberRegistry<
+        Action4<? super T1, ? super T2, ? super T3, ? super T4>> registry;
+
+    /**
+     * Creates a new {@code RingBufferEvent4Distributor} with the default capacity, a single
+     * consumer thread and the {@link WaitStrategy#PARK} wait strategy.
+     */
+    public RingBufferEvent4Distributor()
+    {
+        this(DEFAULT_CAPACITY, 1, WaitStrategy.PARK);
+    }
+
+    /**
+     * Creates a new {@code RingBufferEvent4Distributor} with the given ring buffer configuration.
+     *
+     * @param capacity        the number of slots of the ring buffer, a power of two
+     * @param consumerThreads the number of consumer threads
+     * @param waitStrategy    the strategy used to wait for events and free slots
+     * @throws IllegalArgumentException if the capacity is not a power of two or the number of
+     *                                  consumer threads is not positive
+     */
+    public RingBufferEvent4Distributor(int capacity, int consumerThreads, WaitStrategy waitStrategy)
+        throws IllegalArgumentException
+    {
+        this(new ArrayEventSubscriberRegistry<>(), capacity, consumerThreads, waitStrategy);
+    }
+
+    /**
+     * Creates a new {@code RingBufferEvent4Distributor} that stores its subscribers in the given
+     * registry and uses the given ring buffer configuration.
+     *
+     * @param registry        the registry to store the subscribers in
+     * @param capacity        the number of slots of the ring buffer, a power of two
+     * @param consumerThreads the number of consumer threads
+     * @param waitStrategy    the strategy used to wait for events and free slots
+     * @throws IllegalArgumentException if the capacity is not a power of two or the number of
+     *                                  consumer threads is not positive
+     */
+    public RingBufferEvent4Distributor(
+        ArrayEventSubscriberRegistry<Action4<? super T1, ? super T2, ? super T3, ? super T4>>
+            registry, int capacity, int consumerThreads, WaitStrategy waitStrategy)
+        throws IllegalArgumentException
+    {
+        super(4, capacity, consumerThreads, waitStrategy);
+        this.registry = registry;
+        startConsumers();
+    }
+
+    /**
+     * This {@code accept} implementation publishes the given parameters to the ring buffer and
+     * returns without waiting for the subscribers. If the ring buffer is full it waits for a free
+     * slot.
+     *
+     * @param parameter1 the first parameter to invoke the subscribers with
+     * @param parameter2 the second parameter to invoke the subscribers with
+     * @param parameter3 the third parameter to invoke the subscribers with
+     * @param parameter4 the fourth parameter to invoke the subscribers with
+     * @throws IllegalStateException if this distributor has been closed
+     */
+    @Override
+    public void accept(T1 parameter1, T2 parameter2, T3 parameter3, T4 parameter4)
+    {
+        publish(parameter1, parameter2, parameter3, parameter4);
+    }
+
+    @Override
+    protected void dispatch(Object parameter1, Object parameter2, Object parameter3,
+                            Object parameter4)
+    {
+        registry.dispatch(parameter1, parameter2, parameter3, parameter4);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void subscribe(Action4<? super T1, ? super T2, ? super T3, ? super T4> action)
+        throws IllegalArgumentException
+    {
+        registry.subscribe(action);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void unsubscribe(Action4<? super T1, ? super T2, ? super T3, ? super T4> action)
+        throws IllegalArgumentException
+    {
+        registry.unsubscribe(action);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Closing the returned {@link Subscription} removes the subscriber in constant time.
+     */
+    @Override
+    public Subscription subscribeCloseable(
+        Action4<? super T1, ? super T2, ? super T3, ? super T4> action)
+        throws IllegalArgumentException
+    {
+        return registry.subscribeCloseable(action);
+    }
+}
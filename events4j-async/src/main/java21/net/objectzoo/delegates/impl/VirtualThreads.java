@@ -0,0 +1,66 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.impl;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * This helper class creates executors that run each task in a new virtual thread. This is the
+ * implementation for Java 21 and later contained in the multi-release JAR.
+ *
+ * @author tilmann
+ */
+final class VirtualThreads
+{
+    private VirtualThreads()
+    {
+    }
+
+    /**
+     * Checks if the runtime supports virtual threads.
+     *
+     * @return {@code true} if virtual threads are supported
+     */
+    static boolean isSupported()
+    {
+        return true;
+    }
+
+    /**
+     * Creates a new {@link Executor} that runs each task in a new virtual thread named with the
+     * given prefix followed by a sequence number.
+     *
+     * @param threadNamePrefix the prefix of the names of the created threads
+     * @return the new {@code Executor}
+     */
+    static Executor newExecutor(String threadNamePrefix)
+    {
+        return Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name(threadNamePrefix, 1).factory());
+    }
+}
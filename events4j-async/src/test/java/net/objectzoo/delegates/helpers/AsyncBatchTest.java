@@ -0,0 +1,290 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.helpers;
+
+import net.objectzoo.delegates.ActionAsync;
+import net.objectzoo.delegates.ActionAsyncResult;
+import net.objectzoo.delegates.Function2Async;
+import net.objectzoo.delegates.FunctionAsync;
+import net.objectzoo.delegates.FunctionAsyncResult;
+import net.objectzoo.delegates.impl.AsyncBatch;
+import net.objectzoo.delegates.impl.CompletableAsyncResult;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+public class AsyncBatchTest
+{
+    private final Executor executor = spy(new InCallingThreadExecutor());
+
+    @Test
+    public void beginApplyAll_returns_return_values_in_order_of_parameters() throws Exception
+    {
+        FunctionAsync<Integer, Integer> sut = FunctionAsync.from(value -> value * 2, executor);
+
+        FunctionAsyncResult<List<Integer>> result = sut.beginApplyAll(Arrays.asList(1, 2, 3, 4, 5),
+            2);
+
+        assertThat(result.endReturn(), is(Arrays.asList(2, 4, 6, 8, 10)));
+    }
+
+    @Test
+    public void beginApplyAll_submits_one_task_per_chunk() throws Exception
+    {
+        FunctionAsync<Integer, Integer> sut = FunctionAsync.from(value -> value, executor);
+
+        sut.beginApplyAll(Arrays.asList(1, 2, 3, 4, 5), 2).end();
+
+        verify(executor, times(3)).execute(any(Runnable.class));
+    }
+
+    @Test
+    public void beginApplyAll_completes_without_parameters() throws Exception
+    {
+        FunctionAsync<Integer, Integer> sut = FunctionAsync.from(value -> value, executor);
+
+        FunctionAsyncResult<List<Integer>> result = sut.beginApplyAll(Collections.emptyList(), 8);
+
+        assertTrue(result.isDone());
+        assertThat(result.endReturn(), is(Collections.emptyList()));
+        verifyZeroInteractions(executor);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void beginApplyAll_throws_exception_for_chunk_size_zero()
+    {
+        FunctionAsync<Integer, Integer> sut = FunctionAsync.from(value -> value, executor);
+
+        sut.beginApplyAll(Arrays.asList(1, 2), 0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void beginApplyAll_calls_callback_with_result() throws Exception
+    {
+        Consumer<FunctionAsyncResult<List<Integer>>> callback = mock(Consumer.class);
+        Object asyncState = new Object();
+        FunctionAsync<Integer, Integer> sut = FunctionAsync.from(value -> value, executor);
+
+        FunctionAsyncResult<List<Integer>> result = sut.beginApplyAll(callback, asyncState,
+            Arrays.asList(1, 2, 3), 2);
+
+        verify(callback).accept(result);
+        assertThat(result.getAsyncState(), is(asyncState));
+    }
+
+    @Test
+    public void beginApplyAll_completes_with_exception_and_skips_remaining_elements()
+        throws Exception
+    {
+        RuntimeException expected = new RuntimeException();
+        List<Integer> applied = new ArrayList<>();
+        FunctionAsync<Integer, Integer> sut = FunctionAsync.from(value -> {
+            applied.add(value);
+            if (value == 2)
+            {
+                throw expected;
+            }
+            return value;
+        }, executor);
+
+        FunctionAsyncResult<List<Integer>> result = sut.beginApplyAll(Arrays.asList(1, 2, 3, 4),
+            1);
+
+        try
+        {
+            result.endReturn();
+            fail();
+        }
+        catch (ExecutionException e)
+        {
+            assertEquals(expected, e.getCause());
+        }
+        assertThat(applied, is(Arrays.asList(1, 2)));
+    }
+
+    @Test
+    public void beginApplyAll_skips_elements_when_cancelled_before_execution() throws Exception
+    {
+        List<Runnable> queued = new ArrayList<>();
+        List<Integer> applied = new ArrayList<>();
+        FunctionAsync<Integer, Integer> sut = FunctionAsync.from(value -> {
+            applied.add(value);
+            return value;
+        }, queued::add);
+
+        FunctionAsyncResult<List<Integer>> result = sut.beginApplyAll(Arrays.asList(1, 2, 3), 2);
+        result.cancel(false);
+        queued.forEach(Runnable::run);
+
+        assertTrue(result.isCancelled());
+        assertThat(applied, is(Collections.<Integer>emptyList()));
+    }
+
+    @Test
+    public void beginApplyAll_of_function2_applies_parameters_at_same_position() throws Exception
+    {
+        Function2Async<Integer, String, String> sut = Function2Async.from(
+            (count, text) -> text + count, executor);
+
+        FunctionAsyncResult<List<String>> result = sut.beginApplyAll(Arrays.asList(1, 2),
+            Arrays.asList("a", "b"), 10);
+
+        assertThat(result.endReturn(), is(Arrays.asList("a1", "b2")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void beginApplyAll_of_function2_throws_exception_for_different_number_of_elements()
+    {
+        Function2Async<Integer, String, String> sut = Function2Async.from(
+            (count, text) -> text + count, executor);
+
+        sut.beginApplyAll(Arrays.asList(1, 2), Collections.singletonList("a"), 10);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void beginAcceptAll_invokes_action_for_each_parameter() throws Exception
+    {
+        Consumer<Object> action = mock(Consumer.class);
+        ActionAsync<Object> sut = ActionAsync.from(action, executor);
+
+        sut.beginAcceptAll(Arrays.asList("a", "b", "c"), 2).end();
+
+        verify(action).accept("a");
+        verify(action).accept("b");
+        verify(action).accept("c");
+    }
+
+    @Test
+    public void default_beginApplyAll_collects_results_of_separate_invocations() throws Exception
+    {
+        FunctionAsync<Integer, Integer> adapter = FunctionAsync.from(value -> value + 1, executor);
+        FunctionAsync<Integer, Integer> sut = adapter::beginApply;
+
+        FunctionAsyncResult<List<Integer>> result = sut.beginApplyAll(Arrays.asList(1, 2, 3), 2);
+
+        assertThat(result.endReturn(), is(Arrays.asList(2, 3, 4)));
+        verify(executor, times(3)).execute(any(Runnable.class));
+    }
+
+    @Test
+    public void default_beginAcceptAll_completes_with_exception_of_separate_invocation()
+        throws Exception
+    {
+        RuntimeException expected = new RuntimeException();
+        ActionAsync<Object> adapter = ActionAsync.from(value -> {
+            throw expected;
+        }, executor);
+        ActionAsync<Object> sut = adapter::beginAccept;
+
+        ActionAsyncResult result = sut.beginAcceptAll(Arrays.asList("a", "b"), 1);
+
+        try
+        {
+            result.end();
+            fail();
+        }
+        catch (ExecutionException e)
+        {
+            assertEquals(expected, e.getCause());
+        }
+    }
+
+    @Test
+    public void collect_cancels_begun_invocations_when_beginning_an_invocation_throws()
+    {
+        RuntimeException expected = new RuntimeException();
+        List<CompletableAsyncResult<Integer>> begun = new ArrayList<>();
+
+        try
+        {
+            AsyncBatch.<Integer>collect(3, 1, index -> {
+                if (index == 2)
+                {
+                    throw expected;
+                }
+                CompletableAsyncResult<Integer> result = new CompletableAsyncResult<>();
+                begun.add(result);
+                return result;
+            }, null, null);
+            fail();
+        }
+        catch (RuntimeException e)
+        {
+            assertEquals(expected, e);
+        }
+
+        assertThat(begun.size(), is(2));
+        assertTrue(begun.get(0).isCancelled());
+        assertTrue(begun.get(1).isCancelled());
+    }
+
+    @Test
+    public void cancel_of_collected_batch_cancels_separate_invocations()
+    {
+        List<CompletableAsyncResult<Void>> begun = new ArrayList<>();
+        AsyncBatch<Object> sut = AsyncBatch.collectActions(2, 1, index -> {
+            CompletableAsyncResult<Void> result = new CompletableAsyncResult<>();
+            begun.add(result);
+            return result;
+        }, null, null);
+
+        assertTrue(sut.cancel(false));
+
+        assertTrue(sut.isCancelled());
+        assertTrue(begun.get(0).isCancelled());
+        assertTrue(begun.get(1).isCancelled());
+    }
+
+    private static class InCallingThreadExecutor implements Executor
+    {
+        @Override
+        public void execute(Runnable command)
+        {
+            command.run();
+        }
+    }
+}
@@ -0,0 +1,373 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.helpers;
+
+import net.objectzoo.delegates.impl.AsyncExecutor;
+import net.objectzoo.delegates.impl.AsyncExecutorConfiguration;
+import net.objectzoo.delegates.impl.AsyncExecutorConfiguration.QueueType;
+import net.objectzoo.delegates.impl.BoundedExecutor;
+import net.objectzoo.delegates.impl.BoundedExecutor.BackpressurePolicy;
+import net.objectzoo.delegates.impl.MpscExecutor;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static net.objectzoo.delegates.impl.AsyncExecutorConfiguration.PROPERTY_PREFIX;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class AsyncExecutorConfigurationTest
+{
+    private Executor executor;
+
+    @After
+    public void shutdownExecutor()
+    {
+        if (executor instanceof ExecutorService)
+        {
+            ((ExecutorService) executor).shutdownNow();
+        }
+        if (executor instanceof MpscExecutor)
+        {
+            ((MpscExecutor) executor).close();
+        }
+        AsyncExecutor.setDefaultConfiguration(null);
+    }
+
+    @Test
+    public void default_configuration_creates_single_thread_executor_with_unbounded_queue()
+    {
+        executor = AsyncExecutorConfiguration.builder().build().createExecutor();
+
+        ThreadPoolExecutor threadPool = (ThreadPoolExecutor) executor;
+        assertThat(threadPool.getCorePoolSize(), is(1));
+        assertThat(threadPool.getMaximumPoolSize(), is(1));
+        assertTrue(threadPool.allowsCoreThreadTimeOut());
+        assertThat(threadPool.getKeepAliveTime(TimeUnit.SECONDS), is(60L));
+        assertThat(threadPool.getQueue().remainingCapacity(), is(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void builder_configures_thread_pool_executor()
+    {
+        executor = AsyncExecutorConfiguration.builder()
+            .corePoolSize(2)
+            .maximumPoolSize(4)
+            .keepAliveSeconds(10)
+            .queueType(QueueType.ARRAY)
+            .queueCapacity(100)
+            .build()
+            .createExecutor();
+
+        ThreadPoolExecutor threadPool = (ThreadPoolExecutor) executor;
+        assertThat(threadPool.getCorePoolSize(), is(2));
+        assertThat(threadPool.getMaximumPoolSize(), is(4));
+        assertThat(threadPool.getKeepAliveTime(TimeUnit.SECONDS), is(10L));
+        assertThat(threadPool.getQueue(), instanceOf(ArrayBlockingQueue.class));
+        assertThat(threadPool.getQueue().remainingCapacity(), is(100));
+    }
+
+    @Test
+    public void unbounded_queue_runs_invocations_concurrently_up_to_maximum_pool_size()
+        throws Exception
+    {
+        executor = AsyncExecutorConfiguration.builder().maximumPoolSize(2).build()
+            .createExecutor();
+        CountDownLatch running = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable task = () -> {
+            running.countDown();
+            try
+            {
+                release.await();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        executor.execute(task);
+        executor.execute(task);
+
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    @Test
+    public void builder_configures_synchronous_queue()
+    {
+        executor = AsyncExecutorConfiguration.builder()
+            .maximumPoolSize(2)
+            .queueType(QueueType.SYNCHRONOUS)
+            .build()
+            .createExecutor();
+
+        assertThat(((ThreadPoolExecutor) executor).getQueue(), instanceOf(SynchronousQueue.class));
+    }
+
+    @Test
+    public void builder_configures_mpsc_executor() throws Exception
+    {
+        executor = AsyncExecutorConfiguration.builder()
+            .queueType(QueueType.MPSC)
+            .threadNamePrefix("test-")
+            .build()
+            .createExecutor();
+        Thread[] thread = new Thread[1];
+        CountDownLatch executed = new CountDownLatch(1);
+
+        executor.execute(() -> {
+            thread[0] = Thread.currentThread();
+            executed.countDown();
+        });
+        executed.await();
+
+        assertThat(executor, instanceOf(MpscExecutor.class));
+        assertThat(thread[0].getName(), startsWith("test-"));
+        assertTrue(thread[0].isDaemon());
+    }
+
+    @Test
+    public void builder_configures_bounded_executor_with_backpressure_policy()
+    {
+        executor = AsyncExecutorConfiguration.builder()
+            .maximumPoolSize(2)
+            .queueCapacity(10)
+            .backpressurePolicy(BackpressurePolicy.DROP_OLDEST)
+            .build()
+            .createExecutor();
+
+        BoundedExecutor bounded = (BoundedExecutor) executor;
+        assertThat(bounded.getMaximumPoolSize(), is(2));
+        assertThat(bounded.getQueue().remainingCapacity(), is(10));
+        assertThat(bounded.getBackpressurePolicy(), is(BackpressurePolicy.DROP_OLDEST));
+    }
+
+    @Test
+    public void builder_configures_work_stealing_executor()
+    {
+        executor = AsyncExecutorConfiguration.builder()
+            .workStealing(true)
+            .parallelism(3)
+            .build()
+            .createExecutor();
+
+        assertThat(((ForkJoinPool) executor).getParallelism(), is(3));
+        assertTrue(((ForkJoinPool) executor).getAsyncMode());
+    }
+
+    @Test
+    public void created_threads_are_named_daemon_threads() throws Exception
+    {
+        executor = AsyncExecutorConfiguration.builder().threadNamePrefix("test-").build()
+            .createExecutor();
+        Thread[] thread = new Thread[1];
+
+        ((ExecutorService) executor).submit(() -> thread[0] = Thread.currentThread()).get();
+
+        assertThat(thread[0].getName(), startsWith("test-"));
+        assertTrue(thread[0].isDaemon());
+    }
+
+    @Test
+    public void multi_release_jar_supports_virtual_threads()
+    {
+        // only set when the tests run with Java 21 against the assembled multi-release jar
+        assumeTrue(Boolean.getBoolean("events4j.multiReleaseJarTest"));
+
+        assertTrue(AsyncExecutorConfiguration.isVirtualThreadsSupported());
+    }
+
+    @Test
+    public void virtual_threads_are_used_when_supported() throws Exception
+    {
+        executor = AsyncExecutorConfiguration.builder().virtualThreads(true).build()
+            .createExecutor();
+        Thread[] thread = new Thread[1];
+        CountDownLatch executed = new CountDownLatch(1);
+
+        executor.execute(() -> {
+            thread[0] = Thread.currentThread();
+            executed.countDown();
+        });
+        executed.await();
+
+        assertThat(isVirtual(thread[0]),
+            is(AsyncExecutorConfiguration.isVirtualThreadsSupported()));
+        assertThat(thread[0].getName(),
+            startsWith(AsyncExecutorConfiguration.DEFAULT_THREAD_NAME_PREFIX));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void build_throws_exception_for_maximum_smaller_than_core_pool_size()
+    {
+        AsyncExecutorConfiguration.builder().corePoolSize(2).maximumPoolSize(1).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void build_throws_exception_for_array_queue_without_capacity()
+    {
+        AsyncExecutorConfiguration.builder().queueType(QueueType.ARRAY).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void build_throws_exception_for_mpsc_queue_with_capacity()
+    {
+        AsyncExecutorConfiguration.builder().queueType(QueueType.MPSC).queueCapacity(10).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void build_throws_exception_for_mpsc_queue_with_work_stealing()
+    {
+        AsyncExecutorConfiguration.builder().queueType(QueueType.MPSC).workStealing(true).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void build_throws_exception_for_mpsc_queue_with_virtual_threads()
+    {
+        AsyncExecutorConfiguration.builder().queueType(QueueType.MPSC).virtualThreads(true)
+            .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void build_throws_exception_for_backpressure_policy_without_capacity()
+    {
+        AsyncExecutorConfiguration.builder().backpressurePolicy(BackpressurePolicy.BLOCK).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void build_throws_exception_for_backpressure_policy_with_work_stealing()
+    {
+        AsyncExecutorConfiguration.builder().backpressurePolicy(BackpressurePolicy.BLOCK)
+            .queueCapacity(10).workStealing(true).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void build_throws_exception_for_backpressure_policy_with_virtual_threads()
+    {
+        AsyncExecutorConfiguration.builder().backpressurePolicy(BackpressurePolicy.BLOCK)
+            .queueCapacity(10).virtualThreads(true).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void build_throws_exception_for_block_with_timeout_without_timeout()
+    {
+        AsyncExecutorConfiguration.builder()
+            .queueCapacity(10)
+            .backpressurePolicy(BackpressurePolicy.BLOCK_WITH_TIMEOUT)
+            .build();
+    }
+
+    @Test
+    public void fromProperties_reads_backpressure_policy()
+    {
+        Properties properties = new Properties();
+        properties.setProperty(PROPERTY_PREFIX + "queueCapacity", "64");
+        properties.setProperty(PROPERTY_PREFIX + "backpressurePolicy", "block_with_timeout");
+        properties.setProperty(PROPERTY_PREFIX + "blockTimeoutMillis", "250");
+
+        AsyncExecutorConfiguration configuration =
+            AsyncExecutorConfiguration.fromProperties(properties);
+
+        assertThat(configuration.getBackpressurePolicy(),
+            is(BackpressurePolicy.BLOCK_WITH_TIMEOUT));
+        assertThat(configuration.getBlockTimeoutMillis(), is(250L));
+    }
+
+    @Test
+    public void fromProperties_reads_configuration()
+    {
+        Properties properties = new Properties();
+        properties.setProperty(PROPERTY_PREFIX + "corePoolSize", "1");
+        properties.setProperty(PROPERTY_PREFIX + "maximumPoolSize", "8");
+        properties.setProperty(PROPERTY_PREFIX + "queueType", "array");
+        properties.setProperty(PROPERTY_PREFIX + "queueCapacity", "64");
+        properties.setProperty(PROPERTY_PREFIX + "threadNamePrefix", "x");
+        properties.setProperty(PROPERTY_PREFIX + "workStealing", "true");
+        properties.setProperty(PROPERTY_PREFIX + "parallelism", "2");
+        properties.setProperty(PROPERTY_PREFIX + "virtualThreads", "true");
+
+        AsyncExecutorConfiguration configuration =
+            AsyncExecutorConfiguration.fromProperties(properties);
+
+        assertThat(configuration.getCorePoolSize(), is(1));
+        assertThat(configuration.getMaximumPoolSize(), is(8));
+        assertThat(configuration.getQueueType(), is(QueueType.ARRAY));
+        assertThat(configuration.getQueueCapacity(), is(64));
+        assertThat(configuration.getThreadNamePrefix(), is("x"));
+        assertThat(configuration.isWorkStealing(), is(true));
+        assertThat(configuration.getParallelism(), is(2));
+        assertThat(configuration.isVirtualThreads(), is(true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fromProperties_throws_exception_for_invalid_value()
+    {
+        Properties properties = new Properties();
+        properties.setProperty(PROPERTY_PREFIX + "corePoolSize", "x");
+
+        AsyncExecutorConfiguration.fromProperties(properties);
+    }
+
+    @Test
+    public void setDefaultConfiguration_replaces_default_executor()
+    {
+        AsyncExecutor.setDefaultConfiguration(
+            AsyncExecutorConfiguration.builder().workStealing(true).build());
+
+        executor = AsyncExecutor.getDefaultExecutor();
+
+        assertThat(executor, instanceOf(ForkJoinPool.class));
+    }
+
+    private static boolean isVirtual(Thread thread) throws Exception
+    {
+        try
+        {
+            return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+        }
+        catch (NoSuchMethodException e)
+        {
+            // Java versions before 21 do not have virtual threads
+            return false;
+        }
+    }
+}
@@ -28,22 +28,31 @@
 package net.objectzoo.delegates.helpers;
 
 import net.objectzoo.delegates.Action0;
+import net.objectzoo.delegates.ActionAsync;
 import net.objectzoo.delegates.ActionAsyncResult;
+import net.objectzoo.delegates.FunctionAsync;
 import net.objectzoo.delegates.FunctionAsyncResult;
 import net.objectzoo.delegates.impl.AsyncExecutor;
-import net.objectzoo.delegates.impl.AsyncFutureTask;
+import net.objectzoo.delegates.impl.AsyncTask;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.*;
 
@@ -69,7 +78,7 @@ public class AsyncExecutorTest
 
         sut.execute(mockSupplier, null, null).end();
 
-        verify(executor).execute(any(AsyncFutureTask.class));
+        verify(executor).execute(any(AsyncTask.class));
     }
 
     @Test
@@ -80,7 +89,7 @@ public class AsyncExecutorTest
 
         sut.execute(mockSupplier, null, null).end();
 
-        verify(executor).execute(any(AsyncFutureTask.class));
+        verify(executor).execute(any(AsyncTask.class));
     }
 
     @Test
@@ -92,7 +101,7 @@ public class AsyncExecutorTest
 
         sut.execute(mockSupplier, null, null).end();
 
-        verify(executor).execute(any(AsyncFutureTask.class));
+        verify(executor).execute(any(AsyncTask.class));
     }
 
     @Test
@@ -173,6 +182,103 @@ public class AsyncExecutorTest
         }
     }
 
+    @Test
+    public void toCompletionStage_completes_with_return_value() throws Exception
+    {
+        QueueingExecutor executor = new QueueingExecutor();
+        AsyncExecutor sut = new AsyncExecutor(executor);
+        final Object expected = new Object();
+        doReturn(expected).when(mockSupplier).get();
+
+        CompletableFuture<?> stage = sut.execute(mockSupplier, null, null).toCompletionStage()
+            .toCompletableFuture();
+        assertFalse(stage.isDone());
+        executor.runQueued();
+
+        assertEquals(expected, stage.getNow(null));
+    }
+
+    @Test
+    public void toCompletionStage_after_completion_completes_with_return_value()
+    {
+        AsyncExecutor sut = new AsyncExecutor(new InCallingThreadExecutor());
+        final Object expected = new Object();
+        doReturn(expected).when(mockSupplier).get();
+
+        CompletionStage<?> stage = sut.execute(mockSupplier, null, null).toCompletionStage();
+
+        assertEquals(expected, stage.toCompletableFuture().getNow(null));
+    }
+
+    @Test
+    public void toCompletionStage_completes_with_exception_from_original_callable()
+    {
+        AsyncExecutor sut = new AsyncExecutor(new InCallingThreadExecutor());
+        final RuntimeException expected = new RuntimeException();
+        doThrow(expected).when(mockAction0).start();
+        AtomicReference<Throwable> actual = new AtomicReference<>();
+
+        sut.execute(mockAction0, null, null).toCompletionStage()
+            .whenComplete((value, exception) -> actual.set(exception));
+
+        assertEquals(expected, actual.get());
+    }
+
+    @Test
+    public void toCompletionStage_completes_with_cancellation_exception_when_cancelled()
+    {
+        QueueingExecutor executor = new QueueingExecutor();
+        AsyncExecutor sut = new AsyncExecutor(executor);
+        FunctionAsyncResult<?> result = sut.execute(mockSupplier, null, null);
+        CompletableFuture<?> stage = result.toCompletionStage().toCompletableFuture();
+
+        result.cancel(false);
+
+        assertTrue(stage.isCancelled());
+    }
+
+    @Test
+    public void beginApplyStage_completes_with_return_value_of_function()
+    {
+        FunctionAsync<Integer, Integer> function = FunctionAsync.from(value -> value + 1,
+            new InCallingThreadExecutor());
+
+        CompletionStage<Integer> stage = function.beginApplyStage(41);
+
+        assertThat(stage.toCompletableFuture().getNow(null), is(42));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void beginAcceptStage_completes_after_action() throws Exception
+    {
+        Consumer<Object> action = mock(Consumer.class);
+        Object parameter = new Object();
+        ActionAsync<Object> actionAsync = ActionAsync.from(action, new InCallingThreadExecutor());
+
+        CompletionStage<Void> stage = actionAsync.beginAcceptStage(parameter);
+
+        verify(action).accept(parameter);
+        assertTrue(stage.toCompletableFuture().isDone());
+    }
+
+    private static class QueueingExecutor implements Executor
+    {
+        private final List<Runnable> queued = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command)
+        {
+            queued.add(command);
+        }
+
+        void runQueued()
+        {
+            queued.forEach(Runnable::run);
+            queued.clear();
+        }
+    }
+
     private static class InCallingThreadExecutor implements Executor
     {
         @Override
@@ -0,0 +1,227 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.helpers;
+
+import net.objectzoo.delegates.ActionAsyncResult;
+import net.objectzoo.delegates.AsyncResults;
+import net.objectzoo.delegates.FunctionAsyncResult;
+import net.objectzoo.delegates.impl.CompletableAsyncResult;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AsyncResultsTest
+{
+    private final CompletableAsyncResult<String> first = new CompletableAsyncResult<>();
+    private final CompletableAsyncResult<String> second = new CompletableAsyncResult<>();
+    private final CompletableAsyncResult<String> third = new CompletableAsyncResult<>();
+    private final List<CompletableAsyncResult<String>> results = Arrays.asList(first, second,
+        third);
+    private final RuntimeException exception = new RuntimeException();
+
+    @Test
+    public void whenAll_completes_with_values_in_order_of_results_after_all_completed()
+        throws Exception
+    {
+        FunctionAsyncResult<List<String>> sut = AsyncResults.whenAll(results);
+
+        third.complete("3");
+        first.complete("1");
+        assertFalse(sut.isDone());
+        second.complete("2");
+
+        assertThat(sut.endReturn(), is(Arrays.asList("1", "2", "3")));
+    }
+
+    @Test
+    public void whenAll_completes_with_first_exception_without_waiting_for_others()
+        throws Exception
+    {
+        FunctionAsyncResult<List<String>> sut = AsyncResults.whenAll(results);
+
+        second.completeExceptionally(exception);
+
+        assertCompletedWith(sut, exception);
+    }
+
+    @Test
+    public void whenAll_completes_immediately_without_results() throws Exception
+    {
+        FunctionAsyncResult<List<String>> sut = AsyncResults.whenAll(
+            Collections.<FunctionAsyncResult<String>>emptyList());
+
+        assertThat(sut.endReturn(), is(Collections.<String>emptyList()));
+    }
+
+    @Test
+    public void whenAll_with_timeout_completes_with_timeout_exception() throws Exception
+    {
+        FunctionAsyncResult<List<String>> sut = AsyncResults.whenAll(results, 10,
+            TimeUnit.MILLISECONDS);
+
+        try
+        {
+            sut.endReturn(10, TimeUnit.SECONDS);
+            fail();
+        }
+        catch (ExecutionException e)
+        {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+    }
+
+    @Test
+    public void whenAll_with_timeout_completes_with_values_in_time() throws Exception
+    {
+        FunctionAsyncResult<List<String>> sut = AsyncResults.whenAll(results, 10,
+            TimeUnit.SECONDS);
+
+        results.forEach(result -> result.complete("value"));
+
+        assertThat(sut.endReturn(), is(Arrays.asList("value", "value", "value")));
+    }
+
+    @Test
+    public void whenAny_completes_with_value_of_first_completed_result() throws Exception
+    {
+        FunctionAsyncResult<String> sut = AsyncResults.whenAny(results);
+
+        second.complete("2");
+        first.complete("1");
+
+        assertThat(sut.endReturn(), is("2"));
+    }
+
+    @Test
+    public void whenAny_completes_with_exception_of_first_completed_result() throws Exception
+    {
+        FunctionAsyncResult<String> sut = AsyncResults.whenAny(results);
+
+        third.completeExceptionally(exception);
+        first.complete("1");
+
+        assertCompletedWith(sut, exception);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenAny_throws_exception_without_results()
+    {
+        AsyncResults.whenAny(Collections.<FunctionAsyncResult<String>>emptyList());
+    }
+
+    @Test
+    public void firstK_completes_with_values_in_order_of_completion() throws Exception
+    {
+        FunctionAsyncResult<List<String>> sut = AsyncResults.firstK(results, 2);
+
+        third.complete("3");
+        assertFalse(sut.isDone());
+        first.complete("1");
+
+        assertThat(sut.endReturn(), is(Arrays.asList("3", "1")));
+    }
+
+    @Test
+    public void firstK_tolerates_failures_while_quorum_is_possible() throws Exception
+    {
+        FunctionAsyncResult<List<String>> sut = AsyncResults.firstK(results, 2);
+
+        first.completeExceptionally(exception);
+        second.complete("2");
+        assertFalse(sut.isDone());
+        third.complete("3");
+
+        assertThat(sut.endReturn(), is(Arrays.asList("2", "3")));
+    }
+
+    @Test
+    public void firstK_completes_exceptionally_when_quorum_is_impossible() throws Exception
+    {
+        FunctionAsyncResult<List<String>> sut = AsyncResults.firstK(results, 2);
+
+        first.completeExceptionally(new RuntimeException());
+        second.completeExceptionally(exception);
+
+        assertCompletedWith(sut, exception);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void firstK_throws_exception_for_k_greater_than_number_of_results()
+    {
+        AsyncResults.firstK(results, 4);
+    }
+
+    @Test
+    public void whenAllActions_completes_after_all_actions_completed() throws Exception
+    {
+        ActionAsyncResult sut = AsyncResults.whenAllActions(results);
+
+        first.complete(null);
+        second.complete(null);
+        assertFalse(sut.isDone());
+        third.complete(null);
+
+        assertTrue(sut.isDone());
+        sut.end();
+    }
+
+    @Test
+    public void completableAsyncResult_ignores_completion_after_first() throws Exception
+    {
+        assertTrue(first.complete("1"));
+        assertFalse(first.complete("2"));
+        assertFalse(first.completeExceptionally(exception));
+
+        assertThat(first.endReturn(), is("1"));
+    }
+
+    private static void assertCompletedWith(ActionAsyncResult result, Throwable expected)
+        throws Exception
+    {
+        try
+        {
+            result.end();
+            fail();
+        }
+        catch (ExecutionException e)
+        {
+            assertEquals(expected, e.getCause());
+        }
+    }
+}
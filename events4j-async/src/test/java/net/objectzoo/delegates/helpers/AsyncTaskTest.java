@@ -0,0 +1,266 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.helpers;
+
+import net.objectzoo.delegates.FunctionAsyncResult;
+import net.objectzoo.delegates.impl.AsyncTask;
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class AsyncTaskTest
+{
+    @Test
+    public void endReturn_returns_value_of_compute() throws Exception
+    {
+        AsyncTask<String> sut = task(null, () -> "result");
+
+        sut.run();
+
+        assertTrue(sut.isDone());
+        assertThat(sut.endReturn(), is("result"));
+    }
+
+    @Test
+    public void end_throws_exception_of_compute_as_cause() throws Exception
+    {
+        RuntimeException expected = new RuntimeException();
+        AsyncTask<String> sut = task(null, () -> {
+            throw expected;
+        });
+
+        sut.run();
+
+        try
+        {
+            sut.end();
+            fail();
+        }
+        catch (ExecutionException e)
+        {
+            assertEquals(expected, e.getCause());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void run_calls_callback_with_task() throws Exception
+    {
+        Consumer<FunctionAsyncResult<String>> callback = mock(Consumer.class);
+        AsyncTask<String> sut = task(callback, () -> "result");
+
+        sut.run();
+
+        verify(callback).accept(sut);
+    }
+
+    @Test
+    public void run_propagates_exception_of_callback() throws Exception
+    {
+        RuntimeException expected = new RuntimeException();
+        AsyncTask<String> sut = task(result -> {
+            throw expected;
+        }, () -> "result");
+
+        try
+        {
+            sut.run();
+            fail();
+        }
+        catch (RuntimeException e)
+        {
+            assertEquals(expected, e);
+        }
+        assertThat(sut.endReturn(), is("result"));
+    }
+
+    @Test
+    public void run_computes_only_once() throws Exception
+    {
+        int[] count = new int[1];
+        AsyncTask<Integer> sut = task(null, () -> ++count[0]);
+
+        sut.run();
+        sut.run();
+
+        assertThat(sut.endReturn(), is(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void cancel_before_run_prevents_compute_and_calls_callback() throws Exception
+    {
+        Consumer<FunctionAsyncResult<String>> callback = mock(Consumer.class);
+        Callable<String> compute = mock(Callable.class);
+        AsyncTask<String> sut = task(callback, compute);
+
+        assertTrue(sut.cancel(false));
+        sut.run();
+
+        verify(compute, never()).call();
+        verify(callback).accept(sut);
+        assertTrue(sut.isCancelled());
+        assertTrue(sut.isDone());
+    }
+
+    @Test(expected = CancellationException.class)
+    public void endReturn_throws_cancellation_exception_when_cancelled() throws Exception
+    {
+        AsyncTask<String> sut = task(null, () -> "result");
+        sut.cancel(false);
+
+        sut.endReturn();
+    }
+
+    @Test
+    public void cancel_after_completion_returns_false() throws Exception
+    {
+        AsyncTask<String> sut = task(null, () -> "result");
+        sut.run();
+
+        assertFalse(sut.cancel(true));
+        assertFalse(sut.isCancelled());
+    }
+
+    @Test
+    public void cancel_with_interrupt_interrupts_running_compute() throws Exception
+    {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        AsyncTask<String> sut = task(null, () -> {
+            started.countDown();
+            try
+            {
+                Thread.sleep(10000);
+            }
+            catch (InterruptedException e)
+            {
+                interrupted.countDown();
+            }
+            return "result";
+        });
+        Thread thread = new Thread(sut);
+        thread.start();
+        started.await();
+
+        sut.cancel(true);
+
+        assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+        thread.join();
+        assertTrue(sut.isCancelled());
+    }
+
+    @Test(expected = TimeoutException.class)
+    public void endReturn_with_timeout_throws_timeout_exception_when_not_completed()
+        throws Exception
+    {
+        AsyncTask<String> sut = task(null, () -> "result");
+
+        sut.endReturn(10, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void endReturn_waits_for_completion_in_other_thread() throws Exception
+    {
+        CountDownLatch proceed = new CountDownLatch(1);
+        AsyncTask<String> sut = task(null, () -> {
+            proceed.await();
+            return "result";
+        });
+        Thread thread = new Thread(sut);
+        thread.start();
+        Thread releaser = new Thread(() -> {
+            try
+            {
+                Thread.sleep(50);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+            proceed.countDown();
+        });
+        releaser.start();
+
+        assertThat(sut.endReturn(10, TimeUnit.SECONDS), is("result"));
+        thread.join();
+        releaser.join();
+    }
+
+    @Test
+    public void toCompletionStage_completes_with_value_of_compute()
+    {
+        AsyncTask<String> sut = task(null, () -> "result");
+        CompletableFuture<String> stage = sut.toCompletionStage().toCompletableFuture();
+        assertFalse(stage.isDone());
+
+        sut.run();
+
+        assertThat(stage.getNow(null), is("result"));
+    }
+
+    @Test
+    public void toCompletionStage_after_completion_completes_with_value_of_compute()
+    {
+        AsyncTask<String> sut = task(null, () -> "result");
+        sut.run();
+
+        CompletableFuture<String> stage = sut.toCompletionStage().toCompletableFuture();
+
+        assertThat(stage.getNow(null), is("result"));
+    }
+
+    private static <R> AsyncTask<R> task(Consumer<? super FunctionAsyncResult<R>> callback,
+                                         Callable<R> compute)
+    {
+        return new AsyncTask<R>(callback, null)
+        {
+            @Override
+            protected R compute() throws Exception
+            {
+                return compute.call();
+            }
+        };
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.helpers;
+
+import net.objectzoo.delegates.FunctionAsyncResult;
+import net.objectzoo.delegates.adapters.BatchingFunctionAsync;
+import net.objectzoo.delegates.impl.AsyncExecutor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BatchingFunctionAsyncTest
+{
+    private final ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+    private final ScheduledFuture<?> timer = mock(ScheduledFuture.class);
+    private final List<Runnable> scheduled = new ArrayList<>();
+    private final List<List<String>> batches = new ArrayList<>();
+
+    private final BatchingFunctionAsync<String, String> sut = new BatchingFunctionAsync<>(
+        keys -> {
+            batches.add(keys);
+            Map<String, String> values = new HashMap<>();
+            keys.stream().filter(key -> !key.equals("missing"))
+                .forEach(key -> values.put(key, key.toUpperCase()));
+            return values;
+        }, 3, 5, TimeUnit.MILLISECONDS, new InCallingThreadExecutor(), scheduler);
+
+    @Before
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void captureScheduledFlushes()
+    {
+        when(scheduler.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class))).thenAnswer(
+            invocation -> {
+                scheduled.add((Runnable) invocation.getArguments()[0]);
+                return timer;
+            });
+    }
+
+    @After
+    public void resetDefaultExceptionHandler()
+    {
+        AsyncExecutor.setDefaultExceptionHandler(null);
+    }
+
+    @Test
+    public void invocations_are_performed_as_single_batch_after_delay() throws Exception
+    {
+        FunctionAsyncResult<String> first = sut.beginApply(null, null, "a");
+        FunctionAsyncResult<String> second = sut.beginApply(null, null, "b");
+        assertFalse(first.isDone());
+
+        scheduled.get(0).run();
+
+        assertThat(batches, is(Arrays.asList(Arrays.asList("a", "b"))));
+        assertThat(first.endReturn(), is("A"));
+        assertThat(second.endReturn(), is("B"));
+        verify(scheduler).schedule(any(Runnable.class), eq(TimeUnit.MILLISECONDS.toNanos(5)),
+            eq(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void full_batch_is_performed_immediately() throws Exception
+    {
+        sut.beginApply(null, null, "a");
+        sut.beginApply(null, null, "b");
+        FunctionAsyncResult<String> third = sut.beginApply(null, null, "c");
+
+        assertThat(third.endReturn(), is("C"));
+        assertThat(batches.size(), is(1));
+        verify(timer).cancel(false);
+    }
+
+    @Test
+    public void expired_timer_of_performed_batch_has_no_effect()
+    {
+        sut.beginApply(null, null, "a");
+        sut.beginApply(null, null, "b");
+        sut.beginApply(null, null, "c");
+        sut.beginApply(null, null, "d");
+
+        scheduled.get(0).run();
+
+        assertThat(batches.size(), is(1));
+    }
+
+    @Test
+    public void equal_keys_are_given_to_batch_function_once() throws Exception
+    {
+        FunctionAsyncResult<String> first = sut.beginApply(null, null, "a");
+        FunctionAsyncResult<String> second = sut.beginApply(null, null, "a");
+        sut.flush();
+
+        assertThat(batches, is(Arrays.asList(Arrays.asList("a"))));
+        assertThat(first.endReturn(), is("A"));
+        assertThat(second.endReturn(), is("A"));
+    }
+
+    @Test
+    public void missing_key_completes_with_null() throws Exception
+    {
+        FunctionAsyncResult<String> result = sut.beginApply(null, null, "missing");
+        sut.flush();
+
+        assertThat(result.endReturn(), is((String) null));
+    }
+
+    @Test
+    public void exception_of_batch_function_completes_all_invocations() throws Exception
+    {
+        RuntimeException expected = new RuntimeException();
+        BatchingFunctionAsync<String, String> sut = new BatchingFunctionAsync<>(keys -> {
+            throw expected;
+        }, 3, 5, TimeUnit.MILLISECONDS, new InCallingThreadExecutor(), scheduler);
+
+        FunctionAsyncResult<String> result = sut.beginApply(null, null, "a");
+        sut.flush();
+
+        try
+        {
+            result.endReturn();
+            fail();
+        }
+        catch (ExecutionException e)
+        {
+            assertEquals(expected, e.getCause());
+        }
+    }
+
+    @Test
+    public void exception_of_callback_does_not_fail_other_invocations() throws Exception
+    {
+        RuntimeException expected = new RuntimeException();
+        List<Throwable> handled = new ArrayList<>();
+        AsyncExecutor.setDefaultExceptionHandler(handled::add);
+
+        sut.beginApply(result -> {
+            throw expected;
+        }, null, "a");
+        FunctionAsyncResult<String> second = sut.beginApply(null, null, "b");
+        FunctionAsyncResult<String> third = sut.beginApply(null, null, "c");
+
+        assertTrue(second.isDone());
+        assertThat(second.endReturn(), is("B"));
+        assertThat(third.endReturn(), is("C"));
+        assertThat(handled, is(Collections.singletonList((Throwable) expected)));
+    }
+
+    @Test
+    public void batch_sizes_and_latencies_are_recorded()
+    {
+        sut.beginApply(null, null, "a");
+        sut.beginApply(null, null, "b");
+        sut.flush();
+        sut.beginApply(null, null, "c");
+        sut.flush();
+
+        assertThat(sut.getBatchSizeHistogram().getCount(), is(2L));
+        assertThat(sut.getBatchSizeHistogram().getMax(), is(2L));
+        assertThat(sut.getLatencyHistogram().getCount(), is(3L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_throws_exception_for_invalid_maximum_batch_size()
+    {
+        new BatchingFunctionAsync<String, String>(keys -> null, 0, 5, TimeUnit.MILLISECONDS);
+    }
+
+    private static class InCallingThreadExecutor implements Executor
+    {
+        @Override
+        public void execute(Runnable command)
+        {
+            command.run();
+        }
+    }
+}
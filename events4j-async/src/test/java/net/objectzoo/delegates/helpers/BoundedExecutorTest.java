@@ -0,0 +1,309 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.helpers;
+
+import net.objectzoo.delegates.ActionAsync;
+import net.objectzoo.delegates.ActionAsyncResult;
+import net.objectzoo.delegates.impl.BoundedExecutor;
+import net.objectzoo.delegates.impl.BoundedExecutor.BackpressurePolicy;
+import net.objectzoo.delegates.impl.KeyedSerialExecutor;
+import net.objectzoo.events.impl.EventAsyncAdapter;
+import net.objectzoo.events.impl.EventDistributor;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class BoundedExecutorTest
+{
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final List<String> performed = Collections.synchronizedList(new ArrayList<>());
+
+    private BoundedExecutor sut;
+
+    @After
+    public void shutdownExecutor() throws Exception
+    {
+        release.countDown();
+        if (sut != null)
+        {
+            sut.shutdown();
+            sut.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void fail_fast_rejects_invocation_when_queue_is_full() throws Exception
+    {
+        fill(BackpressurePolicy.FAIL_FAST);
+
+        try
+        {
+            sut.execute(() -> performed.add("c"));
+            throw new AssertionError("Expected RejectedExecutionException");
+        }
+        catch (RejectedExecutionException e)
+        {
+            assertThat(sut.getRejectedCount(), is(1L));
+            assertThat(sut.getQueueDepth(), is(1));
+        }
+    }
+
+    @Test
+    public void drop_newest_discards_submitted_invocation() throws Exception
+    {
+        fill(BackpressurePolicy.DROP_NEWEST);
+        FutureTask<Void> dropped = cancellable("c");
+
+        sut.execute(dropped);
+        awaitPerformed();
+
+        assertTrue(dropped.isCancelled());
+        assertThat(performed, is(Arrays.asList("a", "b")));
+        assertThat(sut.getRejectedCount(), is(1L));
+    }
+
+    @Test
+    public void drop_newest_rejects_invocation_that_cannot_be_cancelled() throws Exception
+    {
+        fill(BackpressurePolicy.DROP_NEWEST);
+
+        try
+        {
+            sut.execute(() -> performed.add("c"));
+            throw new AssertionError("Expected RejectedExecutionException");
+        }
+        catch (RejectedExecutionException e)
+        {
+            assertThat(sut.getRejectedCount(), is(1L));
+        }
+    }
+
+    @Test
+    public void drop_oldest_discards_oldest_queued_invocation() throws Exception
+    {
+        fill(BackpressurePolicy.DROP_OLDEST);
+
+        sut.execute(() -> performed.add("c"));
+        awaitPerformed();
+
+        assertThat(performed, is(Arrays.asList("a", "c")));
+        assertThat(sut.getRejectedCount(), is(1L));
+    }
+
+    @Test
+    public void drop_oldest_keeps_queued_invocations_that_cannot_be_cancelled() throws Exception
+    {
+        sut = new BoundedExecutor(1, 1, BackpressurePolicy.DROP_OLDEST);
+        block();
+        sut.execute(() -> performed.add("b"));
+
+        try
+        {
+            sut.execute(cancellable("c"));
+            throw new AssertionError("Expected RejectedExecutionException");
+        }
+        catch (RejectedExecutionException e)
+        {
+            awaitPerformed();
+            assertThat(performed, is(Arrays.asList("a", "b")));
+            assertThat(sut.getRejectedCount(), is(1L));
+        }
+    }
+
+    @Test
+    public void rejected_invocation_of_keyed_executor_does_not_block_key() throws Exception
+    {
+        sut = new BoundedExecutor(1, 1, BackpressurePolicy.DROP_NEWEST);
+        KeyedSerialExecutor keyed = new KeyedSerialExecutor(sut);
+        block();
+        FutureTask<Void> queued = cancellable("b");
+        sut.execute(queued);
+
+        try
+        {
+            keyed.execute("key", () -> performed.add("c"));
+            throw new AssertionError("Expected RejectedExecutionException");
+        }
+        catch (RejectedExecutionException e)
+        {
+            assertThat(keyed.getActiveKeyCount(), is(0));
+        }
+        release.countDown();
+        queued.get(1, TimeUnit.SECONDS);
+        CountDownLatch done = new CountDownLatch(1);
+        keyed.execute("key", done::countDown);
+
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+        assertThat(performed, is(Arrays.asList("a", "b")));
+    }
+
+    @Test
+    public void caller_runs_performs_invocation_in_submitting_thread() throws Exception
+    {
+        fill(BackpressurePolicy.CALLER_RUNS);
+        AtomicReference<Thread> thread = new AtomicReference<>();
+
+        sut.execute(() -> thread.set(Thread.currentThread()));
+
+        assertThat(thread.get(), is(Thread.currentThread()));
+        assertThat(sut.getCallerRunsCount(), is(1L));
+    }
+
+    @Test
+    public void block_waits_for_space_in_queue() throws Exception
+    {
+        fill(BackpressurePolicy.BLOCK);
+        Thread releaser = new Thread(() -> {
+            try
+            {
+                Thread.sleep(50);
+            }
+            catch (InterruptedException e)
+            {
+                return;
+            }
+            release.countDown();
+        });
+        releaser.start();
+
+        sut.execute(() -> performed.add("c"));
+        awaitPerformed();
+
+        assertThat(performed, is(Arrays.asList("a", "b", "c")));
+        assertThat(sut.getBlockedCount(), is(1L));
+        assertThat(sut.getRejectedCount(), is(0L));
+    }
+
+    @Test
+    public void block_with_timeout_rejects_invocation_after_timeout() throws Exception
+    {
+        sut = new BoundedExecutor(1, 1, BackpressurePolicy.BLOCK_WITH_TIMEOUT, 20,
+            TimeUnit.MILLISECONDS);
+        fill();
+
+        try
+        {
+            sut.execute(() -> performed.add("c"));
+            throw new AssertionError("Expected RejectedExecutionException");
+        }
+        catch (RejectedExecutionException e)
+        {
+            assertThat(sut.getBlockedCount(), is(1L));
+            assertThat(sut.getRejectedCount(), is(1L));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void block_with_timeout_requires_timeout()
+    {
+        sut = new BoundedExecutor(1, 1, BackpressurePolicy.BLOCK_WITH_TIMEOUT);
+    }
+
+    @Test
+    public void dropped_invocation_of_adapter_is_cancelled() throws Exception
+    {
+        sut = new BoundedExecutor(1, 1, BackpressurePolicy.DROP_OLDEST);
+        EventDistributor<String> distributor = new EventDistributor<>();
+        distributor.subscribe(value -> {
+            await();
+            performed.add(value);
+        });
+        ActionAsync<String> adapter = new EventAsyncAdapter<>(distributor, sut);
+
+        adapter.beginAccept(null, null, "a");
+        ActionAsyncResult dropped = adapter.beginAccept(null, null, "b");
+        ActionAsyncResult queued = adapter.beginAccept(null, null, "c");
+        release.countDown();
+        queued.end();
+
+        assertTrue(dropped.isCancelled());
+        assertFalse(queued.isCancelled());
+        assertThat(performed, is(Arrays.asList("a", "c")));
+    }
+
+    private void fill(BackpressurePolicy policy) throws Exception
+    {
+        sut = new BoundedExecutor(1, 1, policy);
+        fill();
+    }
+
+    private void fill() throws Exception
+    {
+        block();
+        sut.execute(cancellable("b"));
+    }
+
+    private void block() throws Exception
+    {
+        CountDownLatch started = new CountDownLatch(1);
+        sut.execute(() -> {
+            started.countDown();
+            await();
+            performed.add("a");
+        });
+        started.await();
+    }
+
+    private FutureTask<Void> cancellable(String value)
+    {
+        return new FutureTask<>(() -> performed.add(value), null);
+    }
+
+    private void awaitPerformed() throws Exception
+    {
+        release.countDown();
+        sut.shutdown();
+        assertTrue(sut.awaitTermination(1, TimeUnit.SECONDS));
+    }
+
+    private void await()
+    {
+        try
+        {
+            release.await();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
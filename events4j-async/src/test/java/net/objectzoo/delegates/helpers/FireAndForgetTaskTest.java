@@ -0,0 +1,175 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.helpers;
+
+import net.objectzoo.delegates.Action0;
+import net.objectzoo.delegates.Action2;
+import net.objectzoo.delegates.adapters.Action2ToAsyncAction2;
+import net.objectzoo.delegates.adapters.ActionToAsyncAction;
+import net.objectzoo.delegates.impl.AsyncExecutor;
+import net.objectzoo.delegates.impl.FireAndForgetTask;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+public class FireAndForgetTaskTest
+{
+    private final Executor executor = spy(new InCallingThreadExecutor());
+    private final Action0 mockAction0 = mock(Action0.class);
+    private final RuntimeException exception = new RuntimeException();
+
+    @After
+    public void resetDefaultExceptionHandler()
+    {
+        AsyncExecutor.setDefaultExceptionHandler(null);
+    }
+
+    @Test
+    public void executeAndForget_hands_fire_and_forget_task_to_executor()
+    {
+        AsyncExecutor sut = new AsyncExecutor(executor);
+
+        sut.executeAndForget(mockAction0, null);
+
+        verify(executor).execute(any(FireAndForgetTask.class));
+        verify(mockAction0).start();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void executeAndForget_passes_exception_to_given_handler()
+    {
+        Consumer<Throwable> exceptionHandler = mock(Consumer.class);
+        doThrow(exception).when(mockAction0).start();
+        AsyncExecutor sut = new AsyncExecutor(executor);
+
+        sut.executeAndForget(mockAction0, exceptionHandler);
+
+        verify(exceptionHandler).accept(exception);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void executeAndForget_passes_exception_to_default_handler_without_given_handler()
+    {
+        Consumer<Throwable> exceptionHandler = mock(Consumer.class);
+        AsyncExecutor.setDefaultExceptionHandler(exceptionHandler);
+        doThrow(exception).when(mockAction0).start();
+        AsyncExecutor sut = new AsyncExecutor(executor);
+
+        sut.executeAndForget(mockAction0, null);
+
+        verify(exceptionHandler).accept(exception);
+    }
+
+    @Test
+    public void default_handler_passes_exception_to_uncaught_exception_handler_of_thread()
+        throws Exception
+    {
+        doThrow(exception).when(mockAction0).start();
+        AtomicReference<Throwable> actual = new AtomicReference<>();
+        AsyncExecutor sut = new AsyncExecutor(command -> {
+            Thread thread = new Thread(command);
+            thread.setUncaughtExceptionHandler((t, e) -> actual.set(e));
+            thread.start();
+            try
+            {
+                thread.join();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        sut.executeAndForget(mockAction0, null);
+
+        assertEquals(exception, actual.get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void actionToAsyncAction_invokes_action_with_parameter()
+    {
+        Consumer<Object> action = mock(Consumer.class);
+        Object parameter = new Object();
+        ActionToAsyncAction<Object> sut = new ActionToAsyncAction<>(action, executor);
+
+        sut.accept(parameter);
+
+        verify(executor).execute(any(FireAndForgetTask.class));
+        verify(action).accept(parameter);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void actionToAsyncAction_passes_exception_to_given_handler()
+    {
+        Consumer<Object> action = mock(Consumer.class);
+        Consumer<Throwable> exceptionHandler = mock(Consumer.class);
+        doThrow(exception).when(action).accept(any());
+        ActionToAsyncAction<Object> sut = new ActionToAsyncAction<>(action, executor,
+            exceptionHandler);
+
+        sut.accept(new Object());
+
+        verify(exceptionHandler).accept(exception);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void action2ToAsyncAction2_invokes_action_with_parameters()
+    {
+        Action2<Object, Object> action = mock(Action2.class);
+        Object parameter1 = new Object();
+        Object parameter2 = new Object();
+        Action2ToAsyncAction2<Object, Object> sut = new Action2ToAsyncAction2<>(action, executor);
+
+        sut.accept(parameter1, parameter2);
+
+        verify(action).accept(parameter1, parameter2);
+    }
+
+    private static class InCallingThreadExecutor implements Executor
+    {
+        @Override
+        public void execute(Runnable command)
+        {
+            command.run();
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.helpers;
+
+import net.objectzoo.delegates.FunctionAsync;
+import net.objectzoo.delegates.FunctionAsyncResult;
+import net.objectzoo.delegates.adapters.HedgedFunctionAsync;
+import net.objectzoo.delegates.impl.CompletableAsyncResult;
+import net.objectzoo.delegates.impl.Hedging;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class HedgingTest
+{
+    private final ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+    private final ScheduledFuture<?> timer = mock(ScheduledFuture.class);
+    private final List<Runnable> scheduled = new ArrayList<>();
+    private final List<CompletableAsyncResult<String>> attempts = new ArrayList<>();
+    private final FunctionAsync<String, String> functionAsync = (callback, asyncState, value) -> {
+        CompletableAsyncResult<String> attempt = new CompletableAsyncResult<>();
+        attempts.add(attempt);
+        return attempt;
+    };
+
+    @Before
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void captureScheduledHedges()
+    {
+        when(scheduler.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class))).thenAnswer(
+            invocation -> {
+                scheduled.add((Runnable) invocation.getArguments()[0]);
+                return timer;
+            });
+    }
+
+    @Test
+    public void schedules_hedge_after_fixed_delay() throws Exception
+    {
+        HedgedFunctionAsync<String, String> sut = hedged(Hedging.builder()
+            .delay(20, TimeUnit.MILLISECONDS));
+
+        sut.beginApply(null, null, "value");
+
+        verify(scheduler).schedule(any(Runnable.class), eq(TimeUnit.MILLISECONDS.toNanos(20)),
+            eq(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void completes_with_first_attempt_completed_before_delay() throws Exception
+    {
+        HedgedFunctionAsync<String, String> sut = hedged(Hedging.builder());
+
+        FunctionAsyncResult<String> result = sut.beginApply(null, null, "value");
+        attempts.get(0).complete("first");
+
+        assertThat(result.endReturn(), is("first"));
+        verify(timer).cancel(false);
+        assertThat(sut.getHedging().getHedgeCount(), is(0L));
+    }
+
+    @Test
+    public void begins_second_attempt_after_delay_and_cancels_first_when_second_wins()
+        throws Exception
+    {
+        HedgedFunctionAsync<String, String> sut = hedged(Hedging.builder());
+
+        FunctionAsyncResult<String> result = sut.beginApply(null, null, "value");
+        scheduled.get(0).run();
+        attempts.get(1).complete("second");
+
+        assertThat(result.endReturn(), is("second"));
+        assertTrue(attempts.get(0).isCancelled());
+        assertThat(sut.getHedging().getHedgeCount(), is(1L));
+        assertThat(sut.getHedging().getHedgeWinCount(), is(1L));
+        assertThat(sut.getHedging().getHedgeRate(), is(1.0));
+    }
+
+    @Test
+    public void cancels_second_attempt_when_first_wins() throws Exception
+    {
+        HedgedFunctionAsync<String, String> sut = hedged(Hedging.builder());
+
+        FunctionAsyncResult<String> result = sut.beginApply(null, null, "value");
+        scheduled.get(0).run();
+        attempts.get(0).complete("first");
+
+        assertThat(result.endReturn(), is("first"));
+        assertTrue(attempts.get(1).isCancelled());
+        assertThat(sut.getHedging().getHedgeWinCount(), is(0L));
+    }
+
+    @Test
+    public void does_not_begin_second_attempt_after_completion() throws Exception
+    {
+        HedgedFunctionAsync<String, String> sut = hedged(Hedging.builder());
+
+        sut.beginApply(null, null, "value");
+        attempts.get(0).complete("first");
+        scheduled.get(0).run();
+
+        assertThat(attempts.size(), is(1));
+    }
+
+    @Test
+    public void cancel_cancels_all_attempts() throws Exception
+    {
+        HedgedFunctionAsync<String, String> sut = hedged(Hedging.builder());
+
+        FunctionAsyncResult<String> result = sut.beginApply(null, null, "value");
+        scheduled.get(0).run();
+        result.cancel(true);
+
+        assertTrue(attempts.get(0).isCancelled());
+        assertTrue(attempts.get(1).isCancelled());
+    }
+
+    @Test
+    public void adapts_delay_to_percentile_of_observed_latencies() throws Exception
+    {
+        HedgedFunctionAsync<String, String> sut = hedged(Hedging.builder()
+            .delay(1, TimeUnit.SECONDS)
+            .percentile(0.9)
+            .minDelay(5, TimeUnit.MILLISECONDS)
+            .latencyWindow(16));
+
+        for (int index = 0; index < 16; index++)
+        {
+            assertThat(sut.getHedging().getDelay(TimeUnit.MILLISECONDS), is(1000L));
+            sut.beginApply(null, null, "value");
+            attempts.get(index).complete("first");
+        }
+
+        assertThat(sut.getHedging().getDelay(TimeUnit.MILLISECONDS), is(5L));
+        assertFalse(sut.getHedging().getHedgeRate() > 0);
+    }
+
+    @Test
+    public void measures_latency_of_hedged_win_from_beginning_of_invocation() throws Exception
+    {
+        HedgedFunctionAsync<String, String> sut = hedged(Hedging.builder()
+            .percentile(0.5)
+            .latencyWindow(1));
+
+        sut.beginApply(null, null, "value");
+        Thread.sleep(50);
+        scheduled.get(0).run();
+        attempts.get(1).complete("second");
+
+        assertTrue(sut.getHedging().getDelay(TimeUnit.MILLISECONDS) >= 50);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void build_throws_exception_for_invalid_percentile()
+    {
+        Hedging.builder().percentile(1.5).build();
+    }
+
+    private HedgedFunctionAsync<String, String> hedged(Hedging.Builder builder)
+    {
+        return new HedgedFunctionAsync<>(functionAsync, builder.scheduler(scheduler).build());
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.helpers;
+
+import net.objectzoo.delegates.impl.Histogram;
+import org.junit.Test;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class HistogramTest
+{
+    private final Histogram sut = new Histogram();
+
+    @Test
+    public void empty_histogram_reports_zero()
+    {
+        assertThat(sut.getCount(), is(0L));
+        assertThat(sut.getMean(), is(0.0));
+        assertThat(sut.getPercentile(0.99), is(0L));
+    }
+
+    @Test
+    public void values_are_counted_in_buckets_of_their_bit_length()
+    {
+        sut.record(0);
+        sut.record(1);
+        sut.record(2);
+        sut.record(3);
+        sut.record(Long.MAX_VALUE);
+
+        long[] counts = sut.getBucketCounts();
+
+        assertThat(counts[0], is(1L));
+        assertThat(counts[1], is(1L));
+        assertThat(counts[2], is(2L));
+        assertThat(counts[63], is(1L));
+    }
+
+    @Test
+    public void percentile_is_upper_bound_of_bucket_limited_by_maximum()
+    {
+        for (int value = 1; value <= 100; value++)
+        {
+            sut.record(value);
+        }
+
+        assertThat(sut.getPercentile(0.5), is(63L));
+        assertThat(sut.getPercentile(0.99), is(100L));
+        assertThat(sut.getMean(), is(50.5));
+        assertThat(sut.getMax(), is(100L));
+    }
+}
@@ -0,0 +1,348 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.helpers;
+
+import net.objectzoo.delegates.Action2Async;
+import net.objectzoo.delegates.adapters.KeyedSerialAction2Async;
+import net.objectzoo.delegates.impl.AsyncExecutor;
+import net.objectzoo.delegates.impl.KeyedSerialExecutor;
+import net.objectzoo.events.impl.Event2AsyncAdapter;
+import net.objectzoo.events.impl.Event2Distributor;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class KeyedSerialExecutorTest
+{
+    private final ExecutorService threadPool = Executors.newFixedThreadPool(4);
+
+    @After
+    public void shutdown()
+    {
+        threadPool.shutdownNow();
+        AsyncExecutor.setDefaultExceptionHandler(null);
+    }
+
+    @Test
+    public void execute_performs_tasks_of_a_key_in_order_and_never_concurrently() throws Exception
+    {
+        KeyedSerialExecutor sut = new KeyedSerialExecutor(threadPool);
+        int keys = 8;
+        int tasks = 500;
+        Map<Integer, List<Integer>> performed = new HashMap<>();
+        AtomicInteger[] running = new AtomicInteger[keys];
+        for (int key = 0; key < keys; key++)
+        {
+            performed.put(key, Collections.synchronizedList(new ArrayList<>()));
+            running[key] = new AtomicInteger();
+        }
+        AtomicInteger overlaps = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(keys * tasks);
+
+        for (int i = 0; i < tasks; i++)
+        {
+            for (int key = 0; key < keys; key++)
+            {
+                int k = key;
+                int value = i;
+                sut.execute(k, () -> {
+                    if (running[k].incrementAndGet() != 1)
+                    {
+                        overlaps.incrementAndGet();
+                    }
+                    performed.get(k).add(value);
+                    running[k].decrementAndGet();
+                    done.countDown();
+                });
+            }
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertThat(overlaps.get(), is(0));
+        for (int key = 0; key < keys; key++)
+        {
+            List<Integer> values = performed.get(key);
+            for (int i = 0; i < tasks; i++)
+            {
+                assertThat(values.get(i), is(i));
+            }
+        }
+    }
+
+    @Test
+    public void execute_performs_tasks_of_different_keys_in_parallel() throws Exception
+    {
+        KeyedSerialExecutor sut = new KeyedSerialExecutor(threadPool);
+        CountDownLatch otherKeyPerformed = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+
+        sut.execute("a", () -> {
+            try
+            {
+                if (otherKeyPerformed.await(10, TimeUnit.SECONDS))
+                {
+                    done.countDown();
+                }
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        });
+        sut.execute("b", otherKeyPerformed::countDown);
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void state_of_idle_keys_is_released()
+    {
+        QueueingExecutor executor = new QueueingExecutor();
+        KeyedSerialExecutor sut = new KeyedSerialExecutor(executor);
+        List<String> performed = new ArrayList<>();
+
+        sut.execute("a", () -> performed.add("a1"));
+        sut.execute("b", () -> performed.add("b1"));
+        sut.execute("a", () -> performed.add("a2"));
+        sut.execute(null, () -> performed.add("null"));
+
+        assertThat(sut.getActiveKeyCount(), is(3));
+        assertThat(executor.queued.size(), is(3));
+        executor.runQueued();
+
+        assertThat(performed, is(Arrays.asList("a1", "a2", "b1", "null")));
+        assertThat(sut.getActiveKeyCount(), is(0));
+    }
+
+    @Test
+    public void busy_key_is_resubmitted_after_drain_batch_size_tasks()
+    {
+        QueueingExecutor executor = new QueueingExecutor();
+        KeyedSerialExecutor sut = new KeyedSerialExecutor(executor);
+        AtomicInteger performed = new AtomicInteger();
+        for (int i = 0; i <= KeyedSerialExecutor.DRAIN_BATCH_SIZE; i++)
+        {
+            sut.execute("a", performed::incrementAndGet);
+        }
+
+        executor.runNext();
+
+        assertThat(performed.get(), is(KeyedSerialExecutor.DRAIN_BATCH_SIZE));
+        assertThat(executor.queued.size(), is(1));
+        executor.runQueued();
+        assertThat(performed.get(), is(KeyedSerialExecutor.DRAIN_BATCH_SIZE + 1));
+        assertThat(sut.getActiveKeyCount(), is(0));
+    }
+
+    @Test
+    public void exception_of_task_is_given_to_default_exception_handler_and_next_task_performed()
+    {
+        QueueingExecutor executor = new QueueingExecutor();
+        KeyedSerialExecutor sut = new KeyedSerialExecutor(executor);
+        RuntimeException expected = new RuntimeException();
+        AtomicReference<Throwable> actual = new AtomicReference<>();
+        AsyncExecutor.setDefaultExceptionHandler(actual::set);
+        AtomicInteger performed = new AtomicInteger();
+
+        sut.execute("a", () -> {
+            throw expected;
+        });
+        sut.execute("a", performed::incrementAndGet);
+        executor.runQueued();
+
+        assertThat(actual.get(), is(expected));
+        assertThat(performed.get(), is(1));
+    }
+
+    @Test
+    public void rejected_key_is_released_and_exception_thrown()
+    {
+        KeyedSerialExecutor sut = new KeyedSerialExecutor(command -> {
+            throw new RejectedExecutionException();
+        });
+
+        try
+        {
+            sut.execute("a", () -> {
+            });
+            throw new AssertionError("Expected RejectedExecutionException");
+        }
+        catch (RejectedExecutionException e)
+        {
+            assertThat(sut.getActiveKeyCount(), is(0));
+        }
+    }
+
+    @Test
+    public void rejected_key_cancels_tasks_queued_by_other_submitters()
+    {
+        FutureTask<Void> queued = new FutureTask<>(() -> {
+        }, null);
+        KeyedSerialExecutor[] sut = new KeyedSerialExecutor[1];
+        sut[0] = new KeyedSerialExecutor(command -> {
+            // another submitter queues a task for the key before the queue is rejected
+            sut[0].execute("a", queued);
+            throw new RejectedExecutionException();
+        });
+
+        try
+        {
+            sut[0].execute("a", () -> {
+            });
+            throw new AssertionError("Expected RejectedExecutionException");
+        }
+        catch (RejectedExecutionException e)
+        {
+            assertTrue(queued.isCancelled());
+            assertThat(sut[0].getActiveKeyCount(), is(0));
+        }
+    }
+
+    @Test
+    public void rejected_resubmission_of_busy_key_cancels_queued_tasks()
+    {
+        QueueingExecutor executor = new QueueingExecutor();
+        KeyedSerialExecutor sut = new KeyedSerialExecutor(executor);
+        AtomicReference<Throwable> handled = new AtomicReference<>();
+        AsyncExecutor.setDefaultExceptionHandler(handled::set);
+        AtomicInteger performed = new AtomicInteger();
+        for (int i = 0; i < KeyedSerialExecutor.DRAIN_BATCH_SIZE; i++)
+        {
+            sut.execute("a", performed::incrementAndGet);
+        }
+        FutureTask<Void> discarded = new FutureTask<>(performed::incrementAndGet, null);
+        sut.execute("a", discarded);
+        executor.rejecting = true;
+
+        executor.runNext();
+
+        assertThat(performed.get(), is(KeyedSerialExecutor.DRAIN_BATCH_SIZE));
+        assertTrue(discarded.isCancelled());
+        assertThat(handled.get(), instanceOf(RejectedExecutionException.class));
+        assertThat(sut.getActiveKeyCount(), is(0));
+        executor.rejecting = false;
+        sut.execute("a", performed::incrementAndGet);
+        executor.runQueued();
+        assertThat(performed.get(), is(KeyedSerialExecutor.DRAIN_BATCH_SIZE + 1));
+    }
+
+    @Test
+    public void keyed_adapter_performs_invocations_in_order_per_key() throws Exception
+    {
+        Map<String, List<Integer>> performed = new HashMap<>();
+        performed.put("a", Collections.synchronizedList(new ArrayList<>()));
+        performed.put("b", Collections.synchronizedList(new ArrayList<>()));
+        Action2Async<String, Integer> sut = new KeyedSerialAction2Async<String, Integer>(
+            (key, value) -> performed.get(key).add(value), (key, value) -> key,
+            new KeyedSerialExecutor(threadPool));
+
+        for (int i = 0; i < 200; i++)
+        {
+            sut.beginAccept(null, null, "a", i);
+            sut.beginAccept(null, null, "b", i);
+        }
+        sut.beginAccept(null, null, "a", 200).end();
+        sut.beginAccept(null, null, "b", 200).end();
+
+        for (int i = 0; i <= 200; i++)
+        {
+            assertThat(performed.get("a").get(i), is(i));
+            assertThat(performed.get("b").get(i), is(i));
+        }
+    }
+
+    @Test
+    public void keyed_event_adapter_distributes_events_in_order_per_key() throws Exception
+    {
+        List<Integer> performed = Collections.synchronizedList(new ArrayList<>());
+        Event2Distributor<String, Integer> distributor = new Event2Distributor<>();
+        distributor.subscribe((key, value) -> performed.add(value));
+        Event2AsyncAdapter<String, Integer> sut = new Event2AsyncAdapter<>(distributor,
+            (key, value) -> key, new KeyedSerialExecutor(threadPool));
+
+        for (int i = 0; i < 100; i++)
+        {
+            sut.beginAccept(null, null, "a", i);
+        }
+        sut.beginAccept(null, null, "a", 100).end();
+
+        for (int i = 0; i <= 100; i++)
+        {
+            assertThat(performed.get(i), is(i));
+        }
+    }
+
+    private static class QueueingExecutor implements Executor
+    {
+        private final List<Runnable> queued = new ArrayList<>();
+
+        private boolean rejecting;
+
+        @Override
+        public void execute(Runnable command)
+        {
+            if (rejecting)
+            {
+                throw new RejectedExecutionException();
+            }
+            queued.add(command);
+        }
+
+        void runNext()
+        {
+            queued.remove(0).run();
+        }
+
+        void runQueued()
+        {
+            while (!queued.isEmpty())
+            {
+                runNext();
+            }
+        }
+    }
+}
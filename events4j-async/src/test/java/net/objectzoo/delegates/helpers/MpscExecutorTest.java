@@ -0,0 +1,231 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.helpers;
+
+import net.objectzoo.delegates.FunctionAsync;
+import net.objectzoo.delegates.impl.AsyncExecutor;
+import net.objectzoo.delegates.impl.MpscExecutor;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class MpscExecutorTest
+{
+    private final MpscExecutor sut = new MpscExecutor();
+
+    @After
+    public void closeExecutor()
+    {
+        sut.close();
+        AsyncExecutor.setDefaultExceptionHandler(null);
+    }
+
+    @Test
+    public void execute_performs_tasks_in_submission_order()
+    {
+        List<Integer> performed = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++)
+        {
+            int value = i;
+            sut.execute(() -> performed.add(value));
+        }
+        sut.close();
+
+        assertThat(performed.size(), is(1000));
+        for (int i = 0; i < 1000; i++)
+        {
+            assertThat(performed.get(i), is(i));
+        }
+    }
+
+    @Test
+    public void execute_performs_tasks_of_concurrent_producers_in_their_order() throws Exception
+    {
+        int producers = 4;
+        int tasks = 5000;
+        List<int[]> performed = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++)
+        {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                try
+                {
+                    start.await();
+                }
+                catch (InterruptedException e)
+                {
+                    return;
+                }
+                for (int i = 0; i < tasks; i++)
+                {
+                    int value = i;
+                    sut.execute(() -> performed.add(new int[] { producer, value }));
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        start.countDown();
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        sut.close();
+
+        assertThat(performed.size(), is(producers * tasks));
+        int[] next = new int[producers];
+        for (int[] task : performed)
+        {
+            assertThat(task[1], is(next[task[0]]++));
+        }
+    }
+
+    @Test
+    public void execute_wakes_up_idle_consumer() throws Exception
+    {
+        CountDownLatch first = new CountDownLatch(1);
+        sut.execute(first::countDown);
+        first.await();
+        Thread.sleep(50);
+
+        CountDownLatch second = new CountDownLatch(1);
+        sut.execute(second::countDown);
+
+        second.await();
+    }
+
+    @Test
+    public void exception_of_task_is_given_to_default_exception_handler_and_next_task_performed()
+        throws Exception
+    {
+        RuntimeException expected = new RuntimeException();
+        AtomicReference<Throwable> actual = new AtomicReference<>();
+        AsyncExecutor.setDefaultExceptionHandler(actual::set);
+        CountDownLatch performed = new CountDownLatch(1);
+
+        sut.execute(() -> {
+            throw expected;
+        });
+        sut.execute(performed::countDown);
+
+        performed.await();
+        assertThat(actual.get(), is(expected));
+    }
+
+    @Test
+    public void interrupt_left_by_task_is_cleared_before_next_task() throws Exception
+    {
+        AtomicReference<Boolean> interrupted = new AtomicReference<>();
+        CountDownLatch performed = new CountDownLatch(1);
+
+        sut.execute(() -> Thread.currentThread().interrupt());
+        sut.execute(() -> {
+            interrupted.set(Thread.currentThread().isInterrupted());
+            performed.countDown();
+        });
+
+        performed.await();
+        assertThat(interrupted.get(), is(false));
+    }
+
+    @Test
+    public void consumer_parks_when_idle_after_task_left_interrupt() throws Exception
+    {
+        AtomicReference<Thread> consumer = new AtomicReference<>();
+        CountDownLatch performed = new CountDownLatch(1);
+
+        sut.execute(() -> {
+            consumer.set(Thread.currentThread());
+            Thread.currentThread().interrupt();
+            performed.countDown();
+        });
+        performed.await();
+        Thread.sleep(100);
+
+        assertThat(consumer.get().getState(), is(Thread.State.WAITING));
+    }
+
+    @Test
+    public void close_performs_queued_tasks()
+    {
+        CountDownLatch performed = new CountDownLatch(100);
+        for (int i = 0; i < 100; i++)
+        {
+            sut.execute(performed::countDown);
+        }
+
+        sut.close();
+
+        assertThat(performed.getCount(), is(0L));
+        assertTrue(sut.isClosed());
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void execute_throws_exception_after_close()
+    {
+        sut.close();
+
+        sut.execute(() -> {
+        });
+    }
+
+    @Test
+    public void close_from_task_does_not_wait_for_itself() throws Exception
+    {
+        CountDownLatch closed = new CountDownLatch(1);
+
+        sut.execute(() -> {
+            sut.close();
+            closed.countDown();
+        });
+
+        closed.await();
+        assertTrue(sut.isClosed());
+    }
+
+    @Test
+    public void can_be_used_as_executor_of_asynchronous_function() throws Exception
+    {
+        FunctionAsync<Integer, Integer> function = FunctionAsync.from(value -> value * 2, sut);
+
+        assertThat(function.beginApply(null, null, 21).endReturn(), is(42));
+    }
+}
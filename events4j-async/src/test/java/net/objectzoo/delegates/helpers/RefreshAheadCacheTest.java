@@ -0,0 +1,267 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.helpers;
+
+import net.objectzoo.delegates.FunctionAsync;
+import net.objectzoo.delegates.FunctionAsyncResult;
+import net.objectzoo.delegates.impl.AsyncExecutor;
+import net.objectzoo.delegates.impl.CompletableAsyncResult;
+import net.objectzoo.delegates.impl.RefreshAheadCache;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RefreshAheadCacheTest
+{
+    private final AtomicLong time = new AtomicLong();
+    private final List<CompletableAsyncResult<String>> loads = new ArrayList<>();
+    private final FunctionAsync<String, String> loader = (callback, asyncState, key) -> {
+        CompletableAsyncResult<String> load = new CompletableAsyncResult<>();
+        loads.add(load);
+        return load;
+    };
+
+    private final RefreshAheadCache<String, String> sut = RefreshAheadCache.builder()
+        .refreshAfter(10, TimeUnit.NANOSECONDS)
+        .ticker(time::get)
+        .build(loader);
+
+    @After
+    public void resetDefaultExceptionHandler()
+    {
+        AsyncExecutor.setDefaultExceptionHandler(null);
+    }
+
+    @Test
+    public void first_invocation_completes_when_value_has_been_loaded() throws Exception
+    {
+        FunctionAsyncResult<String> result = sut.beginApply(null, null, "key");
+        assertFalse(result.isDone());
+        loads.get(0).complete("value");
+
+        assertThat(result.endReturn(), is("value"));
+        assertThat(sut.getMissCount(), is(1L));
+    }
+
+    @Test
+    public void invocations_during_first_load_share_load() throws Exception
+    {
+        FunctionAsyncResult<String> first = sut.beginApply(null, null, "key");
+        FunctionAsyncResult<String> second = sut.beginApply(null, null, "key");
+        loads.get(0).complete("value");
+
+        assertThat(loads.size(), is(1));
+        assertThat(second.endReturn(), is(first.endReturn()));
+    }
+
+    @Test
+    public void exception_of_callback_does_not_keep_other_invocations_from_completing()
+        throws Exception
+    {
+        RuntimeException expected = new RuntimeException();
+        List<Throwable> handled = new ArrayList<>();
+        AsyncExecutor.setDefaultExceptionHandler(handled::add);
+
+        sut.beginApply(result -> {
+            throw expected;
+        }, null, "key");
+        FunctionAsyncResult<String> second = sut.beginApply(null, null, "key");
+        loads.get(0).complete("value");
+
+        assertTrue(second.isDone());
+        assertThat(second.endReturn(), is("value"));
+        assertThat(handled, is(Collections.singletonList((Throwable) expected)));
+    }
+
+    @Test
+    public void loaded_value_is_served_immediately() throws Exception
+    {
+        sut.beginApply(null, null, "key");
+        loads.get(0).complete("value");
+        time.set(9);
+
+        FunctionAsyncResult<String> result = sut.beginApply(null, null, "key");
+
+        assertTrue(result.isDone());
+        assertThat(result.endReturn(), is("value"));
+        assertThat(loads.size(), is(1));
+        assertThat(sut.getHitCount(), is(1L));
+    }
+
+    @Test
+    public void stale_value_is_served_while_single_reload_is_in_flight() throws Exception
+    {
+        sut.beginApply(null, null, "key");
+        loads.get(0).complete("value");
+        time.set(10);
+
+        FunctionAsyncResult<String> first = sut.beginApply(null, null, "key");
+        FunctionAsyncResult<String> second = sut.beginApply(null, null, "key");
+
+        assertThat(first.endReturn(), is("value"));
+        assertThat(second.endReturn(), is("value"));
+        assertThat(loads.size(), is(2));
+        assertThat(sut.getRefreshCount(), is(1L));
+    }
+
+    @Test
+    public void reloaded_value_is_served_after_reload_completes() throws Exception
+    {
+        sut.beginApply(null, null, "key");
+        loads.get(0).complete("value");
+        time.set(10);
+        sut.beginApply(null, null, "key");
+        loads.get(1).complete("reloaded");
+
+        assertThat(sut.beginApply(null, null, "key").endReturn(), is("reloaded"));
+        assertThat(loads.size(), is(2));
+    }
+
+    @Test
+    public void failed_reload_keeps_stale_value() throws Exception
+    {
+        sut.beginApply(null, null, "key");
+        loads.get(0).complete("value");
+        time.set(10);
+        sut.beginApply(null, null, "key");
+        loads.get(1).completeExceptionally(new RuntimeException());
+
+        assertThat(sut.getIfPresent("key"), is("value"));
+    }
+
+    @Test
+    public void failed_reload_is_retried_after_refresh_threshold() throws Exception
+    {
+        sut.beginApply(null, null, "key");
+        loads.get(0).complete("value");
+        time.set(10);
+        sut.beginApply(null, null, "key");
+        loads.get(1).completeExceptionally(new RuntimeException());
+
+        time.set(19);
+        sut.beginApply(null, null, "key");
+        assertThat(loads.size(), is(2));
+        time.set(20);
+        sut.beginApply(null, null, "key");
+        assertThat(loads.size(), is(3));
+    }
+
+    @Test
+    public void exception_thrown_by_first_load_fails_invocation() throws Exception
+    {
+        RuntimeException expected = new RuntimeException();
+        RefreshAheadCache<String, String> sut = RefreshAheadCache.builder()
+            .build((callback, asyncState, key) -> {
+                throw expected;
+            });
+
+        FunctionAsyncResult<String> result = sut.beginApply(null, null, "key");
+
+        try
+        {
+            result.endReturn();
+            fail();
+        }
+        catch (ExecutionException e)
+        {
+            assertEquals(expected, e.getCause());
+        }
+        assertThat(sut.size(), is(0));
+    }
+
+    @Test
+    public void least_recently_accessed_values_are_evicted_beyond_maximum_size()
+        throws Exception
+    {
+        RefreshAheadCache<String, String> sut = RefreshAheadCache.builder()
+            .refreshAfter(1, TimeUnit.HOURS)
+            .maximumSize(2)
+            .ticker(time::get)
+            .build(loader);
+        sut.beginApply(null, null, "first");
+        loads.get(0).complete("first");
+        time.set(1);
+        sut.beginApply(null, null, "second");
+        loads.get(1).complete("second");
+        time.set(2);
+        sut.beginApply(null, null, "first");
+
+        time.set(3);
+        sut.beginApply(null, null, "third");
+
+        assertThat(sut.size(), is(2));
+        assertThat(sut.getIfPresent("first"), is("first"));
+        assertThat(sut.getIfPresent("second"), is((String) null));
+        assertThat(sut.getEvictionCount(), is(1L));
+    }
+
+    @Test
+    public void failed_first_load_fails_invocations_and_is_retried() throws Exception
+    {
+        RuntimeException expected = new RuntimeException();
+        FunctionAsyncResult<String> result = sut.beginApply(null, null, "key");
+        loads.get(0).completeExceptionally(expected);
+
+        try
+        {
+            result.endReturn();
+            fail();
+        }
+        catch (ExecutionException e)
+        {
+            assertEquals(expected, e.getCause());
+        }
+        sut.beginApply(null, null, "key");
+        assertThat(loads.size(), is(2));
+    }
+
+    @Test
+    public void invalidate_removes_value() throws Exception
+    {
+        sut.beginApply(null, null, "key");
+        loads.get(0).complete("value");
+
+        sut.invalidate("key");
+
+        assertThat(sut.getIfPresent("key"), is((String) null));
+        assertFalse(sut.beginApply(null, null, "key").isDone());
+        assertThat(loads.size(), is(2));
+    }
+}
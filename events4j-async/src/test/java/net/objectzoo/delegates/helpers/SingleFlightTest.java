@@ -0,0 +1,218 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.helpers;
+
+import net.objectzoo.delegates.Function2Async;
+import net.objectzoo.delegates.FunctionAsync;
+import net.objectzoo.delegates.FunctionAsyncResult;
+import net.objectzoo.delegates.adapters.SingleFlightFunction2Async;
+import net.objectzoo.delegates.adapters.SingleFlightFunctionAsync;
+import net.objectzoo.delegates.impl.AsyncExecutor;
+import net.objectzoo.delegates.impl.CompletableAsyncResult;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class SingleFlightTest
+{
+    private final List<CompletableAsyncResult<String>> executions = new ArrayList<>();
+    private final FunctionAsync<String, String> functionAsync = (callback, asyncState, value) -> {
+        CompletableAsyncResult<String> execution = new CompletableAsyncResult<>();
+        executions.add(execution);
+        return execution;
+    };
+
+    private final SingleFlightFunctionAsync<String, String> sut =
+        new SingleFlightFunctionAsync<>(functionAsync);
+
+    @After
+    public void resetDefaultExceptionHandler()
+    {
+        AsyncExecutor.setDefaultExceptionHandler(null);
+    }
+
+    @Test
+    public void concurrent_invocations_with_equal_parameters_share_execution() throws Exception
+    {
+        FunctionAsyncResult<String> first = sut.beginApply(null, null, "key");
+        FunctionAsyncResult<String> second = sut.beginApply(null, null, "key");
+        executions.get(0).complete("value");
+
+        assertThat(executions.size(), is(1));
+        assertThat(first.endReturn(), is("value"));
+        assertThat(second.endReturn(), is("value"));
+        assertThat(sut.getSingleFlight().getInvocationCount(), is(2L));
+        assertThat(sut.getSingleFlight().getExecutionCount(), is(1L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void each_invocation_receives_own_callback_and_async_state()
+    {
+        Consumer<FunctionAsyncResult<String>> firstCallback = mock(Consumer.class);
+        Consumer<FunctionAsyncResult<String>> secondCallback = mock(Consumer.class);
+        Object firstState = new Object();
+        Object secondState = new Object();
+
+        FunctionAsyncResult<String> first = sut.beginApply(firstCallback, firstState, "key");
+        FunctionAsyncResult<String> second = sut.beginApply(secondCallback, secondState, "key");
+        executions.get(0).complete("value");
+
+        verify(firstCallback).accept(first);
+        verify(secondCallback).accept(second);
+        assertThat(first.getAsyncState(), is(firstState));
+        assertThat(second.getAsyncState(), is(secondState));
+    }
+
+    @Test
+    public void exception_of_callback_does_not_keep_other_invocations_from_completing()
+        throws Exception
+    {
+        RuntimeException expected = new RuntimeException();
+        List<Throwable> handled = new ArrayList<>();
+        AsyncExecutor.setDefaultExceptionHandler(handled::add);
+
+        sut.beginApply(result -> {
+            throw expected;
+        }, null, "key");
+        FunctionAsyncResult<String> second = sut.beginApply(null, null, "key");
+        executions.get(0).complete("value");
+
+        assertTrue(second.isDone());
+        assertThat(second.endReturn(), is("value"));
+        assertThat(handled, is(Collections.singletonList((Throwable) expected)));
+    }
+
+    @Test
+    public void invocations_with_different_parameters_begin_separate_executions()
+    {
+        sut.beginApply(null, null, "key");
+        sut.beginApply(null, null, "other");
+        sut.beginApply(null, null, null);
+
+        assertThat(executions.size(), is(3));
+        assertThat(sut.getSingleFlight().getInFlightCount(), is(3));
+    }
+
+    @Test
+    public void completion_releases_key() throws Exception
+    {
+        sut.beginApply(null, null, "key");
+        executions.get(0).complete("value");
+        FunctionAsyncResult<String> result = sut.beginApply(null, null, "key");
+        executions.get(1).complete("next");
+
+        assertThat(executions.size(), is(2));
+        assertThat(result.endReturn(), is("next"));
+        assertThat(sut.getSingleFlight().getInFlightCount(), is(0));
+    }
+
+    @Test
+    public void exception_of_execution_is_given_to_all_invocations() throws Exception
+    {
+        RuntimeException expected = new RuntimeException();
+        FunctionAsyncResult<String> first = sut.beginApply(null, null, "key");
+        FunctionAsyncResult<String> second = sut.beginApply(null, null, "key");
+        executions.get(0).completeExceptionally(expected);
+
+        for (FunctionAsyncResult<String> result : new FunctionAsyncResult[] { first, second })
+        {
+            try
+            {
+                result.endReturn();
+                fail();
+            }
+            catch (ExecutionException e)
+            {
+                assertEquals(expected, e.getCause());
+            }
+        }
+    }
+
+    @Test
+    public void cancel_of_single_invocation_does_not_cancel_shared_execution() throws Exception
+    {
+        FunctionAsyncResult<String> first = sut.beginApply(null, null, "key");
+        FunctionAsyncResult<String> second = sut.beginApply(null, null, "key");
+
+        first.cancel(true);
+        executions.get(0).complete("value");
+
+        assertTrue(first.isCancelled());
+        assertFalse(executions.get(0).isCancelled());
+        assertThat(second.endReturn(), is("value"));
+    }
+
+    @Test
+    public void cancel_of_all_invocations_cancels_execution_and_releases_key()
+    {
+        FunctionAsyncResult<String> first = sut.beginApply(null, null, "key");
+        FunctionAsyncResult<String> second = sut.beginApply(null, null, "key");
+
+        first.cancel(true);
+        second.cancel(true);
+        sut.beginApply(null, null, "key");
+
+        assertTrue(executions.get(0).isCancelled());
+        assertThat(executions.size(), is(2));
+    }
+
+    @Test
+    public void function2_coalesces_invocations_by_extracted_key() throws Exception
+    {
+        List<CompletableAsyncResult<String>> executions = new ArrayList<>();
+        Function2Async<String, Integer, String> function2Async = (callback, state, key, attempt) ->
+        {
+            CompletableAsyncResult<String> execution = new CompletableAsyncResult<>();
+            executions.add(execution);
+            return execution;
+        };
+        SingleFlightFunction2Async<String, Integer, String> sut =
+            new SingleFlightFunction2Async<>(function2Async, (key, attempt) -> key);
+
+        FunctionAsyncResult<String> first = sut.beginApply(null, null, "key", 1);
+        FunctionAsyncResult<String> second = sut.beginApply(null, null, "key", 2);
+        executions.get(0).complete("value");
+
+        assertThat(executions.size(), is(1));
+        assertThat(second.endReturn(), is(first.endReturn()));
+    }
+}
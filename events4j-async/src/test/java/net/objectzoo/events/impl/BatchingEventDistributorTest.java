@@ -0,0 +1,290 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.events.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BatchingEventDistributorTest
+{
+    private final ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+    private final ScheduledFuture<?> timer = mock(ScheduledFuture.class);
+    private final List<Runnable> scheduled = new ArrayList<>();
+    private final List<List<String>> batches = new ArrayList<>();
+
+    private final BatchingEventDistributor<String> sut = BatchingEventDistributor.builder()
+        .maxBatchSize(3)
+        .maxLatency(5, TimeUnit.MILLISECONDS)
+        .scheduler(scheduler)
+        .build();
+
+    @Before
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void captureScheduledFlushes()
+    {
+        when(scheduler.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class))).thenAnswer(
+            invocation -> {
+                scheduled.add((Runnable) invocation.getArguments()[0]);
+                return timer;
+            });
+        sut.subscribe(batches::add);
+    }
+
+    @Test
+    public void full_batch_is_distributed_immediately()
+    {
+        sut.accept("a");
+        sut.accept("b");
+        assertThat(batches.size(), is(0));
+
+        sut.accept("c");
+
+        assertThat(batches, is(Arrays.asList(Arrays.asList("a", "b", "c"))));
+        verify(timer).cancel(false);
+    }
+
+    @Test
+    public void batch_is_distributed_after_maximum_latency()
+    {
+        sut.accept("a");
+        sut.accept("b");
+
+        scheduled.get(0).run();
+
+        assertThat(batches, is(Arrays.asList(Arrays.asList("a", "b"))));
+        assertThat(scheduled.size(), is(1));
+        verify(scheduler).schedule(any(Runnable.class), eq(TimeUnit.MILLISECONDS.toNanos(5)),
+            eq(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void timer_of_already_distributed_batch_does_nothing()
+    {
+        sut.accept("a");
+        sut.flush();
+        sut.accept("b");
+
+        scheduled.get(0).run();
+
+        assertThat(batches, is(Arrays.asList(Collections.singletonList("a"))));
+    }
+
+    @Test
+    public void flush_distributes_buffered_elements_and_records_metrics()
+    {
+        sut.flush();
+        sut.accept("a");
+        sut.flush();
+
+        assertThat(batches, is(Arrays.asList(Collections.singletonList("a"))));
+        assertThat(sut.getFlushSizeHistogram().getCount(), is(1L));
+        assertThat(sut.getFlushSizeHistogram().getMax(), is(1L));
+        assertThat(sut.getFlushLatencyHistogram().getCount(), is(1L));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void distributed_batch_is_unmodifiable()
+    {
+        sut.flush();
+        sut.accept("a");
+        sut.flush();
+
+        batches.get(0).add("b");
+    }
+
+    @Test
+    public void single_threaded_distributor_flushes_full_and_expired_batches() throws Exception
+    {
+        BatchingEventDistributor<String> sut = BatchingEventDistributor.builder()
+            .maxBatchSize(2)
+            .maxLatency(1, TimeUnit.MILLISECONDS)
+            .singleThreaded()
+            .build();
+        sut.subscribe(batches::add);
+
+        sut.accept("a");
+        sut.accept("b");
+        sut.accept("c");
+        assertFalse(sut.isConcurrent());
+        assertThat(batches, is(Arrays.asList(Arrays.asList("a", "b"))));
+
+        Thread.sleep(5);
+        assertTrue(sut.flushIfExpired());
+        assertFalse(sut.flushIfExpired());
+
+        assertThat(batches, is(Arrays.asList(Arrays.asList("a", "b"),
+            Collections.singletonList("c"))));
+    }
+
+    @Test
+    public void concurrent_producers_distribute_all_elements() throws Exception
+    {
+        BatchingEventDistributor<Integer> sut = BatchingEventDistributor.builder()
+            .maxBatchSize(16)
+            .build();
+        List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+        sut.subscribe(received::addAll);
+        int producers = 4;
+        int elements = 1000;
+        CountDownLatch done = new CountDownLatch(producers);
+
+        for (int p = 0; p < producers; p++)
+        {
+            int producer = p;
+            new Thread(() -> {
+                for (int i = 0; i < elements; i++)
+                {
+                    sut.accept(producer * elements + i);
+                }
+                done.countDown();
+            }).start();
+        }
+        done.await();
+        sut.flush();
+
+        assertThat(received.size(), is(producers * elements));
+        assertThat(sut.getFlushSizeHistogram().getMax() <= 16, is(true));
+    }
+
+    @Test
+    public void batches_completed_during_distribution_are_distributed_in_order() throws Exception
+    {
+        List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch distributing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BatchingEventDistributor<String> sut = BatchingEventDistributor.builder()
+            .maxBatchSize(1)
+            .build();
+        sut.subscribe(batch -> {
+            batches.add(batch);
+            if (batch.get(0).equals("a"))
+            {
+                distributing.countDown();
+                await(release);
+            }
+        });
+        Thread producer = new Thread(() -> sut.accept("a"));
+        producer.start();
+        assertTrue(distributing.await(5, TimeUnit.SECONDS));
+
+        sut.accept("b");
+        assertThat(batches.size(), is(1));
+        release.countDown();
+        producer.join();
+
+        assertThat(batches, is(Arrays.asList(Collections.singletonList("a"),
+            Collections.singletonList("b"))));
+    }
+
+    @Test
+    public void flush_during_distribution_hands_batch_over_to_distributing_thread()
+        throws Exception
+    {
+        List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch distributing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BatchingEventDistributor<String> sut = BatchingEventDistributor.builder().build();
+        sut.subscribe(batch -> {
+            batches.add(batch);
+            threads.add(Thread.currentThread());
+            if (batch.get(0).equals("a"))
+            {
+                distributing.countDown();
+                await(release);
+            }
+        });
+        Thread producer = new Thread(() -> {
+            sut.accept("a");
+            sut.flush();
+        });
+        producer.start();
+        assertTrue(distributing.await(5, TimeUnit.SECONDS));
+
+        sut.accept("b");
+        sut.flush();
+        assertThat(batches.size(), is(1));
+        release.countDown();
+        producer.join();
+
+        assertThat(batches, is(Arrays.asList(Collections.singletonList("a"),
+            Collections.singletonList("b"))));
+        assertThat(threads, is(Arrays.asList(producer, producer)));
+    }
+
+    @Test
+    public void distributor_without_maximum_latency_does_not_schedule_flushes()
+    {
+        BatchingEventDistributor<String> sut = BatchingEventDistributor.builder()
+            .scheduler(scheduler)
+            .build();
+
+        sut.accept("a");
+
+        verify(scheduler, never()).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        assertTrue(sut.isConcurrent());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void builder_throws_exception_for_invalid_batch_size()
+    {
+        BatchingEventDistributor.builder().maxBatchSize(0);
+    }
+
+    private static void await(CountDownLatch latch)
+    {
+        try
+        {
+            latch.await();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
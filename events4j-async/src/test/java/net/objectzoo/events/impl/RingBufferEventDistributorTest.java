@@ -0,0 +1,259 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.events.impl;
+
+import net.objectzoo.delegates.impl.AsyncExecutor;
+import net.objectzoo.events.impl.RingBufferDispatcher.WaitStrategy;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class RingBufferEventDistributorTest
+{
+    @After
+    public void resetDefaultExceptionHandler()
+    {
+        AsyncExecutor.setDefaultExceptionHandler(null);
+    }
+
+    @Test
+    public void events_are_distributed_in_order_with_each_wait_strategy()
+    {
+        for (WaitStrategy waitStrategy : WaitStrategy.values())
+        {
+            List<Integer> received = new ArrayList<>();
+            List<Integer> expected = new ArrayList<>();
+            RingBufferEventDistributor<Integer> sut =
+                new RingBufferEventDistributor<>(64, 1, waitStrategy);
+            sut.subscribe(received::add);
+
+            for (int event = 0; event < 1000; event++)
+            {
+                sut.accept(event);
+                expected.add(event);
+            }
+            sut.close();
+
+            assertThat(received, is(expected));
+        }
+    }
+
+    @Test
+    public void events_are_distributed_to_all_subscribers()
+    {
+        List<String> first = new ArrayList<>();
+        List<String> second = new ArrayList<>();
+        RingBufferEventDistributor<String> sut = new RingBufferEventDistributor<>();
+        sut.subscribe(first::add);
+        sut.subscribe(second::add);
+
+        sut.accept("event");
+        sut.close();
+
+        assertThat(first, is(Collections.singletonList("event")));
+        assertThat(second, is(Collections.singletonList("event")));
+    }
+
+    @Test
+    public void multiple_consumers_distribute_each_event_once()
+    {
+        AtomicLong sum = new AtomicLong();
+        RingBufferEventDistributor<Integer> sut =
+            new RingBufferEventDistributor<>(16, 4, WaitStrategy.YIELD);
+        sut.subscribe(sum::addAndGet);
+
+        for (int event = 1; event <= 10000; event++)
+        {
+            sut.accept(event);
+        }
+        sut.close();
+
+        assertThat(sum.get(), is(10000L * 10001 / 2));
+    }
+
+    @Test
+    public void events_accepted_concurrently_with_close_are_distributed()
+        throws InterruptedException
+    {
+        for (int run = 0; run < 20; run++)
+        {
+            AtomicLong received = new AtomicLong();
+            AtomicLong accepted = new AtomicLong();
+            RingBufferEventDistributor<Integer> sut =
+                new RingBufferEventDistributor<>(16, 2, WaitStrategy.YIELD);
+            sut.subscribe(event -> received.incrementAndGet());
+            Runnable producer = () -> {
+                try
+                {
+                    while (true)
+                    {
+                        sut.accept(1);
+                        accepted.incrementAndGet();
+                    }
+                }
+                catch (IllegalStateException e)
+                {
+                    // closed
+                }
+            };
+            Thread first = new Thread(producer);
+            Thread second = new Thread(producer);
+            first.start();
+            second.start();
+
+            Thread.sleep(2);
+            sut.close();
+            first.join();
+            second.join();
+
+            assertThat(received.get(), is(accepted.get()));
+        }
+    }
+
+    @Test
+    public void event0_to_event4_distribute_their_parameters()
+    {
+        AtomicLong started = new AtomicLong();
+        List<String> received = new ArrayList<>();
+        RingBufferEvent0Distributor event0 = new RingBufferEvent0Distributor();
+        RingBufferEvent2Distributor<String, Integer> event2 = new RingBufferEvent2Distributor<>();
+        RingBufferEvent3Distributor<String, Integer, Long> event3 =
+            new RingBufferEvent3Distributor<>();
+        RingBufferEvent4Distributor<String, Integer, Long, Character> event4 =
+            new RingBufferEvent4Distributor<>();
+        event0.subscribe(started::incrementAndGet);
+        event2.subscribe((text, number) -> received.add(text + number));
+        event3.subscribe((text, number, value) -> received.add(text + number + value));
+        event4.subscribe(
+            (text, number, value, character) -> received.add(text + number + value + character));
+
+        event0.start();
+        event2.accept("a", 1);
+        event2.close();
+        event3.accept("b", 2, 3L);
+        event3.close();
+        event4.accept("c", 4, 5L, 'd');
+        event4.close();
+        event0.close();
+
+        assertThat(started.get(), is(1L));
+        assertThat(received, is(Arrays.asList("a1", "b23", "c45d")));
+    }
+
+    @Test
+    public void exception_of_subscriber_is_given_to_default_exception_handler()
+    {
+        RuntimeException expected = new RuntimeException();
+        AtomicReference<Throwable> handled = new AtomicReference<>();
+        AsyncExecutor.setDefaultExceptionHandler(handled::set);
+        List<String> received = new ArrayList<>();
+        RingBufferEventDistributor<String> sut = new RingBufferEventDistributor<>();
+        sut.subscribe(event -> {
+            if (event.equals("fail"))
+            {
+                throw expected;
+            }
+            received.add(event);
+        });
+
+        sut.accept("fail");
+        sut.accept("event");
+        sut.close();
+
+        assertThat(handled.get(), is((Throwable) expected));
+        assertThat(received, is(Collections.singletonList("event")));
+    }
+
+    @Test
+    public void interrupt_left_by_subscriber_is_cleared_before_next_event()
+    {
+        List<Boolean> interrupted = new ArrayList<>();
+        RingBufferEventDistributor<String> sut = new RingBufferEventDistributor<>();
+        sut.subscribe(event -> {
+            interrupted.add(Thread.currentThread().isInterrupted());
+            Thread.currentThread().interrupt();
+        });
+
+        sut.accept("a");
+        sut.accept("b");
+        sut.close();
+
+        assertThat(interrupted, is(Arrays.asList(false, false)));
+    }
+
+    @Test
+    public void consumer_parks_when_idle_after_subscriber_left_interrupt() throws Exception
+    {
+        AtomicReference<Thread> consumer = new AtomicReference<>();
+        CountDownLatch received = new CountDownLatch(1);
+        RingBufferEventDistributor<String> sut =
+            new RingBufferEventDistributor<>(16, 1, WaitStrategy.PARK);
+        sut.subscribe(event -> {
+            consumer.set(Thread.currentThread());
+            Thread.currentThread().interrupt();
+            received.countDown();
+        });
+
+        sut.accept("event");
+        received.await();
+        boolean parked = false;
+        for (int sample = 0; sample < 20 && !parked; sample++)
+        {
+            Thread.sleep(10);
+            parked = consumer.get().getState() == Thread.State.TIMED_WAITING;
+        }
+        sut.close();
+
+        assertTrue(parked);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void accept_throws_exception_after_close()
+    {
+        RingBufferEventDistributor<String> sut = new RingBufferEventDistributor<>();
+        sut.close();
+
+        sut.accept("event");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_throws_exception_for_capacity_not_power_of_two()
+    {
+        new RingBufferEventDistributor<String>(12, 1, WaitStrategy.PARK);
+    }
+}
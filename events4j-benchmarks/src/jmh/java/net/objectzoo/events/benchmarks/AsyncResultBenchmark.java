@@ -0,0 +1,124 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.events.benchmarks;
+
+import net.objectzoo.delegates.Function;
+import net.objectzoo.delegates.Function0;
+import net.objectzoo.delegates.FunctionAsync;
+import net.objectzoo.delegates.impl.AsyncFutureTask;
+import net.objectzoo.delegates.impl.AsyncTask;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares an asynchronous {@code beginApply} through the {@link AsyncTask} created by the
+ * adapters with the former path that bound the parameter to a {@link Function0} and wrapped it
+ * into an {@link AsyncFutureTask}. Run with the {@code gc}
+ * profiler the {@code gc.alloc.rate.norm} column shows the bytes allocated per invocation.
+ *
+ * @author tilmann
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AsyncResultBenchmark
+{
+    /**
+     * {@code inline} runs the invocations in the calling thread, {@code thread} hands them to a
+     * single worker thread and blocks in {@code endReturn}.
+     */
+    @Param({ "inline", "thread" })
+    public String executor;
+
+    private final java.util.function.Function<Integer, Integer> function = value -> value + 1;
+
+    private final Integer parameter = 41;
+
+    private ExecutorService executorService;
+
+    private Executor target;
+
+    private FunctionAsync<Integer, Integer> functionAsync;
+
+    @Setup
+    public void createExecutor()
+    {
+        if ("thread".equals(executor))
+        {
+            executorService = Executors.newSingleThreadExecutor();
+            target = executorService;
+        }
+        else
+        {
+            target = Runnable::run;
+        }
+        functionAsync = FunctionAsync.from(function, target);
+    }
+
+    @TearDown
+    public void shutdownExecutor()
+    {
+        if (executorService != null)
+        {
+            executorService.shutdown();
+        }
+    }
+
+    @Benchmark
+    public Integer asyncTask() throws InterruptedException, ExecutionException
+    {
+        return functionAsync.beginApply(null, null, parameter).endReturn();
+    }
+
+    @Benchmark
+    public Integer asyncFutureTask() throws InterruptedException, ExecutionException
+    {
+        Function0<Integer> bound = Function.bindParameter(function, parameter);
+        AsyncFutureTask<Integer> task = new AsyncFutureTask<>(bound::get, null, null);
+        target.execute(task);
+        return task.endReturn();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.events.benchmarks;
+
+import net.objectzoo.delegates.FunctionAsync;
+import net.objectzoo.delegates.FunctionAsyncResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares invoking a {@link FunctionAsync} for a batch of parameters with one
+ * {@code beginApply} per element against a single {@code beginApplyAll} submitting one task per
+ * chunk of elements.
+ *
+ * @author tilmann
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchSubmissionBenchmark
+{
+    @Param({ "10000" })
+    public int size;
+
+    @Param({ "64", "1024" })
+    public int chunkSize;
+
+    private final List<Integer> parameters = new ArrayList<>();
+
+    private ExecutorService executorService;
+
+    private FunctionAsync<Integer, Integer> functionAsync;
+
+    @Setup
+    public void createExecutor()
+    {
+        for (int index = 0; index < size; index++)
+        {
+            parameters.add(index);
+        }
+        executorService = Executors.newFixedThreadPool(2);
+        functionAsync = FunctionAsync.from(value -> value + 1, executorService);
+    }
+
+    @TearDown
+    public void shutdownExecutor()
+    {
+        executorService.shutdown();
+    }
+
+    @Benchmark
+    public Object beginApplyEach() throws InterruptedException, ExecutionException
+    {
+        List<FunctionAsyncResult<Integer>> results = new ArrayList<>(size);
+        for (Integer parameter : parameters)
+        {
+            results.add(functionAsync.beginApply(null, null, parameter));
+        }
+        Object last = null;
+        for (FunctionAsyncResult<Integer> result : results)
+        {
+            last = result.endReturn();
+        }
+        return last;
+    }
+
+    @Benchmark
+    public List<Integer> beginApplyAll() throws InterruptedException, ExecutionException
+    {
+        return functionAsync.beginApplyAll(parameters, chunkSize).endReturn();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.events.benchmarks;
+
+import net.objectzoo.events.impl.BatchingEventDistributor;
+import net.objectzoo.events.impl.EventDistributor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares distributing each element to the subscribers of an {@link EventDistributor} with
+ * distributing batches of elements with a concurrent and a single-threaded
+ * {@link BatchingEventDistributor}, measured per accepted element.
+ *
+ * @author tilmann
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchingDistributorBenchmark
+{
+    @Param({ "4" })
+    int subscribers;
+
+    @Param({ "16", "256" })
+    int batchSize;
+
+    private final EventDistributor<Object> eventDistributor = new EventDistributor<>();
+
+    private BatchingEventDistributor<Object> concurrentDistributor;
+
+    private BatchingEventDistributor<Object> singleThreadedDistributor;
+
+    private final Object element = new Object();
+
+    @Setup
+    public void subscribe(Blackhole blackhole)
+    {
+        concurrentDistributor = BatchingEventDistributor.builder()
+            .maxBatchSize(batchSize)
+            .build();
+        singleThreadedDistributor = BatchingEventDistributor.builder()
+            .maxBatchSize(batchSize)
+            .singleThreaded()
+            .build();
+        for (int i = 0; i < subscribers; i++)
+        {
+            eventDistributor.subscribe(blackhole::consume);
+            concurrentDistributor.subscribe(blackhole::consume);
+            singleThreadedDistributor.subscribe(blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public void distributeEachElement()
+    {
+        eventDistributor.accept(element);
+    }
+
+    @Benchmark
+    public void distributeBatchesConcurrent()
+    {
+        concurrentDistributor.accept(element);
+    }
+
+    @Benchmark
+    public void distributeBatchesSingleThreaded()
+    {
+        singleThreadedDistributor.accept(element);
+    }
+}
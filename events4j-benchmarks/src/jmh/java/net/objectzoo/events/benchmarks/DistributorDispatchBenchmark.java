@@ -0,0 +1,96 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.events.benchmarks;
+
+import net.objectzoo.delegates.Action;
+import net.objectzoo.events.helpers.ArrayEventSubscriberRegistry;
+import net.objectzoo.events.helpers.EventSubscriberRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Compares dispatching an event to the subscribers of an {@link ArrayEventSubscriberRegistry},
+ * as done by the event distributors, with the former {@link EventSubscriberRegistry} path that
+ * iterates a list with a bound consumer lambda.
+ *
+ * @author tilmann
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistributorDispatchBenchmark
+{
+    @Param({ "0", "1", "2", "8" })
+    int subscribers;
+
+    private final ArrayEventSubscriberRegistry<Consumer<? super Object>> arrayRegistry =
+        new ArrayEventSubscriberRegistry<>();
+
+    private final EventSubscriberRegistry<Consumer<? super Object>> listRegistry =
+        new EventSubscriberRegistry<>();
+
+    private final Object event = new Object();
+
+    @Setup
+    public void subscribe(Blackhole blackhole)
+    {
+        for (int i = 0; i < subscribers; i++)
+        {
+            Consumer<Object> subscriber = parameter -> blackhole.consume(parameter);
+            arrayRegistry.subscribe(subscriber);
+            listRegistry.subscribe(subscriber);
+        }
+    }
+
+    @Benchmark
+    public void arrayRegistry()
+    {
+        arrayRegistry.dispatch(event);
+    }
+
+    @Benchmark
+    public void listRegistry()
+    {
+        listRegistry.callWithEachSubscriber(Action.boundAcceptingConsumer(event));
+    }
+}
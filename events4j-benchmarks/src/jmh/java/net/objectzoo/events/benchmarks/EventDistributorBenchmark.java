@@ -0,0 +1,102 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.events.benchmarks;
+
+import net.objectzoo.delegates.Action4;
+import net.objectzoo.events.impl.Event4Distributor;
+import net.objectzoo.events.impl.EventDistributor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Measures the event distribution of {@link EventDistributor} and {@link Event4Distributor} for
+ * different numbers of subscribers.
+ *
+ * @author tilmann
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventDistributorBenchmark
+{
+    @Param({ "0", "1", "2", "4", "16" })
+    int subscribers;
+
+    private final EventDistributor<Object> eventDistributor = new EventDistributor<>();
+
+    private final Event4Distributor<Object, Object, Object, Object> event4Distributor =
+        new Event4Distributor<>();
+
+    private final Object parameter1 = new Object();
+
+    private final Object parameter2 = new Object();
+
+    private final Object parameter3 = new Object();
+
+    private final Object parameter4 = new Object();
+
+    @Setup
+    public void subscribe(Blackhole blackhole)
+    {
+        for (int i = 0; i < subscribers; i++)
+        {
+            Consumer<Object> subscriber = parameter -> blackhole.consume(parameter);
+            eventDistributor.subscribe(subscriber);
+            Action4<Object, Object, Object, Object> subscriber4 =
+                (parameter1, parameter2, parameter3, parameter4) -> blackhole.consume(parameter4);
+            event4Distributor.subscribe(subscriber4);
+        }
+    }
+
+    @Benchmark
+    public void eventDistributor()
+    {
+        eventDistributor.accept(parameter1);
+    }
+
+    @Benchmark
+    public void event4Distributor()
+    {
+        event4Distributor.accept(parameter1, parameter2, parameter3, parameter4);
+    }
+}
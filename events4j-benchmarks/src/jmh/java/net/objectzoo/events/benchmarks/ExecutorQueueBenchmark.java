@@ -0,0 +1,123 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.events.benchmarks;
+
+import net.objectzoo.delegates.Action0;
+import net.objectzoo.delegates.impl.AsyncExecutor;
+import net.objectzoo.delegates.impl.MpscExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the single threaded {@link java.util.concurrent.ThreadPoolExecutor} used as default
+ * executor of {@link AsyncExecutor} with the lock-free {@link MpscExecutor} while several threads
+ * submit asynchronous invocations concurrently.
+ *
+ * @author tilmann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ExecutorQueueBenchmark
+{
+    private static final int BURST_SIZE = 64;
+
+    private final Action0 action = () -> {
+    };
+
+    private final Runnable task = () -> {
+    };
+
+    @Param({ "threadPool", "mpsc" })
+    public String executorType;
+
+    private Executor executor;
+
+    private AsyncExecutor asyncExecutor;
+
+    @Setup
+    public void createExecutor()
+    {
+        executor = "mpsc".equals(executorType) ? new MpscExecutor()
+            : Executors.newSingleThreadExecutor();
+        asyncExecutor = new AsyncExecutor(executor);
+    }
+
+    @TearDown
+    public void shutdownExecutor()
+    {
+        if (executor instanceof MpscExecutor)
+        {
+            ((MpscExecutor) executor).close();
+        }
+        else
+        {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+
+    @Benchmark
+    public void executeAction() throws InterruptedException, ExecutionException
+    {
+        asyncExecutor.execute(action, null, null).end();
+    }
+
+    /**
+     * Submits a burst of tasks and waits for the last one, which is performed after all others by
+     * both single threaded executors.
+     */
+    @Benchmark
+    public void executeBurst() throws InterruptedException, ExecutionException
+    {
+        for (int i = 1; i < BURST_SIZE; i++)
+        {
+            executor.execute(task);
+        }
+        asyncExecutor.execute(action, null, null).end();
+    }
+}
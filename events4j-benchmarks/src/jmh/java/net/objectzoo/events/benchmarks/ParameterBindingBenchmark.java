@@ -0,0 +1,111 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.events.benchmarks;
+
+import net.objectzoo.delegates.Action;
+import net.objectzoo.delegates.Action0;
+import net.objectzoo.delegates.Action4;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Measures binding parameters to actions with {@link Action#bindParameter(Consumer, Object)} and
+ * {@link Action4#bindParameters(Action4, Object, Object, Object, Object)} and invoking actions
+ * with the consumers created by {@link Action#boundAcceptingConsumer(Object)}.
+ *
+ * @author tilmann
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParameterBindingBenchmark
+{
+    private Action<Object> action;
+
+    private Action4<Object, Object, Object, Object> action4;
+
+    private final Object parameter1 = new Object();
+
+    private final Object parameter2 = new Object();
+
+    private final Object parameter3 = new Object();
+
+    private final Object parameter4 = new Object();
+
+    @Setup
+    public void create(Blackhole blackhole)
+    {
+        action = parameter -> blackhole.consume(parameter);
+        action4 = (parameter1, parameter2, parameter3, parameter4) -> blackhole.consume(parameter4);
+    }
+
+    @Benchmark
+    public Action0 bindParameter()
+    {
+        return action.bindParameter(parameter1);
+    }
+
+    @Benchmark
+    public void bindParameterAndStart()
+    {
+        action.bindParameter(parameter1).start();
+    }
+
+    @Benchmark
+    public void bindParametersAndStart4()
+    {
+        action4.bindParameters(parameter1, parameter2, parameter3, parameter4).start();
+    }
+
+    @Benchmark
+    public void boundAcceptingConsumer()
+    {
+        Action.<Object>boundAcceptingConsumer(parameter1).accept(action);
+    }
+
+    @Benchmark
+    public void boundAcceptingConsumer4()
+    {
+        Action4.<Object, Object, Object, Object>boundAcceptingConsumer(parameter1, parameter2,
+            parameter3, parameter4).accept(action4);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.events.benchmarks;
+
+import net.objectzoo.events.impl.EventAsyncAdapter;
+import net.objectzoo.events.impl.EventDistributor;
+import net.objectzoo.events.impl.RingBufferDispatcher.WaitStrategy;
+import net.objectzoo.events.impl.RingBufferEventDistributor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Compares the throughput of asynchronous event distribution by a single producer through
+ * {@link RingBufferEventDistributor} with the different wait strategies and through
+ * {@link EventAsyncAdapter} on a single thread executor. Each invocation raises a burst of events
+ * and waits until all of them have been distributed to a subscriber counting them.
+ *
+ * @author tilmann
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RingBufferDistributorBenchmark
+{
+    private static final int BURST = 1000;
+
+    private static final Integer EVENT = 42;
+
+    private ExecutorService executorService;
+
+    private EventAsyncAdapter<Integer> asyncAdapter;
+
+    private final Counter counter = new Counter();
+
+    @Setup
+    public void createAdapter()
+    {
+        executorService = Executors.newSingleThreadExecutor();
+        EventDistributor<Integer> distributor = new EventDistributor<>();
+        distributor.subscribe(counter);
+        asyncAdapter = new EventAsyncAdapter<>(distributor, executorService);
+    }
+
+    @TearDown
+    public void shutdownExecutor()
+    {
+        executorService.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void ringBufferDistributor(RingBuffer ringBuffer)
+    {
+        for (int index = 0; index < BURST; index++)
+        {
+            ringBuffer.distributor.accept(EVENT);
+        }
+        ringBuffer.counter.await(BURST);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void eventAsyncAdapter()
+    {
+        for (int index = 0; index < BURST; index++)
+        {
+            asyncAdapter.beginAccept(null, null, EVENT);
+        }
+        counter.await(BURST);
+    }
+
+    @State(Scope.Thread)
+    public static class RingBuffer
+    {
+        @Param({ "BUSY_SPIN", "YIELD", "PARK" })
+        public WaitStrategy waitStrategy;
+
+        private final Counter counter = new Counter();
+
+        private RingBufferEventDistributor<Integer> distributor;
+
+        @Setup
+        public void createDistributor()
+        {
+            distributor = new RingBufferEventDistributor<>(1024, 1, waitStrategy);
+            distributor.subscribe(counter);
+        }
+
+        @TearDown
+        public void closeDistributor()
+        {
+            distributor.close();
+        }
+    }
+
+    private static class Counter implements Consumer<Integer>
+    {
+        private final AtomicLong received = new AtomicLong();
+
+        private long sent;
+
+        @Override
+        public void accept(Integer value)
+        {
+            received.lazySet(received.get() + 1);
+        }
+
+        void await(int events)
+        {
+            sent += events;
+            while (received.get() < sent)
+            {
+                Thread.yield();
+            }
+        }
+    }
+}
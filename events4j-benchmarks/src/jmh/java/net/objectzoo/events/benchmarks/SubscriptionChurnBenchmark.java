@@ -0,0 +1,128 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.events.benchmarks;
+
+import net.objectzoo.events.Subscription;
+import net.objectzoo.events.impl.EventDistributor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Measures subscribing and unsubscribing at an {@link EventDistributor} that is shared by several
+ * threads, on its own and while other threads distribute events.
+ *
+ * @author tilmann
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SubscriptionChurnBenchmark
+{
+    @Param({ "0", "8" })
+    int subscribers;
+
+    private final EventDistributor<Object> distributor = new EventDistributor<>();
+
+    private final Object parameter = new Object();
+
+    @Setup
+    public void subscribe(Blackhole blackhole)
+    {
+        for (int i = 0; i < subscribers; i++)
+        {
+            distributor.subscribe(parameter -> blackhole.consume(parameter));
+        }
+    }
+
+    /**
+     * The subscriber that is subscribed and unsubscribed by each thread.
+     */
+    @State(Scope.Thread)
+    public static class ThreadSubscriber
+    {
+        Consumer<Object> subscriber;
+
+        @Setup
+        public void create(Blackhole blackhole)
+        {
+            subscriber = parameter -> blackhole.consume(parameter);
+        }
+    }
+
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(4)
+    public void subscribeUnsubscribe(ThreadSubscriber thread)
+    {
+        distributor.subscribe(thread.subscriber);
+        distributor.unsubscribe(thread.subscriber);
+    }
+
+    @Benchmark
+    @Group("closeable")
+    @GroupThreads(4)
+    public void subscribeCloseable(ThreadSubscriber thread)
+    {
+        Subscription subscription = distributor.subscribeCloseable(thread.subscriber);
+        subscription.close();
+    }
+
+    @Benchmark
+    @Group("churnWhileDispatching")
+    @GroupThreads(1)
+    public void churn(ThreadSubscriber thread)
+    {
+        distributor.subscribe(thread.subscriber);
+        distributor.unsubscribe(thread.subscriber);
+    }
+
+    @Benchmark
+    @Group("churnWhileDispatching")
+    @GroupThreads(3)
+    public void dispatch()
+    {
+        distributor.accept(parameter);
+    }
+}
@@ -24,6 +24,9 @@
  */
 package net.objectzoo.delegates;
 
+import net.objectzoo.delegates.helpers.EvictionPolicy;
+import net.objectzoo.delegates.helpers.MemoizingCache;
+
 /**
  * A {@code Function} is a reference to a function with return value that can be invoked
  * synchronously similar to a regular Java method call. To enable interoperability with Java 8
@@ -112,4 +115,22 @@ public interface Function<T, R> extends java.util.function.Function<T, R>
     {
         return Action.from(this);
     }
+
+    /**
+     * Memoizes this {@code Function} in a new {@link MemoizingCache} holding at most the given
+     * number of return values. The parameter of an invocation is the key of its return value, so
+     * this {@code Function} should be free of side effects. For a time to live or access to the
+     * statistics of the cache use {@link MemoizingCache#memoize} with a cache created by its
+     * builder.
+     *
+     * @param maximumSize    the maximum number of cached return values
+     * @param evictionPolicy the policy choosing the return value to be evicted
+     * @return the memoizing {@code Function}
+     * @throws IllegalArgumentException if the maximum size is not positive
+     */
+    default Function<T, R> memoize(int maximumSize, EvictionPolicy evictionPolicy)
+    {
+        return MemoizingCache.builder().maximumSize(maximumSize).evictionPolicy(evictionPolicy)
+            .<T, R>build().memoize(this);
+    }
 }
\ No newline at end of file
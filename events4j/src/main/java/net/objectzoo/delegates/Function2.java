@@ -24,6 +24,9 @@
  */
 package net.objectzoo.delegates;
 
+import net.objectzoo.delegates.helpers.EvictionPolicy;
+import net.objectzoo.delegates.helpers.MemoizingCache;
+
 import java.util.function.BiFunction;
 
 /**
@@ -122,4 +125,22 @@ public interface Function2<T1, T2, R> extends BiFunction<T1, T2, R>
     {
         return Action2.from(this);
     }
+
+    /**
+     * Memoizes this {@code Function2} in a new {@link MemoizingCache} holding at most the given
+     * number of return values. The parameters of an invocation form the key of its return value, so
+     * this {@code Function2} should be free of side effects. For a time to live or access to the
+     * statistics of the cache use {@link MemoizingCache#memoize} with a cache created by its
+     * builder.
+     *
+     * @param maximumSize    the maximum number of cached return values
+     * @param evictionPolicy the policy choosing the return value to be evicted
+     * @return the memoizing {@code Function2}
+     * @throws IllegalArgumentException if the maximum size is not positive
+     */
+    default Function2<T1, T2, R> memoize(int maximumSize, EvictionPolicy evictionPolicy)
+    {
+        return MemoizingCache.builder().maximumSize(maximumSize).evictionPolicy(evictionPolicy)
+            .<Object, R>build().memoize(this);
+    }
 }
\ No newline at end of file
@@ -24,6 +24,9 @@
  */
 package net.objectzoo.delegates;
 
+import net.objectzoo.delegates.helpers.EvictionPolicy;
+import net.objectzoo.delegates.helpers.MemoizingCache;
+
 /**
  * A {@code Function4} is a reference to a function with return value that can be invoked
  * synchronously similar to a regular Java method call.
@@ -122,4 +125,22 @@ public interface Function4<T1, T2, T3, T4, R>
     {
         return Action4.from(this);
     }
+
+    /**
+     * Memoizes this {@code Function4} in a new {@link MemoizingCache} holding at most the given
+     * number of return values. The parameters of an invocation form the key of its return value, so
+     * this {@code Function4} should be free of side effects. For a time to live or access to the
+     * statistics of the cache use {@link MemoizingCache#memoize} with a cache created by its
+     * builder.
+     *
+     * @param maximumSize    the maximum number of cached return values
+     * @param evictionPolicy the policy choosing the return value to be evicted
+     * @return the memoizing {@code Function4}
+     * @throws IllegalArgumentException if the maximum size is not positive
+     */
+    default Function4<T1, T2, T3, T4, R> memoize(int maximumSize, EvictionPolicy evictionPolicy)
+    {
+        return MemoizingCache.builder().maximumSize(maximumSize).evictionPolicy(evictionPolicy)
+            .<Object, R>build().memoize(this);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,493 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.helpers;
+
+import net.objectzoo.delegates.Function;
+import net.objectzoo.delegates.Function2;
+import net.objectzoo.delegates.Function3;
+import net.objectzoo.delegates.Function4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * A size-bounded cache of the return values of functions. The cache holds at most the configured
+ * maximum number of entries and evicts entries according to its {@link EvictionPolicy} when more
+ * entries are added. Optionally entries expire after a time to live since they have been added.
+ * <p>
+ * A {@code MemoizingCache} memoizes functions with up to four parameters using the
+ * {@code memoize} methods. The parameters of an invocation form the key of the invocation, so the
+ * memoized functions should be free of side effects and their parameters should implement
+ * {@link Object#equals(Object)} and {@link Object#hashCode()}. Multiple parameters are combined
+ * into a single key object holding the parameters and their precomputed hash code. {@code null}
+ * parameters and return values are supported.
+ * <p>
+ * The cache is thread-safe and looks up entries without locking. Concurrent invocations with
+ * equal parameters missing the cache may invoke the function more than once, the last return
+ * value is kept. The cache counts its hits, misses and evictions.
+ * <p>
+ * The eviction order is approximate. Each entry is stamped with the number of entries added so far
+ * when it is added and, with {@link EvictionPolicy#LRU}, when it is hit, so entries hit between
+ * the same two additions are equally recent. When an addition exceeds the maximum size, a single
+ * pass over the entries evicts the entries with the oldest stamps, a tenth of the maximum size in
+ * addition to the excess entries, which keeps the cost of the pass low. While other entries are
+ * added concurrently to an eviction the cache may briefly exceed its maximum size.
+ *
+ * @param <K> the type of the keys used with {@link #get(Object, java.util.function.Function)}
+ * @param <V> the type of the cached values
+ * @author tilmann
+ */
+public final class MemoizingCache<K, V>
+{
+    private static final Object NULL_KEY = new Object();
+
+    private final int maximumSize;
+
+    private final long timeToLiveNanos;
+
+    private final LongSupplier ticker;
+
+    private final boolean renewOnHit;
+
+    private final ConcurrentMap<Object, CacheEntry<V>> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong additions = new AtomicLong();
+
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    private MemoizingCache(Builder builder)
+    {
+        this.maximumSize = builder.maximumSize;
+        this.timeToLiveNanos = builder.timeToLiveNanos;
+        this.ticker = builder.ticker;
+        this.renewOnHit = builder.evictionPolicy == EvictionPolicy.LRU;
+    }
+
+    /**
+     * Creates a new {@link Builder} initialized with the default values.
+     *
+     * @return the new {@code Builder}
+     */
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * Retrieves the value cached for the given key. If there is none the given loader is invoked
+     * with the key and its return value is cached.
+     *
+     * @param key    the key of the value, may be {@code null}
+     * @param loader computes the value of the key if it is not cached
+     * @return the value of the key
+     */
+    public V get(K key, java.util.function.Function<? super K, ? extends V> loader)
+    {
+        Object entryKey = key != null ? key : NULL_KEY;
+        long now = timeToLiveNanos > 0 ? ticker.getAsLong() : 0;
+        CacheEntry<V> entry = entries.get(entryKey);
+        if (entry != null && (timeToLiveNanos <= 0 || now - entry.created < timeToLiveNanos))
+        {
+            hits.incrementAndGet();
+            if (renewOnHit)
+            {
+                // odd stamps order hits after the addition of the same even stamp
+                long stamp = additions.get() * 2 + 1;
+                if (entry.stamp != stamp)
+                {
+                    entry.stamp = stamp;
+                }
+            }
+            return entry.value;
+        }
+        misses.incrementAndGet();
+        V value = loader.apply(key);
+        entry = new CacheEntry<>(value, timeToLiveNanos > 0 ? ticker.getAsLong() : 0,
+            additions.incrementAndGet() * 2);
+        entries.put(entryKey, entry);
+        evictIfNecessary();
+        return value;
+    }
+
+    private void evictIfNecessary()
+    {
+        if (entries.size() <= maximumSize || !evicting.compareAndSet(false, true))
+        {
+            return;
+        }
+        try
+        {
+            List<CacheEntry<V>> candidates = new ArrayList<>(entries.size());
+            List<Object> candidateKeys = new ArrayList<>(entries.size());
+            for (Map.Entry<Object, CacheEntry<V>> entry : entries.entrySet())
+            {
+                candidateKeys.add(entry.getKey());
+                candidates.add(entry.getValue());
+            }
+            int count = Math.min(candidates.size() - 1,
+                candidates.size() - maximumSize + maximumSize / 10);
+            if (count <= 0)
+            {
+                return;
+            }
+            // the stamps are copied since hits renew them while they are sorted
+            long[] stamps = new long[candidates.size()];
+            for (int index = 0; index < stamps.length; index++)
+            {
+                stamps[index] = candidates.get(index).stamp;
+            }
+            long[] sorted = stamps.clone();
+            Arrays.sort(sorted);
+            long threshold = sorted[count - 1];
+            for (int index = 0; index < stamps.length && count > 0; index++)
+            {
+                if (stamps[index] <= threshold
+                    && entries.remove(candidateKeys.get(index), candidates.get(index)))
+                {
+                    evictions.incrementAndGet();
+                    count--;
+                }
+            }
+        }
+        finally
+        {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * Memoizes the given {@link java.util.function.Function} using this cache. The parameter of an
+     * invocation is its key.
+     *
+     * @param <T>      the type of the function's parameter
+     * @param function the function to be memoized
+     * @return the memoizing function
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends K> Function<T, V> memoize(
+        java.util.function.Function<? super T, ? extends V> function)
+    {
+        Objects.requireNonNull(function);
+        // the loader is only ever applied to the parameter of the invocation
+        java.util.function.Function<? super K, ? extends V> loader =
+            (java.util.function.Function<? super K, ? extends V>) function;
+        return parameter -> get(parameter, loader);
+    }
+
+    /**
+     * Memoizes the given {@link BiFunction} using this cache. Both parameters of an invocation
+     * form its key.
+     *
+     * @param <T1>     the type of the function's first parameter
+     * @param <T2>     the type of the function's second parameter
+     * @param function the function to be memoized
+     * @return the memoizing function
+     */
+    @SuppressWarnings("unchecked")
+    public <T1, T2> Function2<T1, T2, V> memoize(
+        BiFunction<? super T1, ? super T2, ? extends V> function)
+    {
+        Objects.requireNonNull(function);
+        java.util.function.Function<Key, V> loader =
+            key -> function.apply((T1) key.parameter1, (T2) key.parameter2);
+        return (parameter1, parameter2) ->
+            lookup(new Key(parameter1, parameter2, null, null), loader);
+    }
+
+    /**
+     * Memoizes the given {@link Function3} using this cache. All parameters of an invocation form
+     * its key.
+     *
+     * @param <T1>     the type of the function's first parameter
+     * @param <T2>     the type of the function's second parameter
+     * @param <T3>     the type of the function's third parameter
+     * @param function the function to be memoized
+     * @return the memoizing function
+     */
+    @SuppressWarnings("unchecked")
+    public <T1, T2, T3> Function3<T1, T2, T3, V> memoize(
+        Function3<? super T1, ? super T2, ? super T3, ? extends V> function)
+    {
+        Objects.requireNonNull(function);
+        java.util.function.Function<Key, V> loader = key -> function.apply((T1) key.parameter1,
+            (T2) key.parameter2, (T3) key.parameter3);
+        return (parameter1, parameter2, parameter3) ->
+            lookup(new Key(parameter1, parameter2, parameter3, null), loader);
+    }
+
+    /**
+     * Memoizes the given {@link Function4} using this cache. All parameters of an invocation form
+     * its key.
+     *
+     * @param <T1>     the type of the function's first parameter
+     * @param <T2>     the type of the function's second parameter
+     * @param <T3>     the type of the function's third parameter
+     * @param <T4>     the type of the function's fourth parameter
+     * @param function the function to be memoized
+     * @return the memoizing function
+     */
+    @SuppressWarnings("unchecked")
+    public <T1, T2, T3, T4> Function4<T1, T2, T3, T4, V> memoize(
+        Function4<? super T1, ? super T2, ? super T3, ? super T4, ? extends V> function)
+    {
+        Objects.requireNonNull(function);
+        java.util.function.Function<Key, V> loader = key -> function.apply((T1) key.parameter1,
+            (T2) key.parameter2, (T3) key.parameter3, (T4) key.parameter4);
+        return (parameter1, parameter2, parameter3, parameter4) ->
+            lookup(new Key(parameter1, parameter2, parameter3, parameter4), loader);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V lookup(Key key, java.util.function.Function<Key, V> loader)
+    {
+        return ((MemoizingCache<Key, V>) this).get(key, loader);
+    }
+
+    /**
+     * Removes all entries from this cache. The statistics are retained.
+     */
+    public void invalidateAll()
+    {
+        entries.clear();
+    }
+
+    /**
+     * @return the current number of entries in this cache, including expired entries not yet
+     * removed
+     */
+    public int size()
+    {
+        return entries.size();
+    }
+
+    /**
+     * @return the maximum number of entries in this cache
+     */
+    public int getMaximumSize()
+    {
+        return maximumSize;
+    }
+
+    /**
+     * @return the number of lookups that found a cached value
+     */
+    public long getHitCount()
+    {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of lookups that did not find a cached value, including expired values
+     */
+    public long getMissCount()
+    {
+        return misses.get();
+    }
+
+    /**
+     * @return the number of entries evicted because the maximum size has been reached
+     */
+    public long getEvictionCount()
+    {
+        return evictions.get();
+    }
+
+    /**
+     * @return the ratio of the lookups that found a cached value, {@code 0} if there has been no
+     * lookup
+     */
+    public double getHitRate()
+    {
+        long hits = this.hits.get();
+        long lookups = hits + misses.get();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    private static final class CacheEntry<V>
+    {
+        final V value;
+
+        final long created;
+
+        volatile long stamp;
+
+        CacheEntry(V value, long created, long stamp)
+        {
+            this.value = value;
+            this.created = created;
+            this.stamp = stamp;
+        }
+    }
+
+    private static final class Key
+    {
+        final Object parameter1;
+
+        final Object parameter2;
+
+        final Object parameter3;
+
+        final Object parameter4;
+
+        private final int hash;
+
+        Key(Object parameter1, Object parameter2, Object parameter3, Object parameter4)
+        {
+            this.parameter1 = parameter1;
+            this.parameter2 = parameter2;
+            this.parameter3 = parameter3;
+            this.parameter4 = parameter4;
+            int hash = Objects.hashCode(parameter1);
+            hash = 31 * hash + Objects.hashCode(parameter2);
+            hash = 31 * hash + Objects.hashCode(parameter3);
+            this.hash = 31 * hash + Objects.hashCode(parameter4);
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj)
+            {
+                return true;
+            }
+            if (!(obj instanceof Key))
+            {
+                return false;
+            }
+            Key other = (Key) obj;
+            return hash == other.hash && Objects.equals(parameter1, other.parameter1)
+                && Objects.equals(parameter2, other.parameter2)
+                && Objects.equals(parameter3, other.parameter3)
+                && Objects.equals(parameter4, other.parameter4);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+    }
+
+    /**
+     * A builder for {@link MemoizingCache}s. It is initialized with the default values, a maximum
+     * size of 1024 entries, the {@link EvictionPolicy#LRU} policy and no time to live.
+     */
+    public static final class Builder
+    {
+        private int maximumSize = 1024;
+
+        private EvictionPolicy evictionPolicy = EvictionPolicy.LRU;
+
+        private long timeToLiveNanos = 0;
+
+        private LongSupplier ticker = System::nanoTime;
+
+        private Builder()
+        {
+        }
+
+        /**
+         * @param maximumSize the maximum number of entries in the cache
+         * @return this builder
+         */
+        public Builder maximumSize(int maximumSize)
+        {
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * @param evictionPolicy the policy choosing the entry to be evicted
+         * @return this builder
+         */
+        public Builder evictionPolicy(EvictionPolicy evictionPolicy)
+        {
+            this.evictionPolicy = Objects.requireNonNull(evictionPolicy);
+            return this;
+        }
+
+        /**
+         * @param timeToLive the time after which an entry expires since it has been added or
+         *                   {@code 0} if entries do not expire
+         * @param unit       the time unit of the time to live
+         * @return this builder
+         */
+        public Builder timeToLive(long timeToLive, TimeUnit unit)
+        {
+            this.timeToLiveNanos = unit.toNanos(timeToLive);
+            return this;
+        }
+
+        /**
+         * @param ticker supplies the current time in nanoseconds used to expire entries
+         * @return this builder
+         */
+        public Builder ticker(LongSupplier ticker)
+        {
+            this.ticker = Objects.requireNonNull(ticker);
+            return this;
+        }
+
+        /**
+         * Creates the {@link MemoizingCache} from the values of this builder.
+         *
+         * @param <K> the type of the keys
+         * @param <V> the type of the cached values
+         * @return the new cache
+         * @throws IllegalArgumentException if the values do not describe a valid cache
+         */
+        public <K, V> MemoizingCache<K, V> build() throws IllegalArgumentException
+        {
+            if (maximumSize < 1)
+            {
+                throw new IllegalArgumentException("Invalid maximum size: " + maximumSize + ".");
+            }
+            if (timeToLiveNanos < 0)
+            {
+                throw new IllegalArgumentException(
+                    "Invalid time to live: " + timeToLiveNanos + "ns.");
+            }
+            return new MemoizingCache<>(this);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * This package contains helper classes used to implement delegates.
+ */
+package net.objectzoo.delegates.helpers;
\ No newline at end of file
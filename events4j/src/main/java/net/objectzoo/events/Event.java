@@ -56,4 +56,23 @@ public interface Event<T>
 	 *        the {@link Consumer} to be unsubscribed
 	 */
 	public void unsubscribe(Consumer<? super T> consumer) throws IllegalArgumentException;
+	
+	/**
+	 * Subscribe the given {@link Consumer} to this {@code Event} returning a {@link Subscription}
+	 * that unsubscribes it again when closed.
+	 * <p>
+	 * The default implementation subscribes using {@link #subscribe(Consumer)} and closes the
+	 * subscription using {@link #unsubscribe(Consumer)}. Implementations may override this to
+	 * remove the subscriber without searching for it.
+	 * 
+	 * @param consumer
+	 *        the {@link Consumer} to be invoked when this {@code Event} signals
+	 * @return the {@link Subscription} of the given {@link Consumer}
+	 */
+	public default Subscription subscribeCloseable(Consumer<? super T> consumer)
+		throws IllegalArgumentException
+	{
+		subscribe(consumer);
+		return () -> unsubscribe(consumer);
+	}
 }
@@ -54,4 +54,22 @@ public interface Event0
 	 *        the {@link Action0} to be unsubscribed
 	 */
 	public void unsubscribe(Action0 action) throws IllegalArgumentException;
+	
+	/**
+	 * Subscribe the given {@link Action0} to this {@code Event0} returning a {@link Subscription}
+	 * that unsubscribes it again when closed.
+	 * <p>
+	 * The default implementation subscribes using {@link #subscribe(Action0)} and closes the
+	 * subscription using {@link #unsubscribe(Action0)}. Implementations may override this to
+	 * remove the subscriber without searching for it.
+	 * 
+	 * @param action
+	 *        the {@link Action0} to be invoked when this {@code Event0} signals
+	 * @return the {@link Subscription} of the given {@link Action0}
+	 */
+	public default Subscription subscribeCloseable(Action0 action) throws IllegalArgumentException
+	{
+		subscribe(action);
+		return () -> unsubscribe(action);
+	}
 }
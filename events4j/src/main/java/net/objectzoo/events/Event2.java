@@ -61,4 +61,24 @@ public interface Event2<T1, T2>
 	 */
 	public void unsubscribe(BiConsumer<? super T1, ? super T2> biConsumer)
 		throws IllegalArgumentException;
+	
+	/**
+	 * Subscribe the given {@link BiConsumer} to this {@code Event2} returning a
+	 * {@link Subscription} that unsubscribes it again when closed.
+	 * <p>
+	 * The default implementation subscribes using {@link #subscribe(BiConsumer)} and closes the
+	 * subscription using {@link #unsubscribe(BiConsumer)}. Implementations may override this to
+	 * remove the subscriber without searching for it.
+	 * 
+	 * @param biConsumer
+	 *        the {@link BiConsumer} to be invoked when this {@code Event2} signals
+	 * @return the {@link Subscription} of the given {@link BiConsumer}
+	 */
+	public default Subscription subscribeCloseable(
+		BiConsumer<? super T1, ? super T2> biConsumer)
+		throws IllegalArgumentException
+	{
+		subscribe(biConsumer);
+		return () -> unsubscribe(biConsumer);
+	}
 }
@@ -62,4 +62,24 @@ public interface Event3<T1, T2, T3>
 	 */
 	public void unsubscribe(Action3<? super T1, ? super T2, ? super T3> action)
 		throws IllegalArgumentException;
+	
+	/**
+	 * Subscribe the given {@link Action3} to this {@code Event3} returning a
+	 * {@link Subscription} that unsubscribes it again when closed.
+	 * <p>
+	 * The default implementation subscribes using {@link #subscribe(Action3)} and closes the
+	 * subscription using {@link #unsubscribe(Action3)}. Implementations may override this to
+	 * remove the subscriber without searching for it.
+	 * 
+	 * @param action
+	 *        the {@link Action3} to be invoked when this {@code Event3} signals
+	 * @return the {@link Subscription} of the given {@link Action3}
+	 */
+	public default Subscription subscribeCloseable(
+		Action3<? super T1, ? super T2, ? super T3> action)
+		throws IllegalArgumentException
+	{
+		subscribe(action);
+		return () -> unsubscribe(action);
+	}
 }
@@ -64,4 +64,24 @@ public interface Event4<T1, T2, T3, T4>
 	 */
 	public void unsubscribe(Action4<? super T1, ? super T2, ? super T3, ? super T4> action)
 		throws IllegalArgumentException;
+	
+	/**
+	 * Subscribe the given {@link Action4} to this {@code Event4} returning a {@link Subscription}
+	 * that unsubscribes it again when closed.
+	 * <p>
+	 * The default implementation subscribes using {@link #subscribe(Action4)} and closes the
+	 * subscription using {@link #unsubscribe(Action4)}. Implementations may override this to
+	 * remove the subscriber without searching for it.
+	 * 
+	 * @param action
+	 *        the {@link Action4} to be invoked when this {@code Event4} signals
+	 * @return the {@link Subscription} of the given {@link Action4}
+	 */
+	public default Subscription subscribeCloseable(
+		Action4<? super T1, ? super T2, ? super T3, ? super T4> action)
+		throws IllegalArgumentException
+	{
+		subscribe(action);
+		return () -> unsubscribe(action);
+	}
 }
@@ -0,0 +1,43 @@
+/*
+ * The MIT License
+ * 
+ * Copyright (C) 2011 Tilmann Kuhn
+ * 
+ * http://www.object-zoo.net
+ * 
+ * mailto:events4j@object-zoo.net
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.objectzoo.events;
+
+/**
+ * A {@code Subscription} represents the subscription of a single subscriber to an event. It is
+ * returned by the {@code subscribeCloseable} methods of the event interfaces and can be closed to
+ * unsubscribe the subscriber again, for example using a try-with-resources statement.
+ * 
+ * @author tilmann
+ */
+public interface Subscription extends AutoCloseable
+{
+	/**
+	 * Unsubscribe the subscriber of this {@code Subscription} from its event. Closing a
+	 * {@code Subscription} that has already been closed has no effect for the event implementations
+	 * of this API.
+	 */
+	@Override
+	public void close();
+}
@@ -0,0 +1,742 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.events.helpers;
+
+import net.objectzoo.delegates.Action0;
+import net.objectzoo.delegates.Action3;
+import net.objectzoo.delegates.Action4;
+import net.objectzoo.events.Subscription;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * This helper class is a registry that is used by the event distributors to store the subscribers
+ * that subscribed for the event.
+ * <p>
+ * In contrast to {@link EventSubscriberRegistry} the subscribers are kept in an array that is
+ * published to the dispatching threads as a snapshot. Dispatching an event reads the current
+ * snapshot once and iterates it with an indexed loop, so the typed {@code dispatch} methods neither
+ * block nor allocate. Only modifications of the registry are synchronized among each other.
+ * <p>
+ * Subscribers added with {@link #subscribeCloseable(Object)} are removed in constant time by
+ * closing the returned {@link Subscription}. Removed subscribers leave an empty slot behind that is
+ * skipped by the dispatch loop. The slots are compacted once they make up half of the array.
+ * <p>
+ * Most registries hold only very few subscribers. The published snapshot therefore adapts to the
+ * number of subscribers: an empty registry publishes a shared empty snapshot, and one or two
+ * subscribers are published in dedicated fields of the snapshot, which are invoked without
+ * iterating the array. Only larger registries are dispatched by the array loop.
+ * <p>
+ * The {@code dispatch} methods cast the subscribers to the delegate type matching their number of
+ * parameters. They must only be used if {@code SubscriberType} is that delegate type.
+ *
+ * @param <SubscriberType> the type of subscriber this registry holds
+ * @author tilmann
+ */
+public class ArrayEventSubscriberRegistry<SubscriberType>
+{
+    private static final int MIN_CAPACITY = 4;
+
+    private static final int MIN_COMPACTION_SIZE = 8;
+
+    private static final Snapshot EMPTY = new Snapshot(new Object[0], 0, null, null);
+
+    /*
+     * The subscriber slots are modified under the lock of this registry while dispatching threads
+     * read the published snapshot without any lock. This is safe because of the following
+     * invariant: a dispatching thread never reads beyond the size of the snapshot it has read
+     * from the volatile field, and slots below that size are only ever overwritten with an empty
+     * slot. Slots at or beyond the published size may be written in place, everything else
+     * requires copying the slots into a new array that is published as a new snapshot.
+     */
+    volatile Snapshot snapshot = EMPTY;
+
+    private Object[] elements = EMPTY.elements;
+
+    private Registration[] registrations = new Registration[0];
+
+    private int size;
+
+    private int removed;
+
+    /**
+     * Adds the given subscriber to this registry if it is not already subscribed. This is checked
+     * using the {@link Object#equals(Object)} of the subscriber.
+     *
+     * @param subscriber the subscriber to be added
+     * @throws NullPointerException if the subscriber is {@code null}
+     */
+    public void subscribe(SubscriberType subscriber) throws NullPointerException
+    {
+        Objects.requireNonNull(subscriber);
+
+        addSubscriber(subscriber);
+    }
+
+    private synchronized void addSubscriber(SubscriberType subscriber)
+    {
+        if (indexOf(subscriber) < 0)
+        {
+            append(subscriber, null);
+            publish();
+        }
+    }
+
+    /**
+     * Adds the given subscriber to this registry without checking if it is already subscribed and
+     * returns a {@link Subscription} that removes exactly this subscription again when closed. Both
+     * adding and removing take constant amortized time regardless of the number of subscribers.
+     *
+     * @param subscriber the subscriber to be added
+     * @return the {@link Subscription} of the given subscriber
+     * @throws NullPointerException if the subscriber is {@code null}
+     */
+    public Subscription subscribeCloseable(SubscriberType subscriber)
+        throws NullPointerException
+    {
+        Objects.requireNonNull(subscriber);
+
+        Registration registration = new Registration(this);
+        addRegistration(subscriber, registration);
+        return registration;
+    }
+
+    private synchronized void addRegistration(SubscriberType subscriber,
+                                              Registration registration)
+    {
+        append(subscriber, registration);
+        publish();
+    }
+
+    /**
+     * Removes the given subscriber from this registry.
+     *
+     * @param subscriber the subscriber to be removed
+     * @throws NullPointerException if the subscriber is {@code null}
+     */
+    public void unsubscribe(SubscriberType subscriber) throws NullPointerException
+    {
+        Objects.requireNonNull(subscriber);
+
+        removeSubscriber(subscriber);
+    }
+
+    private synchronized void removeSubscriber(SubscriberType subscriber)
+    {
+        int index = indexOf(subscriber);
+        if (index >= 0)
+        {
+            remove(index);
+            publish();
+        }
+    }
+
+    /**
+     * Adds all given subscribers that are not already subscribed to this registry. This is checked
+     * using the {@link Object#equals(Object)} and {@link Object#hashCode()} of the subscribers. The
+     * subscribers are published at once, so a concurrent dispatch invokes either none or all of
+     * them.
+     *
+     * @param subscribers the subscribers to be added
+     * @throws NullPointerException if the collection or any of its subscribers is {@code null}
+     */
+    public void subscribeAll(Collection<? extends SubscriberType> subscribers)
+        throws NullPointerException
+    {
+        requireNonNullElements(subscribers);
+
+        addSubscribers(subscribers);
+    }
+
+    private synchronized void addSubscribers(Collection<? extends SubscriberType> subscribers)
+    {
+        Set<Object> known = new HashSet<>();
+        for (int i = 0; i < size; i++)
+        {
+            Object subscriber = unwrap(elements[i]);
+            if (subscriber != null)
+            {
+                known.add(subscriber);
+            }
+        }
+        List<Object> added = new ArrayList<>(subscribers.size());
+        for (Object subscriber : subscribers)
+        {
+            if (known.add(subscriber))
+            {
+                added.add(subscriber);
+            }
+        }
+        if (!added.isEmpty())
+        {
+            compact(capacityFor(size - removed + added.size()), null);
+            for (Object subscriber : added)
+            {
+                append(subscriber, null);
+            }
+            publish();
+        }
+    }
+
+    /**
+     * Removes all given subscribers from this registry. This is checked using the
+     * {@link Object#equals(Object)} and {@link Object#hashCode()} of the subscribers. The removal
+     * is published at once, so a concurrent dispatch invokes either all or none of them.
+     *
+     * @param subscribers the subscribers to be removed
+     * @throws NullPointerException if the collection or any of its subscribers is {@code null}
+     */
+    public void unsubscribeAll(Collection<? extends SubscriberType> subscribers)
+        throws NullPointerException
+    {
+        requireNonNullElements(subscribers);
+
+        removeSubscribers(new HashSet<Object>(subscribers));
+    }
+
+    private synchronized void removeSubscribers(Set<Object> subscribers)
+    {
+        int matches = 0;
+        for (int i = 0; i < size; i++)
+        {
+            Object subscriber = unwrap(elements[i]);
+            if (subscriber != null && subscribers.contains(subscriber))
+            {
+                matches++;
+            }
+        }
+        if (matches > 0)
+        {
+            compact(capacityFor(size - removed - matches), subscribers);
+            publish();
+        }
+    }
+
+    /**
+     * Replaces all subscribers of this registry with the given subscribers. Duplicates are checked
+     * using the {@link Object#equals(Object)} and {@link Object#hashCode()} of the subscribers. All
+     * {@link Subscription}s of the replaced subscribers are closed. The new subscribers are
+     * published at once, so a concurrent dispatch invokes either the old or the new subscribers.
+     *
+     * @param subscribers the subscribers replacing the current ones
+     * @throws NullPointerException if the collection or any of its subscribers is {@code null}
+     */
+    public void replaceSubscribers(Collection<? extends SubscriberType> subscribers)
+        throws NullPointerException
+    {
+        requireNonNullElements(subscribers);
+
+        setSubscribers(new LinkedHashSet<Object>(subscribers));
+    }
+
+    private synchronized void setSubscribers(Set<Object> subscribers)
+    {
+        for (int i = 0; i < size; i++)
+        {
+            if (registrations[i] != null)
+            {
+                registrations[i].index = -1;
+            }
+        }
+        clear();
+        if (!subscribers.isEmpty())
+        {
+            elements = new Object[capacityFor(subscribers.size())];
+            registrations = new Registration[elements.length];
+            for (Object subscriber : subscribers)
+            {
+                append(subscriber, null);
+            }
+        }
+        publish();
+    }
+
+    private static void requireNonNullElements(Collection<?> subscribers)
+    {
+        Objects.requireNonNull(subscribers);
+        for (Object subscriber : subscribers)
+        {
+            Objects.requireNonNull(subscriber);
+        }
+    }
+
+    private synchronized void removeRegistration(Registration registration)
+    {
+        if (registration.index >= 0)
+        {
+            remove(registration.index);
+            publish();
+        }
+    }
+
+    private int indexOf(Object subscriber)
+    {
+        for (int i = 0; i < size; i++)
+        {
+            if (subscriber.equals(unwrap(elements[i])))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Appends the given subscriber behind the last slot. As long as the array has unused capacity
+     * this writes to the array that is already published. This is safe since the published
+     * snapshot does not cover the slot that is written: dispatching threads bound their loop by
+     * the size of the snapshot, which only covers the new slot once it is published afterwards.
+     */
+    private void append(Object subscriber, Registration registration)
+    {
+        if (size == elements.length)
+        {
+            compact(capacityFor(size - removed + 1), null);
+        }
+        // in-place write beyond the published size, not visible before the next publish
+        elements[size] = wrap(subscriber);
+        registrations[size] = registration;
+        if (registration != null)
+        {
+            registration.index = size;
+        }
+        size++;
+    }
+
+    /**
+     * Empties the given slot in place. Dispatching threads running concurrently may or may not
+     * still see the removed subscriber, all subsequent dispatches skip it. This is the only write
+     * into a slot covered by the published size, and it only ever stores an empty slot, which
+     * every dispatch loop skips.
+     */
+    private void remove(int index)
+    {
+        Registration registration = registrations[index];
+        if (registration != null)
+        {
+            registration.index = -1;
+            registrations[index] = null;
+        }
+        // in-place write below the published size, only ever an empty slot
+        elements[index] = emptySlot();
+        removed++;
+
+        if (removed == size)
+        {
+            clear();
+        }
+        else if (size >= MIN_COMPACTION_SIZE && removed >= size / 2)
+        {
+            compact(capacityFor(size - removed), null);
+        }
+    }
+
+    /**
+     * Removes all slots whose subscriber is no longer available from the published subscribers.
+     */
+    synchronized void removeEmptySlots()
+    {
+        compact(capacityFor(size - removed), null);
+        publish();
+    }
+
+    /**
+     * Copies all subscribers into a new array of the given capacity omitting empty slots and the
+     * given excluded subscribers, if any. The new array is never visible to dispatching threads
+     * before it is published, so the published array is never reordered in place.
+     */
+    private void compact(int capacity, Set<Object> excluded)
+    {
+        Object[] newElements = new Object[capacity];
+        Registration[] newRegistrations = new Registration[capacity];
+        int newSize = 0;
+        for (int i = 0; i < size; i++)
+        {
+            Object subscriber = unwrap(elements[i]);
+            Registration registration = registrations[i];
+            if (subscriber == null || excluded != null && excluded.contains(subscriber))
+            {
+                if (registration != null)
+                {
+                    registration.index = -1;
+                }
+                continue;
+            }
+            newElements[newSize] = elements[i];
+            newRegistrations[newSize] = registration;
+            if (registration != null)
+            {
+                registration.index = newSize;
+            }
+            newSize++;
+        }
+        elements = newElements;
+        registrations = newRegistrations;
+        size = newSize;
+        removed = 0;
+    }
+
+    private void clear()
+    {
+        elements = EMPTY.elements;
+        registrations = new Registration[0];
+        size = 0;
+        removed = 0;
+    }
+
+    private static int capacityFor(int count)
+    {
+        return Math.max(MIN_CAPACITY, count + (count >> 1));
+    }
+
+    /**
+     * Returns the value stored in the slot of the given subscriber. The strong registry stores the
+     * subscriber itself.
+     */
+    Object wrap(Object subscriber)
+    {
+        return subscriber;
+    }
+
+    /**
+     * Returns the subscriber stored in the given slot value or {@code null} if the slot is empty.
+     */
+    Object unwrap(Object element)
+    {
+        return element;
+    }
+
+    /**
+     * Returns the value stored in the slot of a removed subscriber.
+     */
+    Object emptySlot()
+    {
+        return null;
+    }
+
+    private void publish()
+    {
+        int count = size - removed;
+        if (count == 0)
+        {
+            snapshot = EMPTY;
+        }
+        else if (count <= 2)
+        {
+            Object emptySlot = emptySlot();
+            Object first = null;
+            Object second = null;
+            for (int i = 0; i < size && second == null; i++)
+            {
+                if (elements[i] != emptySlot)
+                {
+                    if (first == null)
+                    {
+                        first = elements[i];
+                    }
+                    else
+                    {
+                        second = elements[i];
+                    }
+                }
+            }
+            snapshot = new Snapshot(elements, size, first, second);
+        }
+        else
+        {
+            snapshot = new Snapshot(elements, size, null, null);
+        }
+    }
+
+    /**
+     * Invokes the given {@link Consumer} for all subscribers in this registry
+     *
+     * @param subscriberConsumer the consumer to be invoked
+     */
+    @SuppressWarnings("unchecked")
+    public void callWithEachSubscriber(Consumer<SubscriberType> subscriberConsumer)
+    {
+        Snapshot snapshot = this.snapshot;
+        Object first = snapshot.first;
+        if (first != null)
+        {
+            subscriberConsumer.accept((SubscriberType) first);
+            Object second = snapshot.second;
+            if (second != null)
+            {
+                subscriberConsumer.accept((SubscriberType) second);
+            }
+            return;
+        }
+        Object[] elements = snapshot.elements;
+        for (int i = 0, size = snapshot.size; i < size; i++)
+        {
+            Object subscriber = elements[i];
+            if (subscriber != null)
+            {
+                subscriberConsumer.accept((SubscriberType) subscriber);
+            }
+        }
+    }
+
+    /**
+     * Starts all subscribers in this registry, which must be {@link Action0}s.
+     */
+    public void dispatch()
+    {
+        Snapshot snapshot = this.snapshot;
+        Object first = snapshot.first;
+        if (first != null)
+        {
+            ((Action0) first).start();
+            Object second = snapshot.second;
+            if (second != null)
+            {
+                ((Action0) second).start();
+            }
+            return;
+        }
+        Object[] elements = snapshot.elements;
+        for (int i = 0, size = snapshot.size; i < size; i++)
+        {
+            Object subscriber = elements[i];
+            if (subscriber != null)
+            {
+                ((Action0) subscriber).start();
+            }
+        }
+    }
+
+    /**
+     * Invokes all subscribers in this registry, which must be {@link Consumer}s, with the given
+     * parameter.
+     *
+     * @param parameter the parameter to invoke the subscribers with
+     * @param <T>       the type of the parameter
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void dispatch(T parameter)
+    {
+        Snapshot snapshot = this.snapshot;
+        Object first = snapshot.first;
+        if (first != null)
+        {
+            ((Consumer<? super T>) first).accept(parameter);
+            Object second = snapshot.second;
+            if (second != null)
+            {
+                ((Consumer<? super T>) second).accept(parameter);
+            }
+            return;
+        }
+        Object[] elements = snapshot.elements;
+        for (int i = 0, size = snapshot.size; i < size; i++)
+        {
+            Object subscriber = elements[i];
+            if (subscriber != null)
+            {
+                ((Consumer<? super T>) subscriber).accept(parameter);
+            }
+        }
+    }
+
+    /**
+     * Invokes all subscribers in this registry, which must be {@link BiConsumer}s, with the given
+     * parameters.
+     *
+     * @param parameter1 the first parameter to invoke the subscribers with
+     * @param parameter2 the second parameter to invoke the subscribers with
+     * @param <T1>       the type of the first parameter
+     * @param <T2>       the type of the second parameter
+     */
+    @SuppressWarnings("unchecked")
+    public <T1, T2> void dispatch(T1 parameter1, T2 parameter2)
+    {
+        Snapshot snapshot = this.snapshot;
+        Object first = snapshot.first;
+        if (first != null)
+        {
+            ((BiConsumer<? super T1, ? super T2>) first).accept(parameter1, parameter2);
+            Object second = snapshot.second;
+            if (second != null)
+            {
+                ((BiConsumer<? super T1, ? super T2>) second).accept(parameter1, parameter2);
+            }
+            return;
+        }
+        Object[] elements = snapshot.elements;
+        for (int i = 0, size = snapshot.size; i < size; i++)
+        {
+            Object subscriber = elements[i];
+            if (subscriber != null)
+            {
+                ((BiConsumer<? super T1, ? super T2>) subscriber).accept(parameter1, parameter2);
+            }
+        }
+    }
+
+    /**
+     * Invokes all subscribers in this registry, which must be {@link Action3}s, with the given
+     * parameters.
+     *
+     * @param parameter1 the first parameter to invoke the subscribers with
+     * @param parameter2 the second parameter to invoke the subscribers with
+     * @param parameter3 the third parameter to invoke the subscribers with
+     * @param <T1>       the type of the first parameter
+     * @param <T2>       the type of the second parameter
+     * @param <T3>       the type of the third parameter
+     */
+    @SuppressWarnings("unchecked")
+    public <T1, T2, T3> void dispatch(T1 parameter1, T2 parameter2, T3 parameter3)
+    {
+        Snapshot snapshot = this.snapshot;
+        Object first = snapshot.first;
+        if (first != null)
+        {
+            ((Action3<? super T1, ? super T2, ? super T3>) first).accept(parameter1,
+                parameter2, parameter3);
+            Object second = snapshot.second;
+            if (second != null)
+            {
+                ((Action3<? super T1, ? super T2, ? super T3>) second).accept(parameter1,
+                    parameter2, parameter3);
+            }
+            return;
+        }
+        Object[] elements = snapshot.elements;
+        for (int i = 0, size = snapshot.size; i < size; i++)
+        {
+            Object subscriber = elements[i];
+            if (subscriber != null)
+            {
+                ((Action3<? super T1, ? super T2, ? super T3>) subscriber).accept(parameter1,
+                    parameter2, parameter3);
+            }
+        }
+    }
+
+    /**
+     * Invokes all subscribers in this registry, which must be {@link Action4}s, with the given
+     * parameters.
+     *
+     * @param parameter1 the first parameter to invoke the subscribers with
+     * @param parameter2 the second parameter to invoke the subscribers with
+     * @param parameter3 the third parameter to invoke the subscribers with
+     * @param parameter4 the fourth parameter to invoke the subscribers with
+     * @param <T1>       the type of the first parameter
+     * @param <T2>       the type of the second parameter
+     * @param <T3>       the type of the third parameter
+     * @param <T4>       the type of the fourth parameter
+     */
+    @SuppressWarnings("unchecked")
+    public <T1, T2, T3, T4> void dispatch(T1 parameter1, T2 parameter2, T3 parameter3,
+                                          T4 parameter4)
+    {
+        Snapshot snapshot = this.snapshot;
+        Object first = snapshot.first;
+        if (first != null)
+        {
+            ((Action4<? super T1, ? super T2, ? super T3, ? super T4>) first).accept(
+                parameter1, parameter2, parameter3, parameter4);
+            Object second = snapshot.second;
+            if (second != null)
+            {
+                ((Action4<? super T1, ? super T2, ? super T3, ? super T4>) second).accept(
+                    parameter1, parameter2, parameter3, parameter4);
+            }
+            return;
+        }
+        Object[] elements = snapshot.elements;
+        for (int i = 0, size = snapshot.size; i < size; i++)
+        {
+            Object subscriber = elements[i];
+            if (subscriber != null)
+            {
+                ((Action4<? super T1, ? super T2, ? super T3, ? super T4>) subscriber).accept(
+                    parameter1, parameter2, parameter3, parameter4);
+            }
+        }
+    }
+
+    /**
+     * The view on the subscriber slots that is published to the dispatching threads.
+     */
+    static final class Snapshot
+    {
+        final Object[] elements;
+
+        final int size;
+
+        /**
+         * The first subscriber if there are only one or two subscribers, otherwise {@code null}.
+         */
+        final Object first;
+
+        /**
+         * The second subscriber if there are exactly two subscribers, otherwise {@code null}.
+         */
+        final Object second;
+
+        Snapshot(Object[] elements, int size, Object first, Object second)
+        {
+            this.elements = elements;
+            this.size = size;
+            this.first = first;
+            this.second = second;
+        }
+    }
+
+    /**
+     * The {@link Subscription} of a subscriber added with {@link #subscribeCloseable(Object)}. It
+     * knows the slot of its subscriber, which is updated whenever the slots are compacted.
+     */
+    private static final class Registration implements Subscription
+    {
+        private final ArrayEventSubscriberRegistry<?> registry;
+
+        int index = -1;
+
+        Registration(ArrayEventSubscriberRegistry<?> registry)
+        {
+            this.registry = registry;
+        }
+
+        @Override
+        public void close()
+        {
+            registry.removeRegistration(this);
+        }
+    }
+}
@@ -25,12 +25,17 @@
 package net.objectzoo.events.helpers;
 
 import java.util.Objects;
-import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
 /**
  * This helper class is a holder that is used by the event callers to store the subscribers that
  * subscribed for the event.
+ * <p>
+ * The subscriber is kept in a single {@link AtomicReference} that is changed using
+ * compare-and-set, so subscribing, unsubscribing and calling the subscriber may be performed by
+ * different threads. Retrieving the subscriber with {@link #getSubscriber()} takes a single
+ * volatile read and does not allocate.
  * 
  * @author tilmann
  * 
@@ -39,7 +44,7 @@ import java.util.function.Consumer;
  */
 public class EventSubscriberHolder<SubscriberType>
 {
-	Optional<SubscriberType> subscriber = Optional.empty();
+	final AtomicReference<SubscriberType> subscriber = new AtomicReference<>();
 	
 	/**
 	 * Subscribe the given subscriber to this Event
@@ -54,13 +59,11 @@ public class EventSubscriberHolder<SubscriberType>
 	{
 		Objects.requireNonNull(subscriber);
 		
-		if (this.subscriber.isPresent())
+		if (!this.subscriber.compareAndSet(null, subscriber))
 		{
 			throw new IllegalStateException(
 				"This event already has a subscriber action and allows only a single one.");
 		}
-		
-		this.subscriber = Optional.of(subscriber);
 	}
 	
 	/**
@@ -77,12 +80,20 @@ public class EventSubscriberHolder<SubscriberType>
 	{
 		Objects.requireNonNull(subscriber);
 		
-		if (this.subscriber.orElse(null) != subscriber)
+		if (!this.subscriber.compareAndSet(subscriber, null))
 		{
 			throw new IllegalStateException("The given action is not subscribed to this event.");
 		}
-		
-		this.subscriber = Optional.empty();
+	}
+	
+	/**
+	 * Returns the current subscriber.
+	 * 
+	 * @return the subscriber or {@code null} if there is no subscriber
+	 */
+	public SubscriberType getSubscriber()
+	{
+		return subscriber.get();
 	}
 	
 	/**
@@ -95,6 +106,10 @@ public class EventSubscriberHolder<SubscriberType>
 	{
 		Objects.requireNonNull(subscriberConsumer);
 		
-		this.subscriber.ifPresent(subscriberConsumer);
+		SubscriberType subscriber = this.subscriber.get();
+		if (subscriber != null)
+		{
+			subscriberConsumer.accept(subscriber);
+		}
 	}
 }
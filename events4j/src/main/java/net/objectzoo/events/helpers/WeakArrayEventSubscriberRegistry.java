@@ -0,0 +1,282 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.events.helpers;
+
+import net.objectzoo.delegates.Action0;
+import net.objectzoo.delegates.Action3;
+import net.objectzoo.delegates.Action4;
+import net.objectzoo.events.Subscription;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Collection;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * This helper class is a {@link ArrayEventSubscriberRegistry} that references its subscribers
+ * weakly. Subscribers that are not referenced anywhere else are garbage collected and no longer
+ * invoked, even if they have never been unsubscribed.
+ * <p>
+ * Since the registry does not keep its subscribers alive, the subscriber has to be referenced by
+ * its owner as long as it should receive events. In particular lambda expressions and method
+ * references that are passed to {@code subscribe} directly are collected at the next garbage
+ * collection.
+ * <p>
+ * Collected subscribers are reported by a {@link ReferenceQueue}. The queue is only drained when
+ * the subscribers are modified and all collected subscribers are removed together in a single
+ * compaction. Dispatching does not touch the queue. Until the next modification a collected
+ * subscriber merely occupies its slot and is skipped, so the registry cannot grow because of
+ * subscribers that have been collected. Each slot is dereferenced once per dispatch since a weakly
+ * referenced subscriber can only be invoked through its reference.
+ * <p>
+ * This class is not available with GWT since the GWT JRE emulation does not provide weak
+ * references.
+ *
+ * @param <SubscriberType> the type of subscriber this registry holds
+ * @author tilmann
+ */
+public class WeakArrayEventSubscriberRegistry<SubscriberType>
+    extends ArrayEventSubscriberRegistry<SubscriberType>
+{
+    private static final Reference<Object> EMPTY_SLOT = new WeakReference<>(null);
+
+    private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+
+    /**
+     * Adds the given subscriber to this registry if it is not already subscribed. This is checked
+     * using the {@link Object#equals(Object)} of the subscriber. The subscriber is referenced
+     * weakly.
+     *
+     * @param subscriber the subscriber to be added
+     * @throws NullPointerException if the subscriber is {@code null}
+     */
+    @Override
+    public void subscribe(SubscriberType subscriber) throws NullPointerException
+    {
+        removeCollected();
+        super.subscribe(subscriber);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The subscriber is referenced weakly. Neither this registry nor the returned
+     * {@link Subscription} keep it alive.
+     */
+    @Override
+    public Subscription subscribeCloseable(SubscriberType subscriber)
+        throws NullPointerException
+    {
+        removeCollected();
+        return super.subscribeCloseable(subscriber);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The subscribers are referenced weakly.
+     */
+    @Override
+    public void subscribeAll(Collection<? extends SubscriberType> subscribers)
+        throws NullPointerException
+    {
+        removeCollected();
+        super.subscribeAll(subscribers);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void unsubscribe(SubscriberType subscriber) throws NullPointerException
+    {
+        removeCollected();
+        super.unsubscribe(subscriber);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void unsubscribeAll(Collection<? extends SubscriberType> subscribers)
+        throws NullPointerException
+    {
+        removeCollected();
+        super.unsubscribeAll(subscribers);
+    }
+
+    /**
+     * Removes all collected subscribers from this registry if the garbage collector reported any.
+     */
+    void removeCollected()
+    {
+        if (collected.poll() != null)
+        {
+            while (collected.poll() != null)
+            {
+                // all collected subscribers are removed by a single compaction
+            }
+            removeEmptySlots();
+        }
+    }
+
+    @Override
+    Object wrap(Object subscriber)
+    {
+        return new WeakReference<>(subscriber, collected);
+    }
+
+    @Override
+    Object unwrap(Object element)
+    {
+        return element == null ? null : ((Reference<?>) element).get();
+    }
+
+    @Override
+    Object emptySlot()
+    {
+        return EMPTY_SLOT;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void callWithEachSubscriber(Consumer<SubscriberType> subscriberConsumer)
+    {
+        Snapshot snapshot = this.snapshot;
+        Object[] elements = snapshot.elements;
+        for (int i = 0, size = snapshot.size; i < size; i++)
+        {
+            Object subscriber = ((Reference<?>) elements[i]).get();
+            if (subscriber != null)
+            {
+                subscriberConsumer.accept((SubscriberType) subscriber);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void dispatch()
+    {
+        Snapshot snapshot = this.snapshot;
+        Object[] elements = snapshot.elements;
+        for (int i = 0, size = snapshot.size; i < size; i++)
+        {
+            Object subscriber = ((Reference<?>) elements[i]).get();
+            if (subscriber != null)
+            {
+                ((Action0) subscriber).start();
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> void dispatch(T parameter)
+    {
+        Snapshot snapshot = this.snapshot;
+        Object[] elements = snapshot.elements;
+        for (int i = 0, size = snapshot.size; i < size; i++)
+        {
+            Object subscriber = ((Reference<?>) elements[i]).get();
+            if (subscriber != null)
+            {
+                ((Consumer<? super T>) subscriber).accept(parameter);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T1, T2> void dispatch(T1 parameter1, T2 parameter2)
+    {
+        Snapshot snapshot = this.snapshot;
+        Object[] elements = snapshot.elements;
+        for (int i = 0, size = snapshot.size; i < size; i++)
+        {
+            Object subscriber = ((Reference<?>) elements[i]).get();
+            if (subscriber != null)
+            {
+                ((BiConsumer<? super T1, ? super T2>) subscriber).accept(parameter1, parameter2);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T1, T2, T3> void dispatch(T1 parameter1, T2 parameter2, T3 parameter3)
+    {
+        Snapshot snapshot = this.snapshot;
+        Object[] elements = snapshot.elements;
+        for (int i = 0, size = snapshot.size; i < size; i++)
+        {
+            Object subscriber = ((Reference<?>) elements[i]).get();
+            if (subscriber != null)
+            {
+                ((Action3<? super T1, ? super T2, ? super T3>) subscriber).accept(parameter1,
+                    parameter2, parameter3);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T1, T2, T3, T4> void dispatch(T1 parameter1, T2 parameter2, T3 parameter3,
+                                          T4 parameter4)
+    {
+        Snapshot snapshot = this.snapshot;
+        Object[] elements = snapshot.elements;
+        for (int i = 0, size = snapshot.size; i < size; i++)
+        {
+            Object subscriber = ((Reference<?>) elements[i]).get();
+            if (subscriber != null)
+            {
+                ((Action4<? super T1, ? super T2, ? super T3, ? super T4>) subscriber).accept(
+                    parameter1, parameter2, parameter3, parameter4);
+            }
+        }
+    }
+}
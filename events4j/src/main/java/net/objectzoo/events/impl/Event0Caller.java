@@ -45,7 +45,11 @@ public class Event0Caller implements Event0Delegate
 	@Override
 	public void start()
 	{
-		subscriberHolder.callWithSubscriber(Action0.startingConsumer());
+		Action0 subscriber = subscriberHolder.getSubscriber();
+		if (subscriber != null)
+		{
+			subscriber.start();
+		}
 	}
 	
 	/**
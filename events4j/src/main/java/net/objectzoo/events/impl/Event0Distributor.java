@@ -25,7 +25,10 @@
 package net.objectzoo.events.impl;
 
 import net.objectzoo.delegates.Action0;
-import net.objectzoo.events.helpers.EventSubscriberRegistry;
+import net.objectzoo.events.Subscription;
+import net.objectzoo.events.helpers.ArrayEventSubscriberRegistry;
+
+import java.util.Collection;
 
 /**
  * The {@code Event0Distributor} is a {@link Event0Delegate} implementation that allows event
@@ -37,7 +40,28 @@ import net.objectzoo.events.helpers.EventSubscriberRegistry;
  */
 public class Event0Distributor implements Event0Delegate
 {
-	EventSubscriberRegistry<Action0> registry = new EventSubscriberRegistry<>();
+	ArrayEventSubscriberRegistry<Action0> registry;
+	
+	/**
+	 * Creates a new {@code Event0Distributor} that references its subscribers strongly.
+	 */
+	public Event0Distributor()
+	{
+		this(new ArrayEventSubscriberRegistry<>());
+	}
+	
+	/**
+	 * Creates a new {@code Event0Distributor} that stores its subscribers in the given registry. A
+	 * {@link net.objectzoo.events.helpers.WeakArrayEventSubscriberRegistry} lets the distributor
+	 * reference its subscribers weakly.
+	 * 
+	 * @param registry
+	 *        the registry to store the subscribers in
+	 */
+	public Event0Distributor(ArrayEventSubscriberRegistry<Action0> registry)
+	{
+		this.registry = registry;
+	}
 	
 	/**
 	 * This {@code invoke} implementation invokes all event subscribers in the order they have been
@@ -46,7 +70,7 @@ public class Event0Distributor implements Event0Delegate
 	@Override
 	public void start()
 	{
-		registry.callWithEachSubscriber(Action0.startingConsumer());
+		registry.dispatch();
 	}
 	
 	/**
@@ -67,4 +91,53 @@ public class Event0Distributor implements Event0Delegate
 		registry.unsubscribe(action);
 	}
 	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Closing the returned {@link Subscription} removes the subscriber in constant time.
+	 */
+	@Override
+	public Subscription subscribeCloseable(Action0 action) throws IllegalArgumentException
+	{
+		return registry.subscribeCloseable(action);
+	}
+	
+	/**
+	 * Subscribe all given {@link Action0}s that are not already subscribed. The subscribers are
+	 * published at once, so a concurrent event distribution invokes either none or all of them.
+	 * 
+	 * @param actions
+	 *        the {@link Action0}s to be subscribed
+	 */
+	public void subscribeAll(Collection<? extends Action0> actions) throws IllegalArgumentException
+	{
+		registry.subscribeAll(actions);
+	}
+	
+	/**
+	 * Unsubscribe all given {@link Action0}s. The removal is published at once, so a concurrent
+	 * event distribution invokes either all or none of them.
+	 * 
+	 * @param actions
+	 *        the {@link Action0}s to be unsubscribed
+	 */
+	public void unsubscribeAll(Collection<? extends Action0> actions)
+		throws IllegalArgumentException
+	{
+		registry.unsubscribeAll(actions);
+	}
+	
+	/**
+	 * Replace all subscribers with the given {@link Action0}s. The new subscribers are published at
+	 * once, so a concurrent event distribution invokes either the old or the new subscribers.
+	 * 
+	 * @param actions
+	 *        the {@link Action0}s to replace the current subscribers
+	 */
+	public void replaceSubscribers(Collection<? extends Action0> actions)
+		throws IllegalArgumentException
+	{
+		registry.replaceSubscribers(actions);
+	}
+	
 }
@@ -26,7 +26,6 @@ package net.objectzoo.events.impl;
 
 import java.util.function.BiConsumer;
 
-import net.objectzoo.delegates.Action2;
 import net.objectzoo.events.helpers.EventSubscriberHolder;
 
 /**
@@ -57,7 +56,11 @@ public class Event2Caller<T1, T2> implements Event2Delegate<T1, T2>
 	@Override
 	public void accept(T1 parameter1, T2 parameter2)
 	{
-		subscriberHolder.callWithSubscriber(Action2.boundAcceptingConsumer(parameter1, parameter2));
+		BiConsumer<? super T1, ? super T2> subscriber = subscriberHolder.getSubscriber();
+		if (subscriber != null)
+		{
+			subscriber.accept(parameter1, parameter2);
+		}
 	}
 	
 	/**
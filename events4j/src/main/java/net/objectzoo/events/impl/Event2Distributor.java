@@ -24,10 +24,11 @@
  */
 package net.objectzoo.events.impl;
 
+import java.util.Collection;
 import java.util.function.BiConsumer;
 
-import net.objectzoo.delegates.Action2;
-import net.objectzoo.events.helpers.EventSubscriberRegistry;
+import net.objectzoo.events.Subscription;
+import net.objectzoo.events.helpers.ArrayEventSubscriberRegistry;
 
 /**
  * The {@code Event2Distributor} is a {@link Event2Delegate} implementation allows that event
@@ -44,7 +45,29 @@ import net.objectzoo.events.helpers.EventSubscriberRegistry;
  */
 public class Event2Distributor<T1, T2> implements Event2Delegate<T1, T2>
 {
-	EventSubscriberRegistry<BiConsumer<? super T1, ? super T2>> registry = new EventSubscriberRegistry<>();
+	ArrayEventSubscriberRegistry<BiConsumer<? super T1, ? super T2>> registry;
+	
+	/**
+	 * Creates a new {@code Event2Distributor} that references its subscribers strongly.
+	 */
+	public Event2Distributor()
+	{
+		this(new ArrayEventSubscriberRegistry<>());
+	}
+	
+	/**
+	 * Creates a new {@code Event2Distributor} that stores its subscribers in the given registry. A
+	 * {@link net.objectzoo.events.helpers.WeakArrayEventSubscriberRegistry} lets the distributor
+	 * reference its subscribers weakly.
+	 * 
+	 * @param registry
+	 *        the registry to store the subscribers in
+	 */
+	public Event2Distributor(
+		ArrayEventSubscriberRegistry<BiConsumer<? super T1, ? super T2>> registry)
+	{
+		this.registry = registry;
+	}
 	
 	/**
 	 * This {@code invoke} implementation invokes all event subscribers in the order they have been
@@ -58,7 +81,7 @@ public class Event2Distributor<T1, T2> implements Event2Delegate<T1, T2>
 	@Override
 	public void accept(T1 parameter1, T2 parameter2)
 	{
-		registry.callWithEachSubscriber(Action2.boundAcceptingConsumer(parameter1, parameter2));
+		registry.dispatch(parameter1, parameter2);
 	}
 	
 	/**
@@ -81,4 +104,55 @@ public class Event2Distributor<T1, T2> implements Event2Delegate<T1, T2>
 		registry.unsubscribe(action);
 	}
 	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Closing the returned {@link Subscription} removes the subscriber in constant time.
+	 */
+	@Override
+	public Subscription subscribeCloseable(BiConsumer<? super T1, ? super T2> action)
+		throws IllegalArgumentException
+	{
+		return registry.subscribeCloseable(action);
+	}
+	
+	/**
+	 * Subscribe all given {@link BiConsumer}s that are not already subscribed. The subscribers are
+	 * published at once, so a concurrent event distribution invokes either none or all of them.
+	 * 
+	 * @param actions
+	 *        the {@link BiConsumer}s to be subscribed
+	 */
+	public void subscribeAll(Collection<? extends BiConsumer<? super T1, ? super T2>> actions)
+		throws IllegalArgumentException
+	{
+		registry.subscribeAll(actions);
+	}
+	
+	/**
+	 * Unsubscribe all given {@link BiConsumer}s. The removal is published at once, so a concurrent
+	 * event distribution invokes either all or none of them.
+	 * 
+	 * @param actions
+	 *        the {@link BiConsumer}s to be unsubscribed
+	 */
+	public void unsubscribeAll(Collection<? extends BiConsumer<? super T1, ? super T2>> actions)
+		throws IllegalArgumentException
+	{
+		registry.unsubscribeAll(actions);
+	}
+	
+	/**
+	 * Replace all subscribers with the given {@link BiConsumer}s. The new subscribers are published
+	 * at once, so a concurrent event distribution invokes either the old or the new subscribers.
+	 * 
+	 * @param actions
+	 *        the {@link BiConsumer}s to replace the current subscribers
+	 */
+	public void replaceSubscribers(Collection<? extends BiConsumer<? super T1, ? super T2>> actions)
+		throws IllegalArgumentException
+	{
+		registry.replaceSubscribers(actions);
+	}
+	
 }
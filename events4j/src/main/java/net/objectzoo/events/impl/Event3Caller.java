@@ -59,7 +59,11 @@ public class Event3Caller<T1, T2, T3> implements Event3Delegate<T1, T2, T3>
 	@Override
 	public void accept(T1 parameter1, T2 parameter2, T3 parameter3)
 	{
-		subscriberHolder.callWithSubscriber(Action3.boundAcceptingConsumer(parameter1, parameter2, parameter3));
+		Action3<? super T1, ? super T2, ? super T3> subscriber = subscriberHolder.getSubscriber();
+		if (subscriber != null)
+		{
+			subscriber.accept(parameter1, parameter2, parameter3);
+		}
 	}
 	
 	/**
@@ -25,7 +25,10 @@
 package net.objectzoo.events.impl;
 
 import net.objectzoo.delegates.Action3;
-import net.objectzoo.events.helpers.EventSubscriberRegistry;
+import net.objectzoo.events.Subscription;
+import net.objectzoo.events.helpers.ArrayEventSubscriberRegistry;
+
+import java.util.Collection;
 
 /**
  * The {@code Event3Distributor} is a {@link Event3Delegate} implementation that allows event
@@ -44,7 +47,29 @@ import net.objectzoo.events.helpers.EventSubscriberRegistry;
  */
 public class Event3Distributor<T1, T2, T3> implements Event3Delegate<T1, T2, T3>
 {
-	EventSubscriberRegistry<Action3<? super T1, ? super T2, ? super T3>> registry = new EventSubscriberRegistry<>();
+	ArrayEventSubscriberRegistry<Action3<? super T1, ? super T2, ? super T3>> registry;
+	
+	/**
+	 * Creates a new {@code Event3Distributor} that references its subscribers strongly.
+	 */
+	public Event3Distributor()
+	{
+		this(new ArrayEventSubscriberRegistry<>());
+	}
+	
+	/**
+	 * Creates a new {@code Event3Distributor} that stores its subscribers in the given registry. A
+	 * {@link net.objectzoo.events.helpers.WeakArrayEventSubscriberRegistry} lets the distributor
+	 * reference its subscribers weakly.
+	 * 
+	 * @param registry
+	 *        the registry to store the subscribers in
+	 */
+	public Event3Distributor(
+		ArrayEventSubscriberRegistry<Action3<? super T1, ? super T2, ? super T3>> registry)
+	{
+		this.registry = registry;
+	}
 	
 	/**
 	 * This {@code invoke} implementation invokes all event subscribers in the order they have been
@@ -60,7 +85,7 @@ public class Event3Distributor<T1, T2, T3> implements Event3Delegate<T1, T2, T3>
 	@Override
 	public void accept(T1 parameter1, T2 parameter2, T3 parameter3)
 	{
-		registry.callWithEachSubscriber(Action3.boundAcceptingConsumer(parameter1, parameter2, parameter3));
+		registry.dispatch(parameter1, parameter2, parameter3);
 	}
 	
 	/**
@@ -83,4 +108,58 @@ public class Event3Distributor<T1, T2, T3> implements Event3Delegate<T1, T2, T3>
 		registry.unsubscribe(action);
 	}
 	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Closing the returned {@link Subscription} removes the subscriber in constant time.
+	 */
+	@Override
+	public Subscription subscribeCloseable(Action3<? super T1, ? super T2, ? super T3> action)
+		throws IllegalArgumentException
+	{
+		return registry.subscribeCloseable(action);
+	}
+	
+	/**
+	 * Subscribe all given {@link Action3}s that are not already subscribed. The subscribers are
+	 * published at once, so a concurrent event distribution invokes either none or all of them.
+	 * 
+	 * @param actions
+	 *        the {@link Action3}s to be subscribed
+	 */
+	public void subscribeAll(
+		Collection<? extends Action3<? super T1, ? super T2, ? super T3>> actions)
+		throws IllegalArgumentException
+	{
+		registry.subscribeAll(actions);
+	}
+	
+	/**
+	 * Unsubscribe all given {@link Action3}s. The removal is published at once, so a concurrent
+	 * event distribution invokes either all or none of them.
+	 * 
+	 * @param actions
+	 *        the {@link Action3}s to be unsubscribed
+	 */
+	public void unsubscribeAll(
+		Collection<? extends Action3<? super T1, ? super T2, ? super T3>> actions)
+		throws IllegalArgumentException
+	{
+		registry.unsubscribeAll(actions);
+	}
+	
+	/**
+	 * Replace all subscribers with the given {@link Action3}s. The new subscribers are published at
+	 * once, so a concurrent event distribution invokes either the old or the new subscribers.
+	 * 
+	 * @param actions
+	 *        the {@link Action3}s to replace the current subscribers
+	 */
+	public void replaceSubscribers(
+		Collection<? extends Action3<? super T1, ? super T2, ? super T3>> actions)
+		throws IllegalArgumentException
+	{
+		registry.replaceSubscribers(actions);
+	}
+	
 }
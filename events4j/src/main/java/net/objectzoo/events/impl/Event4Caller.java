@@ -63,8 +63,12 @@ public class Event4Caller<T1, T2, T3, T4> implements Event4Delegate<T1, T2, T3,
 	@Override
 	public void accept(T1 parameter1, T2 parameter2, T3 parameter3, T4 parameter4)
 	{
-		subscriberHolder.callWithSubscriber(Action4.boundAcceptingConsumer(parameter1, parameter2, parameter3,
-			parameter4));
+		Action4<? super T1, ? super T2, ? super T3, ? super T4> subscriber =
+			subscriberHolder.getSubscriber();
+		if (subscriber != null)
+		{
+			subscriber.accept(parameter1, parameter2, parameter3, parameter4);
+		}
 	}
 	
 	/**
@@ -25,7 +25,10 @@
 package net.objectzoo.events.impl;
 
 import net.objectzoo.delegates.Action4;
-import net.objectzoo.events.helpers.EventSubscriberRegistry;
+import net.objectzoo.events.Subscription;
+import net.objectzoo.events.helpers.ArrayEventSubscriberRegistry;
+
+import java.util.Collection;
 
 /**
  * The {@code Event4Distributor} is a {@link Event4Delegate} implementation that allows event
@@ -46,7 +49,29 @@ import net.objectzoo.events.helpers.EventSubscriberRegistry;
  */
 public class Event4Distributor<T1, T2, T3, T4> implements Event4Delegate<T1, T2, T3, T4>
 {
-	EventSubscriberRegistry<Action4<? super T1, ? super T2, ? super T3, ? super T4>> registry = new EventSubscriberRegistry<>();
+	ArrayEventSubscriberRegistry<Action4<? super T1, ? super T2, ? super T3, ? super T4>> registry;
+	
+	/**
+	 * Creates a new {@code Event4Distributor} that references its subscribers strongly.
+	 */
+	public Event4Distributor()
+	{
+		this(new ArrayEventSubscriberRegistry<>());
+	}
+	
+	/**
+	 * Creates a new {@code Event4Distributor} that stores its subscribers in the given registry. A
+	 * {@link net.objectzoo.events.helpers.WeakArrayEventSubscriberRegistry} lets the distributor
+	 * reference its subscribers weakly.
+	 * 
+	 * @param registry
+	 *        the registry to store the subscribers in
+	 */
+	public Event4Distributor(ArrayEventSubscriberRegistry<Action4<? super T1, ? super T2,
+		? super T3, ? super T4>> registry)
+	{
+		this.registry = registry;
+	}
 	
 	/**
 	 * This {@code invoke} implementation invokes all event subscribers in the order they have been
@@ -64,7 +89,7 @@ public class Event4Distributor<T1, T2, T3, T4> implements Event4Delegate<T1, T2,
 	@Override
 	public void accept(T1 parameter1, T2 parameter2, T3 parameter3, T4 parameter4)
 	{
-		registry.callWithEachSubscriber(Action4.boundAcceptingConsumer(parameter1, parameter2, parameter3, parameter4));
+		registry.dispatch(parameter1, parameter2, parameter3, parameter4);
 	}
 	
 	/**
@@ -87,4 +112,59 @@ public class Event4Distributor<T1, T2, T3, T4> implements Event4Delegate<T1, T2,
 		registry.unsubscribe(action);
 	}
 	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Closing the returned {@link Subscription} removes the subscriber in constant time.
+	 */
+	@Override
+	public Subscription subscribeCloseable(
+		Action4<? super T1, ? super T2, ? super T3, ? super T4> action)
+		throws IllegalArgumentException
+	{
+		return registry.subscribeCloseable(action);
+	}
+	
+	/**
+	 * Subscribe all given {@link Action4}s that are not already subscribed. The subscribers are
+	 * published at once, so a concurrent event distribution invokes either none or all of them.
+	 * 
+	 * @param actions
+	 *        the {@link Action4}s to be subscribed
+	 */
+	public void subscribeAll(
+		Collection<? extends Action4<? super T1, ? super T2, ? super T3, ? super T4>> actions)
+		throws IllegalArgumentException
+	{
+		registry.subscribeAll(actions);
+	}
+	
+	/**
+	 * Unsubscribe all given {@link Action4}s. The removal is published at once, so a concurrent
+	 * event distribution invokes either all or none of them.
+	 * 
+	 * @param actions
+	 *        the {@link Action4}s to be unsubscribed
+	 */
+	public void unsubscribeAll(
+		Collection<? extends Action4<? super T1, ? super T2, ? super T3, ? super T4>> actions)
+		throws IllegalArgumentException
+	{
+		registry.unsubscribeAll(actions);
+	}
+	
+	/**
+	 * Replace all subscribers with the given {@link Action4}s. The new subscribers are published at
+	 * once, so a concurrent event distribution invokes either the old or the new subscribers.
+	 * 
+	 * @param actions
+	 *        the {@link Action4}s to replace the current subscribers
+	 */
+	public void replaceSubscribers(
+		Collection<? extends Action4<? super T1, ? super T2, ? super T3, ? super T4>> actions)
+		throws IllegalArgumentException
+	{
+		registry.replaceSubscribers(actions);
+	}
+	
 }
@@ -26,7 +26,6 @@ package net.objectzoo.events.impl;
 
 import java.util.function.Consumer;
 
-import net.objectzoo.delegates.Action;
 import net.objectzoo.events.helpers.EventSubscriberHolder;
 
 /**
@@ -53,7 +52,11 @@ public class EventCaller<T> implements EventDelegate<T>
 	@Override
 	public void accept(T parameter)
 	{
-		subscriberHolder.callWithSubscriber(Action.boundAcceptingConsumer(parameter));
+		Consumer<? super T> subscriber = subscriberHolder.getSubscriber();
+		if (subscriber != null)
+		{
+			subscriber.accept(parameter);
+		}
 	}
 	
 	/**
@@ -26,9 +26,10 @@
  */
 package net.objectzoo.events.impl;
 
-import net.objectzoo.delegates.Action;
-import net.objectzoo.events.helpers.EventSubscriberRegistry;
+import net.objectzoo.events.Subscription;
+import net.objectzoo.events.helpers.ArrayEventSubscriberRegistry;
 
+import java.util.Collection;
 import java.util.function.Consumer;
 
 /**
@@ -42,7 +43,27 @@ import java.util.function.Consumer;
  */
 public class EventDistributor<T> implements EventDelegate<T>
 {
-    EventSubscriberRegistry<Consumer<? super T>> registry = new EventSubscriberRegistry<>();
+    ArrayEventSubscriberRegistry<Consumer<? super T>> registry;
+
+    /**
+     * Creates a new {@code EventDistributor} that references its subscribers strongly.
+     */
+    public EventDistributor()
+    {
+        this(new ArrayEventSubscriberRegistry<>());
+    }
+
+    /**
+     * Creates a new {@code EventDistributor} that stores its subscribers in the given registry. A
+     * {@link net.objectzoo.events.helpers.WeakArrayEventSubscriberRegistry} lets the distributor
+     * reference its subscribers weakly.
+     *
+     * @param registry the registry to store the subscribers in
+     */
+    public EventDistributor(ArrayEventSubscriberRegistry<Consumer<? super T>> registry)
+    {
+        this.registry = registry;
+    }
 
     /**
      * This {@code invoke} implementation invokes all event subscribers in the order they have been
@@ -53,7 +74,7 @@ public class EventDistributor<T> implements EventDelegate<T>
     @Override
     public void accept(T parameter)
     {
-        registry.callWithEachSubscriber(Action.boundAcceptingConsumer(parameter));
+        registry.dispatch(parameter);
     }
 
     /**
@@ -74,4 +95,52 @@ public class EventDistributor<T> implements EventDelegate<T>
         registry.unsubscribe(action);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Closing the returned {@link Subscription} removes the subscriber in constant time.
+     */
+    @Override
+    public Subscription subscribeCloseable(Consumer<? super T> action)
+        throws IllegalArgumentException
+    {
+        return registry.subscribeCloseable(action);
+    }
+
+    /**
+     * Subscribe all given {@link Consumer}s that are not already subscribed. The subscribers are
+     * published at once, so a concurrent event distribution invokes either none or all of them.
+     *
+     * @param actions the {@link Consumer}s to be subscribed
+     */
+    public void subscribeAll(Collection<? extends Consumer<? super T>> actions)
+        throws IllegalArgumentException
+    {
+        registry.subscribeAll(actions);
+    }
+
+    /**
+     * Unsubscribe all given {@link Consumer}s. The removal is published at once, so a concurrent
+     * event distribution invokes either all or none of them.
+     *
+     * @param actions the {@link Consumer}s to be unsubscribed
+     */
+    public void unsubscribeAll(Collection<? extends Consumer<? super T>> actions)
+        throws IllegalArgumentException
+    {
+        registry.unsubscribeAll(actions);
+    }
+
+    /**
+     * Replace all subscribers with the given {@link Consumer}s. The new subscribers are published
+     * at once, so a concurrent event distribution invokes either the old or the new subscribers.
+     *
+     * @param actions the {@link Consumer}s to replace the current subscribers
+     */
+    public void replaceSubscribers(Collection<? extends Consumer<? super T>> actions)
+        throws IllegalArgumentException
+    {
+        registry.replaceSubscribers(actions);
+    }
+
 }
@@ -1,5 +1,6 @@
 package net.objectzoo.delegates;
 
+import net.objectzoo.delegates.helpers.EvictionPolicy;
 import org.junit.Test;
 
 import java.util.function.BiFunction;
@@ -54,4 +55,19 @@ public class Function2Test
         verify(mockFunction).apply(argument1, argument2);
         assertThat(result, is(expectedResult));
     }
+
+    @Test
+    public void memoize_creates_function_that_invokes_function_once_for_equal_arguments()
+    {
+        Function2 mockFunction = mock(Function2.class);
+        Function2 sut = mockFunction::apply;
+        doReturn(expectedResult).when(mockFunction).apply(anyObject(), anyObject());
+
+        Function2 memoized = sut.memoize(16, EvictionPolicy.LRU);
+        memoized.apply(argument1, argument2);
+        Object result = memoized.apply(argument1, argument2);
+
+        verify(mockFunction).apply(argument1, argument2);
+        assertThat(result, is(expectedResult));
+    }
 }
@@ -1,5 +1,6 @@
 package net.objectzoo.delegates;
 
+import net.objectzoo.delegates.helpers.EvictionPolicy;
 import org.junit.Test;
 
 import static org.hamcrest.core.Is.is;
@@ -40,4 +41,19 @@ public class Function3Test
         verify(mockFunction).apply(argument1, argument2, argument3);
         assertThat(result, is(expectedResult));
     }
+
+    @Test
+    public void memoize_creates_function_that_invokes_function_once_for_equal_arguments()
+    {
+        Function3 mockFunction = mock(Function3.class);
+        Function3 sut = mockFunction::apply;
+        doReturn(expectedResult).when(mockFunction).apply(anyObject(), anyObject(), anyObject());
+
+        Function3 memoized = sut.memoize(16, EvictionPolicy.LRU);
+        memoized.apply(argument1, argument2, argument3);
+        Object result = memoized.apply(argument1, argument2, argument3);
+
+        verify(mockFunction).apply(argument1, argument2, argument3);
+        assertThat(result, is(expectedResult));
+    }
 }
@@ -1,5 +1,6 @@
 package net.objectzoo.delegates;
 
+import net.objectzoo.delegates.helpers.EvictionPolicy;
 import org.junit.Test;
 
 import static org.hamcrest.core.Is.is;
@@ -42,4 +43,20 @@ public class Function4Test
         verify(mockFunction).apply(argument1, argument2, argument3, argument4);
         assertThat(result, is(expectedResult));
     }
+
+    @Test
+    public void memoize_creates_function_that_invokes_function_once_for_equal_arguments()
+    {
+        Function4 mockFunction = mock(Function4.class);
+        Function4 sut = mockFunction::apply;
+        doReturn(expectedResult).when(mockFunction)
+            .apply(anyObject(), anyObject(), anyObject(), anyObject());
+
+        Function4 memoized = sut.memoize(16, EvictionPolicy.LRU);
+        memoized.apply(argument1, argument2, argument3, argument4);
+        Object result = memoized.apply(argument1, argument2, argument3, argument4);
+
+        verify(mockFunction).apply(argument1, argument2, argument3, argument4);
+        assertThat(result, is(expectedResult));
+    }
 }
@@ -1,5 +1,6 @@
 package net.objectzoo.delegates;
 
+import net.objectzoo.delegates.helpers.EvictionPolicy;
 import org.junit.Test;
 
 import static org.hamcrest.core.Is.is;
@@ -51,4 +52,19 @@ public class FunctionTest
         verify(mockFunction).apply(argument);
         assertThat(result, is(expectedResult));
     }
+
+    @Test
+    public void memoize_creates_function_that_invokes_function_once_for_equal_arguments()
+    {
+        Function mockFunction = mock(Function.class);
+        Function sut = mockFunction::apply;
+        doReturn(expectedResult).when(mockFunction).apply(anyObject());
+
+        Function memoized = sut.memoize(16, EvictionPolicy.LRU);
+        memoized.apply(argument);
+        Object result = memoized.apply(argument);
+
+        verify(mockFunction).apply(argument);
+        assertThat(result, is(expectedResult));
+    }
 }
@@ -0,0 +1,185 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.delegates.helpers;
+
+import net.objectzoo.delegates.Function;
+import net.objectzoo.delegates.Function2;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class MemoizingCacheTest
+{
+    private final AtomicInteger invocations = new AtomicInteger();
+    private final AtomicLong time = new AtomicLong();
+
+    @Test
+    public void memoized_function_returns_cached_value_for_equal_parameter()
+    {
+        Function<String, String> sut = cache(4, EvictionPolicy.LRU).memoize(this::count);
+
+        sut.apply("a");
+        String result = sut.apply("a");
+
+        assertThat(result, is("a1"));
+        assertThat(invocations.get(), is(1));
+    }
+
+    @Test
+    public void memoized_function_caches_null_parameter_and_return_value()
+    {
+        MemoizingCache<Object, String> cache = cache(4, EvictionPolicy.LRU);
+        Function<Object, String> sut = cache.memoize(parameter -> {
+            invocations.incrementAndGet();
+            return null;
+        });
+
+        sut.apply(null);
+        sut.apply(null);
+
+        assertThat(invocations.get(), is(1));
+        assertThat(cache.getHitCount(), is(1L));
+    }
+
+    @Test
+    public void lru_cache_evicts_least_recently_used_entry()
+    {
+        MemoizingCache<String, String> cache = cache(2, EvictionPolicy.LRU);
+        Function<String, String> sut = cache.memoize(this::count);
+
+        sut.apply("a");
+        sut.apply("b");
+        sut.apply("a");
+        sut.apply("c");
+
+        assertThat(sut.apply("a"), is("a1"));
+        assertThat(sut.apply("b"), is("b4"));
+        assertThat(cache.getEvictionCount(), is(2L));
+    }
+
+    @Test
+    public void fifo_cache_evicts_first_added_entry()
+    {
+        MemoizingCache<String, String> cache = cache(2, EvictionPolicy.FIFO);
+        Function<String, String> sut = cache.memoize(this::count);
+
+        sut.apply("a");
+        sut.apply("b");
+        sut.apply("a");
+        sut.apply("c");
+
+        assertThat(sut.apply("a"), is("a4"));
+        assertThat(cache.size(), is(2));
+    }
+
+    @Test
+    public void eviction_removes_tenth_of_maximum_size_beyond_excess_entries()
+    {
+        MemoizingCache<String, String> cache = cache(20, EvictionPolicy.LRU);
+        Function<String, String> sut = cache.memoize(this::count);
+
+        for (int index = 0; index < 21; index++)
+        {
+            sut.apply("k" + index);
+        }
+
+        assertThat(cache.size(), is(18));
+        assertThat(cache.getEvictionCount(), is(3L));
+        assertThat(sut.apply("k20"), is("k2021"));
+        assertThat(sut.apply("k0"), is("k022"));
+    }
+
+    @Test
+    public void entries_expire_after_time_to_live()
+    {
+        MemoizingCache<String, String> cache = MemoizingCache.builder()
+            .timeToLive(10, TimeUnit.NANOSECONDS)
+            .ticker(time::get)
+            .build();
+        Function<String, String> sut = cache.memoize(this::count);
+
+        sut.apply("a");
+        time.set(9);
+        assertThat(sut.apply("a"), is("a1"));
+        time.set(10);
+        assertThat(sut.apply("a"), is("a2"));
+        assertThat(cache.getMissCount(), is(2L));
+    }
+
+    @Test
+    public void memoized_function2_caches_by_all_parameters()
+    {
+        MemoizingCache<Object, String> cache = cache(4, EvictionPolicy.LRU);
+        Function2<String, Integer, String> sut = cache.memoize(
+            (String text, Integer number) -> count(text + number));
+
+        sut.apply("a", 1);
+        sut.apply("a", 2);
+        sut.apply("a", 1);
+        sut.apply(null, null);
+        sut.apply(null, null);
+
+        assertThat(invocations.get(), is(3));
+        assertThat(cache.getHitRate(), is(0.4));
+    }
+
+    @Test
+    public void invalidateAll_removes_entries()
+    {
+        MemoizingCache<String, String> cache = cache(4, EvictionPolicy.LRU);
+        Function<String, String> sut = cache.memoize(this::count);
+
+        sut.apply("a");
+        cache.invalidateAll();
+
+        assertThat(sut.apply("a"), is("a2"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void build_throws_exception_for_invalid_maximum_size()
+    {
+        MemoizingCache.builder().maximumSize(0).build();
+    }
+
+    private String count(String parameter)
+    {
+        return parameter + invocations.incrementAndGet();
+    }
+
+    private <K> MemoizingCache<K, String> cache(int maximumSize, EvictionPolicy evictionPolicy)
+    {
+        return MemoizingCache.builder()
+            .maximumSize(maximumSize)
+            .evictionPolicy(evictionPolicy)
+            .build();
+    }
+}
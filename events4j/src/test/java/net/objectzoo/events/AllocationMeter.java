@@ -0,0 +1,118 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.events;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * This test helper measures the number of bytes allocated on the heap by the current thread. It
+ * uses {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}, which is only
+ * available on JVMs that provide the {@code com.sun.management} extensions and support thread
+ * allocation measurement. Tests should check {@link #isSupported()} before measuring.
+ *
+ * @author tilmann
+ */
+public final class AllocationMeter
+{
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN = createThreadBean();
+
+    private AllocationMeter()
+    {
+    }
+
+    private static com.sun.management.ThreadMXBean createThreadBean()
+    {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean)
+        {
+            com.sun.management.ThreadMXBean sunThreadBean =
+                (com.sun.management.ThreadMXBean) threadBean;
+            if (sunThreadBean.isThreadAllocatedMemorySupported())
+            {
+                sunThreadBean.setThreadAllocatedMemoryEnabled(true);
+                return sunThreadBean;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks if the allocated bytes can be measured on this JVM.
+     *
+     * @return {@code true} if allocations can be measured
+     */
+    public static boolean isSupported()
+    {
+        return THREAD_BEAN != null;
+    }
+
+    /**
+     * Returns the number of bytes allocated by the current thread so far.
+     *
+     * @return the allocated bytes of the current thread
+     * @throws IllegalStateException if allocations cannot be measured on this JVM
+     */
+    public static long currentThreadAllocatedBytes() throws IllegalStateException
+    {
+        if (THREAD_BEAN == null)
+        {
+            throw new IllegalStateException("Allocation measurement is not supported by this JVM.");
+        }
+        return THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Runs the given {@link Runnable} the given number of times to warm it up and then measures
+     * the bytes allocated by the current thread while running it the given number of times again.
+     * The bytes allocated by the measurement itself are subtracted, so a run that does not
+     * allocate measures close to zero.
+     *
+     * @param runnable the {@code Runnable} to be measured
+     * @param iterations the number of times to run the {@code Runnable} for warm-up and measurement
+     * @return the bytes allocated while running the {@code Runnable} after warm-up
+     * @throws IllegalStateException if allocations cannot be measured on this JVM
+     */
+    public static long measureAllocatedBytes(Runnable runnable, int iterations)
+        throws IllegalStateException
+    {
+        for (int i = 0; i < iterations; i++)
+        {
+            runnable.run();
+        }
+        long overhead = currentThreadAllocatedBytes();
+        overhead = currentThreadAllocatedBytes() - overhead;
+
+        long before = currentThreadAllocatedBytes();
+        for (int i = 0; i < iterations; i++)
+        {
+            runnable.run();
+        }
+        long after = currentThreadAllocatedBytes();
+        return Math.max(0, after - before - overhead);
+    }
+}
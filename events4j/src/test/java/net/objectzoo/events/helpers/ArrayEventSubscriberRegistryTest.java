@@ -0,0 +1,416 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.objectzoo.events.helpers;
+
+import net.objectzoo.delegates.Action0;
+import net.objectzoo.delegates.Action3;
+import net.objectzoo.delegates.Action4;
+import net.objectzoo.events.Subscription;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SuppressWarnings("unchecked")
+public class ArrayEventSubscriberRegistryTest
+{
+    private final ArrayEventSubscriberRegistry<Action0> sut = new ArrayEventSubscriberRegistry<>();
+
+    @Test(expected = NullPointerException.class)
+    public void subscribe_throws_exception_for_null_subscriber()
+    {
+        sut.subscribe(null);
+    }
+
+    @Test
+    public void subscribe_subscribes_the_given_subscriber()
+    {
+        Action0 subscriber = mock(Action0.class);
+
+        sut.subscribe(subscriber);
+        sut.dispatch();
+
+        verify(subscriber).start();
+    }
+
+    @Test
+    public void subscribe_ignores_subscriber_that_is_already_subscribed()
+    {
+        Action0 subscriber = mock(Action0.class);
+
+        sut.subscribe(subscriber);
+        sut.subscribe(subscriber);
+        sut.dispatch();
+
+        verify(subscriber, times(1)).start();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void unsubscribe_throws_exception_for_null_subscriber()
+    {
+        sut.unsubscribe(null);
+    }
+
+    @Test
+    public void unsubscribe_unsubscribes_the_given_subscriber()
+    {
+        Action0 subscriber1 = mock(Action0.class);
+        Action0 subscriber2 = mock(Action0.class);
+        Action0 subscriber3 = mock(Action0.class);
+        sut.subscribe(subscriber1);
+        sut.subscribe(subscriber2);
+        sut.subscribe(subscriber3);
+
+        sut.unsubscribe(subscriber2);
+        sut.dispatch();
+
+        verify(subscriber1).start();
+        Mockito.verifyZeroInteractions(subscriber2);
+        verify(subscriber3).start();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void subscribeCloseable_throws_exception_for_null_subscriber()
+    {
+        sut.subscribeCloseable(null);
+    }
+
+    @Test
+    public void subscribeCloseable_subscribes_the_given_subscriber_for_each_call()
+    {
+        Action0 subscriber = mock(Action0.class);
+
+        sut.subscribeCloseable(subscriber);
+        sut.subscribeCloseable(subscriber);
+        sut.dispatch();
+
+        verify(subscriber, times(2)).start();
+    }
+
+    @Test
+    public void close_unsubscribes_only_the_closed_subscription()
+    {
+        Action0 subscriber = mock(Action0.class);
+        Subscription subscription = sut.subscribeCloseable(subscriber);
+        sut.subscribeCloseable(subscriber);
+
+        subscription.close();
+        subscription.close();
+        sut.dispatch();
+
+        verify(subscriber, times(1)).start();
+    }
+
+    @Test
+    public void close_keeps_remaining_subscriptions_when_compacting()
+    {
+        List<Action0> subscribers = new ArrayList<>();
+        List<Subscription> subscriptions = new ArrayList<>();
+        for (int i = 0; i < 100; i++)
+        {
+            Action0 subscriber = mock(Action0.class);
+            subscribers.add(subscriber);
+            subscriptions.add(sut.subscribeCloseable(subscriber));
+        }
+
+        for (int i = 0; i < 100; i += 4)
+        {
+            subscriptions.get(i).close();
+            subscriptions.get(i + 1).close();
+            subscriptions.get(i + 2).close();
+        }
+        subscriptions.get(99).close();
+        sut.dispatch();
+
+        for (int i = 0; i < 100; i++)
+        {
+            verify(subscribers.get(i), times(i % 4 == 3 && i != 99 ? 1 : 0)).start();
+        }
+    }
+
+    @Test
+    public void close_after_unsubscribe_has_no_effect_on_other_subscribers()
+    {
+        Action0 subscriber1 = mock(Action0.class);
+        Action0 subscriber2 = mock(Action0.class);
+        Subscription subscription = sut.subscribeCloseable(subscriber1);
+        sut.unsubscribe(subscriber1);
+        sut.subscribeCloseable(subscriber2);
+
+        subscription.close();
+        sut.dispatch();
+
+        Mockito.verifyZeroInteractions(subscriber1);
+        verify(subscriber2).start();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void subscribeAll_throws_exception_for_null_subscriber()
+    {
+        sut.subscribeAll(Arrays.asList(mock(Action0.class), null));
+    }
+
+    @Test
+    public void subscribeAll_subscribes_the_given_subscribers_once()
+    {
+        Action0 subscriber1 = mock(Action0.class);
+        Action0 subscriber2 = mock(Action0.class);
+        Action0 subscriber3 = mock(Action0.class);
+        sut.subscribe(subscriber1);
+
+        sut.subscribeAll(Arrays.asList(subscriber1, subscriber2, subscriber3, subscriber2));
+        sut.dispatch();
+
+        InOrder inOrder = inOrder(subscriber1, subscriber2, subscriber3);
+        inOrder.verify(subscriber1).start();
+        inOrder.verify(subscriber2).start();
+        inOrder.verify(subscriber3).start();
+        Mockito.verifyNoMoreInteractions(subscriber1, subscriber2, subscriber3);
+    }
+
+    @Test
+    public void unsubscribeAll_unsubscribes_the_given_subscribers()
+    {
+        Action0 subscriber1 = mock(Action0.class);
+        Action0 subscriber2 = mock(Action0.class);
+        Action0 subscriber3 = mock(Action0.class);
+        sut.subscribe(subscriber1);
+        Subscription subscription = sut.subscribeCloseable(subscriber2);
+        Subscription remaining = sut.subscribeCloseable(subscriber3);
+
+        sut.unsubscribeAll(Arrays.asList(subscriber1, subscriber2));
+        subscription.close();
+        sut.dispatch();
+        remaining.close();
+        sut.dispatch();
+
+        Mockito.verifyZeroInteractions(subscriber1, subscriber2);
+        verify(subscriber3, times(1)).start();
+    }
+
+    @Test
+    public void replaceSubscribers_replaces_all_subscribers()
+    {
+        Action0 subscriber1 = mock(Action0.class);
+        Action0 subscriber2 = mock(Action0.class);
+        Action0 subscriber3 = mock(Action0.class);
+        sut.subscribe(subscriber1);
+        Subscription subscription = sut.subscribeCloseable(subscriber2);
+
+        sut.replaceSubscribers(Arrays.asList(subscriber2, subscriber3));
+        subscription.close();
+        sut.dispatch();
+
+        Mockito.verifyZeroInteractions(subscriber1);
+        verify(subscriber2).start();
+        verify(subscriber3).start();
+    }
+
+    @Test
+    public void replaceSubscribers_with_empty_collection_unsubscribes_all()
+    {
+        Action0 subscriber = mock(Action0.class);
+        sut.subscribe(subscriber);
+
+        sut.replaceSubscribers(Collections.<Action0>emptyList());
+        sut.dispatch();
+
+        Mockito.verifyZeroInteractions(subscriber);
+    }
+
+    @Test
+    public void dispatch_invokes_subscribers_in_order_of_subscription()
+    {
+        Action0 subscriber1 = mock(Action0.class);
+        Action0 subscriber2 = mock(Action0.class);
+        sut.subscribe(subscriber1);
+        sut.subscribe(subscriber2);
+
+        sut.dispatch();
+
+        InOrder inOrder = inOrder(subscriber1, subscriber2);
+        inOrder.verify(subscriber1).start();
+        inOrder.verify(subscriber2).start();
+    }
+
+    @Test
+    public void dispatch_invokes_more_than_two_subscribers_in_order_of_subscription()
+    {
+        Action0 subscriber1 = mock(Action0.class);
+        Action0 subscriber2 = mock(Action0.class);
+        Action0 subscriber3 = mock(Action0.class);
+        sut.subscribe(subscriber1);
+        sut.subscribe(subscriber2);
+        sut.subscribe(subscriber3);
+
+        sut.dispatch();
+
+        InOrder inOrder = inOrder(subscriber1, subscriber2, subscriber3);
+        inOrder.verify(subscriber1).start();
+        inOrder.verify(subscriber2).start();
+        inOrder.verify(subscriber3).start();
+    }
+
+    @Test
+    public void dispatch_invokes_remaining_subscribers_after_shrinking_to_two()
+    {
+        Action0 subscriber1 = mock(Action0.class);
+        Action0 subscriber2 = mock(Action0.class);
+        Action0 subscriber3 = mock(Action0.class);
+        sut.subscribe(subscriber1);
+        sut.subscribe(subscriber2);
+        sut.subscribe(subscriber3);
+
+        sut.unsubscribe(subscriber1);
+        sut.dispatch();
+
+        InOrder inOrder = inOrder(subscriber2, subscriber3);
+        inOrder.verify(subscriber2).start();
+        inOrder.verify(subscriber3).start();
+        Mockito.verifyZeroInteractions(subscriber1);
+    }
+
+    @Test
+    public void snapshot_holds_one_or_two_subscribers_in_fields()
+    {
+        Action0 subscriber1 = mock(Action0.class);
+        Action0 subscriber2 = mock(Action0.class);
+        Action0 subscriber3 = mock(Action0.class);
+
+        sut.subscribe(subscriber1);
+        assertSame(subscriber1, sut.snapshot.first);
+        assertNull(sut.snapshot.second);
+
+        sut.subscribe(subscriber2);
+        assertSame(subscriber1, sut.snapshot.first);
+        assertSame(subscriber2, sut.snapshot.second);
+
+        sut.subscribe(subscriber3);
+        assertNull(sut.snapshot.first);
+
+        sut.unsubscribe(subscriber2);
+        assertSame(subscriber1, sut.snapshot.first);
+        assertSame(subscriber3, sut.snapshot.second);
+    }
+
+    @Test
+    public void dispatch_does_nothing_when_not_subscribed()
+    {
+        sut.dispatch();
+    }
+
+    @Test
+    public void dispatch_invokes_consumers_with_parameter()
+    {
+        ArrayEventSubscriberRegistry<Consumer<Object>> registry =
+            new ArrayEventSubscriberRegistry<>();
+        Consumer<Object> subscriber = mock(Consumer.class);
+        registry.subscribe(subscriber);
+        Object parameter = new Object();
+
+        registry.dispatch(parameter);
+
+        verify(subscriber).accept(parameter);
+    }
+
+    @Test
+    public void dispatch_invokes_bi_consumers_with_parameters()
+    {
+        ArrayEventSubscriberRegistry<BiConsumer<Object, Object>> registry =
+            new ArrayEventSubscriberRegistry<>();
+        BiConsumer<Object, Object> subscriber = mock(BiConsumer.class);
+        registry.subscribe(subscriber);
+        Object parameter1 = new Object();
+        Object parameter2 = new Object();
+
+        registry.dispatch(parameter1, parameter2);
+
+        verify(subscriber).accept(parameter1, parameter2);
+    }
+
+    @Test
+    public void dispatch_invokes_action3s_with_parameters()
+    {
+        ArrayEventSubscriberRegistry<Action3<Object, Object, Object>> registry =
+            new ArrayEventSubscriberRegistry<>();
+        Action3<Object, Object, Object> subscriber = mock(Action3.class);
+        registry.subscribe(subscriber);
+        Object parameter1 = new Object();
+        Object parameter2 = new Object();
+        Object parameter3 = new Object();
+
+        registry.dispatch(parameter1, parameter2, parameter3);
+
+        verify(subscriber).accept(parameter1, parameter2, parameter3);
+    }
+
+    @Test
+    public void dispatch_invokes_action4s_with_parameters()
+    {
+        ArrayEventSubscriberRegistry<Action4<Object, Object, Object, Object>> registry =
+            new ArrayEventSubscriberRegistry<>();
+        Action4<Object, Object, Object, Object> subscriber = mock(Action4.class);
+        registry.subscribe(subscriber);
+        Object parameter1 = new Object();
+        Object parameter2 = new Object();
+        Object parameter3 = new Object();
+        Object parameter4 = new Object();
+
+        registry.dispatch(parameter1, parameter2, parameter3, parameter4);
+
+        verify(subscriber).accept(parameter1, parameter2, parameter3, parameter4);
+    }
+
+    @Test
+    public void callWithEachSubscriber_calls_given_consumer_when_subscribed()
+    {
+        Action0 subscriber1 = mock(Action0.class);
+        Action0 subscriber2 = mock(Action0.class);
+        sut.subscribe(subscriber1);
+        sut.subscribe(subscriber2);
+        Consumer<Action0> actionConsumer = mock(Consumer.class);
+
+        sut.callWithEachSubscriber(actionConsumer);
+
+        verify(actionConsumer).accept(subscriber1);
+        verify(actionConsumer).accept(subscriber2);
+    }
+}
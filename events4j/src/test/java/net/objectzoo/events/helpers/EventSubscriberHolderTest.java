@@ -34,7 +34,7 @@ import org.mockito.Mockito;
 import java.util.function.Consumer;
 
 import static org.hamcrest.core.Is.is;
-import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -103,7 +103,22 @@ public class EventSubscriberHolderTest
 
         sut.unsubscribe(subscriber);
 
-        assertFalse(sut.subscriber.isPresent());
+        assertNull(sut.subscriber.get());
+    }
+
+    @Test
+    public void getSubscriber_returns_the_subscriber_when_subscribed()
+    {
+        Action0 subscriber = someAction0();
+        sut.subscribe(subscriber);
+
+        assertThat(sut.getSubscriber(), is(subscriber));
+    }
+
+    @Test
+    public void getSubscriber_returns_null_when_not_subscribed()
+    {
+        assertNull(sut.getSubscriber());
     }
 
     @Test
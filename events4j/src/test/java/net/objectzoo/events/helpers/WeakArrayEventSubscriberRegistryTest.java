@@ -0,0 +1,186 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.events.helpers;
+
+import net.objectzoo.delegates.Action0;
+import net.objectzoo.events.Subscription;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class WeakArrayEventSubscriberRegistryTest
+{
+    private final WeakArrayEventSubscriberRegistry<Consumer<String>> sut =
+        new WeakArrayEventSubscriberRegistry<>();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void dispatch_invokes_referenced_subscribers()
+    {
+        Consumer<String> subscriber1 = mock(Consumer.class);
+        Consumer<String> subscriber2 = mock(Consumer.class);
+        sut.subscribe(subscriber1);
+        sut.subscribeAll(Arrays.asList(subscriber1, subscriber2));
+
+        sut.dispatch("event");
+
+        verify(subscriber1).accept("event");
+        verify(subscriber2).accept("event");
+        Mockito.verifyNoMoreInteractions(subscriber1, subscriber2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void unsubscribe_unsubscribes_the_given_subscriber()
+    {
+        Consumer<String> subscriber1 = mock(Consumer.class);
+        Consumer<String> subscriber2 = mock(Consumer.class);
+        sut.subscribe(subscriber1);
+        Subscription subscription = sut.subscribeCloseable(subscriber2);
+
+        sut.unsubscribe(subscriber1);
+        subscription.close();
+        sut.dispatch("event");
+
+        Mockito.verifyZeroInteractions(subscriber1, subscriber2);
+        assertThat(sut.snapshot.size, is(0));
+    }
+
+    @Test
+    public void dispatch_skips_collected_subscribers()
+    {
+        AtomicInteger invocations = new AtomicInteger();
+        Consumer<String> subscriber = s -> invocations.incrementAndGet();
+        sut.subscribe(subscriber);
+        WeakReference<Consumer<String>> probe = subscribeUnreferenced(invocations);
+
+        collectGarbage(probe);
+        sut.dispatch("event");
+
+        assertThat(invocations.get(), is(1));
+    }
+
+    @Test
+    public void removeCollected_removes_collected_subscribers()
+    {
+        AtomicInteger invocations = new AtomicInteger();
+        Consumer<String> subscriber = s -> invocations.incrementAndGet();
+        sut.subscribe(subscriber);
+        WeakReference<Consumer<String>> probe = subscribeUnreferenced(invocations);
+
+        collectGarbage(probe);
+        for (int i = 0; i < 50 && sut.snapshot.size > 1; i++)
+        {
+            // the collected reference is enqueued asynchronously by the reference handler
+            sleep();
+            sut.removeCollected();
+        }
+
+        assertThat(sut.snapshot.size, is(1));
+    }
+
+    @Test
+    public void collected_subscribers_are_removed_on_modification_only()
+    {
+        AtomicInteger invocations = new AtomicInteger();
+        Consumer<String> subscriber = s -> invocations.incrementAndGet();
+        Consumer<String> other = s -> invocations.incrementAndGet();
+        sut.subscribe(subscriber);
+        WeakReference<Consumer<String>> probe = subscribeUnreferenced(invocations);
+
+        collectGarbage(probe);
+        sleep();
+        sut.dispatch("event");
+        assertThat(sut.snapshot.size, is(2));
+
+        sut.subscribe(other);
+        for (int i = 0; i < 50 && sut.snapshot.size > 2; i++)
+        {
+            // subscribing an existing subscriber again only drains the queue
+            sleep();
+            sut.subscribe(other);
+        }
+
+        assertThat(sut.snapshot.size, is(2));
+    }
+
+    @Test
+    public void closing_subscription_of_collected_subscriber_is_ignored()
+    {
+        AtomicInteger invocations = new AtomicInteger();
+        Subscription subscription = sut.subscribeCloseable(s -> invocations.incrementAndGet());
+        Consumer<String> subscriber = s -> invocations.incrementAndGet();
+        sut.subscribe(subscriber);
+        WeakReference<Consumer<String>> probe = subscribeUnreferenced(invocations);
+
+        collectGarbage(probe);
+        sut.dispatch("event");
+        subscription.close();
+        sut.dispatch("event");
+
+        assertThat(invocations.get(), is(2));
+    }
+
+    private WeakReference<Consumer<String>> subscribeUnreferenced(AtomicInteger invocations)
+    {
+        Consumer<String> subscriber = s -> invocations.incrementAndGet();
+        sut.subscribe(subscriber);
+        return new WeakReference<>(subscriber);
+    }
+
+    private static void collectGarbage(WeakReference<?> probe)
+    {
+        for (int i = 0; i < 50 && probe.get() != null; i++)
+        {
+            System.gc();
+            sleep();
+        }
+        assertNull(probe.get());
+    }
+
+    private static void sleep()
+    {
+        try
+        {
+            Thread.sleep(10);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
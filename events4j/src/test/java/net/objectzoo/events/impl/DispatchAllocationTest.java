@@ -0,0 +1,172 @@
+/*
+ * The MIT License
+ *
+ * Copyright (C) 2014 Tilmann Kuhn
+ *
+ * http://www.object-zoo.net
+ * mailto:events4j@object-zoo.net
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.objectzoo.events.impl;
+
+import net.objectzoo.delegates.Action0;
+import net.objectzoo.delegates.Action3;
+import net.objectzoo.delegates.Action4;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import static net.objectzoo.events.AllocationMeter.isSupported;
+import static net.objectzoo.events.AllocationMeter.measureAllocatedBytes;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Guards the steady state event dispatch paths of the distributors and callers against
+ * allocating.
+ */
+public class DispatchAllocationTest
+{
+    private static final int ITERATIONS = 100_000;
+
+    /**
+     * Tolerated bytes for all iterations, each allocation on a dispatch path exceeds this by far.
+     */
+    private static final long TOLERANCE = 1024;
+
+    private final Object parameter1 = new Object();
+    private final Object parameter2 = new Object();
+    private final Object parameter3 = new Object();
+    private final Object parameter4 = new Object();
+
+    private int invocations;
+
+    @Before
+    public void checkSupported()
+    {
+        assumeTrue(isSupported());
+    }
+
+    private void assertAllocationFree(Runnable dispatch)
+    {
+        assertThat(measureAllocatedBytes(dispatch, ITERATIONS), lessThanOrEqualTo(TOLERANCE));
+    }
+
+    @Test
+    public void event0Distributor_dispatch_does_not_allocate()
+    {
+        for (int subscribers = 0; subscribers <= 3; subscribers++)
+        {
+            Event0Distributor distributor = new Event0Distributor();
+            for (int i = 0; i < subscribers; i++)
+            {
+                distributor.subscribe((Action0) () -> invocations++);
+            }
+
+            assertAllocationFree(distributor::start);
+        }
+    }
+
+    @Test
+    public void eventDistributor_dispatch_does_not_allocate()
+    {
+        for (int subscribers = 0; subscribers <= 3; subscribers++)
+        {
+            EventDistributor<Object> distributor = new EventDistributor<>();
+            for (int i = 0; i < subscribers; i++)
+            {
+                distributor.subscribe((Consumer<Object>) parameter -> invocations++);
+            }
+
+            assertAllocationFree(() -> distributor.accept(parameter1));
+        }
+    }
+
+    @Test
+    public void event2Distributor_dispatch_does_not_allocate()
+    {
+        for (int subscribers = 0; subscribers <= 3; subscribers++)
+        {
+            Event2Distributor<Object, Object> distributor = new Event2Distributor<>();
+            for (int i = 0; i < subscribers; i++)
+            {
+                distributor.subscribe((BiConsumer<Object, Object>) (p1, p2) -> invocations++);
+            }
+
+            assertAllocationFree(() -> distributor.accept(parameter1, parameter2));
+        }
+    }
+
+    @Test
+    public void event3Distributor_dispatch_does_not_allocate()
+    {
+        for (int subscribers = 0; subscribers <= 3; subscribers++)
+        {
+            Event3Distributor<Object, Object, Object> distributor = new Event3Distributor<>();
+            for (int i = 0; i < subscribers; i++)
+            {
+                distributor.subscribe((Action3<Object, Object, Object>) (p1, p2, p3) ->
+                    invocations++);
+            }
+
+            assertAllocationFree(() -> distributor.accept(parameter1, parameter2, parameter3));
+        }
+    }
+
+    @Test
+    public void event4Distributor_dispatch_does_not_allocate()
+    {
+        for (int subscribers = 0; subscribers <= 3; subscribers++)
+        {
+            Event4Distributor<Object, Object, Object, Object> distributor =
+                new Event4Distributor<>();
+            for (int i = 0; i < subscribers; i++)
+            {
+                distributor.subscribe((Action4<Object, Object, Object, Object>) (p1, p2, p3, p4) ->
+                    invocations++);
+            }
+
+            assertAllocationFree(() -> distributor.accept(parameter1, parameter2, parameter3,
+                parameter4));
+        }
+    }
+
+    @Test
+    public void eventCaller_dispatch_does_not_allocate()
+    {
+        EventCaller<Object> caller = new EventCaller<>();
+        assertAllocationFree(() -> caller.accept(parameter1));
+
+        caller.subscribe(parameter -> invocations++);
+        assertAllocationFree(() -> caller.accept(parameter1));
+    }
+
+    @Test
+    public void event4Caller_dispatch_does_not_allocate()
+    {
+        Event4Caller<Object, Object, Object, Object> caller = new Event4Caller<>();
+        caller.subscribe((p1, p2, p3, p4) -> invocations++);
+
+        assertAllocationFree(() -> caller.accept(parameter1, parameter2, parameter3, parameter4));
+    }
+}
@@ -31,12 +31,10 @@ import net.objectzoo.delegates.Action0;
 import net.objectzoo.events.helpers.EventSubscriberHolder;
 import org.junit.Before;
 import org.junit.Test;
-import org.mockito.ArgumentCaptor;
-
-import java.util.function.Consumer;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @SuppressWarnings({ "rawtypes", "unchecked" })
 public class Event0CallerTest
@@ -71,18 +69,22 @@ public class Event0CallerTest
     }
 
     @Test
-    public void accept_calls_subscriber()
+    public void start_calls_subscriber()
     {
+        Action0 subscriberMock = mock(Action0.class);
+        when(holderMock.getSubscriber()).thenReturn(subscriberMock);
+
         subject.start();
 
-        ArgumentCaptor<Consumer<Action0>> consumerArgument = (ArgumentCaptor) ArgumentCaptor.forClass(
-            Consumer.class);
-        verify(holderMock).callWithSubscriber(consumerArgument.capture());
+        verify(subscriberMock).start();
+    }
 
-        Action0 subscriberMock = mock(Action0.class);
+    @Test
+    public void start_does_nothing_when_not_subscribed()
+    {
+        subject.start();
 
-        consumerArgument.getValue().accept(subscriberMock);
-        verify(subscriberMock).start();
+        verify(holderMock).getSubscriber();
     }
 
     private static Action0 someAction0()
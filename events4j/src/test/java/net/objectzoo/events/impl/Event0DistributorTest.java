@@ -28,20 +28,22 @@
 package net.objectzoo.events.impl;
 
 import net.objectzoo.delegates.Action0;
-import net.objectzoo.events.helpers.EventSubscriberRegistry;
+import net.objectzoo.events.helpers.ArrayEventSubscriberRegistry;
 import org.junit.Before;
 import org.junit.Test;
-import org.mockito.ArgumentCaptor;
 
-import java.util.function.Consumer;
+import java.util.Arrays;
+import java.util.List;
 
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
 @SuppressWarnings({ "rawtypes", "unchecked" })
 public class Event0DistributorTest
 {
-    private final EventSubscriberRegistry registryMock = mock(EventSubscriberRegistry.class);
+    private final ArrayEventSubscriberRegistry registryMock =
+        mock(ArrayEventSubscriberRegistry.class);
     private final Event0Distributor subject = new Event0Distributor();
 
     @Before
@@ -50,6 +52,14 @@ public class Event0DistributorTest
         subject.registry = registryMock;
     }
 
+    @Test
+    public void constructor_uses_given_registry()
+    {
+        Event0Distributor distributor = new Event0Distributor(registryMock);
+
+        assertSame(registryMock, distributor.registry);
+    }
+
     @Test
     public void subscribe_calls_subscriber_holder()
     {
@@ -71,18 +81,51 @@ public class Event0DistributorTest
     }
 
     @Test
-    public void accept_calls_subscribers()
+    public void subscribeCloseable_calls_subscriber_registry()
     {
-        subject.start();
+        Action0 subscriber = someAction0();
+
+        subject.subscribeCloseable(subscriber);
+
+        verify(registryMock).subscribeCloseable(subscriber);
+    }
+
+    @Test
+    public void subscribeAll_calls_subscriber_registry()
+    {
+        List<Action0> subscribers = Arrays.asList(someAction0(), someAction0());
+
+        subject.subscribeAll(subscribers);
+
+        verify(registryMock).subscribeAll(subscribers);
+    }
+
+    @Test
+    public void unsubscribeAll_calls_subscriber_registry()
+    {
+        List<Action0> subscribers = Arrays.asList(someAction0(), someAction0());
+
+        subject.unsubscribeAll(subscribers);
+
+        verify(registryMock).unsubscribeAll(subscribers);
+    }
+
+    @Test
+    public void replaceSubscribers_calls_subscriber_registry()
+    {
+        List<Action0> subscribers = Arrays.asList(someAction0(), someAction0());
 
-        ArgumentCaptor<Consumer<Action0>> consumerArgument = (ArgumentCaptor) ArgumentCaptor.forClass(
-            Consumer.class);
-        verify(registryMock).callWithEachSubscriber(consumerArgument.capture());
+        subject.replaceSubscribers(subscribers);
+
+        verify(registryMock).replaceSubscribers(subscribers);
+    }
 
-        Action0 subscriberMock = mock(Action0.class);
+    @Test
+    public void accept_calls_subscribers()
+    {
+        subject.start();
 
-        consumerArgument.getValue().accept(subscriberMock);
-        verify(subscriberMock).start();
+        verify(registryMock).dispatch();
     }
 
     private static Action0 someAction0()
@@ -31,12 +31,10 @@ import net.objectzoo.delegates.Action2;
 import net.objectzoo.events.helpers.EventSubscriberHolder;
 import org.junit.Before;
 import org.junit.Test;
-import org.mockito.ArgumentCaptor;
-
-import java.util.function.Consumer;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @SuppressWarnings({ "rawtypes", "unchecked" })
 public class Event2CallerTest
@@ -73,18 +71,25 @@ public class Event2CallerTest
     @Test
     public void accept_calls_subscriber()
     {
+        Action2 subscriberMock = mock(Action2.class);
+        when(holderMock.getSubscriber()).thenReturn(subscriberMock);
         Object argument1 = new Object();
         Object argument2 = new Object();
+
         subject.accept(argument1, argument2);
 
-        ArgumentCaptor<Consumer<Action2>> consumerArgument = (ArgumentCaptor) ArgumentCaptor.forClass(
-            Consumer.class);
-        verify(holderMock).callWithSubscriber(consumerArgument.capture());
+        verify(subscriberMock).accept(argument1, argument2);
+    }
 
-        Action2 subscriberMock = mock(Action2.class);
+    @Test
+    public void accept_does_nothing_when_not_subscribed()
+    {
+        Object argument1 = new Object();
+        Object argument2 = new Object();
 
-        consumerArgument.getValue().accept(subscriberMock);
-        verify(subscriberMock).accept(argument1, argument2);
+        subject.accept(argument1, argument2);
+
+        verify(holderMock).getSubscriber();
     }
 
     private static Action2 someAction2()
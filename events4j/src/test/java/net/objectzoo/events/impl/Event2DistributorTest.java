@@ -28,20 +28,22 @@
 package net.objectzoo.events.impl;
 
 import net.objectzoo.delegates.Action2;
-import net.objectzoo.events.helpers.EventSubscriberRegistry;
+import net.objectzoo.events.helpers.ArrayEventSubscriberRegistry;
 import org.junit.Before;
 import org.junit.Test;
-import org.mockito.ArgumentCaptor;
 
-import java.util.function.Consumer;
+import java.util.Arrays;
+import java.util.List;
 
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
 @SuppressWarnings({ "rawtypes", "unchecked" })
 public class Event2DistributorTest
 {
-    private final EventSubscriberRegistry registryMock = mock(EventSubscriberRegistry.class);
+    private final ArrayEventSubscriberRegistry registryMock =
+        mock(ArrayEventSubscriberRegistry.class);
     private final Event2Distributor subject = new Event2Distributor();
 
     @Before
@@ -50,6 +52,14 @@ public class Event2DistributorTest
         subject.registry = registryMock;
     }
 
+    @Test
+    public void constructor_uses_given_registry()
+    {
+        Event2Distributor distributor = new Event2Distributor(registryMock);
+
+        assertSame(registryMock, distributor.registry);
+    }
+
     @Test
     public void subscribe_calls_subscriber_holder()
     {
@@ -71,6 +81,46 @@ public class Event2DistributorTest
 
     }
 
+    @Test
+    public void subscribeCloseable_calls_subscriber_registry()
+    {
+        Action2 subscriber = someAction2();
+
+        subject.subscribeCloseable(subscriber);
+
+        verify(registryMock).subscribeCloseable(subscriber);
+    }
+
+    @Test
+    public void subscribeAll_calls_subscriber_registry()
+    {
+        List<Action2> subscribers = Arrays.asList(someAction2(), someAction2());
+
+        subject.subscribeAll(subscribers);
+
+        verify(registryMock).subscribeAll(subscribers);
+    }
+
+    @Test
+    public void unsubscribeAll_calls_subscriber_registry()
+    {
+        List<Action2> subscribers = Arrays.asList(someAction2(), someAction2());
+
+        subject.unsubscribeAll(subscribers);
+
+        verify(registryMock).unsubscribeAll(subscribers);
+    }
+
+    @Test
+    public void replaceSubscribers_calls_subscriber_registry()
+    {
+        List<Action2> subscribers = Arrays.asList(someAction2(), someAction2());
+
+        subject.replaceSubscribers(subscribers);
+
+        verify(registryMock).replaceSubscribers(subscribers);
+    }
+
     @Test
     public void invoke_calls_subscribers()
     {
@@ -78,14 +128,7 @@ public class Event2DistributorTest
         Object argument2 = new Object();
         subject.accept(argument1, argument2);
 
-        ArgumentCaptor<Consumer<Action2>> consumerArgument = (ArgumentCaptor) ArgumentCaptor.forClass(
-            Consumer.class);
-        verify(registryMock).callWithEachSubscriber(consumerArgument.capture());
-
-        Action2 subscriberMock = mock(Action2.class);
-
-        consumerArgument.getValue().accept(subscriberMock);
-        verify(subscriberMock).accept(argument1, argument2);
+        verify(registryMock).dispatch(argument1, argument2);
     }
 
     private static Action2 someAction2()
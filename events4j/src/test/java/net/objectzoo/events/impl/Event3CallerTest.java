@@ -31,12 +31,10 @@ import net.objectzoo.delegates.Action3;
 import net.objectzoo.events.helpers.EventSubscriberHolder;
 import org.junit.Before;
 import org.junit.Test;
-import org.mockito.ArgumentCaptor;
-
-import java.util.function.Consumer;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @SuppressWarnings({ "rawtypes", "unchecked" })
 public class Event3CallerTest
@@ -73,19 +71,27 @@ public class Event3CallerTest
     @Test
     public void accept_calls_subscriber()
     {
+        Action3 subscriberMock = mock(Action3.class);
+        when(holderMock.getSubscriber()).thenReturn(subscriberMock);
         Object argument1 = new Object();
         Object argument2 = new Object();
         Object argument3 = new Object();
+
         subject.accept(argument1, argument2, argument3);
 
-        ArgumentCaptor<Consumer<Action3>> consumerArgument = (ArgumentCaptor) ArgumentCaptor.forClass(
-            Consumer.class);
-        verify(holderMock).callWithSubscriber(consumerArgument.capture());
+        verify(subscriberMock).accept(argument1, argument2, argument3);
+    }
 
-        Action3 subscriberMock = mock(Action3.class);
+    @Test
+    public void accept_does_nothing_when_not_subscribed()
+    {
+        Object argument1 = new Object();
+        Object argument2 = new Object();
+        Object argument3 = new Object();
 
-        consumerArgument.getValue().accept(subscriberMock);
-        verify(subscriberMock).accept(argument1, argument2, argument3);
+        subject.accept(argument1, argument2, argument3);
+
+        verify(holderMock).getSubscriber();
     }
 
     private static Action3 someAction3()
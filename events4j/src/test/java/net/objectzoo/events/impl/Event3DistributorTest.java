@@ -28,20 +28,22 @@
 package net.objectzoo.events.impl;
 
 import net.objectzoo.delegates.Action3;
-import net.objectzoo.events.helpers.EventSubscriberRegistry;
+import net.objectzoo.events.helpers.ArrayEventSubscriberRegistry;
 import org.junit.Before;
 import org.junit.Test;
-import org.mockito.ArgumentCaptor;
 
-import java.util.function.Consumer;
+import java.util.Arrays;
+import java.util.List;
 
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
 @SuppressWarnings({ "rawtypes", "unchecked" })
 public class Event3DistributorTest
 {
-    private final EventSubscriberRegistry registryMock = mock(EventSubscriberRegistry.class);
+    private final ArrayEventSubscriberRegistry registryMock =
+        mock(ArrayEventSubscriberRegistry.class);
     private final Event3Distributor subject = new Event3Distributor();
 
     @Before
@@ -50,6 +52,14 @@ public class Event3DistributorTest
         subject.registry = registryMock;
     }
 
+    @Test
+    public void constructor_uses_given_registry()
+    {
+        Event3Distributor distributor = new Event3Distributor(registryMock);
+
+        assertSame(registryMock, distributor.registry);
+    }
+
     @Test
     public void subscribe_calls_subscriber_holder()
     {
@@ -71,6 +81,46 @@ public class Event3DistributorTest
 
     }
 
+    @Test
+    public void subscribeCloseable_calls_subscriber_registry()
+    {
+        Action3 subscriber = someAction3();
+
+        subject.subscribeCloseable(subscriber);
+
+        verify(registryMock).subscribeCloseable(subscriber);
+    }
+
+    @Test
+    public void subscribeAll_calls_subscriber_registry()
+    {
+        List<Action3> subscribers = Arrays.asList(someAction3(), someAction3());
+
+        subject.subscribeAll(subscribers);
+
+        verify(registryMock).subscribeAll(subscribers);
+    }
+
+    @Test
+    public void unsubscribeAll_calls_subscriber_registry()
+    {
+        List<Action3> subscribers = Arrays.asList(someAction3(), someAction3());
+
+        subject.unsubscribeAll(subscribers);
+
+        verify(registryMock).unsubscribeAll(subscribers);
+    }
+
+    @Test
+    public void replaceSubscribers_calls_subscriber_registry()
+    {
+        List<Action3> subscribers = Arrays.asList(someAction3(), someAction3());
+
+        subject.replaceSubscribers(subscribers);
+
+        verify(registryMock).replaceSubscribers(subscribers);
+    }
+
     @Test
     public void accept_calls_subscribers()
     {
@@ -79,14 +129,7 @@ public class Event3DistributorTest
         Object argument3 = new Object();
         subject.accept(argument1, argument2, argument3);
 
-        ArgumentCaptor<Consumer<Action3>> consumerArgument = (ArgumentCaptor) ArgumentCaptor.forClass(
-            Consumer.class);
-        verify(registryMock).callWithEachSubscriber(consumerArgument.capture());
-
-        Action3 subscriberMock = mock(Action3.class);
-
-        consumerArgument.getValue().accept(subscriberMock);
-        verify(subscriberMock).accept(argument1, argument2, argument3);
+        verify(registryMock).dispatch(argument1, argument2, argument3);
     }
 
     private static Action3 someAction3()
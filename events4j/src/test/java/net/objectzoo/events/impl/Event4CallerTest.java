@@ -31,12 +31,10 @@ import net.objectzoo.delegates.Action4;
 import net.objectzoo.events.helpers.EventSubscriberHolder;
 import org.junit.Before;
 import org.junit.Test;
-import org.mockito.ArgumentCaptor;
-
-import java.util.function.Consumer;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @SuppressWarnings({ "rawtypes", "unchecked" })
 public class Event4CallerTest
@@ -73,20 +71,29 @@ public class Event4CallerTest
     @Test
     public void accept_calls_subscriber()
     {
+        Action4 subscriberMock = mock(Action4.class);
+        when(holderMock.getSubscriber()).thenReturn(subscriberMock);
         Object argument1 = new Object();
         Object argument2 = new Object();
         Object argument3 = new Object();
         Object argument4 = new Object();
+
         subject.accept(argument1, argument2, argument3, argument4);
 
-        ArgumentCaptor<Consumer<Action4>> consumerArgument = (ArgumentCaptor) ArgumentCaptor.forClass(
-            Consumer.class);
-        verify(holderMock).callWithSubscriber(consumerArgument.capture());
+        verify(subscriberMock).accept(argument1, argument2, argument3, argument4);
+    }
 
-        Action4 subscriberMock = mock(Action4.class);
+    @Test
+    public void accept_does_nothing_when_not_subscribed()
+    {
+        Object argument1 = new Object();
+        Object argument2 = new Object();
+        Object argument3 = new Object();
+        Object argument4 = new Object();
 
-        consumerArgument.getValue().accept(subscriberMock);
-        verify(subscriberMock).accept(argument1, argument2, argument3, argument4);
+        subject.accept(argument1, argument2, argument3, argument4);
+
+        verify(holderMock).getSubscriber();
     }
 
     private static Action4 someAction4()
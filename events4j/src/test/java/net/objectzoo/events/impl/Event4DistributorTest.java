@@ -28,20 +28,22 @@
 package net.objectzoo.events.impl;
 
 import net.objectzoo.delegates.Action4;
-import net.objectzoo.events.helpers.EventSubscriberRegistry;
+import net.objectzoo.events.helpers.ArrayEventSubscriberRegistry;
 import org.junit.Before;
 import org.junit.Test;
-import org.mockito.ArgumentCaptor;
 
-import java.util.function.Consumer;
+import java.util.Arrays;
+import java.util.List;
 
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
 @SuppressWarnings({ "rawtypes", "unchecked" })
 public class Event4DistributorTest
 {
-    private final EventSubscriberRegistry registryMock = mock(EventSubscriberRegistry.class);
+    private final ArrayEventSubscriberRegistry registryMock =
+        mock(ArrayEventSubscriberRegistry.class);
     private final Event4Distributor subject = new Event4Distributor();
 
     @Before
@@ -50,6 +52,14 @@ public class Event4DistributorTest
         subject.registry = registryMock;
     }
 
+    @Test
+    public void constructor_uses_given_registry()
+    {
+        Event4Distributor distributor = new Event4Distributor(registryMock);
+
+        assertSame(registryMock, distributor.registry);
+    }
+
     @Test
     public void subscribe_calls_subscriber_holder()
     {
@@ -71,6 +81,46 @@ public class Event4DistributorTest
 
     }
 
+    @Test
+    public void subscribeCloseable_calls_subscriber_registry()
+    {
+        Action4 subscriber = someAction4();
+
+        subject.subscribeCloseable(subscriber);
+
+        verify(registryMock).subscribeCloseable(subscriber);
+    }
+
+    @Test
+    public void subscribeAll_calls_subscriber_registry()
+    {
+        List<Action4> subscribers = Arrays.asList(someAction4(), someAction4());
+
+        subject.subscribeAll(subscribers);
+
+        verify(registryMock).subscribeAll(subscribers);
+    }
+
+    @Test
+    public void unsubscribeAll_calls_subscriber_registry()
+    {
+        List<Action4> subscribers = Arrays.asList(someAction4(), someAction4());
+
+        subject.unsubscribeAll(subscribers);
+
+        verify(registryMock).unsubscribeAll(subscribers);
+    }
+
+    @Test
+    public void replaceSubscribers_calls_subscriber_registry()
+    {
+        List<Action4> subscribers = Arrays.asList(someAction4(), someAction4());
+
+        subject.replaceSubscribers(subscribers);
+
+        verify(registryMock).replaceSubscribers(subscribers);
+    }
+
     @Test
     public void accept_calls_subscribers()
     {
@@ -80,14 +130,7 @@ public class Event4DistributorTest
         Object argument4 = new Object();
         subject.accept(argument1, argument2, argument3, argument4);
 
-        ArgumentCaptor<Consumer<Action4>> consumerArgument = (ArgumentCaptor) ArgumentCaptor.forClass(
-            Consumer.class);
-        verify(registryMock).callWithEachSubscriber(consumerArgument.capture());
-
-        Action4 subscriberMock = mock(Action4.class);
-
-        consumerArgument.getValue().accept(subscriberMock);
-        verify(subscriberMock).accept(argument1, argument2, argument3, argument4);
+        verify(registryMock).dispatch(argument1, argument2, argument3, argument4);
     }
 
     private static Action4 someAction4()
@@ -31,12 +31,10 @@ import net.objectzoo.delegates.Action;
 import net.objectzoo.events.helpers.EventSubscriberHolder;
 import org.junit.Before;
 import org.junit.Test;
-import org.mockito.ArgumentCaptor;
-
-import java.util.function.Consumer;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @SuppressWarnings({ "rawtypes", "unchecked" })
 public class EventCallerTest
@@ -73,17 +71,23 @@ public class EventCallerTest
     @Test
     public void accept_calls_subscriber()
     {
+        Action subscriberMock = mock(Action.class);
+        when(holderMock.getSubscriber()).thenReturn(subscriberMock);
         Object argument1 = new Object();
+
         subject.accept(argument1);
 
-        ArgumentCaptor<Consumer<Action>> consumerArgument = (ArgumentCaptor) ArgumentCaptor.forClass(
-            Consumer.class);
-        verify(holderMock).callWithSubscriber(consumerArgument.capture());
+        verify(subscriberMock).accept(argument1);
+    }
 
-        Action subscriberMock = mock(Action.class);
+    @Test
+    public void accept_does_nothing_when_not_subscribed()
+    {
+        Object argument1 = new Object();
 
-        consumerArgument.getValue().accept(subscriberMock);
-        verify(subscriberMock).accept(argument1);
+        subject.accept(argument1);
+
+        verify(holderMock).getSubscriber();
     }
 
     private static Action someAction()
@@ -28,20 +28,22 @@
 package net.objectzoo.events.impl;
 
 import net.objectzoo.delegates.Action;
-import net.objectzoo.events.helpers.EventSubscriberRegistry;
+import net.objectzoo.events.helpers.ArrayEventSubscriberRegistry;
 import org.junit.Before;
 import org.junit.Test;
-import org.mockito.ArgumentCaptor;
 
-import java.util.function.Consumer;
+import java.util.Arrays;
+import java.util.List;
 
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
 @SuppressWarnings({ "rawtypes", "unchecked" })
 public class EventDistributorTest
 {
-    private final EventSubscriberRegistry registryMock = mock(EventSubscriberRegistry.class);
+    private final ArrayEventSubscriberRegistry registryMock =
+        mock(ArrayEventSubscriberRegistry.class);
     private final EventDistributor subject = new EventDistributor();
 
     @Before
@@ -50,6 +52,14 @@ public class EventDistributorTest
         subject.registry = registryMock;
     }
 
+    @Test
+    public void constructor_uses_given_registry()
+    {
+        EventDistributor distributor = new EventDistributor(registryMock);
+
+        assertSame(registryMock, distributor.registry);
+    }
+
     @Test
     public void subscribe_calls_subscriber_holder()
     {
@@ -71,20 +81,53 @@ public class EventDistributorTest
 
     }
 
+    @Test
+    public void subscribeCloseable_calls_subscriber_registry()
+    {
+        Action subscriber = someAction();
+
+        subject.subscribeCloseable(subscriber);
+
+        verify(registryMock).subscribeCloseable(subscriber);
+    }
+
+    @Test
+    public void subscribeAll_calls_subscriber_registry()
+    {
+        List<Action> subscribers = Arrays.asList(someAction(), someAction());
+
+        subject.subscribeAll(subscribers);
+
+        verify(registryMock).subscribeAll(subscribers);
+    }
+
+    @Test
+    public void unsubscribeAll_calls_subscriber_registry()
+    {
+        List<Action> subscribers = Arrays.asList(someAction(), someAction());
+
+        subject.unsubscribeAll(subscribers);
+
+        verify(registryMock).unsubscribeAll(subscribers);
+    }
+
+    @Test
+    public void replaceSubscribers_calls_subscriber_registry()
+    {
+        List<Action> subscribers = Arrays.asList(someAction(), someAction());
+
+        subject.replaceSubscribers(subscribers);
+
+        verify(registryMock).replaceSubscribers(subscribers);
+    }
+
     @Test
     public void accept_calls_subscribers()
     {
         Object argument1 = new Object();
         subject.accept(argument1);
 
-        ArgumentCaptor<Consumer<Action>> consumerArgument = (ArgumentCaptor) ArgumentCaptor.forClass(
-            Consumer.class);
-        verify(registryMock).callWithEachSubscriber(consumerArgument.capture());
-
-        Action subscriberMock = mock(Action.class);
-
-        consumerArgument.getValue().accept(subscriberMock);
-        verify(subscriberMock).accept(argument1);
+        verify(registryMock).dispatch(argument1);
     }
 
     private static Action someAction()